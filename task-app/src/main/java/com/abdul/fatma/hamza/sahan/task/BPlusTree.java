@@ -15,29 +15,222 @@ package com.abdul.fatma.hamza.sahan.task;
 
 import java.util.*;
 import java.util.Scanner;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @class BPlusTree
  * @brief A self-balancing B+ Tree for managing scheduled tasks.
  *
- * The `BPlusTree` class provides efficient insertion, searching, and viewing of tasks
- * sorted by their deadlines. Tasks are stored in leaf nodes of the tree, and searching
- * supports range queries.
+ * The `BPlusTree` class provides efficient insertion, deletion, searching, and viewing of
+ * tasks sorted by their deadlines. Tasks are stored in leaf nodes of the tree, which are
+ * linked in key order so that range queries descend once and then walk the leaves.
+ *
+ * Every node holds at most `order` keys; every node except the root holds at least
+ * `order / 2`. A full node is split on insert, and an underfull node borrows from or is
+ * merged with a sibling on delete. Several tasks may share a deadline: equal keys stay
+ * in insertion order and may span several leaves. Child `i` of an internal node holds
+ * the keys between separators `i - 1` and `i`, both inclusive.
  */
 public class BPlusTree {
 
+    /** @brief Order used by the no-argument constructor. */
+    public static final int DEFAULT_ORDER = 32;
+
+    /** @brief Fill factor of bulk-loaded nodes when none is given. */
+    public static final double DEFAULT_FILL_FACTOR = 0.9;
+
+    /** @brief Smallest supported order. */
+    public static final int MIN_ORDER = 3;
+
     /** @brief The root node of the B+ Tree. */
     BPlusTreeNode root;
 
+    /** @brief Maximum number of keys per node. */
+    private final int order;
+
+    /** @brief Number of tasks in the tree. */
+    private int size;
+
+    /** @brief Number of inserts and deletes; lets range iterators detect changes. */
+    int modCount;
+
     /**
      * @brief Constructs a `BPlusTree` instance.
      *
-     * Initializes the tree with an empty leaf node as the root.
+     * Initializes the tree with an empty leaf node as the root and `DEFAULT_ORDER` keys
+     * per node.
      */
     public BPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * @brief Constructs a `BPlusTree` with a given order.
+     *
+     * @param order Maximum number of keys per node, at least `MIN_ORDER`.
+     * @throws IllegalArgumentException If the order is too small.
+     */
+    public BPlusTree(int order) {
+        if (order < MIN_ORDER) {
+            throw new IllegalArgumentException("B+ tree order must be at least " + MIN_ORDER + ": " + order);
+        }
+        this.order = order;
         this.root = new BPlusTreeNode(true); // Root starts as a leaf node
     }
 
+    /**
+     * @brief Constructs a `BPlusTree` from a collection of tasks in one bottom-up pass.
+     *
+     * The tasks are sorted by deadline key with a stable sort, which takes linear time
+     * if they are already in order, and then packed as by `fromSorted`.
+     *
+     * @param order Maximum number of keys per node, at least `MIN_ORDER`.
+     * @param fillFactor Fraction of `order` to fill each node with, in `(0, 1]`.
+     * @param tasks The tasks; tasks with the same deadline keep their relative order.
+     * @throws IllegalArgumentException If the order or the fill factor is out of range.
+     */
+    public BPlusTree(int order, double fillFactor, Collection<? extends ScheduledTask> tasks) {
+        this(order);
+        List<ScheduledTask> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparingInt(task -> getDateKey(task.getDay(), task.getMonth(), task.getYear())));
+        bulkLoad(fillFactor, sorted.iterator());
+    }
+
+    /**
+     * @brief Builds a `BPlusTree` from tasks that are already sorted by deadline.
+     *
+     * Leaves are filled left to right to `fillFactor * order` keys and linked as they
+     * are created; then each internal level is built from the level below in one pass.
+     * This is linear in the number of tasks, where inserting them one by one costs
+     * `O(n log n)` and splits most nodes. Any sorted source works, e.g. assignments
+     * drained from the deadline heap and converted to scheduled tasks.
+     *
+     * @param order Maximum number of keys per node, at least `MIN_ORDER`.
+     * @param fillFactor Fraction of `order` to fill each node with, in `(0, 1]`. The
+     *        last node of a level may be fuller or emptier so that every node keeps at
+     *        least `order / 2` keys.
+     * @param sorted The tasks in deadline order.
+     * @return The tree.
+     * @throws IllegalArgumentException If the tasks are not sorted or a parameter is out
+     *         of range.
+     */
+    public static BPlusTree fromSorted(int order, double fillFactor, Iterator<? extends ScheduledTask> sorted) {
+        BPlusTree tree = new BPlusTree(order);
+        tree.bulkLoad(fillFactor, sorted);
+        return tree;
+    }
+
+    /**
+     * @brief Returns the number of keys a bulk-loaded node gets.
+     *
+     * @param capacity Most keys of a node.
+     * @param minimum Fewest keys of a node.
+     * @param fillFactor Fraction of the capacity to use, in `(0, 1]`.
+     */
+    static int fillTarget(int capacity, int minimum, double fillFactor) {
+        if (!(fillFactor > 0 && fillFactor <= 1)) {
+            throw new IllegalArgumentException("Fill factor must be in (0, 1]: " + fillFactor);
+        }
+        return Math.max(Math.max(1, minimum), Math.min(capacity, (int) Math.round(capacity * fillFactor)));
+    }
+
+    /**
+     * @brief Splits `n` items into groups of `target`, fixing up the last group.
+     *
+     * If the last group would have fewer than `minimum` items, it is combined with the
+     * one before: into one group if that fits in `maximum`, otherwise into two halves.
+     *
+     * @param n Number of items.
+     * @param target Items per group.
+     * @param maximum Most items of a group, at least `2 * minimum - 1`.
+     * @param minimum Fewest items of a group other than a single group.
+     * @return The group sizes, in order.
+     */
+    static int[] groupSizes(int n, int target, int maximum, int minimum) {
+        int groups = Math.max(1, (n + target - 1) / target);
+        int[] sizes = new int[groups];
+        Arrays.fill(sizes, target);
+        sizes[groups - 1] = n - target * (groups - 1);
+        if (groups > 1 && sizes[groups - 1] < minimum) {
+            int total = sizes[groups - 2] + sizes[groups - 1];
+            if (total <= maximum) {
+                sizes = Arrays.copyOf(sizes, groups - 1);
+                sizes[groups - 2] = total;
+            } else {
+                sizes[groups - 2] = total / 2;
+                sizes[groups - 1] = total - total / 2;
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * @brief Fills the empty tree from sorted tasks.
+     */
+    private void bulkLoad(double fillFactor, Iterator<? extends ScheduledTask> sorted) {
+        int leafTarget = fillTarget(order, minKeys(), fillFactor);
+        List<BPlusTreeNode> level = new ArrayList<>();
+        BPlusTreeNode leaf = newNode(true);
+        int previousKey = Integer.MIN_VALUE;
+        while (sorted.hasNext()) {
+            ScheduledTask task = sorted.next();
+            int key = getDateKey(task.getDay(), task.getMonth(), task.getYear());
+            if (key < previousKey) {
+                throw new IllegalArgumentException("Tasks are not sorted by deadline: " + key + " after " + previousKey);
+            }
+            previousKey = key;
+            if (leaf.keyCount == leafTarget) {
+                level.add(leaf);
+                BPlusTreeNode next = newNode(true);
+                leaf.next = next;
+                leaf = next;
+            }
+            leaf.insertKey(leaf.keyCount, key);
+            leaf.insertTask(leaf.taskCount, task);
+            size++;
+        }
+        level.add(leaf);
+
+        // The last leaf may be short; share entries with the one before it
+        if (level.size() > 1 && leaf.keyCount < minKeys()) {
+            BPlusTreeNode previous = level.get(level.size() - 2);
+            leaf.moveTailTo(previous, 0, 0);
+            int total = previous.keyCount;
+            if (total <= order) {
+                previous.next = null;
+                level.remove(level.size() - 1);
+            } else {
+                previous.moveTailTo(leaf, total / 2, 0);
+            }
+        }
+
+        int[] minKeys = new int[level.size()];
+        for (int i = 0; i < minKeys.length; i++) {
+            minKeys[i] = level.get(i).keyCount > 0 ? level.get(i).key(0) : 0;
+        }
+        int childTarget = fillTarget(order, minKeys(), fillFactor) + 1;
+        while (level.size() > 1) {
+            int[] sizes = groupSizes(level.size(), childTarget, order + 1, minKeys() + 1);
+            List<BPlusTreeNode> parents = new ArrayList<>(sizes.length);
+            int[] parentMinKeys = new int[sizes.length];
+            int child = 0;
+            for (int g = 0; g < sizes.length; g++) {
+                BPlusTreeNode parent = newNode(false);
+                parentMinKeys[g] = minKeys[child];
+                parent.insertChild(0, level.get(child++));
+                for (int j = 1; j < sizes[g]; j++, child++) {
+                    parent.insertKey(parent.keyCount, minKeys[child]);
+                    parent.insertChild(parent.childCount, level.get(child));
+                }
+                parents.add(parent);
+            }
+            level = parents;
+            minKeys = parentMinKeys;
+        }
+        root = level.get(0);
+    }
+
     /**
      * @brief Converts a date into a unique integer key.
      *
@@ -53,79 +246,442 @@ public class BPlusTree {
         return year * 10000 + month * 100 + day;
     }
 
+    /**
+     * @brief Returns the maximum number of keys per node.
+     * @return The order of the tree.
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * @brief Returns the number of tasks in the tree.
+     * @return The task count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Returns the number of levels of the tree.
+     * @return `1` for a tree whose root is a leaf.
+     */
+    public int height() {
+        int height = 1;
+        for (BPlusTreeNode node = root; !node.isLeaf; node = node.childArray[0]) {
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * @brief Creates an empty node with room for one key more than the order.
+     */
+    private BPlusTreeNode newNode(boolean isLeaf) {
+        return new BPlusTreeNode(isLeaf, order + 1);
+    }
+
     /**
      * @brief Inserts a task into a leaf node.
      *
-     * Adds a task at the correct position in the leaf node based on its deadline key.
+     * Adds a task at the correct position in the leaf node based on its deadline key,
+     * after any tasks with the same key.
      *
      * @param leaf The leaf node where the task will be inserted.
-     * @param key The unique date key representing the task's deadline.
+     * @param key The date key representing the task's deadline.
      * @param task The `ScheduledTask` object to be inserted.
      */
     public void insertInLeaf(BPlusTreeNode leaf, int key, ScheduledTask task) {
-        int i = 0;
-        while (i < leaf.keys.size() && leaf.keys.get(i) < key) {
-            i++;
-        }
-        leaf.keys.add(i, key);
-        leaf.tasks.add(i, task);
+        int i = leaf.upperBound(key);
+        leaf.insertKey(i, key);
+        leaf.insertTask(i, task);
     }
 
     /**
      * @brief Inserts a task into the B+ Tree.
      *
-     * Inserts a task into the root node if there is space. If the node is full,
-     * further splitting logic would need to be implemented.
+     * Descends to the leaf for the task's deadline and inserts it there. Nodes that
+     * overflow are split on the way back up; a split root adds a level to the tree.
      *
      * @param task The `ScheduledTask` object to be inserted.
      */
     public void insertInBPlusTree(ScheduledTask task) {
         int key = getDateKey(task.getDay(), task.getMonth(), task.getYear());
-        BPlusTreeNode root = this.root;
+        BPlusTreeNode sibling = insert(root, key, task);
+        if (sibling != null) {
+            BPlusTreeNode newRoot = newNode(false);
+            newRoot.insertKey(0, sibling.key(0));
+            newRoot.insertChild(0, root);
+            newRoot.insertChild(1, sibling);
+            if (!sibling.isLeaf) {
+                sibling.removeKey(0);
+            }
+            root = newRoot;
+        }
+        size++;
+        modCount++;
+    }
+
+    /**
+     * @brief Inserts into a subtree.
+     *
+     * @return The new right sibling if `node` was split, otherwise `null`. The separator
+     *         of an internal sibling is still its first key; the caller moves it up.
+     */
+    private BPlusTreeNode insert(BPlusTreeNode node, int key, ScheduledTask task) {
+        if (node.isLeaf) {
+            insertInLeaf(node, key, task);
+            return node.keyCount > order ? splitLeaf(node) : null;
+        }
+        int i = node.upperBound(key);
+        BPlusTreeNode sibling = insert(node.childArray[i], key, task);
+        if (sibling == null) {
+            return null;
+        }
+        node.insertKey(i, sibling.key(0));
+        node.insertChild(i + 1, sibling);
+        if (!sibling.isLeaf) {
+            sibling.removeKey(0);
+        }
+        return node.keyCount > order ? splitInternal(node) : null;
+    }
+
+    /**
+     * @brief Moves the upper half of an overfull leaf into a new leaf.
+     */
+    private BPlusTreeNode splitLeaf(BPlusTreeNode leaf) {
+        BPlusTreeNode right = newNode(true);
+        leaf.moveTailTo(right, leaf.keyCount / 2, 0);
+        right.next = leaf.next;
+        leaf.next = right;
+        return right;
+    }
+
+    /**
+     * @brief Moves the keys after the middle key and their children into a new node.
+     *
+     * The middle key stays as the first key of the new node until the caller moves it
+     * into the parent.
+     */
+    private BPlusTreeNode splitInternal(BPlusTreeNode node) {
+        int mid = node.keyCount / 2;
+        BPlusTreeNode right = newNode(false);
+        node.moveTailTo(right, mid, mid + 1);
+        return right;
+    }
+
+    /**
+     * @brief Removes a task from the B+ Tree.
+     *
+     * Nodes that become underfull borrow a key from a sibling or are merged with it; an
+     * empty internal root is replaced by its only child.
+     *
+     * @param task The task to remove, compared by identity.
+     * @return `true` if the task was found and removed.
+     */
+    public boolean deleteFromBPlusTree(ScheduledTask task) {
+        int key = getDateKey(task.getDay(), task.getMonth(), task.getYear());
+        return delete(key, task);
+    }
+
+    /**
+     * @brief Removes the first task with a deadline key.
+     *
+     * @param key The date key.
+     * @return `true` if a task with this key was removed.
+     */
+    public boolean deleteKey(int key) {
+        return delete(key, null);
+    }
+
+    private boolean delete(int key, ScheduledTask task) {
+        if (!delete(root, key, task)) {
+            return false;
+        }
+        if (!root.isLeaf && root.keyCount == 0) {
+            root = root.childArray[0];
+        }
+        size--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * @brief Removes a task from a subtree and rebalances the child it was found in.
+     *
+     * Equal keys may span several children, so every child whose range contains the key
+     * is tried in order.
+     *
+     * @param task The task to remove, or `null` for the first task with the key.
+     */
+    private boolean delete(BPlusTreeNode node, int key, ScheduledTask task) {
+        if (node.isLeaf) {
+            for (int i = node.lowerBound(key); i < node.keyCount && node.keyArray[i] == key; i++) {
+                if (task == null || node.taskArray[i] == task) {
+                    node.removeKey(i);
+                    node.removeTask(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+        int last = node.upperBound(key);
+        for (int i = node.lowerBound(key); i <= last; i++) {
+            if (delete(node.childArray[i], key, task)) {
+                if (node.childArray[i].keyCount < minKeys()) {
+                    rebalance(node, i);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @brief Returns the fewest keys a node other than the root may hold.
+     */
+    private int minKeys() {
+        return order / 2;
+    }
 
-        if (root.keys.size() < 3) { // Simplified: Assumes max 3 keys per node
-            insertInLeaf(root, key, task);
+    /**
+     * @brief Fixes an underfull child by borrowing from or merging with a sibling.
+     */
+    private void rebalance(BPlusTreeNode parent, int i) {
+        BPlusTreeNode child = parent.childArray[i];
+        BPlusTreeNode left = i > 0 ? parent.childArray[i - 1] : null;
+        BPlusTreeNode right = i + 1 < parent.childCount ? parent.childArray[i + 1] : null;
+
+        if (left != null && left.keyCount > minKeys()) {
+            borrowFromLeft(parent, i, left, child);
+        } else if (right != null && right.keyCount > minKeys()) {
+            borrowFromRight(parent, i, child, right);
+        } else if (left != null) {
+            merge(parent, i - 1, left, child);
+        } else if (right != null) {
+            merge(parent, i, child, right);
+        }
+    }
+
+    private void borrowFromLeft(BPlusTreeNode parent, int i, BPlusTreeNode left, BPlusTreeNode child) {
+        int last = left.keyCount - 1;
+        if (child.isLeaf) {
+            child.insertKey(0, left.removeKey(last));
+            child.insertTask(0, left.removeTask(last));
+            parent.keyArray[i - 1] = child.keyArray[0];
+        } else {
+            child.insertKey(0, parent.keyArray[i - 1]);
+            child.insertChild(0, left.removeChild(last + 1));
+            parent.keyArray[i - 1] = left.removeKey(last);
+        }
+    }
+
+    private void borrowFromRight(BPlusTreeNode parent, int i, BPlusTreeNode child, BPlusTreeNode right) {
+        if (child.isLeaf) {
+            child.insertKey(child.keyCount, right.removeKey(0));
+            child.insertTask(child.taskCount, right.removeTask(0));
+            parent.keyArray[i] = right.keyArray[0];
+        } else {
+            child.insertKey(child.keyCount, parent.keyArray[i]);
+            child.insertChild(child.childCount, right.removeChild(0));
+            parent.keyArray[i] = right.removeKey(0);
+        }
+    }
+
+    /**
+     * @brief Appends `right` to `left` and removes it and its separator from the parent.
+     */
+    private void merge(BPlusTreeNode parent, int leftIndex, BPlusTreeNode left, BPlusTreeNode right) {
+        int separator = parent.removeKey(leftIndex);
+        parent.removeChild(leftIndex + 1);
+        if (left.isLeaf) {
+            right.moveTailTo(left, 0, 0);
+            left.next = right.next;
         } else {
-            System.out.println("Node splitting required. Implement split logic here.");
+            left.insertKey(left.keyCount, separator);
+            right.moveTailTo(left, 0, 0);
+        }
+    }
+
+    /**
+     * @brief Descends to the leftmost leaf that may hold `key`.
+     *
+     * @param node The subtree to search.
+     * @param key The date key.
+     * @return The leaf.
+     */
+    BPlusTreeNode findLeaf(BPlusTreeNode node, int key) {
+        while (!node.isLeaf) {
+            node = node.childArray[node.lowerBound(key)];
+        }
+        return node;
+    }
+
+    /**
+     * @brief Collects the tasks with a deadline key in a range.
+     *
+     * Descends once to the first matching leaf and walks the leaf chain, so the cost is
+     * `O(log n + k)` for `k` results.
+     *
+     * @param startKey The start date key, inclusive.
+     * @param endKey The end date key, inclusive.
+     * @return The tasks in deadline order; tasks with the same deadline in insertion order.
+     */
+    public List<ScheduledTask> rangeSearch(int startKey, int endKey) {
+        List<ScheduledTask> result = new ArrayList<>();
+        BPlusTreeNode leaf = findLeaf(root, startKey);
+        int i = leaf.lowerBound(startKey);
+        while (leaf != null) {
+            int[] keys = leaf.keyArray;
+            for (int n = leaf.keyCount; i < n; i++) {
+                if (keys[i] > endKey) {
+                    return result;
+                }
+                result.add(leaf.taskArray[i]);
+            }
+            leaf = leaf.next;
+            i = 0;
         }
+        return result;
+    }
+
+    /**
+     * @brief Returns the tasks due on one day.
+     *
+     * @param key The date key.
+     * @return The tasks in insertion order.
+     */
+    public List<ScheduledTask> search(int key) {
+        return rangeSearch(key, key);
+    }
+
+    /**
+     * @brief Returns a lazy iterator over the tasks with a deadline key in a range.
+     *
+     * @param startKey The start date key, inclusive.
+     * @param endKey The end date key, inclusive.
+     * @return The tasks in deadline order; tasks with the same deadline in insertion order.
+     */
+    public Iterator<ScheduledTask> rangeIterator(int startKey, int endKey) {
+        return rangeIterator(startKey, endKey, 0, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * @brief Returns a lazy iterator over one page of the tasks in a range.
+     *
+     * The tree is descended once; the iterator then walks the leaves and reads no
+     * further than the last task it returns. In descending order tasks with the same
+     * deadline come latest inserted first.
+     *
+     * @param startKey The start date key, inclusive.
+     * @param endKey The end date key, inclusive.
+     * @param offset Number of tasks to skip, in iteration order.
+     * @param limit Largest number of tasks to return.
+     * @param descending `true` to return the latest deadlines first.
+     * @return The iterator; it fails with `ConcurrentModificationException` if the tree
+     *         is changed while it is in use.
+     * @throws IllegalArgumentException If the offset or limit is negative.
+     */
+    public Iterator<ScheduledTask> rangeIterator(int startKey, int endKey, long offset, long limit, boolean descending) {
+        return new BPlusTreeRangeIterator(this, root, startKey, endKey, offset, limit, descending);
+    }
+
+    /**
+     * @brief Returns a spliterator over the tasks with a deadline key in a range.
+     *
+     * The spliterator splits the range along the separators of the tree, so a parallel
+     * stream works on disjoint runs of leaves.
+     *
+     * @param startKey The start date key, inclusive.
+     * @param endKey The end date key, inclusive.
+     * @return An `ORDERED` spliterator in deadline order.
+     */
+    public Spliterator<ScheduledTask> rangeSpliterator(int startKey, int endKey) {
+        return new BPlusTreeSpliterator(this, startKey, endKey);
+    }
+
+    /**
+     * @brief Returns a stream of the tasks with a deadline key in a range.
+     *
+     * @param startKey The start date key, inclusive.
+     * @param endKey The end date key, inclusive.
+     * @param parallel `true` for a parallel stream.
+     * @return The tasks in deadline order.
+     */
+    public Stream<ScheduledTask> rangeStream(int startKey, int endKey, boolean parallel) {
+        return StreamSupport.stream(rangeSpliterator(startKey, endKey), parallel);
     }
 
     /**
      * @brief Searches for tasks within a date range in the B+ Tree.
      *
-     * Traverses the tree nodes to find and print tasks whose deadlines fall
-     * within the specified range.
+     * Prints the tasks yielded by a range iterator over the subtree.
      *
-     * @param node The current node being searched.
+     * @param node The node to start the search from, normally the root.
      * @param startKey The start date key of the search range.
      * @param endKey The end date key of the search range.
      */
     public void searchInDateRange(BPlusTreeNode node, int startKey, int endKey) {
         if (node == null) return;
 
-        int i = 0;
-        while (i < node.keys.size() && node.keys.get(i) < startKey) {
-            i++;
+        Iterator<ScheduledTask> tasks = new BPlusTreeRangeIterator(this, node, startKey, endKey, 0, Long.MAX_VALUE, false);
+        while (tasks.hasNext()) {
+            ScheduledTask task = tasks.next();
+            System.out.printf("Task: %s, Deadline: %02d/%02d/%04d\n",
+                    task.getName(),
+                    task.getDay(),
+                    task.getMonth(),
+                    task.getYear());
         }
+    }
 
-        if (node.isLeaf) {
-            while (i < node.keys.size() && node.keys.get(i) <= endKey) {
-                ScheduledTask task = node.tasks.get(i);
-                System.out.printf("Task: %s, Deadline: %02d/%02d/%04d\n",
-                        task.getName(),
-                        task.getDay(),
-                        task.getMonth(),
-                        task.getYear());
-                i++;
+    /**
+     * @brief Checks the structural invariants of the tree.
+     *
+     * Verifies key order, node fill, equal leaf depth, separator ranges, the leaf chain
+     * and the task count.
+     *
+     * @throws IllegalStateException If an invariant is violated.
+     */
+    void checkStructure() {
+        List<BPlusTreeNode> leaves = new ArrayList<>();
+        check(root, Integer.MIN_VALUE, Integer.MAX_VALUE, 1, height(), leaves);
+        int count = 0;
+        for (int i = 0; i < leaves.size(); i++) {
+            BPlusTreeNode expectedNext = i + 1 < leaves.size() ? leaves.get(i + 1) : null;
+            if (leaves.get(i).next != expectedNext) {
+                throw new IllegalStateException("Broken leaf chain at leaf " + i);
             }
-            if (node.next != null && node.keys.get(node.keys.size() - 1) <= endKey) {
-                searchInDateRange(node.next, startKey, endKey);
+            count += leaves.get(i).keys.size();
+        }
+        if (count != size) {
+            throw new IllegalStateException("Size " + size + " but " + count + " keys in leaves");
+        }
+    }
+
+    private void check(BPlusTreeNode node, int low, int high, int depth, int height, List<BPlusTreeNode> leaves) {
+        if (node.keys.size() > order || (node != root && node.keys.size() < minKeys())) {
+            throw new IllegalStateException("Node with " + node.keys.size() + " keys");
+        }
+        for (int i = 0; i < node.keys.size(); i++) {
+            int key = node.keys.get(i);
+            if (key < low || key > high || (i > 0 && key < node.keys.get(i - 1))) {
+                throw new IllegalStateException("Key " + key + " out of order");
             }
-        } else {
-            while (i < node.children.size()) {
-                searchInDateRange(node.children.get(i), startKey, endKey);
-                i++;
+        }
+        if (node.isLeaf) {
+            if (depth != height || node.tasks.size() != node.keys.size()) {
+                throw new IllegalStateException("Leaf at depth " + depth + " of " + height);
             }
+            leaves.add(node);
+            return;
+        }
+        if (node.children.size() != node.keys.size() + 1) {
+            throw new IllegalStateException("Internal node with " + node.children.size() + " children");
+        }
+        for (int i = 0; i < node.children.size(); i++) {
+            check(node.children.get(i), i == 0 ? low : node.keys.get(i - 1),
+                    i == node.keys.size() ? high : node.keys.get(i), depth + 1, height, leaves);
         }
     }
 
@@ -0,0 +1,374 @@
+/**
+ * @file BPlusTreeBenchmark.java
+ * @brief Throughput comparison of the boxed and primitive B+ tree node layouts.
+ *
+ * This class fills a deadline B+ tree with synthetic scheduled tasks and runs range
+ * queries over it, once with nodes that keep their keys in `List<Integer>` and once
+ * with `BPlusTree`, whose nodes keep them in `int[]`. It reports inserts and scanned
+ * tasks per second.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @class BPlusTreeBenchmark
+ * @brief Static helpers to generate deadlines and time both node layouts.
+ */
+public final class BPlusTreeBenchmark {
+
+    /** @brief Tree sizes used by `main` when none are given. */
+    public static final int[] DEFAULT_SIZES = {100_000, 1_000_000, 10_000_000};
+
+    /** @brief Range queries per measurement used by `main`. */
+    public static final int DEFAULT_QUERIES = 1_000;
+
+    /** @brief Days covered by one range query. */
+    public static final int RANGE_DAYS = 7;
+
+    private BPlusTreeBenchmark() {
+    }
+
+    /**
+     * @enum Layout
+     * @brief The compared node layouts.
+     */
+    public enum Layout {
+        /** @brief Keys in `ArrayList<Integer>`, the layout before `int[]` nodes. */
+        BOXED,
+        /** @brief Keys in `int[]` with parallel task and child arrays (`BPlusTree`). */
+        PRIMITIVE
+    }
+
+    /**
+     * @class Report
+     * @brief Result of timing one layout.
+     */
+    public static final class Report {
+
+        /** @brief The node layout. */
+        public final Layout layout;
+
+        /** @brief Tasks inserted. */
+        public final int deadlines;
+
+        /** @brief Inserts per second. */
+        public final double insertsPerSecond;
+
+        /** @brief Tasks returned by range queries per second. */
+        public final double scannedPerSecond;
+
+        /** @brief Sum of the days of all scanned tasks; equal for layouts that agree. */
+        public final long checksum;
+
+        /**
+         * @brief Creates a report.
+         */
+        Report(Layout layout, int deadlines, double insertsPerSecond, double scannedPerSecond, long checksum) {
+            this.layout = layout;
+            this.deadlines = deadlines;
+            this.insertsPerSecond = insertsPerSecond;
+            this.scannedPerSecond = scannedPerSecond;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * @brief Generates tasks with random deadlines over twenty years.
+     *
+     * All tasks share one name so the task objects stay small.
+     *
+     * @param count Number of tasks.
+     * @param seed Seed of the generator.
+     * @return The tasks in random deadline order.
+     */
+    public static List<ScheduledTask> syntheticDeadlines(int count, long seed) {
+        Random random = new Random(seed);
+        List<ScheduledTask> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new ScheduledTask("Task", 1 + random.nextInt(28), 1 + random.nextInt(12), 2020 + random.nextInt(20)));
+        }
+        return tasks;
+    }
+
+    /**
+     * @brief Generates the start keys of range queries.
+     *
+     * @param count Number of queries.
+     * @param seed Seed of the generator.
+     * @return `{startKey, endKey}` pairs covering `RANGE_DAYS` days each.
+     */
+    static int[][] rangeQueries(int count, long seed) {
+        Random random = new Random(seed);
+        int[][] ranges = new int[count][];
+        for (int i = 0; i < count; i++) {
+            int year = 2020 + random.nextInt(20);
+            int month = 1 + random.nextInt(12);
+            int day = 1 + random.nextInt(28 - RANGE_DAYS);
+            int start = year * 10000 + month * 100 + day;
+            ranges[i] = new int[]{start, start + RANGE_DAYS - 1};
+        }
+        return ranges;
+    }
+
+    /**
+     * @class BoxedTree
+     * @brief The baseline: the same B+ tree with `List`-based nodes.
+     *
+     * Only insertion and range queries are implemented; they follow `BPlusTree` step by
+     * step so that only the node layout differs.
+     */
+    static final class BoxedTree {
+
+        static final class Node {
+            final boolean isLeaf;
+            final List<Integer> keys = new ArrayList<>();
+            final List<ScheduledTask> tasks = new ArrayList<>();
+            final List<Node> children = new ArrayList<>();
+            Node next;
+
+            Node(boolean isLeaf) {
+                this.isLeaf = isLeaf;
+            }
+        }
+
+        private final int order;
+        private Node root = new Node(true);
+
+        BoxedTree(int order) {
+            this.order = order;
+        }
+
+        void insert(ScheduledTask task) {
+            int key = task.getYear() * 10000 + task.getMonth() * 100 + task.getDay();
+            Node sibling = insert(root, key, task);
+            if (sibling != null) {
+                Node newRoot = new Node(false);
+                newRoot.keys.add(sibling.keys.get(0));
+                newRoot.children.add(root);
+                newRoot.children.add(sibling);
+                if (!sibling.isLeaf) {
+                    sibling.keys.remove(0);
+                }
+                root = newRoot;
+            }
+        }
+
+        private Node insert(Node node, int key, ScheduledTask task) {
+            if (node.isLeaf) {
+                int i = upperBound(node.keys, key);
+                node.keys.add(i, key);
+                node.tasks.add(i, task);
+                if (node.keys.size() <= order) {
+                    return null;
+                }
+                int mid = node.keys.size() / 2;
+                Node right = new Node(true);
+                right.keys.addAll(node.keys.subList(mid, node.keys.size()));
+                right.tasks.addAll(node.tasks.subList(mid, node.tasks.size()));
+                node.keys.subList(mid, node.keys.size()).clear();
+                node.tasks.subList(mid, node.tasks.size()).clear();
+                right.next = node.next;
+                node.next = right;
+                return right;
+            }
+            int i = upperBound(node.keys, key);
+            Node sibling = insert(node.children.get(i), key, task);
+            if (sibling == null) {
+                return null;
+            }
+            node.keys.add(i, sibling.keys.get(0));
+            node.children.add(i + 1, sibling);
+            if (!sibling.isLeaf) {
+                sibling.keys.remove(0);
+            }
+            if (node.keys.size() <= order) {
+                return null;
+            }
+            int mid = node.keys.size() / 2;
+            Node right = new Node(false);
+            right.keys.addAll(node.keys.subList(mid, node.keys.size()));
+            right.children.addAll(node.children.subList(mid + 1, node.children.size()));
+            node.keys.subList(mid, node.keys.size()).clear();
+            node.children.subList(mid + 1, node.children.size()).clear();
+            return right;
+        }
+
+        void scan(int startKey, int endKey, long[] result) {
+            Node leaf = root;
+            while (!leaf.isLeaf) {
+                leaf = leaf.children.get(lowerBound(leaf.keys, startKey));
+            }
+            int i = lowerBound(leaf.keys, startKey);
+            while (leaf != null) {
+                for (; i < leaf.keys.size(); i++) {
+                    if (leaf.keys.get(i) > endKey) {
+                        return;
+                    }
+                    result[0]++;
+                    result[1] += leaf.tasks.get(i).getDay();
+                }
+                leaf = leaf.next;
+                i = 0;
+            }
+        }
+
+        private static int lowerBound(List<Integer> keys, int key) {
+            int low = 0;
+            int high = keys.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys.get(mid) < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int upperBound(List<Integer> keys, int key) {
+            int low = 0;
+            int high = keys.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys.get(mid) <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * @brief Counts the tasks in a range of a `BPlusTree` and sums their days.
+     *
+     * Walks the leaf arrays the same way `rangeSearch` does, without building a list.
+     *
+     * @param result `{count, checksum}`, incremented in place.
+     */
+    static void scan(BPlusTree tree, int startKey, int endKey, long[] result) {
+        BPlusTreeNode leaf = tree.findLeaf(tree.root, startKey);
+        int i = leaf.lowerBound(startKey);
+        while (leaf != null) {
+            int[] keys = leaf.keyArray;
+            for (int n = leaf.keyCount; i < n; i++) {
+                if (keys[i] > endKey) {
+                    return;
+                }
+                result[0]++;
+                result[1] += leaf.taskArray[i].getDay();
+            }
+            leaf = leaf.next;
+            i = 0;
+        }
+    }
+
+    /**
+     * @brief Times one layout: inserts every task into a new tree, then runs the queries.
+     *
+     * @param layout The node layout.
+     * @param tasks The tasks, in insertion order.
+     * @param ranges The range queries.
+     * @param order Keys per node.
+     * @return The report.
+     */
+    public static Report measure(Layout layout, List<ScheduledTask> tasks, int[][] ranges, int order) {
+        BoxedTree boxed = layout == Layout.BOXED ? new BoxedTree(order) : null;
+        BPlusTree primitive = layout == Layout.PRIMITIVE ? new BPlusTree(order) : null;
+
+        long start = System.nanoTime();
+        for (ScheduledTask task : tasks) {
+            if (boxed != null) {
+                boxed.insert(task);
+            } else {
+                primitive.insertInBPlusTree(task);
+            }
+        }
+        long insertNanos = Math.max(1, System.nanoTime() - start);
+
+        long[] result = new long[2];
+        start = System.nanoTime();
+        for (int[] range : ranges) {
+            if (boxed != null) {
+                boxed.scan(range[0], range[1], result);
+            } else {
+                scan(primitive, range[0], range[1], result);
+            }
+        }
+        long scanNanos = Math.max(1, System.nanoTime() - start);
+
+        return new Report(layout, tasks.size(), tasks.size() * 1e9 / insertNanos, result[0] * 1e9 / scanNanos, result[1]);
+    }
+
+    /**
+     * @brief Times both layouts on the same tasks and queries.
+     *
+     * Each layout first runs once on a small tree to warm the code up.
+     *
+     * @param tasks The tasks, in insertion order.
+     * @param queries Number of range queries.
+     * @param order Keys per node.
+     * @return One report per `Layout`, in declaration order.
+     */
+    public static List<Report> compare(List<ScheduledTask> tasks, int queries, int order) {
+        int[][] ranges = rangeQueries(queries, 2L);
+        List<ScheduledTask> warmUp = tasks.subList(0, Math.min(tasks.size(), 50_000));
+        List<Report> reports = new ArrayList<>();
+        for (Layout layout : Layout.values()) {
+            measure(layout, warmUp, ranges, order);
+            reports.add(measure(layout, tasks, ranges, order));
+        }
+        return reports;
+    }
+
+    /**
+     * @brief Prints a comparison table with the speed-up over the boxed layout.
+     *
+     * @param out The output stream.
+     * @param reports Reports of one task set; the first is the baseline.
+     */
+    public static void print(PrintStream out, List<Report> reports) {
+        out.println(String.format("%-10s %10s %14s %9s %16s %9s",
+                "Layout", "Deadlines", "Inserts/s", "Speed-up", "Scanned/s", "Speed-up"));
+        Report baseline = reports.get(0);
+        for (Report report : reports) {
+            out.println(String.format("%-10s %10d %14.0f %8.2fx %16.0f %8.2fx", report.layout.name(),
+                    report.deadlines, report.insertsPerSecond, report.insertsPerSecond / baseline.insertsPerSecond,
+                    report.scannedPerSecond, report.scannedPerSecond / baseline.scannedPerSecond));
+        }
+    }
+
+    /**
+     * @brief Runs the comparison from the command line.
+     *
+     * Arguments: `[order] [size...]`. Ten million deadlines need a heap of about 2 GB.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        int order = args.length > 0 ? Integer.parseInt(args[0]) : BPlusTree.DEFAULT_ORDER;
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                sizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int size : sizes) {
+            System.out.println("Order " + order + ", " + size + " deadlines, " + DEFAULT_QUERIES + " queries of " + RANGE_DAYS + " days");
+            print(System.out, compare(syntheticDeadlines(size, 1L), DEFAULT_QUERIES, order));
+            System.out.println();
+        }
+    }
+}
@@ -22,9 +22,20 @@ import java.util.*;
  * This class represents a node in a B+ Tree. Nodes can either be leaf nodes
  * or internal nodes. Leaf nodes store task references, while internal nodes
  * maintain pointers to child nodes.
+ *
+ * Keys are stored in an `int[]`, tasks and children in parallel arrays, each with its
+ * own count. `BPlusTree` works on the arrays directly, so comparisons neither unbox
+ * nor follow a pointer per key. The `keys`, `tasks` and `children` lists are views of
+ * the same arrays for code that prefers the `List` interface.
  */
 public class BPlusTreeNode {
 
+    /** @brief Nodes with at most this many keys are searched linearly. */
+    static final int LINEAR_SEARCH_THRESHOLD = 16;
+
+    /** @brief Initial array capacity of a node created without one. */
+    private static final int DEFAULT_CAPACITY = 4;
+
     /**
      * @brief Indicates whether the node is a leaf.
      *
@@ -35,21 +46,22 @@ public class BPlusTreeNode {
     /**
      * @brief List of keys stored in the node.
      *
-     * Each key acts as a separator or identifier for child nodes or tasks.
+     * Each key acts as a separator or identifier for child nodes or tasks. A view of
+     * `keyArray`.
      */
     List<Integer> keys;
 
     /**
      * @brief List of tasks associated with the node.
      *
-     * Leaf nodes store tasks corresponding to the keys.
+     * Leaf nodes store tasks corresponding to the keys. A view of `taskArray`.
      */
     List<ScheduledTask> tasks;
 
     /**
      * @brief List of child nodes.
      *
-     * Internal nodes maintain references to their child nodes.
+     * Internal nodes maintain references to their child nodes. A view of `childArray`.
      */
     List<BPlusTreeNode> children;
 
@@ -60,6 +72,24 @@ public class BPlusTreeNode {
      */
     BPlusTreeNode next;
 
+    /** @brief Sorted keys; the first `keyCount` are in use. */
+    int[] keyArray;
+
+    /** @brief Number of keys. */
+    int keyCount;
+
+    /** @brief Tasks of a leaf, parallel to `keyArray`. */
+    ScheduledTask[] taskArray;
+
+    /** @brief Number of tasks. */
+    int taskCount;
+
+    /** @brief Children of an internal node; child `i` precedes key `i`. */
+    BPlusTreeNode[] childArray;
+
+    /** @brief Number of children. */
+    int childCount;
+
     /**
      * @brief Constructs a BPlusTreeNode.
      *
@@ -68,10 +98,288 @@ public class BPlusTreeNode {
      * @param isLeaf Specifies whether the node is a leaf.
      */
     public BPlusTreeNode(boolean isLeaf) {
+        this(isLeaf, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @brief Constructs a BPlusTreeNode with room for a number of keys.
+     *
+     * A tree of order `n` passes `n + 1`, so a node can overflow by one key before it
+     * is split without growing its arrays.
+     *
+     * @param isLeaf Specifies whether the node is a leaf.
+     * @param capacity Number of keys the arrays hold before they grow.
+     */
+    BPlusTreeNode(boolean isLeaf, int capacity) {
         this.isLeaf = isLeaf;
-        this.keys = new ArrayList<>();
-        this.tasks = new ArrayList<>();
-        this.children = new ArrayList<>();
+        this.keyArray = new int[capacity];
+        this.taskArray = new ScheduledTask[isLeaf ? capacity : 0];
+        this.childArray = new BPlusTreeNode[isLeaf ? 0 : capacity + 1];
+        this.keys = new KeyView();
+        this.tasks = new TaskView();
+        this.children = new ChildView();
         this.next = null;
     }
+
+    /**
+     * @brief Returns the key at an index.
+     */
+    int key(int i) {
+        return keyArray[i];
+    }
+
+    /**
+     * @brief Returns the index of the first key that is not less than `key`.
+     *
+     * Small nodes are scanned without a data-dependent branch; larger nodes use a
+     * binary search.
+     */
+    int lowerBound(int key) {
+        int[] a = keyArray;
+        int n = keyCount;
+        if (n <= LINEAR_SEARCH_THRESHOLD) {
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                count += a[i] < key ? 1 : 0;
+            }
+            return count;
+        }
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @brief Returns the index of the first key that is greater than `key`.
+     */
+    int upperBound(int key) {
+        int[] a = keyArray;
+        int n = keyCount;
+        if (n <= LINEAR_SEARCH_THRESHOLD) {
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                count += a[i] <= key ? 1 : 0;
+            }
+            return count;
+        }
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    void insertKey(int i, int key) {
+        if (keyCount == keyArray.length) {
+            keyArray = Arrays.copyOf(keyArray, Math.max(DEFAULT_CAPACITY, keyCount * 2));
+        }
+        System.arraycopy(keyArray, i, keyArray, i + 1, keyCount - i);
+        keyArray[i] = key;
+        keyCount++;
+    }
+
+    int removeKey(int i) {
+        int key = keyArray[i];
+        System.arraycopy(keyArray, i + 1, keyArray, i, keyCount - i - 1);
+        keyCount--;
+        return key;
+    }
+
+    void insertTask(int i, ScheduledTask task) {
+        if (taskCount == taskArray.length) {
+            taskArray = Arrays.copyOf(taskArray, Math.max(DEFAULT_CAPACITY, taskCount * 2));
+        }
+        System.arraycopy(taskArray, i, taskArray, i + 1, taskCount - i);
+        taskArray[i] = task;
+        taskCount++;
+    }
+
+    ScheduledTask removeTask(int i) {
+        ScheduledTask task = taskArray[i];
+        System.arraycopy(taskArray, i + 1, taskArray, i, taskCount - i - 1);
+        taskArray[--taskCount] = null;
+        return task;
+    }
+
+    void insertChild(int i, BPlusTreeNode child) {
+        if (childCount == childArray.length) {
+            childArray = Arrays.copyOf(childArray, Math.max(DEFAULT_CAPACITY, childCount * 2));
+        }
+        System.arraycopy(childArray, i, childArray, i + 1, childCount - i);
+        childArray[i] = child;
+        childCount++;
+    }
+
+    BPlusTreeNode removeChild(int i) {
+        BPlusTreeNode child = childArray[i];
+        System.arraycopy(childArray, i + 1, childArray, i, childCount - i - 1);
+        childArray[--childCount] = null;
+        return child;
+    }
+
+    /**
+     * @brief Moves the keys, tasks and children from given indexes on to the end of
+     *        another node.
+     *
+     * @param target The node that receives the entries.
+     * @param keyFrom First key to move.
+     * @param childFrom First child to move; ignored for leaves.
+     */
+    void moveTailTo(BPlusTreeNode target, int keyFrom, int childFrom) {
+        int n = keyCount - keyFrom;
+        if (target.keyCount + n > target.keyArray.length) {
+            target.keyArray = Arrays.copyOf(target.keyArray, target.keyCount + n);
+        }
+        System.arraycopy(keyArray, keyFrom, target.keyArray, target.keyCount, n);
+        target.keyCount += n;
+        keyCount = keyFrom;
+
+        if (isLeaf) {
+            n = taskCount - keyFrom;
+            if (target.taskCount + n > target.taskArray.length) {
+                target.taskArray = Arrays.copyOf(target.taskArray, target.taskCount + n);
+            }
+            System.arraycopy(taskArray, keyFrom, target.taskArray, target.taskCount, n);
+            Arrays.fill(taskArray, keyFrom, taskCount, null);
+            target.taskCount += n;
+            taskCount = keyFrom;
+        } else {
+            n = childCount - childFrom;
+            if (target.childCount + n > target.childArray.length) {
+                target.childArray = Arrays.copyOf(target.childArray, target.childCount + n);
+            }
+            System.arraycopy(childArray, childFrom, target.childArray, target.childCount, n);
+            Arrays.fill(childArray, childFrom, childCount, null);
+            target.childCount += n;
+            childCount = childFrom;
+        }
+    }
+
+    /**
+     * @class KeyView
+     * @brief `List<Integer>` view of `keyArray`.
+     */
+    private final class KeyView extends AbstractList<Integer> implements RandomAccess {
+
+        @Override
+        public Integer get(int i) {
+            Objects.checkIndex(i, keyCount);
+            return keyArray[i];
+        }
+
+        @Override
+        public Integer set(int i, Integer key) {
+            Objects.checkIndex(i, keyCount);
+            int old = keyArray[i];
+            keyArray[i] = key;
+            return old;
+        }
+
+        @Override
+        public void add(int i, Integer key) {
+            Objects.checkIndex(i, keyCount + 1);
+            insertKey(i, key);
+        }
+
+        @Override
+        public Integer remove(int i) {
+            Objects.checkIndex(i, keyCount);
+            return removeKey(i);
+        }
+
+        @Override
+        public int size() {
+            return keyCount;
+        }
+    }
+
+    /**
+     * @class TaskView
+     * @brief `List<ScheduledTask>` view of `taskArray`.
+     */
+    private final class TaskView extends AbstractList<ScheduledTask> implements RandomAccess {
+
+        @Override
+        public ScheduledTask get(int i) {
+            Objects.checkIndex(i, taskCount);
+            return taskArray[i];
+        }
+
+        @Override
+        public ScheduledTask set(int i, ScheduledTask task) {
+            Objects.checkIndex(i, taskCount);
+            ScheduledTask old = taskArray[i];
+            taskArray[i] = task;
+            return old;
+        }
+
+        @Override
+        public void add(int i, ScheduledTask task) {
+            Objects.checkIndex(i, taskCount + 1);
+            insertTask(i, task);
+        }
+
+        @Override
+        public ScheduledTask remove(int i) {
+            Objects.checkIndex(i, taskCount);
+            return removeTask(i);
+        }
+
+        @Override
+        public int size() {
+            return taskCount;
+        }
+    }
+
+    /**
+     * @class ChildView
+     * @brief `List<BPlusTreeNode>` view of `childArray`.
+     */
+    private final class ChildView extends AbstractList<BPlusTreeNode> implements RandomAccess {
+
+        @Override
+        public BPlusTreeNode get(int i) {
+            Objects.checkIndex(i, childCount);
+            return childArray[i];
+        }
+
+        @Override
+        public BPlusTreeNode set(int i, BPlusTreeNode child) {
+            Objects.checkIndex(i, childCount);
+            BPlusTreeNode old = childArray[i];
+            childArray[i] = child;
+            return old;
+        }
+
+        @Override
+        public void add(int i, BPlusTreeNode child) {
+            Objects.checkIndex(i, childCount + 1);
+            insertChild(i, child);
+        }
+
+        @Override
+        public BPlusTreeNode remove(int i) {
+            Objects.checkIndex(i, childCount);
+            return removeChild(i);
+        }
+
+        @Override
+        public int size() {
+            return childCount;
+        }
+    }
 }
@@ -0,0 +1,178 @@
+/**
+ * @file BPlusTreeRangeIterator.java
+ * @brief Lazy iterator over the tasks of a B+ Tree in a deadline range.
+ *
+ * This class walks the leaves of a `BPlusTree` between two date keys, in ascending or
+ * descending deadline order, and yields one task at a time. It descends the tree once
+ * and then follows the leaves, so a caller that stops early reads only the leaves it
+ * needed.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * @class BPlusTreeRangeIterator
+ * @brief Iterator over a key range of a `BPlusTree`, with offset, limit and direction.
+ *
+ * Ascending iteration starts at the leftmost leaf that may hold the start key and
+ * follows the `next` pointers. Leaves have no pointer to their predecessor, so
+ * descending iteration keeps the path from the subtree root to the current leaf and
+ * steps to the previous leaf through the nearest ancestor that has a child further
+ * left; each internal node is entered once, so the walk is still `O(log n + k)`.
+ *
+ * Skipped entries (the offset) are counted off whole leaves at a time where the leaf
+ * is entirely in range. The tree must not be changed while the iterator is in use;
+ * `next` then throws `ConcurrentModificationException`.
+ */
+final class BPlusTreeRangeIterator implements Iterator<ScheduledTask> {
+
+    private final BPlusTree tree;
+    private final int startKey;
+    private final int endKey;
+    private final boolean descending;
+    private final int expectedModCount;
+
+    /** @brief Entries still to be returned. */
+    private long remaining;
+
+    /** @brief The current leaf, or `null` when the range is exhausted. */
+    private BPlusTreeNode leaf;
+
+    /** @brief Index of the next entry in `leaf`; may be outside the leaf until `position`. */
+    private int index;
+
+    /** @brief Descending only: the internal nodes above `leaf` and the child taken in each. */
+    private BPlusTreeNode[] path;
+    private int[] childIndex;
+
+    /**
+     * @brief Creates an iterator and positions it on the first entry after the offset.
+     *
+     * @param tree The tree.
+     * @param node The subtree to iterate, normally the root.
+     * @param startKey The start date key, inclusive.
+     * @param endKey The end date key, inclusive.
+     * @param offset Number of matching entries to skip.
+     * @param limit Largest number of entries to return.
+     * @param descending `true` to return the latest deadlines first.
+     * @throws IllegalArgumentException If the offset or limit is negative.
+     */
+    BPlusTreeRangeIterator(BPlusTree tree, BPlusTreeNode node, int startKey, int endKey,
+                           long offset, long limit, boolean descending) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
+        }
+        this.tree = tree;
+        this.startKey = startKey;
+        this.endKey = endKey;
+        this.descending = descending;
+        this.expectedModCount = tree.modCount;
+        this.remaining = limit;
+        if (descending) {
+            int depth = 0;
+            for (BPlusTreeNode n = node; !n.isLeaf; n = n.childArray[0]) {
+                depth++;
+            }
+            path = new BPlusTreeNode[depth];
+            childIndex = new int[depth];
+            for (int level = 0; level < depth; level++) {
+                int i = node.upperBound(endKey);
+                path[level] = node;
+                childIndex[level] = i;
+                node = node.childArray[i];
+            }
+            leaf = node;
+            index = node.upperBound(endKey) - 1;
+        } else {
+            leaf = tree.findLeaf(node, startKey);
+            index = leaf.lowerBound(startKey);
+        }
+        skip(offset);
+    }
+
+    /**
+     * @brief Moves past `offset` matching entries.
+     */
+    private void skip(long offset) {
+        while (offset > 0 && position()) {
+            int available;
+            if (descending) {
+                available = leaf.keyArray[0] >= startKey ? index + 1 : 1;
+            } else {
+                available = leaf.keyArray[leaf.keyCount - 1] <= endKey ? leaf.keyCount - index : 1;
+            }
+            int step = (int) Math.min(offset, available);
+            index += descending ? -step : step;
+            offset -= step;
+        }
+    }
+
+    /**
+     * @brief Moves to the leaf holding the entry at `index` if it is past the current leaf.
+     *
+     * @return `true` if there is an entry at the position and its key is in range.
+     */
+    private boolean position() {
+        if (descending) {
+            while (leaf != null && index < 0) {
+                previousLeaf();
+            }
+            return leaf != null && leaf.keyArray[index] >= startKey;
+        }
+        while (leaf != null && index >= leaf.keyCount) {
+            leaf = leaf.next;
+            index = 0;
+        }
+        return leaf != null && leaf.keyArray[index] <= endKey;
+    }
+
+    /**
+     * @brief Steps to the rightmost entry of the leaf before the current one.
+     */
+    private void previousLeaf() {
+        int level = path.length - 1;
+        while (level >= 0 && childIndex[level] == 0) {
+            level--;
+        }
+        if (level < 0) {
+            leaf = null;
+            return;
+        }
+        childIndex[level]--;
+        BPlusTreeNode node = path[level].childArray[childIndex[level]];
+        for (level++; level < path.length; level++) {
+            path[level] = node;
+            childIndex[level] = node.childCount - 1;
+            node = node.childArray[node.childCount - 1];
+        }
+        leaf = node;
+        index = node.keyCount - 1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0 && position();
+    }
+
+    @Override
+    public ScheduledTask next() {
+        if (tree.modCount != expectedModCount) {
+            throw new ConcurrentModificationException("The tree changed during iteration.");
+        }
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ScheduledTask task = leaf.taskArray[index];
+        index += descending ? -1 : 1;
+        remaining--;
+        return task;
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * @file BPlusTreeSpliterator.java
+ * @brief Splittable traversal of the tasks of a B+ Tree in a deadline range.
+ *
+ * This class lets a stream, including a parallel stream, consume a deadline range of a
+ * `BPlusTree`. The range is split into key sub-ranges along the separators of the
+ * tree, and every part walks its own run of leaves.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * @class BPlusTreeSpliterator
+ * @brief Ordered `Spliterator` over a key range of a `BPlusTree`.
+ *
+ * The first advance descends to the leftmost leaf that may hold the start key; later
+ * advances follow the leaf chain until a key passes the end key. `trySplit` looks for
+ * a separator `s` strictly inside the keys not yet traversed, starting at the highest
+ * node whose children divide them, and hands off `[current, s - 1]` as the prefix while
+ * this spliterator keeps `[s, end]`. Keys are integers, so the two parts never share an
+ * entry, and tasks with the same deadline are never split apart. A range inside one
+ * leaf is not split.
+ *
+ * The size is only estimated: the tree size at first, halved by every split. The tree
+ * must not be changed during the traversal; the traversal then throws
+ * `ConcurrentModificationException`.
+ */
+final class BPlusTreeSpliterator implements Spliterator<ScheduledTask> {
+
+    private final BPlusTree tree;
+    private final int expectedModCount;
+    private int startKey;
+    private int endKey;
+    private long estimate;
+
+    /** @brief The current leaf; `null` before the first advance and after a split. */
+    private BPlusTreeNode leaf;
+
+    /** @brief Index of the next entry in `leaf`. */
+    private int index;
+
+    /** @brief Set once the end of the range was reached. */
+    private boolean done;
+
+    /**
+     * @brief Creates a spliterator over a key range.
+     *
+     * @param tree The tree.
+     * @param startKey The start date key, inclusive.
+     * @param endKey The end date key, inclusive.
+     */
+    BPlusTreeSpliterator(BPlusTree tree, int startKey, int endKey) {
+        this(tree, tree.modCount, startKey, endKey, tree.size());
+    }
+
+    private BPlusTreeSpliterator(BPlusTree tree, int expectedModCount, int startKey, int endKey, long estimate) {
+        this.tree = tree;
+        this.expectedModCount = expectedModCount;
+        this.startKey = startKey;
+        this.endKey = endKey;
+        this.estimate = estimate;
+        this.done = startKey > endKey;
+    }
+
+    /**
+     * @brief Moves to the next entry in range, descending on first use.
+     *
+     * @return `true` if there is one.
+     */
+    private boolean position() {
+        if (done) {
+            return false;
+        }
+        if (tree.modCount != expectedModCount) {
+            throw new ConcurrentModificationException("The tree changed during traversal.");
+        }
+        if (leaf == null) {
+            leaf = tree.findLeaf(tree.root, startKey);
+            index = leaf.lowerBound(startKey);
+        }
+        while (index >= leaf.keyCount) {
+            leaf = leaf.next;
+            index = 0;
+            if (leaf == null) {
+                done = true;
+                return false;
+            }
+        }
+        if (leaf.keyArray[index] > endKey) {
+            done = true;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ScheduledTask> action) {
+        if (!position()) {
+            return false;
+        }
+        action.accept(leaf.taskArray[index++]);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super ScheduledTask> action) {
+        if (!position()) {
+            return;
+        }
+        BPlusTreeNode current = leaf;
+        int i = index;
+        while (current != null) {
+            int[] keys = current.keyArray;
+            ScheduledTask[] tasks = current.taskArray;
+            for (int n = current.keyCount; i < n; i++) {
+                if (keys[i] > endKey) {
+                    current = null;
+                    break;
+                }
+                action.accept(tasks[i]);
+            }
+            if (current != null) {
+                current = current.next;
+                i = 0;
+            }
+        }
+        leaf = null;
+        done = true;
+        if (tree.modCount != expectedModCount) {
+            throw new ConcurrentModificationException("The tree changed during traversal.");
+        }
+    }
+
+    @Override
+    public Spliterator<ScheduledTask> trySplit() {
+        if (!position()) {
+            return null;
+        }
+        int lower = leaf.keyArray[index];
+        BPlusTreeNode node = tree.root;
+        while (!node.isLeaf) {
+            int from = node.upperBound(lower);
+            int to = node.upperBound(endKey);
+            if (from < to) {
+                int split = node.keyArray[(from + to) >>> 1];
+                BPlusTreeSpliterator prefix = new BPlusTreeSpliterator(tree, expectedModCount, startKey, split - 1, estimate >>> 1);
+                prefix.leaf = leaf;
+                prefix.index = index;
+                estimate -= prefix.estimate;
+                startKey = split;
+                leaf = null;
+                return prefix;
+            }
+            node = node.childArray[from];
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return done ? 0 : estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
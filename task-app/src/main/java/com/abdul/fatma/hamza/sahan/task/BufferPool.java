@@ -0,0 +1,275 @@
+/**
+ * @file BufferPool.java
+ * @brief Fixed-size page cache with CLOCK replacement.
+ *
+ * This class keeps a bounded number of fixed-size pages of a file in memory. Pages are
+ * read on first use and written back when they are evicted or flushed, so a structure
+ * built on top of it can be much larger than the memory it uses.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @class BufferPool
+ * @brief Caches pages of a file in a fixed number of frames.
+ *
+ * A caller pins a page to get its frame and unpins it when done, saying whether it
+ * changed the page. A pinned page is never evicted; a buffer returned by `pin` must not
+ * be used after the matching `unpin`. When a frame is needed, the CLOCK hand sweeps
+ * the frames: a recently used page gets a second chance, the first unpinned page that
+ * has not been used since the last sweep is evicted, and written back if it is dirty.
+ *
+ * Page `i` starts at byte `i * pageSize` of the file. The pool is not thread-safe; its
+ * owner serialises access.
+ */
+public class BufferPool {
+
+    /** @brief Fewest frames a pool can have. */
+    public static final int MIN_FRAMES = 4;
+
+    /** @brief Marks a frame that holds no page. */
+    private static final int NO_PAGE = -1;
+
+    /** @brief The file. */
+    private final FileChannel channel;
+
+    /** @brief Size of a page in bytes. */
+    private final int pageSize;
+
+    // Per-frame state
+    private final ByteBuffer[] frames;
+    private final int[] pageIds;
+    private final int[] pins;
+    private final boolean[] dirty;
+    private final boolean[] referenced;
+
+    /** @brief Frame index by page id. */
+    private final Map<Integer, Integer> frameOf = new HashMap<>();
+
+    /** @brief Position of the CLOCK hand. */
+    private int hand;
+
+    /** @brief Number of pages in the file, including pages not yet written. */
+    private int pageCount;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @brief Creates a pool over a file.
+     *
+     * @param channel The file, opened for reading and writing.
+     * @param pageSize Size of a page in bytes.
+     * @param frameCount Number of pages kept in memory, at least `MIN_FRAMES`.
+     * @param pageCount Number of pages the file holds.
+     * @throws IllegalArgumentException If there are fewer than `MIN_FRAMES` frames.
+     */
+    public BufferPool(FileChannel channel, int pageSize, int frameCount, int pageCount) {
+        if (frameCount < MIN_FRAMES) {
+            throw new IllegalArgumentException("A buffer pool needs at least " + MIN_FRAMES + " frames: " + frameCount);
+        }
+        this.channel = channel;
+        this.pageSize = pageSize;
+        this.frames = new ByteBuffer[frameCount];
+        this.pageIds = new int[frameCount];
+        this.pins = new int[frameCount];
+        this.dirty = new boolean[frameCount];
+        this.referenced = new boolean[frameCount];
+        this.pageCount = pageCount;
+        Arrays.fill(pageIds, NO_PAGE);
+    }
+
+    /**
+     * @brief Pins a page, reading it from the file if it is not cached.
+     *
+     * @param pageId The page.
+     * @return The frame of the page; valid until the matching `unpin`.
+     * @throws IOException If the page cannot be read or a dirty victim cannot be written.
+     * @throws IllegalStateException If every frame is pinned.
+     */
+    public ByteBuffer pin(int pageId) throws IOException {
+        if (pageId < 0 || pageId >= pageCount) {
+            throw new IllegalArgumentException("Page " + pageId + " outside the file of " + pageCount + " pages.");
+        }
+        Integer cached = frameOf.get(pageId);
+        if (cached != null) {
+            hits++;
+            pins[cached]++;
+            referenced[cached] = true;
+            return frames[cached];
+        }
+        misses++;
+        int frame = victim();
+        ByteBuffer buffer = frames[frame];
+        buffer.clear();
+        long position = (long) pageId * pageSize;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        Arrays.fill(buffer.array(), buffer.position(), pageSize, (byte) 0);
+        buffer.clear();
+        attach(frame, pageId);
+        return buffer;
+    }
+
+    /**
+     * @brief Adds a zero-filled page at the end of the file.
+     *
+     * The page is cached and dirty but not pinned; the caller pins it to fill it in.
+     *
+     * @return The id of the new page.
+     * @throws IOException If a dirty victim cannot be written.
+     */
+    public int allocate() throws IOException {
+        int frame = victim();
+        Arrays.fill(frames[frame].array(), (byte) 0);
+        frames[frame].clear();
+        int pageId = pageCount++;
+        attach(frame, pageId);
+        pins[frame] = 0;
+        dirty[frame] = true;
+        return pageId;
+    }
+
+    /**
+     * @brief Releases a pin.
+     *
+     * @param pageId The pinned page.
+     * @param modified `true` if the caller changed the page.
+     */
+    public void unpin(int pageId, boolean modified) {
+        Integer frame = frameOf.get(pageId);
+        if (frame == null || pins[frame] == 0) {
+            throw new IllegalStateException("Page " + pageId + " is not pinned.");
+        }
+        pins[frame]--;
+        dirty[frame] |= modified;
+    }
+
+    private void attach(int frame, int pageId) {
+        pageIds[frame] = pageId;
+        frameOf.put(pageId, frame);
+        pins[frame] = 1;
+        dirty[frame] = false;
+        referenced[frame] = true;
+    }
+
+    /**
+     * @brief Finds a free frame or evicts a page with the CLOCK algorithm.
+     */
+    private int victim() throws IOException {
+        for (int step = 0; step < 2 * frames.length; step++) {
+            int frame = hand;
+            hand = (hand + 1) % frames.length;
+            if (pageIds[frame] == NO_PAGE) {
+                if (frames[frame] == null) {
+                    frames[frame] = ByteBuffer.allocate(pageSize);
+                }
+                return frame;
+            }
+            if (pins[frame] > 0) {
+                continue;
+            }
+            if (referenced[frame]) {
+                referenced[frame] = false;
+                continue;
+            }
+            if (dirty[frame]) {
+                write(frame);
+            }
+            frameOf.remove(pageIds[frame]);
+            pageIds[frame] = NO_PAGE;
+            evictions++;
+            return frame;
+        }
+        throw new IllegalStateException("All " + frames.length + " buffer pool frames are pinned.");
+    }
+
+    private void write(int frame) throws IOException {
+        ByteBuffer buffer = frames[frame].duplicate();
+        buffer.clear();
+        long position = (long) pageIds[frame] * pageSize;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        dirty[frame] = false;
+    }
+
+    /**
+     * @brief Writes every dirty page back to the file.
+     *
+     * @throws IOException If a page cannot be written.
+     */
+    public void flush() throws IOException {
+        for (int frame = 0; frame < frames.length; frame++) {
+            if (pageIds[frame] != NO_PAGE && dirty[frame]) {
+                write(frame);
+            }
+        }
+    }
+
+    /**
+     * @brief Drops every cached page without writing it and sets the page count.
+     *
+     * Used after the file was truncated.
+     *
+     * @param pageCount Number of pages the file now holds.
+     */
+    public void reset(int pageCount) {
+        frameOf.clear();
+        Arrays.fill(pageIds, NO_PAGE);
+        Arrays.fill(pins, 0);
+        Arrays.fill(dirty, false);
+        Arrays.fill(referenced, false);
+        this.pageCount = pageCount;
+    }
+
+    /** @brief Returns the size of a page in bytes. */
+    public int pageSize() {
+        return pageSize;
+    }
+
+    /** @brief Returns the number of pages in the file, including unwritten ones. */
+    public int pageCount() {
+        return pageCount;
+    }
+
+    /** @brief Returns the number of frames. */
+    public int frameCount() {
+        return frames.length;
+    }
+
+    /** @brief Returns the number of frames holding a page. */
+    public int cachedPages() {
+        return frameOf.size();
+    }
+
+    /** @brief Returns how many pins found their page in memory. */
+    public long hits() {
+        return hits;
+    }
+
+    /** @brief Returns how many pins read their page from the file. */
+    public long misses() {
+        return misses;
+    }
+
+    /** @brief Returns how many pages were evicted. */
+    public long evictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * @file ConcurrentUserIndex.java
+ * @brief Thread-safe user table for parallel logins.
+ *
+ * This class splits the users over a fixed number of `UserIndex` stripes, each guarded
+ * by its own read-write lock. Lookups of different emails rarely touch the same lock,
+ * lookups of the same stripe share its read lock, and a registration only blocks the
+ * one stripe it writes to.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * @class ConcurrentUserIndex
+ * @brief Lock-striped map from email to `User`.
+ *
+ * The stripe of an email is taken from the top bits of its mixed hash, while the stripe
+ * itself places the email by the low bits, so both levels spread evenly. Every operation
+ * on one email is atomic and takes effect while its stripe lock is held: a lookup that
+ * starts after `put` returned sees the user. Operations over all stripes (`size`,
+ * `values`, `clear`) lock one stripe at a time and are not atomic snapshots.
+ */
+public class ConcurrentUserIndex {
+
+    /** @brief The stripes. */
+    private final UserIndex[] stripes;
+
+    /** @brief One lock per stripe. */
+    private final ReentrantReadWriteLock[] locks;
+
+    /** @brief Hash function of the emails, shared with the stripes. */
+    private final EmailHash emailHash;
+
+    /** @brief Right shift that turns a mixed hash into a stripe number. */
+    private final int shift;
+
+    /**
+     * @brief Creates an index with a stripe count based on the available processors.
+     */
+    public ConcurrentUserIndex() {
+        this(defaultStripes(), EmailHash.fromSystemProperties());
+    }
+
+    /**
+     * @brief Creates an index.
+     *
+     * @param stripeCount Number of stripes; rounded up to a power of two.
+     * @param emailHash The hash function of the emails.
+     * @throws IllegalArgumentException If the stripe count is not positive.
+     */
+    public ConcurrentUserIndex(int stripeCount, EmailHash emailHash) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+        }
+        int requested = Math.min(stripeCount, 1 << 16);
+        int count = Integer.highestOneBit(requested);
+        if (count < requested) {
+            count <<= 1;
+        }
+        this.emailHash = emailHash;
+        this.stripes = new UserIndex[count];
+        this.locks = new ReentrantReadWriteLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new UserIndex(ProbingStrategy.LINEAR, UserIndex.DEFAULT_CAPACITY, emailHash);
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        this.shift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * @brief Returns the default stripe count: four per available processor.
+     * @return The stripe count.
+     */
+    static int defaultStripes() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @brief Returns the stripe of an email hash.
+     *
+     * @param h The email hash.
+     * @return The stripe number.
+     */
+    private int stripeOf(int h) {
+        // Shifting an int by 32 is a no-op, so a single stripe is handled separately
+        return stripes.length == 1 ? 0 : EmailHash.fmix(h) >>> shift;
+    }
+
+    /**
+     * @brief Adds a user, replacing a user with the same email.
+     *
+     * @param user The user.
+     * @return The replaced user, or `null` if the email was new.
+     */
+    public User put(User user) {
+        int h = emailHash.hash(user.getEmail());
+        int stripe = stripeOf(h);
+        ReentrantReadWriteLock.WriteLock lock = locks[stripe].writeLock();
+        lock.lock();
+        try {
+            return stripes[stripe].put(user, h);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Adds a user unless its email is already present.
+     *
+     * @param user The user.
+     * @return The resident user with the same email, or `null` if `user` was added.
+     */
+    public User putIfAbsent(User user) {
+        int h = emailHash.hash(user.getEmail());
+        int stripe = stripeOf(h);
+        ReentrantReadWriteLock.WriteLock lock = locks[stripe].writeLock();
+        lock.lock();
+        try {
+            User existing = stripes[stripe].get(user.getEmail(), h);
+            if (existing == null) {
+                stripes[stripe].put(user, h);
+            }
+            return existing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Looks up a user by email.
+     *
+     * @param email The email address.
+     * @return The user, or `null` if no user has this email.
+     */
+    public User get(String email) {
+        int h = emailHash.hash(email);
+        int stripe = stripeOf(h);
+        ReentrantReadWriteLock.ReadLock lock = locks[stripe].readLock();
+        lock.lock();
+        try {
+            return stripes[stripe].get(email, h);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Checks whether a user with an email exists.
+     *
+     * @param email The email address.
+     * @return `true` if the email is present.
+     */
+    public boolean contains(String email) {
+        return get(email) != null;
+    }
+
+    /**
+     * @brief Removes the user with an email.
+     *
+     * @param email The email address.
+     * @return The removed user, or `null` if the email was not present.
+     */
+    public User remove(String email) {
+        int h = emailHash.hash(email);
+        int stripe = stripeOf(h);
+        ReentrantReadWriteLock.WriteLock lock = locks[stripe].writeLock();
+        lock.lock();
+        try {
+            return stripes[stripe].remove(email, h);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Returns the number of users.
+     * @return The sum of the stripe sizes.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].readLock().lock();
+            try {
+                size += stripes[i].size();
+            } finally {
+                locks[i].readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @brief Removes every user.
+     */
+    public void clear() {
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].writeLock().lock();
+            try {
+                stripes[i].clear();
+            } finally {
+                locks[i].writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * @brief Returns the users, stripe by stripe.
+     * @return A new list of the users.
+     */
+    public List<User> values() {
+        List<User> values = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].readLock().lock();
+            try {
+                values.addAll(stripes[i].values());
+            } finally {
+                locks[i].readLock().unlock();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @brief Returns the number of stripes.
+     * @return The stripe count, a power of two.
+     */
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * @brief Returns the hash function of the index.
+     * @return The email hash.
+     */
+    public EmailHash getEmailHash() {
+        return emailHash;
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * @file DeadlineIndex.java
+ * @brief Persistent deadline index of the deadline file.
+ *
+ * This class keeps a `PagedBPlusTree` next to `deadlines.bin` (in `deadlines.bin.idx`)
+ * that maps the date key of every saved `Assignment` to the offset of its record. A
+ * range query over deadlines then reads only the index pages and records it needs,
+ * and the index is reused across restarts.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @class DeadlineIndex
+ * @brief Date-key index of the serialised assignments in a deadline file.
+ *
+ * The deadline file is a sequence of records, each written by its own
+ * `ObjectOutputStream` (stream header and one `Assignment`), as `Task.assign_deadline`
+ * and `Assignment.writeToFile` append them. The index maps `year * 10000 + month * 100
+ * + day` to the offset of the record.
+ *
+ * The tree header records the length and modification time of the deadline file it
+ * was built for. If the file was changed by something other than this index, the
+ * index is rebuilt from the file when it is opened. The page size of a new index and
+ * the buffer pool size are read from the `deadlines.index.page.size` and
+ * `deadlines.index.buffer.pages` system properties.
+ */
+public class DeadlineIndex implements Closeable {
+
+    /** @brief Suffix appended to the deadline file path to get the index path. */
+    public static final String SUFFIX = ".idx";
+
+    /** @brief System property with the page size of a new index, in bytes. */
+    public static final String PAGE_SIZE_PROPERTY = "deadlines.index.page.size";
+
+    /** @brief System property with the number of index pages kept in memory. */
+    public static final String BUFFER_PAGES_PROPERTY = "deadlines.index.buffer.pages";
+
+    /** @brief The deadline file. */
+    private final File deadlinesFile;
+
+    /** @brief The index tree. */
+    private final PagedBPlusTree tree;
+
+    private DeadlineIndex(File deadlinesFile, PagedBPlusTree tree) {
+        this.deadlinesFile = deadlinesFile;
+        this.tree = tree;
+    }
+
+    /**
+     * @brief Opens the index of a deadline file, rebuilding it if it is missing or stale.
+     *
+     * @param deadlinesPath Path of the deadline file.
+     * @return The opened index.
+     * @throws IOException If the deadline file cannot be read or the index cannot be written.
+     */
+    public static DeadlineIndex open(String deadlinesPath) throws IOException {
+        int pageSize = Integer.getInteger(PAGE_SIZE_PROPERTY, PagedBPlusTree.DEFAULT_PAGE_SIZE);
+        int bufferPages = Integer.getInteger(BUFFER_PAGES_PROPERTY, PagedBPlusTree.DEFAULT_BUFFER_PAGES);
+        return open(deadlinesPath, pageSize, bufferPages);
+    }
+
+    /**
+     * @brief Opens the index of a deadline file with an explicit tree configuration.
+     *
+     * @param deadlinesPath Path of the deadline file.
+     * @param pageSize Page size of a new index.
+     * @param bufferPages Number of index pages kept in memory.
+     * @return The opened index.
+     * @throws IOException If the deadline file cannot be read or the index cannot be written.
+     */
+    public static DeadlineIndex open(String deadlinesPath, int pageSize, int bufferPages) throws IOException {
+        File deadlinesFile = new File(deadlinesPath);
+        String indexPath = deadlinesPath + SUFFIX;
+        PagedBPlusTree tree;
+        try {
+            tree = PagedBPlusTree.open(indexPath, pageSize, bufferPages);
+        } catch (IOException e) {
+            // Not an index or a damaged header: start over
+            new File(indexPath).delete();
+            tree = PagedBPlusTree.open(indexPath, pageSize, bufferPages);
+        }
+        DeadlineIndex index = new DeadlineIndex(deadlinesFile, tree);
+        try {
+            if (!index.isCurrent()) {
+                index.rebuild();
+            }
+            return index;
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @brief Converts a date into the key used by the index.
+     *
+     * @param day The day (1-31).
+     * @param month The month (1-12).
+     * @param year The year.
+     * @return `YYYYMMDD` as an integer, as `BPlusTree.getDateKey`.
+     */
+    public static int dateKey(int day, int month, int year) {
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * @brief Checks whether the index was built for the current deadline file.
+     */
+    private boolean isCurrent() {
+        return tree.getSourceLength() == deadlinesFile.length()
+                && tree.getSourceModified() == deadlinesFile.lastModified();
+    }
+
+    /**
+     * @brief Rebuilds the index from every complete record of the deadline file.
+     *
+     * The file is read once, the `(key, offset)` pairs are sorted in memory (offsets in
+     * file order for equal keys) and the tree is bulk-loaded with
+     * `BPlusTree.DEFAULT_FILL_FACTOR`. Reading stops at the first record that cannot be
+     * deserialised, e.g. a record cut off by a crash.
+     *
+     * @throws IOException If the deadline file cannot be read or the index cannot be written.
+     */
+    public void rebuild() throws IOException {
+        int n = 0;
+        int[] keys = new int[64];
+        long[] offsets = new long[64];
+        if (deadlinesFile.exists()) {
+            try (RandomAccessFile in = new RandomAccessFile(deadlinesFile, "r")) {
+                FileChannel channel = in.getChannel();
+                long offset = 0;
+                while (offset < channel.size()) {
+                    Assignment assignment;
+                    try {
+                        assignment = read(channel, offset);
+                    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                        break;
+                    }
+                    if (n == keys.length) {
+                        keys = Arrays.copyOf(keys, n * 2);
+                        offsets = Arrays.copyOf(offsets, n * 2);
+                    }
+                    keys[n] = dateKey(assignment.getDay(), assignment.getMonth(), assignment.getYear());
+                    offsets[n++] = offset;
+                    offset = channel.position();
+                }
+            }
+        }
+
+        // Sort by key, then by record number, with one primitive sort
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (long) keys[i] << 32 | i;
+        }
+        Arrays.sort(order);
+        int[] sortedKeys = new int[n];
+        long[] sortedOffsets = new long[n];
+        for (int i = 0; i < n; i++) {
+            sortedKeys[i] = (int) (order[i] >> 32);
+            sortedOffsets[i] = offsets[(int) order[i]];
+        }
+
+        tree.bulkLoad(sortedKeys, sortedOffsets, n, BPlusTree.DEFAULT_FILL_FACTOR);
+        tree.setSource(deadlinesFile.length(), deadlinesFile.lastModified());
+        tree.flush();
+    }
+
+    /**
+     * @brief Reads the record at an offset; leaves the channel after the record.
+     */
+    private static Assignment read(FileChannel channel, long offset) throws IOException, ClassNotFoundException {
+        channel.position(offset);
+        ObjectInputStream in = new ObjectInputStream(Channels.newInputStream(channel));
+        return (Assignment) in.readObject();
+    }
+
+    /**
+     * @brief Appends an assignment to the deadline file and indexes it.
+     *
+     * @param assignment The assignment.
+     * @throws IOException If the deadline file or the index cannot be written.
+     */
+    public void add(Assignment assignment) throws IOException {
+        boolean current = isCurrent();
+        long offset = deadlinesFile.length();
+        // Append first: until the flush below, the stamp on disk no longer matches the
+        // file, so a crash while the tree changes leads to a rebuild
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(deadlinesFile, true))) {
+            oos.writeObject(assignment);
+        }
+        if (!current) {
+            rebuild();
+            return;
+        }
+        tree.insert(dateKey(assignment.getDay(), assignment.getMonth(), assignment.getYear()), offset);
+        tree.setSource(deadlinesFile.length(), deadlinesFile.lastModified());
+        tree.flush();
+    }
+
+    /**
+     * @brief Returns one page of the assignments with a deadline in a range.
+     *
+     * Only the index pages and records of the returned assignments are read, so a
+     * caller can page through a long range.
+     *
+     * @param startKey The start date key, inclusive.
+     * @param endKey The end date key, inclusive.
+     * @param offset Number of assignments to skip, in the returned order.
+     * @param limit Largest number of assignments to return.
+     * @param descending `true` for the latest deadlines first; assignments with the same
+     *        deadline then come latest saved first.
+     * @return The assignments; those with the same deadline in the order they were saved,
+     *         or the reverse when descending.
+     * @throws IOException If the index or a record cannot be read.
+     * @throws IllegalArgumentException If the offset or limit is negative.
+     */
+    public List<Assignment> range(int startKey, int endKey, long offset, int limit, boolean descending) throws IOException {
+        PagedBPlusTree.RangeCursor cursor = tree.cursor(startKey, endKey, offset, limit, descending);
+        List<Assignment> page = new ArrayList<>();
+        try (RandomAccessFile in = new RandomAccessFile(deadlinesFile, "r")) {
+            FileChannel channel = in.getChannel();
+            while (cursor.next()) {
+                try {
+                    page.add(read(channel, cursor.value()));
+                } catch (ClassNotFoundException | ClassCastException e) {
+                    throw new StreamCorruptedException("Invalid deadline record at " + cursor.value());
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * @brief Returns the number of indexed assignments.
+     * @return The entry count.
+     */
+    public long size() {
+        return tree.size();
+    }
+
+    /**
+     * @brief Returns the index tree.
+     * @return The tree.
+     */
+    public PagedBPlusTree getTree() {
+        return tree;
+    }
+
+    /**
+     * @brief Flushes and closes the index.
+     *
+     * @throws IOException If the index cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        tree.close();
+    }
+}
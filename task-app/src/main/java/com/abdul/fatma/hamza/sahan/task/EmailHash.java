@@ -0,0 +1,239 @@
+/**
+ * @file EmailHash.java
+ * @brief Hash functions for email addresses.
+ *
+ * This enum collects the legacy hash functions of `Task` and stronger 32-bit
+ * alternatives under one type, so `HashFunctionBenchmark` can compare them and
+ * `UserIndex` can be configured with the winner.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * @enum EmailHash
+ * @brief A named hash function from email to `int`.
+ *
+ * The legacy functions return values below `Task.TABLE_SIZE`; the others return the
+ * full 32-bit range. The strong functions read the email two UTF-16 characters at a
+ * time, so they hash 4 bytes per step without encoding the string first.
+ */
+public enum EmailHash implements ToIntFunction<String> {
+
+    /** @brief `Task.hashFunction`: sum of the characters modulo the table size. */
+    LEGACY_SUM {
+        @Override
+        public int hash(String email) {
+            return Task.hashFunction(email);
+        }
+    },
+
+    /** @brief `Task.hashFunction2`: the double-hashing step function. */
+    LEGACY_STEP {
+        @Override
+        public int hash(String email) {
+            return Task.hashFunction2(email);
+        }
+    },
+
+    /** @brief `Task.secondHashFunction`: polynomial hash modulo the table size. */
+    LEGACY_POLY {
+        @Override
+        public int hash(String email) {
+            return Task.secondHashFunction(email);
+        }
+    },
+
+    /** @brief `String.hashCode` without mixing. */
+    STRING_HASHCODE {
+        @Override
+        public int hash(String email) {
+            return email.hashCode();
+        }
+    },
+
+    /** @brief `String.hashCode` followed by the murmur3 finaliser. */
+    STRING_HASHCODE_MIX {
+        @Override
+        public int hash(String email) {
+            return fmix(email.hashCode());
+        }
+    },
+
+    /** @brief FNV-1a with a final avalanche, as used by `UserEmailIndex`. */
+    FNV1A_MIX {
+        @Override
+        public int hash(String email) {
+            return UserEmailIndex.hash(email);
+        }
+    },
+
+    /** @brief Murmur3 (x86, 32-bit) over the UTF-16 characters. */
+    MURMUR3 {
+        @Override
+        public int hash(String email) {
+            int length = email.length();
+            int h = SEED;
+            int i = 0;
+            for (; i + 1 < length; i += 2) {
+                h ^= murmurKey(word(email, i));
+                h = Integer.rotateLeft(h, 13) * 5 + 0xE6546B64;
+            }
+            if (i < length) {
+                h ^= murmurKey(email.charAt(i));
+            }
+            return fmix(h ^ (length * 2));
+        }
+    },
+
+    /** @brief xxHash32 over the UTF-16 characters. */
+    XXHASH32 {
+        @Override
+        public int hash(String email) {
+            int length = email.length();
+            int i = 0;
+            int h;
+            if (length >= 8) {
+                int v1 = SEED + P1 + P2;
+                int v2 = SEED + P2;
+                int v3 = SEED;
+                int v4 = SEED - P1;
+                for (; i + 8 <= length; i += 8) {
+                    v1 = xxRound(v1, word(email, i));
+                    v2 = xxRound(v2, word(email, i + 2));
+                    v3 = xxRound(v3, word(email, i + 4));
+                    v4 = xxRound(v4, word(email, i + 6));
+                }
+                h = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7)
+                        + Integer.rotateLeft(v3, 12) + Integer.rotateLeft(v4, 18);
+            } else {
+                h = SEED + P5;
+            }
+            h += length * 2;
+            for (; i + 2 <= length; i += 2) {
+                h += word(email, i) * P3;
+                h = Integer.rotateLeft(h, 17) * P4;
+            }
+            if (i < length) {
+                char c = email.charAt(i);
+                h += (c & 0xFF) * P5;
+                h = Integer.rotateLeft(h, 11) * P1;
+                h += (c >>> 8) * P5;
+                h = Integer.rotateLeft(h, 11) * P1;
+            }
+            h ^= h >>> 15;
+            h *= P2;
+            h ^= h >>> 13;
+            h *= P3;
+            h ^= h >>> 16;
+            return h;
+        }
+    };
+
+    /** @brief System property that selects the hash of `UserIndex`. */
+    public static final String PROPERTY = "users.hash";
+
+    /** @brief Hash used when nothing is configured. */
+    public static final EmailHash DEFAULT = FNV1A_MIX;
+
+    /** @brief Seed of the seeded functions. */
+    private static final int SEED = 0x9747B28C;
+
+    // xxHash32 primes
+    private static final int P1 = 0x9E3779B1;
+    private static final int P2 = 0x85EBCA77;
+    private static final int P3 = 0xC2B2AE3D;
+    private static final int P4 = 0x27D4EB2F;
+    private static final int P5 = 0x165667B1;
+
+    /**
+     * @brief Hashes an email address.
+     *
+     * @param email The email address.
+     * @return The hash.
+     */
+    public abstract int hash(String email);
+
+    @Override
+    public int applyAsInt(String email) {
+        return hash(email);
+    }
+
+    /**
+     * @brief Checks whether this is one of the legacy functions of `Task`.
+     * @return `true` for the functions limited to `Task.TABLE_SIZE` values.
+     */
+    public boolean isLegacy() {
+        return this == LEGACY_SUM || this == LEGACY_STEP || this == LEGACY_POLY;
+    }
+
+    /**
+     * @brief Looks up a hash by name, ignoring case.
+     *
+     * @param name The name, e.g. `murmur3`; may be `null`.
+     * @return The hash, or `DEFAULT` if the name is unknown.
+     */
+    public static EmailHash fromName(String name) {
+        if (name != null) {
+            for (EmailHash hash : values()) {
+                if (hash.name().equalsIgnoreCase(name.trim())) {
+                    return hash;
+                }
+            }
+        }
+        return DEFAULT;
+    }
+
+    /**
+     * @brief Returns the hash selected by the `users.hash` system property.
+     * @return The configured hash, or `DEFAULT`.
+     */
+    public static EmailHash fromSystemProperties() {
+        return fromName(System.getProperty(PROPERTY));
+    }
+
+    /**
+     * @brief Packs two characters into one little-endian 32-bit word.
+     */
+    private static int word(String s, int i) {
+        return s.charAt(i) | (s.charAt(i + 1) << 16);
+    }
+
+    /**
+     * @brief Scrambles one block of murmur3.
+     */
+    private static int murmurKey(int k) {
+        k *= 0xCC9E2D51;
+        k = Integer.rotateLeft(k, 15);
+        return k * 0x1B873593;
+    }
+
+    /**
+     * @brief Mixes one lane of xxHash32.
+     */
+    private static int xxRound(int acc, int input) {
+        acc += input * P2;
+        acc = Integer.rotateLeft(acc, 13);
+        return acc * P1;
+    }
+
+    /**
+     * @brief Murmur3 finaliser: makes every input bit affect every output bit.
+     *
+     * @param h The value to mix.
+     * @return The mixed value.
+     */
+    static int fmix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
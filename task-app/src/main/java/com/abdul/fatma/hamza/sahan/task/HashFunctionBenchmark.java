@@ -0,0 +1,326 @@
+/**
+ * @file HashFunctionBenchmark.java
+ * @brief Distribution and speed analysis of the email hash functions.
+ *
+ * This class loads a corpus of email addresses, hashes it with every `EmailHash` and
+ * reports how evenly each function spreads the corpus over a number of buckets (chi-square
+ * statistic), how many addresses land in an already used bucket (collision rate) and how
+ * many addresses it hashes per second. The winner can then be configured for `UserIndex`
+ * with `-Dusers.hash=<NAME>`.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * @class HashFunctionBenchmark
+ * @brief Static helpers to build email corpora and compare hash functions on them.
+ */
+public final class HashFunctionBenchmark {
+
+    /** @brief Bucket count used by `main` when none is given. */
+    public static final int DEFAULT_BUCKETS = 1024;
+
+    /** @brief Timed passes over the corpus used by `main` when none is given. */
+    public static final int DEFAULT_ROUNDS = 20;
+
+    /** @brief Largest normalised chi-square still accepted as a uniform spread by `best`. */
+    public static final double UNIFORM_LIMIT = 1.5;
+
+    private static final String[] FIRST_NAMES = {
+        "ahmet", "mehmet", "ayse", "fatma", "hamza", "sahan", "abdul", "zeynep", "emre", "elif",
+        "can", "deniz", "ali", "veli", "john", "jane", "maria", "omar", "lena", "yusuf"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "yilmaz", "kaya", "demir", "sahin", "celik", "yildiz", "ozturk", "aydin", "arslan", "dogan",
+        "smith", "brown", "garcia", "muller", "rossi", "nguyen", "kim", "khan", "silva", "novak"
+    };
+
+    private static final String[] DOMAINS = {
+        "gmail.com", "hotmail.com", "outlook.com", "yahoo.com", "erdogan.edu.tr",
+        "example.com", "company.com.tr", "mail.ru", "proton.me", "icloud.com"
+    };
+
+    private static final String[] SEPARATORS = {"", ".", "_", "-"};
+
+    private HashFunctionBenchmark() {
+    }
+
+    /**
+     * @class Report
+     * @brief Result of analysing one hash function on one corpus.
+     */
+    public static final class Report {
+
+        /** @brief The hash function. */
+        public final EmailHash hash;
+
+        /** @brief Number of emails in the corpus. */
+        public final int keys;
+
+        /** @brief Number of buckets. */
+        public final int buckets;
+
+        /** @brief Pearson chi-square statistic of the bucket counts against a uniform spread. */
+        public final double chiSquare;
+
+        /** @brief Emails that landed in an already used bucket, as a fraction of all emails. */
+        public final double collisionRate;
+
+        /** @brief Email pairs with the same full 32-bit hash. */
+        public final int fullCollisions;
+
+        /** @brief Largest number of emails in one bucket. */
+        public final int maxBucket;
+
+        /** @brief Emails hashed per second, or `0` if throughput was not measured. */
+        public final double hashesPerSecond;
+
+        /**
+         * @brief Creates a report.
+         */
+        Report(EmailHash hash, int keys, int buckets, double chiSquare, double collisionRate,
+               int fullCollisions, int maxBucket, double hashesPerSecond) {
+            this.hash = hash;
+            this.keys = keys;
+            this.buckets = buckets;
+            this.chiSquare = chiSquare;
+            this.collisionRate = collisionRate;
+            this.fullCollisions = fullCollisions;
+            this.maxBucket = maxBucket;
+            this.hashesPerSecond = hashesPerSecond;
+        }
+
+        /**
+         * @brief Returns the chi-square statistic divided by its degrees of freedom.
+         *
+         * Close to `1` for a uniform spread; far above `1` when emails cluster.
+         *
+         * @return The normalised statistic.
+         */
+        public double normalizedChiSquare() {
+            return buckets > 1 ? chiSquare / (buckets - 1) : 0;
+        }
+    }
+
+    /**
+     * @brief Loads a corpus from a text file with one email per line.
+     *
+     * Blank lines and lines starting with `#` are skipped; duplicates are kept once.
+     *
+     * @param path Path of the corpus file.
+     * @return The emails in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<String> loadCorpus(String path) throws IOException {
+        Set<String> emails = new LinkedHashSet<>();
+        for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            String email = line.trim();
+            if (!email.isEmpty() && !email.startsWith("#")) {
+                emails.add(email);
+            }
+        }
+        return new ArrayList<>(emails);
+    }
+
+    /**
+     * @brief Writes a corpus file with one email per line.
+     *
+     * @param path Path of the corpus file.
+     * @param emails The emails.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeCorpus(String path, List<String> emails) throws IOException {
+        Files.write(Paths.get(path), emails, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @brief Generates distinct, realistic looking email addresses.
+     *
+     * Addresses combine common first and last names, separators, short numbers and a
+     * handful of domains, so they share long prefixes and suffixes like real user lists.
+     *
+     * @param count Number of emails.
+     * @param seed Seed of the generator; the same seed gives the same corpus.
+     * @return The emails.
+     */
+    public static List<String> syntheticCorpus(int count, long seed) {
+        Random random = new Random(seed);
+        Set<String> emails = new LinkedHashSet<>(count * 2);
+        while (emails.size() < count) {
+            StringBuilder email = new StringBuilder(32);
+            email.append(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            email.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+            email.append(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            if (random.nextInt(3) != 0) {
+                email.append(random.nextInt(random.nextBoolean() ? 100 : 10000));
+            }
+            email.append('@').append(DOMAINS[random.nextInt(DOMAINS.length)]);
+            emails.add(email.toString());
+        }
+        return new ArrayList<>(emails);
+    }
+
+    /**
+     * @brief Analyses the distribution of one hash function.
+     *
+     * @param hash The hash function.
+     * @param corpus The emails.
+     * @param buckets Number of buckets; a hash is reduced with `Math.floorMod`.
+     * @param rounds Timed passes over the corpus; `0` skips the throughput measurement.
+     * @return The report.
+     */
+    public static Report analyze(EmailHash hash, List<String> corpus, int buckets, int rounds) {
+        int[] counts = new int[buckets];
+        Set<Integer> fullHashes = new HashSet<>(corpus.size() * 2);
+        for (String email : corpus) {
+            int h = hash.hash(email);
+            counts[Math.floorMod(h, buckets)]++;
+            fullHashes.add(h);
+        }
+
+        double expected = (double) corpus.size() / buckets;
+        double chiSquare = 0;
+        int used = 0;
+        int maxBucket = 0;
+        for (int count : counts) {
+            double diff = count - expected;
+            chiSquare += diff * diff / expected;
+            if (count > 0) {
+                used++;
+            }
+            maxBucket = Math.max(maxBucket, count);
+        }
+        double collisionRate = corpus.isEmpty() ? 0 : (double) (corpus.size() - used) / corpus.size();
+
+        return new Report(hash, corpus.size(), buckets, corpus.isEmpty() ? 0 : chiSquare, collisionRate,
+                corpus.size() - fullHashes.size(), maxBucket, measureThroughput(hash, corpus, rounds));
+    }
+
+    /**
+     * @brief Measures how many emails a hash function hashes per second.
+     *
+     * One untimed pass warms the code up before the timed passes.
+     *
+     * @param hash The hash function.
+     * @param corpus The emails.
+     * @param rounds Timed passes over the corpus.
+     * @return Emails per second, or `0` for no rounds or an empty corpus.
+     */
+    static double measureThroughput(EmailHash hash, List<String> corpus, int rounds) {
+        if (rounds <= 0 || corpus.isEmpty()) {
+            return 0;
+        }
+        int sink = 0;
+        for (String email : corpus) {
+            sink += hash.hash(email);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String email : corpus) {
+                sink += hash.hash(email);
+            }
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        // The sum keeps the loop from being optimised away
+        if (sink == 42) {
+            elapsed++;
+        }
+        return (double) corpus.size() * rounds * 1e9 / elapsed;
+    }
+
+    /**
+     * @brief Analyses every hash function, most uniform first.
+     *
+     * @param corpus The emails.
+     * @param buckets Number of buckets.
+     * @param rounds Timed passes over the corpus per function.
+     * @return One report per `EmailHash`, sorted by chi-square.
+     */
+    public static List<Report> compare(List<String> corpus, int buckets, int rounds) {
+        List<Report> reports = new ArrayList<>();
+        for (EmailHash hash : EmailHash.values()) {
+            reports.add(analyze(hash, corpus, buckets, rounds));
+        }
+        reports.sort(Comparator.comparingDouble(report -> report.chiSquare));
+        return reports;
+    }
+
+    /**
+     * @brief Picks the hash to configure for the user index.
+     *
+     * Among the functions whose normalised chi-square is at most `UNIFORM_LIMIT`, the
+     * fastest wins; if none spreads the corpus uniformly, the most uniform one wins.
+     *
+     * @param reports Reports of one corpus.
+     * @return The winning hash, or `EmailHash.DEFAULT` for no reports.
+     */
+    public static EmailHash best(List<Report> reports) {
+        Report best = null;
+        for (Report report : reports) {
+            if (report.normalizedChiSquare() <= UNIFORM_LIMIT
+                    && (best == null || report.hashesPerSecond > best.hashesPerSecond)) {
+                best = report;
+            }
+        }
+        if (best == null) {
+            for (Report report : reports) {
+                if (best == null || report.chiSquare < best.chiSquare) {
+                    best = report;
+                }
+            }
+        }
+        return best == null ? EmailHash.DEFAULT : best.hash;
+    }
+
+    /**
+     * @brief Prints a comparison table and the recommended configuration.
+     *
+     * @param out The output stream.
+     * @param reports Reports of one corpus.
+     */
+    public static void print(PrintStream out, List<Report> reports) {
+        out.println(String.format("%-20s %12s %10s %10s %8s %12s",
+                "Hash", "Chi-square", "Chi2/df", "Collision", "MaxBkt", "Mhash/s"));
+        for (Report report : reports) {
+            out.println(String.format("%-20s %12.1f %10.3f %9.2f%% %8d %12.2f",
+                    report.hash.name(), report.chiSquare, report.normalizedChiSquare(),
+                    report.collisionRate * 100, report.maxBucket, report.hashesPerSecond / 1e6));
+        }
+        out.println("Recommended: -D" + EmailHash.PROPERTY + "=" + best(reports).name());
+    }
+
+    /**
+     * @brief Runs the comparison from the command line.
+     *
+     * Arguments: `[corpus file] [buckets] [rounds]`. Without a corpus file a synthetic
+     * corpus of 100000 emails is used.
+     *
+     * @param args The command line arguments.
+     * @throws IOException If the corpus file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> corpus = args.length > 0 ? loadCorpus(args[0]) : syntheticCorpus(100_000, 1L);
+        int buckets = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BUCKETS;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ROUNDS;
+        System.out.println("Corpus: " + corpus.size() + " emails, " + buckets + " buckets");
+        print(System.out, compare(corpus, buckets, rounds));
+    }
+}
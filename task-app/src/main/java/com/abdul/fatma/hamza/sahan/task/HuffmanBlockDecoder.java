@@ -0,0 +1,260 @@
+/**
+ * @file HuffmanBlockDecoder.java
+ * @brief Bulk decoder of the entries of a Huffman user file.
+ *
+ * This class decodes the entries of `user.huf` a block at a time into one reusable
+ * character buffer. Scanning the file for an email then compares characters in place
+ * and creates no `String` or decoder objects per entry.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * @class HuffmanBlockDecoder
+ * @brief Decodes Huffman file entries in blocks into a shared `char[]`.
+ *
+ * After `nextBlock` returns `n`, entries `0..n-1` of the block are available through
+ * `id`, `emailEquals`, `emailOffset`/`emailLength` and `passwordOffset`/`passwordLength`
+ * (offsets into `chars()`); `email` and `password` create strings only on request. The
+ * next call to `nextBlock` overwrites the block.
+ */
+public final class HuffmanBlockDecoder {
+
+    /** @brief Entries decoded per block by `find` and `UserLog.readHuffman`. */
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+
+    /** @brief The whole Huffman file. */
+    private final byte[] data;
+
+    /** @brief The code table from the file header. */
+    private final HuffmanCoding.CodeTable table;
+
+    /** @brief Offset of the next entry in `data`. */
+    private int position;
+
+    /** @brief Decoded characters of the current block. */
+    private char[] chars = new char[4096];
+
+    // Per-entry fields of the current block
+    private int[] ids = new int[0];
+    private int[] emailOffsets = new int[0];
+    private int[] emailLengths = new int[0];
+    private int[] passwordOffsets = new int[0];
+    private int[] passwordLengths = new int[0];
+
+    /**
+     * @brief Creates a decoder for the bytes of a Huffman file.
+     *
+     * @param data The file contents, header included.
+     * @throws IOException If the data does not start with a Huffman file header.
+     */
+    public HuffmanBlockDecoder(byte[] data) throws IOException {
+        this.data = data;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (data.length < 4 || in.readInt() != UserLog.HUFFMAN_MAGIC) {
+            throw new IOException("Not a Huffman user file.");
+        }
+        this.table = HuffmanCoding.CodeTable.readFrom(in);
+        this.position = data.length - in.available();
+    }
+
+    /**
+     * @brief Reads a Huffman file into a new decoder.
+     *
+     * @param huffmanPath Path of the Huffman file.
+     * @return The decoder.
+     * @throws IOException If the file cannot be read or is not a Huffman file.
+     */
+    public static HuffmanBlockDecoder open(String huffmanPath) throws IOException {
+        return new HuffmanBlockDecoder(Files.readAllBytes(Paths.get(huffmanPath)));
+    }
+
+    /**
+     * @brief Decodes the next block of entries.
+     *
+     * @param maxEntries Largest number of entries to decode.
+     * @return The number of entries decoded, `0` at the end of the file.
+     * @throws IOException If an entry is truncated or holds invalid codes.
+     */
+    public int nextBlock(int maxEntries) throws IOException {
+        if (ids.length < maxEntries) {
+            ids = new int[maxEntries];
+            emailOffsets = new int[maxEntries];
+            emailLengths = new int[maxEntries];
+            passwordOffsets = new int[maxEntries];
+            passwordLengths = new int[maxEntries];
+        }
+        int used = 0;
+        int count = 0;
+        while (count < maxEntries && position < data.length) {
+            ids[count] = readInt();
+            emailOffsets[count] = used;
+            emailLengths[count] = decodeString(used);
+            used += emailLengths[count];
+            passwordOffsets[count] = used;
+            passwordLengths[count] = decodeString(used);
+            used += passwordLengths[count];
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @brief Decodes one string of an entry into `chars`.
+     *
+     * @param offset Index in `chars` of the first character.
+     * @return The number of characters.
+     */
+    private int decodeString(int offset) throws IOException {
+        int length = readUnsignedShort();
+        int bytes = readInt();
+        if (bytes < 0 || bytes > data.length - position) {
+            throw new IOException("Truncated Huffman entry.");
+        }
+        if (offset + length > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, offset + length));
+        }
+        try {
+            table.decode(data, position, bytes, length, chars, offset);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt Huffman entry: " + e.getMessage(), e);
+        }
+        position += bytes;
+        return length;
+    }
+
+    private int readInt() throws IOException {
+        if (data.length - position < 4) {
+            throw new IOException("Truncated Huffman entry.");
+        }
+        int value = (data[position] & 0xFF) << 24 | (data[position + 1] & 0xFF) << 16
+                | (data[position + 2] & 0xFF) << 8 | (data[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    private int readUnsignedShort() throws IOException {
+        if (data.length - position < 2) {
+            throw new IOException("Truncated Huffman entry.");
+        }
+        int value = (data[position] & 0xFF) << 8 | (data[position + 1] & 0xFF);
+        position += 2;
+        return value;
+    }
+
+    /**
+     * @brief Returns the shared character buffer of the current block.
+     * @return The buffer; valid until the next `nextBlock`.
+     */
+    public char[] chars() {
+        return chars;
+    }
+
+    /** @brief Returns the user id of entry `i` of the block. */
+    public int id(int i) {
+        return ids[i];
+    }
+
+    /** @brief Returns the offset of the email of entry `i` in `chars()`. */
+    public int emailOffset(int i) {
+        return emailOffsets[i];
+    }
+
+    /** @brief Returns the length of the email of entry `i`. */
+    public int emailLength(int i) {
+        return emailLengths[i];
+    }
+
+    /** @brief Returns the offset of the password of entry `i` in `chars()`. */
+    public int passwordOffset(int i) {
+        return passwordOffsets[i];
+    }
+
+    /** @brief Returns the length of the password of entry `i`. */
+    public int passwordLength(int i) {
+        return passwordLengths[i];
+    }
+
+    /**
+     * @brief Compares the email of an entry with a string without creating a string.
+     *
+     * @param i The entry of the block.
+     * @param email The email address.
+     * @return `true` if they are equal.
+     */
+    public boolean emailEquals(int i, String email) {
+        int length = emailLengths[i];
+        if (length != email.length()) {
+            return false;
+        }
+        int offset = emailOffsets[i];
+        for (int k = 0; k < length; k++) {
+            if (chars[offset + k] != email.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @brief Returns the email of entry `i` as a new string. */
+    public String email(int i) {
+        return new String(chars, emailOffsets[i], emailLengths[i]);
+    }
+
+    /** @brief Returns the password of entry `i` as a new string. */
+    public String password(int i) {
+        return new String(chars, passwordOffsets[i], passwordLengths[i]);
+    }
+
+    /**
+     * @brief Returns entry `i` of the block as a user with id, email and password.
+     *
+     * @param i The entry.
+     * @return A new user.
+     */
+    public User user(int i) {
+        User user = new User();
+        user.setId(ids[i]);
+        user.setEmail(email(i));
+        user.setPassword(password(i));
+        return user;
+    }
+
+    /**
+     * @brief Scans the remaining entries for an email.
+     *
+     * @param email The email address.
+     * @return The matching entry as a user, or `null` if no entry has this email.
+     * @throws IOException If an entry is corrupt.
+     */
+    public User find(String email) throws IOException {
+        int count;
+        while ((count = nextBlock(DEFAULT_BLOCK_SIZE)) > 0) {
+            for (int i = 0; i < count; i++) {
+                if (emailEquals(i, email)) {
+                    return user(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @brief Returns the code table of the file.
+     * @return The table.
+     */
+    public HuffmanCoding.CodeTable getTable() {
+        return table;
+    }
+}
@@ -2,12 +2,10 @@
  * @file HuffmanCoding.java
  * @brief Provides Huffman encoding and decoding functionality.
  *
- * This class contains static methods for Huffman encoding and decoding.
- * It allows compressing a given string into a Huffman-encoded format and
- * decompressing an encoded string back to its original form.
- *
- * @note The current implementation serves as a placeholder and does not
- * include the actual Huffman encoding/decoding logic.
+ * This class contains a canonical Huffman codec for the strings of the Huffman user
+ * file (`user.huf`): a code table trained on character frequencies, a compact
+ * serialisation of that table, a bit writer that packs codes into bytes and a
+ * two-level table-driven decoder.
  *
  * @version 1.0
  * @date 2024-12-24
@@ -16,45 +14,871 @@
 
 package com.abdul.fatma.hamza.sahan.task;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
 /**
  * @class HuffmanCoding
  * @brief A utility class for Huffman encoding and decoding.
  *
- * The class provides static methods to perform Huffman compression
- * and decompression. Actual encoding and decoding algorithms can
- * be implemented in future updates.
+ * Codes are canonical: a table is fully described by the code length of every symbol,
+ * and the codes themselves are assigned in order of (length, character). Besides the
+ * trained characters every table has an escape symbol, followed by the raw 16-bit
+ * character, so any string can be encoded with any table.
  */
 public class HuffmanCoding {
 
+    /** @brief Longest code a table may assign. */
+    public static final int MAX_CODE_LENGTH = 20;
+
+    /**
+     * @brief Width of the primary decode table.
+     *
+     * Codes of up to this many bits decode with one table probe; longer codes take one
+     * more probe into a secondary table of their primary prefix.
+     */
+    public static final int PRIMARY_BITS = 11;
+
+    /** @brief Decode table entry of a bit pattern that starts no code. */
+    private static final int INVALID = Integer.MIN_VALUE;
+
+    /** @brief Symbol value of the escape code in decode tables. */
+    static final int ESCAPE = -1;
+
     /**
      * @brief Encodes a given string using Huffman coding.
      *
-     * This method takes an input string and compresses it using Huffman
-     * encoding. Currently, it serves as a placeholder.
+     * This method encodes the string with the default code table and returns the code
+     * bits as a string of `0` and `1` characters.
      *
      * @param input The string to be encoded.
      * @return The Huffman-encoded string.
-     *
-     * @note Replace the placeholder implementation with actual encoding logic.
      */
     public static String huffmanEncode(String input) {
-        // Actual Huffman encoding logic can be implemented here.
-        return input; // Placeholder
+        BitWriter writer = new BitWriter();
+        defaultTable().encode(input, writer);
+        byte[] bytes = writer.toByteArray();
+        StringBuilder bits = new StringBuilder(writer.bitLength());
+        for (int i = 0; i < writer.bitLength(); i++) {
+            bits.append((bytes[i >>> 3] >>> (7 - (i & 7)) & 1) == 0 ? '0' : '1');
+        }
+        return bits.toString();
     }
 
     /**
      * @brief Decodes a Huffman-encoded string.
      *
-     * This method takes a Huffman-encoded string and decompresses it
-     * back into its original form. Currently, it serves as a placeholder.
+     * This method takes a string of code bits produced by `huffmanEncode` and decodes
+     * it with the default code table.
      *
      * @param encoded The Huffman-encoded string.
      * @return The decoded original string.
-     *
-     * @note Replace the placeholder implementation with actual decoding logic.
+     * @throws IllegalArgumentException If the bits are not a valid encoding.
      */
     public static String huffmanDecode(String encoded) {
-        // Actual Huffman decoding logic can be implemented here.
-        return encoded; // Placeholder
+        BitWriter writer = new BitWriter();
+        for (int i = 0; i < encoded.length(); i++) {
+            writer.write(encoded.charAt(i) == '1' ? 1 : 0, 1);
+        }
+        BitReader reader = new BitReader(writer.toByteArray(), 0, (writer.bitLength() + 7) >>> 3);
+        CodeTable table = defaultTable();
+        StringBuilder decoded = new StringBuilder();
+        while (reader.position() < encoded.length()) {
+            decoded.append(table.decodeChar(reader));
+        }
+        if (reader.position() != encoded.length()) {
+            throw new IllegalArgumentException("Truncated Huffman code.");
+        }
+        return decoded.toString();
+    }
+
+    /**
+     * @brief Builds a code table from the character frequencies of a corpus.
+     *
+     * @param corpus The training strings.
+     * @return The table.
+     */
+    public static CodeTable train(Iterable<String> corpus) {
+        Map<Character, Long> frequencies = new HashMap<>();
+        for (String s : corpus) {
+            for (int i = 0; i < s.length(); i++) {
+                frequencies.merge(s.charAt(i), 1L, Long::sum);
+            }
+        }
+        return CodeTable.fromFrequencies(frequencies);
+    }
+
+    /**
+     * @brief Returns the table used when a Huffman file is started without users.
+     *
+     * Trained once on synthetic email addresses, stored password hashes and every
+     * printable ASCII character.
+     *
+     * @return The default table.
+     */
+    public static CodeTable defaultTable() {
+        return DefaultTable.TABLE;
+    }
+
+    /**
+     * @brief Returns the training corpus of the default table.
+     * @return Synthetic emails, password hashes and the printable ASCII characters.
+     */
+    static List<String> defaultCorpus() {
+        List<String> corpus = new ArrayList<>(HashFunctionBenchmark.syntheticCorpus(2000, 7L));
+        String base64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        Random random = new Random(7L);
+        for (int i = 0; i < 500; i++) {
+            StringBuilder hash = new StringBuilder(PasswordHasher.PREFIX + "$" + PasswordHasher.DEFAULT_ITERATIONS + "$");
+            for (int j = 0; j < 66; j++) {
+                hash.append(j == 22 ? '$' : base64.charAt(random.nextInt(base64.length())));
+            }
+            corpus.add(hash.toString());
+        }
+        StringBuilder ascii = new StringBuilder();
+        for (char c = ' '; c <= '~'; c++) {
+            ascii.append(c);
+        }
+        corpus.add(ascii.toString());
+        return corpus;
+    }
+
+    /**
+     * @brief Lazily built default table.
+     */
+    private static final class DefaultTable {
+        static final CodeTable TABLE = train(defaultCorpus());
+    }
+
+    /**
+     * @class CodeTable
+     * @brief Immutable canonical Huffman code over 16-bit characters plus an escape.
+     *
+     * Serialised form (`writeTo`): the maximum code length, the escape code length, the
+     * number of characters of every length from `1` to the maximum, then the characters
+     * in canonical order. Within one length the escape comes after the characters.
+     */
+    public static final class CodeTable {
+
+        /** @brief Decoded symbol of every canonical index; `ESCAPE` for the escape. */
+        private final int[] symbols;
+
+        /** @brief Code length of every canonical index. */
+        private final int[] lengths;
+
+        /** @brief Number of codes of every length. */
+        private final int[] counts;
+
+        /** @brief First code of every length. */
+        private final int[] firstCode;
+
+        /** @brief Canonical index of the first code of every length. */
+        private final int[] firstIndex;
+
+        /** @brief Longest code length. */
+        private final int maxLength;
+
+        /** @brief Code of every character below `codes.length`; valid where `codeLengths > 0`. */
+        private final int[] codes;
+
+        /** @brief Code length of every character below `codeLengths.length`; `0` if it has none. */
+        private final byte[] codeLengths;
+
+        /** @brief Code and length of the escape. */
+        private final int escapeCode;
+        private final int escapeLength;
+
+        /**
+         * @brief Primary decode table, indexed by the next `PRIMARY_BITS` bits.
+         *
+         * An entry `>= 0` is `(index << 5) | length` of the code starting with those bits.
+         * An entry `~((offset << 5) | bits)` links to the secondary table at `offset`,
+         * indexed by the `bits` bits that follow. `INVALID` marks unused prefixes.
+         */
+        private final int[] primary;
+
+        /** @brief All secondary tables, holding `(index << 5) | length` or `INVALID`. */
+        private final int[] secondary;
+
+        /**
+         * @brief Creates a table from code lengths.
+         *
+         * @param chars The characters, with their lengths in `charLengths`.
+         * @param charLengths Code length of every character, `1..MAX_CODE_LENGTH`.
+         * @param escapeLength Code length of the escape.
+         * @throws IllegalArgumentException If the lengths do not form a prefix code.
+         */
+        CodeTable(char[] chars, int[] charLengths, int escapeLength) {
+            int n = chars.length + 1;
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            // Canonical order: by length, then by character, the escape last within its length
+            Arrays.sort(order, (a, b) -> {
+                int la = a == chars.length ? escapeLength : charLengths[a];
+                int lb = b == chars.length ? escapeLength : charLengths[b];
+                if (la != lb) {
+                    return Integer.compare(la, lb);
+                }
+                int sa = a == chars.length ? 0x10000 : chars[a];
+                int sb = b == chars.length ? 0x10000 : chars[b];
+                return Integer.compare(sa, sb);
+            });
+
+            int max = 0;
+            symbols = new int[n];
+            lengths = new int[n];
+            for (int i = 0; i < n; i++) {
+                int k = order[i];
+                symbols[i] = k == chars.length ? ESCAPE : chars[k];
+                lengths[i] = k == chars.length ? escapeLength : charLengths[k];
+                if (lengths[i] < 1 || lengths[i] > MAX_CODE_LENGTH) {
+                    throw new IllegalArgumentException("Invalid code length " + lengths[i]);
+                }
+                if (i > 0 && lengths[i] == lengths[i - 1] && symbols[i] == symbols[i - 1]) {
+                    throw new IllegalArgumentException("Duplicate symbol " + symbols[i]);
+                }
+                max = Math.max(max, lengths[i]);
+            }
+            maxLength = max;
+
+            counts = new int[max + 1];
+            for (int length : lengths) {
+                counts[length]++;
+            }
+            firstCode = new int[max + 2];
+            firstIndex = new int[max + 2];
+            long code = 0;
+            int index = 0;
+            for (int length = 1; length <= max; length++) {
+                code = (code + (length > 1 ? counts[length - 1] : 0)) << (length > 1 ? 1 : 0);
+                firstCode[length] = (int) code;
+                firstIndex[length] = index;
+                index += counts[length];
+            }
+            // Kraft: the last code of the longest length must still fit in its width
+            if (code + counts[max] > (1L << max)) {
+                throw new IllegalArgumentException("Code lengths over-subscribe the code space.");
+            }
+
+            int maxChar = 0;
+            for (char c : chars) {
+                maxChar = Math.max(maxChar, c);
+            }
+            codes = new int[chars.length == 0 ? 0 : maxChar + 1];
+            codeLengths = new byte[codes.length];
+            int escCode = 0;
+            for (int i = 0; i < n; i++) {
+                int c = codeAt(i);
+                if (symbols[i] == ESCAPE) {
+                    escCode = c;
+                } else {
+                    codes[symbols[i]] = c;
+                    codeLengths[symbols[i]] = (byte) lengths[i];
+                }
+            }
+            this.escapeCode = escCode;
+            this.escapeLength = escapeLength;
+
+            primary = new int[1 << PRIMARY_BITS];
+            Arrays.fill(primary, INVALID);
+            // Each long prefix gets a secondary table as wide as its longest code needs
+            int[] subBits = new int[primary.length];
+            for (int i = 0; i < n; i++) {
+                if (lengths[i] > PRIMARY_BITS) {
+                    int prefix = codeAt(i) >>> (lengths[i] - PRIMARY_BITS);
+                    subBits[prefix] = Math.max(subBits[prefix], lengths[i] - PRIMARY_BITS);
+                }
+            }
+            int secondarySize = 0;
+            for (int prefix = 0; prefix < primary.length; prefix++) {
+                if (subBits[prefix] > 0) {
+                    primary[prefix] = ~((secondarySize << 5) | subBits[prefix]);
+                    secondarySize += 1 << subBits[prefix];
+                }
+            }
+            secondary = new int[secondarySize];
+            Arrays.fill(secondary, INVALID);
+            for (int i = 0; i < n; i++) {
+                int length = lengths[i];
+                int c = codeAt(i);
+                if (length <= PRIMARY_BITS) {
+                    int from = c << (PRIMARY_BITS - length);
+                    Arrays.fill(primary, from, from + (1 << (PRIMARY_BITS - length)), (i << 5) | length);
+                } else {
+                    int link = ~primary[c >>> (length - PRIMARY_BITS)];
+                    int bits = link & 0x1F;
+                    int rest = length - PRIMARY_BITS;
+                    int from = (link >>> 5) + ((c & ((1 << rest) - 1)) << (bits - rest));
+                    Arrays.fill(secondary, from, from + (1 << (bits - rest)), (i << 5) | length);
+                }
+            }
+        }
+
+        /**
+         * @brief Builds a table from character frequencies.
+         *
+         * The escape gets a weight of `1`. If the Huffman tree is deeper than
+         * `MAX_CODE_LENGTH`, the weights are halved and the tree is rebuilt.
+         *
+         * @param frequencies Occurrences of every character.
+         * @return The table.
+         */
+        public static CodeTable fromFrequencies(Map<Character, Long> frequencies) {
+            char[] chars = new char[frequencies.size()];
+            long[] weights = new long[chars.length + 1];
+            int i = 0;
+            for (Map.Entry<Character, Long> entry : frequencies.entrySet()) {
+                chars[i] = entry.getKey();
+                weights[i] = Math.max(1, entry.getValue());
+                i++;
+            }
+            weights[chars.length] = 1;
+
+            int[] lengths = codeLengths(weights);
+            while (Arrays.stream(lengths).max().getAsInt() > MAX_CODE_LENGTH) {
+                for (int k = 0; k < weights.length; k++) {
+                    weights[k] = (weights[k] >>> 1) | 1;
+                }
+                lengths = codeLengths(weights);
+            }
+            return new CodeTable(chars, Arrays.copyOf(lengths, chars.length), lengths[chars.length]);
+        }
+
+        /**
+         * @brief Computes Huffman code lengths.
+         *
+         * @param weights Weight of every symbol.
+         * @return Depth of every symbol in the Huffman tree, at least `1`.
+         */
+        static int[] codeLengths(long[] weights) {
+            int n = weights.length;
+            int[] parent = new int[2 * n - 1];
+            // Node: {weight, id}; ties go to the lower id, so the result is deterministic
+            PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) ->
+                    a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            for (int i = 0; i < n; i++) {
+                queue.add(new long[]{weights[i], i});
+            }
+            int next = n;
+            while (queue.size() > 1) {
+                long[] a = queue.poll();
+                long[] b = queue.poll();
+                parent[(int) a[1]] = next;
+                parent[(int) b[1]] = next;
+                queue.add(new long[]{a[0] + b[0], next});
+                next++;
+            }
+            int root = next - 1;
+            int[] depth = new int[next];
+            for (int node = root - 1; node >= 0; node--) {
+                depth[node] = depth[parent[node]] + 1;
+            }
+            int[] lengths = new int[n];
+            for (int i = 0; i < n; i++) {
+                lengths[i] = Math.max(1, depth[i]);
+            }
+            return lengths;
+        }
+
+        /**
+         * @brief Writes the table.
+         *
+         * @param out The output.
+         * @throws IOException On I/O errors.
+         */
+        public void writeTo(DataOutput out) throws IOException {
+            out.writeByte(maxLength);
+            out.writeByte(escapeLength);
+            for (int length = 1; length <= maxLength; length++) {
+                out.writeShort(counts[length] - (length == escapeLength ? 1 : 0));
+            }
+            for (int symbol : symbols) {
+                if (symbol != ESCAPE) {
+                    out.writeChar(symbol);
+                }
+            }
+        }
+
+        /**
+         * @brief Reads a table written by `writeTo`.
+         *
+         * @param in The input.
+         * @return The table.
+         * @throws EOFException If the input ends early.
+         * @throws StreamCorruptedException If the input does not hold a valid table.
+         */
+        public static CodeTable readFrom(DataInput in) throws IOException {
+            int max = in.readUnsignedByte();
+            int escape = in.readUnsignedByte();
+            if (max < 1 || max > MAX_CODE_LENGTH || escape < 1 || escape > max) {
+                throw new StreamCorruptedException("Corrupt Huffman code table.");
+            }
+            int[] perLength = new int[max + 1];
+            int total = 0;
+            for (int length = 1; length <= max; length++) {
+                perLength[length] = in.readUnsignedShort();
+                total += perLength[length];
+            }
+            char[] chars = new char[total];
+            int[] charLengths = new int[total];
+            int i = 0;
+            for (int length = 1; length <= max; length++) {
+                for (int k = 0; k < perLength[length]; k++) {
+                    chars[i] = in.readChar();
+                    charLengths[i++] = length;
+                }
+            }
+            try {
+                return new CodeTable(chars, charLengths, escape);
+            } catch (IllegalArgumentException e) {
+                throw new StreamCorruptedException("Corrupt Huffman code table: " + e.getMessage());
+            }
+        }
+
+        /**
+         * @brief Appends the code of a string to a bit writer.
+         *
+         * @param s The string.
+         * @param writer The bit writer.
+         */
+        public void encode(String s, BitWriter writer) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < codeLengths.length && codeLengths[c] != 0) {
+                    writer.write(codes[c], codeLengths[c]);
+                } else {
+                    writer.write(escapeCode, escapeLength);
+                    writer.write(c, 16);
+                }
+            }
+        }
+
+        /**
+         * @brief Encodes a string into bytes, padded with zero bits.
+         *
+         * @param s The string.
+         * @return The code bytes.
+         */
+        public byte[] encode(String s) {
+            BitWriter writer = new BitWriter();
+            encode(s, writer);
+            return writer.toByteArray();
+        }
+
+        /**
+         * @brief Returns the number of code bits of a string.
+         *
+         * @param s The string.
+         * @return The bit count.
+         */
+        public long encodedBits(String s) {
+            long bits = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                bits += c < codeLengths.length && codeLengths[c] != 0 ? codeLengths[c] : escapeLength + 16;
+            }
+            return bits;
+        }
+
+        /**
+         * @brief Returns the number of code bits of a character distribution.
+         *
+         * @param frequencies Occurrences of every character.
+         * @return The bits needed to encode all occurrences with this table.
+         */
+        public long encodedBits(Map<Character, Long> frequencies) {
+            long bits = 0;
+            for (Map.Entry<Character, Long> entry : frequencies.entrySet()) {
+                char c = entry.getKey();
+                int length = c < codeLengths.length && codeLengths[c] != 0 ? codeLengths[c] : escapeLength + 16;
+                bits += length * entry.getValue();
+            }
+            return bits;
+        }
+
+        /**
+         * @brief Returns the canonical code of a canonical index.
+         *
+         * @param i The index, `0 <= i < size()`.
+         * @return The code, in the low `lengthAt(i)` bits.
+         */
+        int codeAt(int i) {
+            return firstCode[lengths[i]] + (i - firstIndex[lengths[i]]);
+        }
+
+        /**
+         * @brief Returns the code length of a canonical index.
+         *
+         * @param i The index.
+         * @return The length.
+         */
+        int lengthAt(int i) {
+            return lengths[i];
+        }
+
+        /**
+         * @brief Returns the symbol of a canonical index.
+         *
+         * @param i The index.
+         * @return The character, or `ESCAPE`.
+         */
+        int symbolAt(int i) {
+            return symbols[i];
+        }
+
+        /**
+         * @brief Returns the number of codes, the escape included.
+         * @return The code count.
+         */
+        int size() {
+            return symbols.length;
+        }
+
+        /**
+         * @brief Decodes one character.
+         *
+         * One probe of the primary table resolves codes of up to `PRIMARY_BITS` bits; a
+         * second probe into a secondary table resolves longer ones.
+         *
+         * @param in The bit reader.
+         * @return The character.
+         * @throws IllegalArgumentException If the bits are not a code of this table.
+         */
+        char decodeChar(BitReader in) {
+            int entry = primary[in.peek(PRIMARY_BITS)];
+            if (entry < 0 && entry != INVALID) {
+                int link = ~entry;
+                int bits = link & 0x1F;
+                entry = secondary[(link >>> 5) + (in.peek(PRIMARY_BITS + bits) & ((1 << bits) - 1))];
+            }
+            if (entry == INVALID) {
+                throw new IllegalArgumentException("Invalid Huffman code.");
+            }
+            in.skip(entry & 0x1F);
+            int symbol = symbols[entry >>> 5];
+            if (symbol == ESCAPE) {
+                int c = in.peek(16);
+                in.skip(16);
+                return (char) c;
+            }
+            return (char) symbol;
+        }
+
+        /**
+         * @brief Decodes a number of characters into an array.
+         *
+         * @param in The bit reader.
+         * @param count Number of characters to decode.
+         * @param dest The destination array.
+         * @param offset Index of the first decoded character in `dest`.
+         * @throws IllegalArgumentException If the bits are not valid or run out.
+         */
+        public void decode(BitReader in, int count, char[] dest, int offset) {
+            for (int i = 0; i < count; i++) {
+                dest[offset + i] = decodeChar(in);
+            }
+            if (in.isOverrun()) {
+                throw new IllegalArgumentException("Truncated Huffman code.");
+            }
+        }
+
+        /**
+         * @brief Decodes a string of known length from code bytes.
+         *
+         * @param data The code bytes.
+         * @param count Number of characters.
+         * @return The string.
+         * @throws IllegalArgumentException If the bytes are not a valid encoding.
+         */
+        public String decode(byte[] data, int count) {
+            char[] chars = new char[count];
+            decode(data, 0, data.length, count, chars, 0);
+            return new String(chars);
+        }
+
+        /**
+         * @brief Decodes a number of characters from a byte range into an array.
+         *
+         * The same two-level lookup as `decodeChar`, with the bit buffer kept in local
+         * variables and refilled only when fewer bits remain than the longest code plus
+         * an escaped character needs. This is the inner loop of `HuffmanBlockDecoder`.
+         *
+         * @param data The code bytes.
+         * @param offset Index of the first code byte.
+         * @param length Number of code bytes.
+         * @param count Number of characters to decode.
+         * @param dest The destination array.
+         * @param destOffset Index of the first decoded character in `dest`.
+         * @throws IllegalArgumentException If the bits are not valid or run out.
+         */
+        public void decode(byte[] data, int offset, int length, int count, char[] dest, int destOffset) {
+            int[] primary = this.primary;
+            int[] secondary = this.secondary;
+            int[] symbols = this.symbols;
+            int end = offset + length;
+            int next = offset;
+            long buffer = 0;
+            int available = 0;
+            for (int k = 0; k < count; k++) {
+                if (available < MAX_CODE_LENGTH + 16) {
+                    while (available <= 56) {
+                        buffer |= (long) (next < end ? data[next] & 0xFF : 0) << (56 - available);
+                        next++;
+                        available += 8;
+                    }
+                }
+                int entry = primary[(int) (buffer >>> (64 - PRIMARY_BITS))];
+                if (entry < 0) {
+                    if (entry == INVALID) {
+                        throw new IllegalArgumentException("Invalid Huffman code.");
+                    }
+                    int link = ~entry;
+                    int bits = link & 0x1F;
+                    entry = secondary[(link >>> 5)
+                            + (int) ((buffer >>> (64 - PRIMARY_BITS - bits)) & ((1 << bits) - 1))];
+                    if (entry == INVALID) {
+                        throw new IllegalArgumentException("Invalid Huffman code.");
+                    }
+                }
+                int codeLength = entry & 0x1F;
+                buffer <<= codeLength;
+                available -= codeLength;
+                int symbol = symbols[entry >>> 5];
+                if (symbol == ESCAPE) {
+                    symbol = (int) (buffer >>> 48);
+                    buffer <<= 16;
+                    available -= 16;
+                }
+                dest[destOffset + k] = (char) symbol;
+            }
+            if ((long) (next - offset) * 8 - available > (long) length * 8) {
+                throw new IllegalArgumentException("Truncated Huffman code.");
+            }
+        }
+
+        /**
+         * @brief Returns the code length of a character.
+         *
+         * @param c The character.
+         * @return The length, or `0` if the character is encoded through the escape.
+         */
+        public int codeLength(char c) {
+            return c < codeLengths.length ? codeLengths[c] : 0;
+        }
+
+        /**
+         * @brief Returns the longest code length.
+         * @return The maximum length.
+         */
+        public int maxLength() {
+            return maxLength;
+        }
+
+        /**
+         * @brief Returns the number of characters with their own code.
+         * @return The character count, without the escape.
+         */
+        public int symbolCount() {
+            return symbols.length - 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CodeTable)) {
+                return false;
+            }
+            CodeTable other = (CodeTable) o;
+            return Arrays.equals(symbols, other.symbols) && Arrays.equals(lengths, other.lengths);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(symbols) + Arrays.hashCode(lengths);
+        }
+    }
+
+    /**
+     * @class BitWriter
+     * @brief Packs codes most significant bit first into a growing byte array.
+     *
+     * Bits collect in a 64-bit accumulator and are flushed four bytes at a time.
+     */
+    public static final class BitWriter {
+
+        private long buffer;
+        private int pending;
+        private byte[] bytes = new byte[64];
+        private int size;
+        private long bitLength;
+
+        /**
+         * @brief Appends the low bits of a value.
+         *
+         * @param value The value; only its low `length` bits are written.
+         * @param length Number of bits, `0..32`.
+         */
+        public void write(int value, int length) {
+            buffer = (buffer << length) | (value & ((1L << length) - 1));
+            pending += length;
+            bitLength += length;
+            if (pending >= 32) {
+                pending -= 32;
+                ensure(4);
+                int word = (int) (buffer >>> pending);
+                bytes[size++] = (byte) (word >>> 24);
+                bytes[size++] = (byte) (word >>> 16);
+                bytes[size++] = (byte) (word >>> 8);
+                bytes[size++] = (byte) word;
+                buffer &= (1L << pending) - 1;
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        /**
+         * @brief Returns the number of bits written.
+         * @return The bit count.
+         */
+        public int bitLength() {
+            return (int) bitLength;
+        }
+
+        /**
+         * @brief Returns the written bits, the last byte padded with zero bits.
+         * @return A new byte array of `ceil(bitLength / 8)` bytes.
+         */
+        public byte[] toByteArray() {
+            byte[] result = Arrays.copyOf(bytes, size + (pending + 7) / 8);
+            int tail = pending;
+            long rest = buffer;
+            int i = size;
+            while (tail > 0) {
+                int shift = tail - 8;
+                result[i++] = (byte) (shift >= 0 ? rest >>> shift : rest << -shift);
+                tail -= 8;
+            }
+            return result;
+        }
+
+        /**
+         * @brief Forgets all written bits.
+         */
+        public void reset() {
+            buffer = 0;
+            pending = 0;
+            size = 0;
+            bitLength = 0;
+        }
+    }
+
+    /**
+     * @class BitReader
+     * @brief Reads bits most significant bit first from a byte range.
+     *
+     * A left-aligned 64-bit buffer is refilled a byte at a time. Reading past the end
+     * yields zero bits and marks the reader as overrun.
+     */
+    public static final class BitReader {
+
+        private byte[] data;
+        private int end;
+        private int next;
+        private long buffer;
+        private int available;
+        private long limitBits;
+        private long consumed;
+
+        /**
+         * @brief Creates a reader.
+         *
+         * @param data The bytes.
+         * @param offset Index of the first byte.
+         * @param length Number of bytes.
+         */
+        public BitReader(byte[] data, int offset, int length) {
+            reset(data, offset, length);
+        }
+
+        /**
+         * @brief Points the reader at another byte range, so one reader serves many strings.
+         *
+         * @param data The bytes.
+         * @param offset Index of the first byte.
+         * @param length Number of bytes.
+         */
+        public void reset(byte[] data, int offset, int length) {
+            this.data = data;
+            this.next = offset;
+            this.end = offset + length;
+            this.limitBits = (long) length * 8;
+            this.buffer = 0;
+            this.available = 0;
+            this.consumed = 0;
+        }
+
+        private void refill() {
+            while (available <= 56) {
+                long b = next < end ? data[next] & 0xFF : 0;
+                next++;
+                buffer |= b << (56 - available);
+                available += 8;
+            }
+        }
+
+        /**
+         * @brief Returns the next bits without consuming them.
+         *
+         * @param n Number of bits, `1..32`.
+         * @return The bits as an unsigned value.
+         */
+        public int peek(int n) {
+            if (available < n) {
+                refill();
+            }
+            return (int) (buffer >>> (64 - n));
+        }
+
+        /**
+         * @brief Consumes bits.
+         *
+         * @param n Number of bits, at most the number last peeked.
+         */
+        public void skip(int n) {
+            buffer <<= n;
+            available -= n;
+            consumed += n;
+        }
+
+        /**
+         * @brief Returns the number of bits consumed.
+         * @return The bit position.
+         */
+        public long position() {
+            return consumed;
+        }
+
+        /**
+         * @brief Checks whether more bits were consumed than the range holds.
+         * @return `true` after reading past the end.
+         */
+        public boolean isOverrun() {
+            return consumed > limitBits;
+        }
     }
 }
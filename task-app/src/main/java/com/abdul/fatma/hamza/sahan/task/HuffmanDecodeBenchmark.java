@@ -0,0 +1,327 @@
+/**
+ * @file HuffmanDecodeBenchmark.java
+ * @brief Throughput comparison of the Huffman user file decoders.
+ *
+ * This class builds a Huffman user file in memory and decodes every entry with three
+ * decoders: a naive walk down the code tree one bit at a time, the two-level table
+ * decoder of `HuffmanCoding.CodeTable` called per string, and the block decoder
+ * `HuffmanBlockDecoder`. It reports characters and entries decoded per second.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @class HuffmanDecodeBenchmark
+ * @brief Static helpers to build a Huffman user file and time its decoders.
+ */
+public final class HuffmanDecodeBenchmark {
+
+    /** @brief Users in the file built by `main` when no count is given. */
+    public static final int DEFAULT_USERS = 50_000;
+
+    /** @brief Timed passes over the file used by `main` when none is given. */
+    public static final int DEFAULT_ROUNDS = 10;
+
+    private HuffmanDecodeBenchmark() {
+    }
+
+    /**
+     * @enum Method
+     * @brief The compared decoders.
+     */
+    public enum Method {
+        /** @brief Bit-by-bit walk down the code tree, one `String` per field. */
+        TREE_WALK,
+        /** @brief Two-level table decoder, one `String` per field. */
+        TABLE,
+        /** @brief Block decoder into a reusable `char[]`, no `String` per field. */
+        BLOCK
+    }
+
+    /**
+     * @class Report
+     * @brief Result of timing one decoder.
+     */
+    public static final class Report {
+
+        /** @brief The decoder. */
+        public final Method method;
+
+        /** @brief Entries per pass. */
+        public final int entries;
+
+        /** @brief Decoded characters per pass. */
+        public final long chars;
+
+        /** @brief Sum of all decoded characters; equal for decoders that agree. */
+        public final long checksum;
+
+        /** @brief Characters decoded per second. */
+        public final double charsPerSecond;
+
+        /**
+         * @brief Creates a report.
+         */
+        Report(Method method, int entries, long chars, long checksum, double charsPerSecond) {
+            this.method = method;
+            this.entries = entries;
+            this.chars = chars;
+            this.checksum = checksum;
+            this.charsPerSecond = charsPerSecond;
+        }
+
+        /**
+         * @brief Returns the entries decoded per second.
+         * @return The entry throughput.
+         */
+        public double entriesPerSecond() {
+            return chars == 0 ? 0 : charsPerSecond * entries / chars;
+        }
+    }
+
+    /**
+     * @brief Generates users with synthetic emails and password hashes.
+     *
+     * @param count Number of users.
+     * @param seed Seed of the generator.
+     * @return Users with ids `1..count`.
+     */
+    public static List<User> syntheticUsers(int count, long seed) {
+        String base64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        Random random = new Random(seed);
+        List<User> users = new ArrayList<>(count);
+        for (String email : HashFunctionBenchmark.syntheticCorpus(count, seed)) {
+            StringBuilder hash = new StringBuilder(PasswordHasher.PREFIX + "$" + PasswordHasher.DEFAULT_ITERATIONS + "$");
+            for (int j = 0; j < 66; j++) {
+                hash.append(j == 22 ? '$' : base64.charAt(random.nextInt(base64.length())));
+            }
+            User user = new User();
+            user.setId(users.size() + 1);
+            user.setEmail(email);
+            user.setPassword(hash.toString());
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * @brief Writes a Huffman user file into memory.
+     *
+     * @param users The users, in file order.
+     * @param table The code table.
+     * @return The file contents.
+     * @throws IOException Never for an in-memory stream; declared by the writers.
+     */
+    public static byte[] buildFile(List<User> users, HuffmanCoding.CodeTable table) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            UserLog.writeHuffmanHeader(out, table);
+            for (User user : users) {
+                UserLog.writeHuffmanEntry(out, table, user);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @class TreeWalkDecoder
+     * @brief The baseline: a binary code tree walked one bit at a time.
+     */
+    static final class TreeWalkDecoder {
+
+        /** @brief Child of `node` for bit `b` at `2 * node + b`: a node, `~index` for a leaf, `0` for none. */
+        private final int[] children;
+
+        private final HuffmanCoding.CodeTable table;
+
+        TreeWalkDecoder(HuffmanCoding.CodeTable table) {
+            this.table = table;
+            int[] tree = new int[4];
+            int nodes = 1;
+            for (int i = 0; i < table.size(); i++) {
+                int code = table.codeAt(i);
+                int length = table.lengthAt(i);
+                int node = 0;
+                for (int bit = length - 1; bit > 0; bit--) {
+                    int slot = 2 * node + ((code >>> bit) & 1);
+                    if (tree[slot] == 0) {
+                        if (2 * nodes + 2 > tree.length) {
+                            tree = Arrays.copyOf(tree, tree.length * 2);
+                        }
+                        tree[slot] = nodes++;
+                    }
+                    node = tree[slot];
+                }
+                tree[2 * node + (code & 1)] = ~i;
+            }
+            this.children = tree;
+        }
+
+        String decode(byte[] code, int count) {
+            HuffmanCoding.BitReader in = new HuffmanCoding.BitReader(code, 0, code.length);
+            StringBuilder s = new StringBuilder(count);
+            for (int k = 0; k < count; k++) {
+                int node = 0;
+                while (true) {
+                    int next = children[2 * node + in.peek(1)];
+                    in.skip(1);
+                    if (next < 0) {
+                        int symbol = table.symbolAt(~next);
+                        if (symbol == HuffmanCoding.ESCAPE) {
+                            symbol = in.peek(16);
+                            in.skip(16);
+                        }
+                        s.append((char) symbol);
+                        break;
+                    }
+                    if (next == 0) {
+                        throw new IllegalArgumentException("Invalid Huffman code.");
+                    }
+                    node = next;
+                }
+            }
+            return s.toString();
+        }
+    }
+
+    /**
+     * @brief Decodes every entry with one decoder.
+     *
+     * @param method The decoder.
+     * @param file The Huffman file contents.
+     * @return `{entries, characters, checksum}`.
+     * @throws IOException If the file is not a valid Huffman file.
+     */
+    public static long[] decodeAll(Method method, byte[] file) throws IOException {
+        if (method == Method.BLOCK) {
+            HuffmanBlockDecoder decoder = new HuffmanBlockDecoder(file);
+            long entries = 0;
+            long chars = 0;
+            long checksum = 0;
+            int count;
+            while ((count = decoder.nextBlock(HuffmanBlockDecoder.DEFAULT_BLOCK_SIZE)) > 0) {
+                char[] buffer = decoder.chars();
+                int end = decoder.passwordOffset(count - 1) + decoder.passwordLength(count - 1);
+                for (int i = 0; i < end; i++) {
+                    checksum += buffer[i];
+                }
+                entries += count;
+                chars += end;
+            }
+            return new long[]{entries, chars, checksum};
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(file));
+        in.readInt();
+        HuffmanCoding.CodeTable table = HuffmanCoding.CodeTable.readFrom(in);
+        TreeWalkDecoder tree = method == Method.TREE_WALK ? new TreeWalkDecoder(table) : null;
+        long entries = 0;
+        long chars = 0;
+        long checksum = 0;
+        while (true) {
+            try {
+                in.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+            for (int field = 0; field < 2; field++) {
+                int length = in.readUnsignedShort();
+                byte[] code = new byte[in.readInt()];
+                in.readFully(code);
+                String s = tree != null ? tree.decode(code, length) : table.decode(code, length);
+                for (int i = 0; i < s.length(); i++) {
+                    checksum += s.charAt(i);
+                }
+                chars += length;
+            }
+            entries++;
+        }
+        return new long[]{entries, chars, checksum};
+    }
+
+    /**
+     * @brief Times one decoder.
+     *
+     * One untimed pass warms the code up before the timed passes.
+     *
+     * @param method The decoder.
+     * @param file The Huffman file contents.
+     * @param rounds Timed passes, at least `1`.
+     * @return The report.
+     * @throws IOException If the file is not a valid Huffman file.
+     */
+    public static Report measure(Method method, byte[] file, int rounds) throws IOException {
+        long[] result = decodeAll(method, file);
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            decodeAll(method, file);
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        return new Report(method, (int) result[0], result[1], result[2],
+                (double) result[1] * rounds * 1e9 / elapsed);
+    }
+
+    /**
+     * @brief Times every decoder on the same file.
+     *
+     * @param file The Huffman file contents.
+     * @param rounds Timed passes per decoder.
+     * @return One report per `Method`, in declaration order.
+     * @throws IOException If the file is not a valid Huffman file.
+     */
+    public static List<Report> compare(byte[] file, int rounds) throws IOException {
+        List<Report> reports = new ArrayList<>();
+        for (Method method : Method.values()) {
+            reports.add(measure(method, file, rounds));
+        }
+        return reports;
+    }
+
+    /**
+     * @brief Prints a comparison table with the speed-up over the tree walk.
+     *
+     * @param out The output stream.
+     * @param reports Reports of one file; the first is the baseline.
+     */
+    public static void print(PrintStream out, List<Report> reports) {
+        out.println(String.format("%-10s %12s %14s %10s", "Decoder", "Mchar/s", "Entries/s", "Speed-up"));
+        double baseline = reports.isEmpty() ? 1 : reports.get(0).charsPerSecond;
+        for (Report report : reports) {
+            out.println(String.format("%-10s %12.2f %14.0f %9.2fx", report.method.name(),
+                    report.charsPerSecond / 1e6, report.entriesPerSecond(), report.charsPerSecond / baseline));
+        }
+    }
+
+    /**
+     * @brief Runs the comparison from the command line.
+     *
+     * Arguments: `[users] [rounds]`.
+     *
+     * @param args The command line arguments.
+     * @throws IOException Never for the in-memory file.
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_USERS;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        List<User> users = syntheticUsers(count, 1L);
+        byte[] file = buildFile(users, UserLog.trainHuffmanTable(users));
+        System.out.println("File: " + count + " entries, " + file.length + " bytes");
+        print(System.out, compare(file, rounds));
+    }
+}
@@ -0,0 +1,372 @@
+/**
+ * @file HuffmanDictionary.java
+ * @brief Shared code table of a Huffman user file and its background rebuild.
+ *
+ * Every entry of `user.huf` is encoded with the one code table stored in the file
+ * header. This class tracks the character distribution of the entries actually in the
+ * file and, when the header table has drifted too far from the best table for that
+ * distribution, retrains the table on all users and re-encodes the file in the
+ * background.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @class HuffmanDictionary
+ * @brief Per-file character statistics and dictionary rebuilds of a Huffman user file.
+ *
+ * There is one instance per Huffman file (`forFile`). Writers of the file synchronise on
+ * it: `UserLog.appendHuffman` appends and calls `recordAppend` while holding its
+ * monitor, so the statistics always describe the file.
+ *
+ * Drift is the number of code bits the entries need with the header table, relative to
+ * the bits they would need with a table trained on them: `0.10` means the file is 10%
+ * larger than necessary. Once at least `MIN_APPENDS` entries were added since the table
+ * was built and the drift exceeds the threshold (`users.huffman.drift`, default
+ * `DEFAULT_DRIFT_THRESHOLD`), a rebuild is queued on a single background thread.
+ *
+ * A rebuild decodes a snapshot of the file, trains a new table on all entries and
+ * encodes them without holding the monitor. It then takes the monitor, re-encodes the
+ * entries appended in the meantime, and replaces the file with an atomic rename, so
+ * readers always see either the old or the new file.
+ */
+public final class HuffmanDictionary {
+
+    /** @brief System property with the drift that triggers a rebuild. */
+    public static final String DRIFT_PROPERTY = "users.huffman.drift";
+
+    /** @brief Drift threshold used when nothing is configured. */
+    public static final double DEFAULT_DRIFT_THRESHOLD = 0.05;
+
+    /** @brief Entries that must be appended after a build before the next one. */
+    public static final int MIN_APPENDS = 16;
+
+    /** @brief Instances by absolute file path. */
+    private static final Map<String, HuffmanDictionary> DICTIONARIES = new ConcurrentHashMap<>();
+
+    /** @brief Runs the rebuilds of all files, one at a time. */
+    private static final ExecutorService REBUILDER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "huffman-dictionary-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** @brief The Huffman file. */
+    private final File file;
+
+    /** @brief Drift above which a rebuild is queued. */
+    private final double threshold;
+
+    /** @brief Code table of the file header, or `null` while not loaded. */
+    private HuffmanCoding.CodeTable table;
+
+    /** @brief Character occurrences over all entries. */
+    private Map<Character, Long> frequencies = new HashMap<>();
+
+    /** @brief Number of entries. */
+    private int entries;
+
+    /** @brief Entries appended since the table was built. */
+    private int appendsSinceBuild;
+
+    /** @brief File length the statistics describe; `-1` forces a reload. */
+    private long knownLength = -1;
+
+    /** @brief Queued or running rebuild. */
+    private Future<Boolean> pendingRebuild;
+
+    /** @brief Completed rebuilds. */
+    private int rebuilds;
+
+    private HuffmanDictionary(File file, double threshold) {
+        this.file = file;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @brief Returns the dictionary of a Huffman file.
+     *
+     * @param huffmanPath Path of the Huffman file.
+     * @return The one instance for that file.
+     */
+    public static HuffmanDictionary forFile(String huffmanPath) {
+        File file = new File(huffmanPath).getAbsoluteFile();
+        return DICTIONARIES.computeIfAbsent(file.getPath(), path -> new HuffmanDictionary(file,
+                Double.parseDouble(System.getProperty(DRIFT_PROPERTY, String.valueOf(DEFAULT_DRIFT_THRESHOLD)))));
+    }
+
+    /**
+     * @brief Records an entry appended by `UserLog.appendHuffman`.
+     *
+     * Must be called while holding this object's monitor, right after the append.
+     *
+     * @param lengthBefore File length before the append.
+     * @param user The appended user.
+     */
+    synchronized void recordAppend(long lengthBefore, User user) {
+        if (table == null || knownLength != lengthBefore) {
+            invalidate();
+            return;
+        }
+        count(user.getEmail());
+        count(user.getPassword());
+        entries++;
+        appendsSinceBuild++;
+        knownLength = file.length();
+    }
+
+    /**
+     * @brief Forgets the statistics; they are reloaded from the file when next needed.
+     *
+     * Called after the file was rewritten other than by `recordAppend`.
+     */
+    synchronized void invalidate() {
+        table = null;
+        knownLength = -1;
+    }
+
+    private void count(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            frequencies.merge(s.charAt(i), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * @brief Reloads the statistics if the file changed behind this dictionary.
+     *
+     * @return `false` if the file is missing or empty.
+     */
+    private boolean ensureCurrent() throws IOException {
+        if (table != null && knownLength == file.length()) {
+            return true;
+        }
+        frequencies = new HashMap<>();
+        entries = 0;
+        appendsSinceBuild = 0;
+        table = null;
+        if (file.length() == 0) {
+            knownLength = -1;
+            return false;
+        }
+        HuffmanBlockDecoder decoder = new HuffmanBlockDecoder(Files.readAllBytes(file.toPath()));
+        int count;
+        while ((count = decoder.nextBlock(HuffmanBlockDecoder.DEFAULT_BLOCK_SIZE)) > 0) {
+            char[] chars = decoder.chars();
+            int end = decoder.passwordOffset(count - 1) + decoder.passwordLength(count - 1);
+            for (int i = 0; i < end; i++) {
+                frequencies.merge(chars[i], 1L, Long::sum);
+            }
+            entries += count;
+        }
+        table = decoder.getTable();
+        // The header table may predate most entries, e.g. the default table of a new file
+        appendsSinceBuild = entries;
+        knownLength = file.length();
+        return true;
+    }
+
+    /**
+     * @brief Returns how much larger the entries are than with a table trained on them.
+     *
+     * @return `bits with the header table / bits with the best table - 1`; `0` for an
+     *         empty file.
+     * @throws IOException If the file cannot be read.
+     */
+    public synchronized double drift() throws IOException {
+        if (!ensureCurrent() || frequencies.isEmpty()) {
+            return 0;
+        }
+        long current = table.encodedBits(frequencies);
+        long best = HuffmanCoding.CodeTable.fromFrequencies(frequencies).encodedBits(frequencies);
+        return best == 0 ? 0 : (double) current / best - 1;
+    }
+
+    /**
+     * @brief Checks whether the file should get a new table.
+     *
+     * @return `true` if enough entries were appended and the drift exceeds the threshold.
+     * @throws IOException If the file cannot be read.
+     */
+    public synchronized boolean needsRebuild() throws IOException {
+        return ensureCurrent() && appendsSinceBuild >= MIN_APPENDS && drift() > threshold;
+    }
+
+    /**
+     * @brief Queues a background rebuild if the file needs one.
+     *
+     * @return The queued or already running rebuild, or `null` if none is needed.
+     * @throws IOException If the file cannot be read.
+     */
+    public synchronized Future<Boolean> rebuildIfDrifted() throws IOException {
+        if (pendingRebuild != null && !pendingRebuild.isDone()) {
+            return pendingRebuild;
+        }
+        if (!needsRebuild()) {
+            return null;
+        }
+        pendingRebuild = REBUILDER.submit(this::rebuild);
+        return pendingRebuild;
+    }
+
+    /**
+     * @brief Waits for a queued or running rebuild to finish.
+     *
+     * @throws IOException If the rebuild failed.
+     * @throws InterruptedException If the waiting thread is interrupted.
+     */
+    public void awaitRebuild() throws IOException, InterruptedException {
+        Future<Boolean> pending;
+        synchronized (this) {
+            pending = pendingRebuild;
+        }
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * @brief Trains a table on all entries and re-encodes the file with it.
+     *
+     * @return `true` if the file was rewritten; `false` if it was empty, the trained
+     *         table equals the current one, or the file was replaced meanwhile.
+     * @throws IOException If the file cannot be read or written.
+     */
+    public boolean rebuild() throws IOException {
+        byte[] snapshot;
+        synchronized (this) {
+            if (!file.exists() || file.length() == 0) {
+                return false;
+            }
+            snapshot = Files.readAllBytes(file.toPath());
+        }
+
+        HuffmanBlockDecoder decoder = new HuffmanBlockDecoder(snapshot);
+        HuffmanCoding.CodeTable oldTable = decoder.getTable();
+        List<User> users = readEntries(decoder, 0);
+        HuffmanCoding.CodeTable newTable = UserLog.trainHuffmanTable(users);
+        if (newTable.equals(oldTable)) {
+            synchronized (this) {
+                appendsSinceBuild = 0;
+            }
+            return false;
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(snapshot.length);
+        DataOutputStream out = new DataOutputStream(encoded);
+        UserLog.writeHuffmanHeader(out, newTable);
+        for (User user : users) {
+            UserLog.writeHuffmanEntry(out, newTable, user);
+        }
+
+        synchronized (this) {
+            if (!file.exists() || file.length() < snapshot.length) {
+                return false;
+            }
+            if (file.length() > snapshot.length) {
+                // Entries appended while the snapshot was re-encoded
+                HuffmanBlockDecoder current = new HuffmanBlockDecoder(Files.readAllBytes(file.toPath()));
+                if (!current.getTable().equals(oldTable)) {
+                    return false;
+                }
+                List<User> appended = readEntries(current, users.size());
+                for (User user : appended) {
+                    UserLog.writeHuffmanEntry(out, newTable, user);
+                }
+                users.addAll(appended);
+            }
+            out.flush();
+
+            File temp = new File(file.getPath() + ".tmp");
+            try (FileOutputStream tempOut = new FileOutputStream(temp)) {
+                encoded.writeTo(tempOut);
+                tempOut.getChannel().force(false);
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp.toPath());
+            }
+
+            table = newTable;
+            frequencies = new HashMap<>();
+            for (User user : users) {
+                count(user.getEmail());
+                count(user.getPassword());
+            }
+            entries = users.size();
+            appendsSinceBuild = 0;
+            knownLength = file.length();
+            rebuilds++;
+            return true;
+        }
+    }
+
+    /**
+     * @brief Decodes the entries of a decoder from an index on.
+     */
+    private static List<User> readEntries(HuffmanBlockDecoder decoder, int skip) throws IOException {
+        List<User> users = new ArrayList<>();
+        int index = 0;
+        int count;
+        while ((count = decoder.nextBlock(HuffmanBlockDecoder.DEFAULT_BLOCK_SIZE)) > 0) {
+            for (int i = 0; i < count; i++, index++) {
+                if (index >= skip) {
+                    users.add(decoder.user(i));
+                }
+            }
+        }
+        return users;
+    }
+
+    /**
+     * @brief Returns the code table of the file header.
+     * @return The table, or `null` for a missing or empty file.
+     * @throws IOException If the file cannot be read.
+     */
+    public synchronized HuffmanCoding.CodeTable getTable() throws IOException {
+        return ensureCurrent() ? table : null;
+    }
+
+    /**
+     * @brief Returns the number of entries in the file.
+     * @return The entry count.
+     * @throws IOException If the file cannot be read.
+     */
+    public synchronized int entries() throws IOException {
+        return ensureCurrent() ? entries : 0;
+    }
+
+    /**
+     * @brief Returns the number of completed rebuilds.
+     * @return The rebuild count.
+     */
+    public synchronized int rebuildCount() {
+        return rebuilds;
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * @file LazyTaskInfo.java
+ * @brief Task view that decodes rarely used text fields on first access.
+ *
+ * This class is produced by the bulk task loader. It keeps a reference to the loaded
+ * file bytes and only turns the description, category and due date into `String`s
+ * when they are read, so listing tasks by id and name does not pay for decoding and
+ * storing every description.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * @class LazyTaskInfo
+ * @brief A `TaskInfo` whose description, category and due date are decoded lazily.
+ *
+ * The id, name and dependencies are decoded when the view is created. For the other
+ * three strings only their positions in the record are remembered; the first getter
+ * call decodes the string and caches it in the `TaskInfo` field. Setting a field
+ * discards its pending bytes. Apart from the deferred decoding the object behaves
+ * exactly like a `TaskInfo`.
+ */
+public class LazyTaskInfo extends TaskInfo {
+
+    /** @brief Bit of a pending description in `pending`. */
+    static final int DESCRIPTION = 1;
+
+    /** @brief Bit of a pending category in `pending`. */
+    static final int CATEGORY = 2;
+
+    /** @brief Bit of a pending due date in `pending`. */
+    static final int DUE_DATE = 4;
+
+    /** @brief The loaded bytes holding the record; released once every field is decoded. */
+    private byte[] data;
+
+    /** @brief Positions of the description, category and due date length prefixes. */
+    private final int[] offsets = new int[3];
+
+    /** @brief Bit mask of the fields that are still undecoded. */
+    private volatile int pending;
+
+    /** @brief Position just past the record. */
+    private final int end;
+
+    /**
+     * @brief Creates a view over a record in a loaded buffer.
+     *
+     * @param data The loaded bytes.
+     * @param offset Position of the record in `data`.
+     * @param compact `true` for a store record (`TaskStore.writeCompactRecord`),
+     *                `false` for a sequential record (`TaskStore.writeRecord`).
+     * @throws IOException If the record is corrupt.
+     * @throws java.nio.BufferUnderflowException If the record runs past the end of `data`.
+     */
+    public LazyTaskInfo(byte[] data, int offset, boolean compact) throws IOException {
+        this(data, offset, data.length - offset, compact);
+    }
+
+    /**
+     * @brief Creates a view over a record of known maximum length.
+     *
+     * @param data The loaded bytes.
+     * @param offset Position of the record in `data`.
+     * @param length Number of bytes the record may occupy.
+     * @param compact `true` for a store record, `false` for a sequential record.
+     * @throws IOException If the record is corrupt.
+     * @throws java.nio.BufferUnderflowException If the record runs past `offset + length`.
+     */
+    public LazyTaskInfo(byte[] data, int offset, int length, boolean compact) throws IOException {
+        ByteBuffer record = ByteBuffer.wrap(data, offset, length);
+        super.setId(record.getInt());
+        super.setName(TaskFileLoader.readUTF(record));
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = record.position();
+            skipUTF(record);
+        }
+        if (compact) {
+            TaskStore.readDependencies(record, this);
+        } else {
+            TaskFileLoader.readDependencies(record, this);
+        }
+        this.data = data;
+        this.end = record.position();
+        this.pending = DESCRIPTION | CATEGORY | DUE_DATE;
+    }
+
+    /**
+     * @brief Skips a `writeUTF` string without decoding it.
+     *
+     * @param record Buffer positioned at the length prefix; advanced past the string.
+     */
+    private static void skipUTF(ByteBuffer record) {
+        int length = record.getShort() & 0xFFFF;
+        if (length > record.remaining()) {
+            throw new java.nio.BufferUnderflowException();
+        }
+        record.position(record.position() + length);
+    }
+
+    /**
+     * @brief Returns the position just past the record in the loaded bytes.
+     * @return The end offset of the record.
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * @brief Checks whether a field is still undecoded.
+     *
+     * @param field One of the field bits.
+     * @return `true` if the field has not been decoded yet.
+     */
+    boolean isPending(int field) {
+        return (pending & field) != 0;
+    }
+
+    /**
+     * @brief Decodes a pending field and stores it in the `TaskInfo` field.
+     *
+     * @param field One of the field bits.
+     */
+    private synchronized void materialize(int field) {
+        if ((pending & field) == 0) {
+            return;
+        }
+        String value;
+        try {
+            ByteBuffer record = ByteBuffer.wrap(data);
+            record.position(offsets[Integer.numberOfTrailingZeros(field)]);
+            value = TaskFileLoader.readUTF(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long clean = getCleanGeneration(); // decoding is not a modification
+        switch (field) {
+            case DESCRIPTION -> super.setDescription(value);
+            case CATEGORY -> super.setCategory(value);
+            default -> super.setDueDate(value);
+        }
+        markClean(clean);
+        clear(field);
+    }
+
+    /**
+     * @brief Marks a field as decoded and drops the loaded bytes once nothing is pending.
+     *
+     * @param field One of the field bits.
+     */
+    private synchronized void clear(int field) {
+        pending &= ~field;
+        if (pending == 0) {
+            data = null;
+        }
+    }
+
+    /**
+     * @brief Estimates the heap footprint, counting undecoded fields by their raw bytes.
+     *
+     * Fields that are not decoded yet are not `String`s on the heap, but their bytes
+     * keep the shared loaded buffer alive, so they are counted at their encoded size.
+     *
+     * @return The estimated size in bytes.
+     */
+    @Override
+    long estimateHeapBytes() {
+        long bytes = super.estimateHeapBytes();
+        return pending == 0 ? bytes : bytes + (end - offsets[0]);
+    }
+
+    @Override
+    public String getDescription() {
+        if ((pending & DESCRIPTION) != 0) {
+            materialize(DESCRIPTION);
+        }
+        return super.getDescription();
+    }
+
+    @Override
+    public void setDescription(String description) {
+        super.setDescription(description);
+        clear(DESCRIPTION);
+    }
+
+    @Override
+    public String getCategory() {
+        if ((pending & CATEGORY) != 0) {
+            materialize(CATEGORY);
+        }
+        return super.getCategory();
+    }
+
+    @Override
+    public void setCategory(String category) {
+        super.setCategory(category);
+        clear(CATEGORY);
+    }
+
+    @Override
+    public String getDueDate() {
+        if ((pending & DUE_DATE) != 0) {
+            materialize(DUE_DATE);
+        }
+        return super.getDueDate();
+    }
+
+    @Override
+    public void setDueDate(String dueDate) {
+        super.setDueDate(dueDate);
+        clear(DUE_DATE);
+    }
+}
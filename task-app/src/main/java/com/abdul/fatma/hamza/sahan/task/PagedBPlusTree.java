@@ -0,0 +1,937 @@
+/**
+ * @file PagedBPlusTree.java
+ * @brief Disk-resident B+ tree from `int` keys to `long` values.
+ *
+ * This class stores a B+ tree in fixed-size pages of its own file and reaches the pages
+ * through a `BufferPool`, so only a bounded number of nodes is in memory at a time. The
+ * tree is reopened from its file without a rebuild.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ConcurrentModificationException;
+
+/**
+ * @class PagedBPlusTree
+ * @brief Page-oriented B+ tree with duplicate keys and a linked leaf level.
+ *
+ * File layout, in pages of `pageSize` bytes (a power of two from `MIN_PAGE_SIZE` to
+ * `MAX_PAGE_SIZE`):
+ * - Page 0, the header: magic, version, page size, root page, height, page count,
+ *   entry count, and the length and modification time of the source file the tree
+ *   indexes (set by the owner through `setSource`).
+ * - Node pages: a `NODE_HEADER`-byte header (type, entry count, next leaf) followed by
+ *   - in a leaf: `[int key][long value]` entries sorted by key;
+ *   - in an internal node: `[int child 0]` then `[int key i][int child i + 1]` pairs.
+ *
+ * Nodes refer to each other by page id. As in `BPlusTree`, equal keys keep their
+ * insertion order and may span leaves, and child `i` holds the keys between separators
+ * `i - 1` and `i`, both inclusive. The header is written by `flush` and `close`; a
+ * tree that was not closed may have a stale header, and its owner rebuilds it.
+ */
+public class PagedBPlusTree implements Closeable {
+
+    /** @brief Magic number identifying a tree file ("DBPT"). */
+    public static final int MAGIC = 0x44425054;
+
+    /** @brief Current layout version. */
+    public static final int VERSION = 1;
+
+    /** @brief Page size of a new tree when none is given. */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+
+    /** @brief Smallest page size. */
+    public static final int MIN_PAGE_SIZE = 4096;
+
+    /** @brief Largest page size. */
+    public static final int MAX_PAGE_SIZE = 16384;
+
+    /** @brief Buffer pool frames when none are given. */
+    public static final int DEFAULT_BUFFER_PAGES = 64;
+
+    /** @brief Size of a node page header in bytes. */
+    static final int NODE_HEADER = 16;
+
+    /** @brief Size of a leaf entry in bytes. */
+    static final int LEAF_ENTRY = 12;
+
+    // Header field offsets
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_PAGE_SIZE = 8;
+    private static final int H_ROOT = 12;
+    private static final int H_HEIGHT = 16;
+    private static final int H_PAGE_COUNT = 20;
+    private static final int H_SIZE = 24;
+    private static final int H_SOURCE_LENGTH = 32;
+    private static final int H_SOURCE_MODIFIED = 40;
+
+    // Node header field offsets
+    private static final int N_TYPE = 0;
+    private static final int N_COUNT = 4;
+    private static final int N_NEXT = 8;
+
+    private static final byte LEAF = 0;
+    private static final byte INTERNAL = 1;
+
+    /** @brief Returned by `insert` when the node was not split. */
+    private static final long NO_SPLIT = 0;
+
+    /**
+     * @interface EntryConsumer
+     * @brief Receives the entries of a range scan.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * @brief Accepts one entry.
+         * @param key The key.
+         * @param value The value.
+         */
+        void accept(int key, long value);
+    }
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final BufferPool pool;
+    private final int pageSize;
+
+    /** @brief Most entries of a leaf page. */
+    private final int leafCapacity;
+
+    /** @brief Most keys of an internal page. */
+    private final int internalCapacity;
+
+    // Header fields
+    private int root;
+    private int height;
+    private long size;
+    private long sourceLength = -1;
+    private long sourceModified = -1;
+
+    /** @brief Number of changes to the entries; lets range cursors detect changes. */
+    private int modCount;
+
+    private PagedBPlusTree(RandomAccessFile file, int pageSize, int bufferPages, int pageCount) {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.pageSize = pageSize;
+        this.pool = new BufferPool(channel, pageSize, bufferPages, pageCount);
+        this.leafCapacity = (pageSize - NODE_HEADER) / LEAF_ENTRY;
+        this.internalCapacity = (pageSize - NODE_HEADER - 4) / 8;
+    }
+
+    /**
+     * @brief Opens a tree file, creating an empty tree if the file is missing or empty.
+     *
+     * @param path Path of the tree file.
+     * @param pageSize Page size of a new tree; an existing tree keeps its own.
+     * @param bufferPages Number of pages the buffer pool keeps in memory.
+     * @return The opened tree.
+     * @throws IOException If the file cannot be opened or is not a tree file.
+     * @throws IllegalArgumentException If the page size is not supported.
+     */
+    public static PagedBPlusTree open(String path, int pageSize, int bufferPages) throws IOException {
+        if (Integer.bitCount(pageSize) != 1 || pageSize < MIN_PAGE_SIZE || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be a power of two from "
+                    + MIN_PAGE_SIZE + " to " + MAX_PAGE_SIZE + ": " + pageSize);
+        }
+        RandomAccessFile file = new RandomAccessFile(new File(path), "rw");
+        try {
+            if (file.length() == 0) {
+                PagedBPlusTree tree = new PagedBPlusTree(file, pageSize, bufferPages, 0);
+                tree.initialise();
+                return tree;
+            }
+            if (file.length() < H_SOURCE_MODIFIED + 8) {
+                throw new IOException("Not a paged B+ tree file: " + path);
+            }
+            ByteBuffer header = ByteBuffer.allocate(H_SOURCE_MODIFIED + 8);
+            while (header.hasRemaining() && file.getChannel().read(header, header.position()) >= 0) {
+                // Read the whole header
+            }
+            if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION) {
+                throw new IOException("Not a paged B+ tree file: " + path);
+            }
+            int filePageSize = header.getInt(H_PAGE_SIZE);
+            if (Integer.bitCount(filePageSize) != 1 || filePageSize < MIN_PAGE_SIZE || filePageSize > MAX_PAGE_SIZE) {
+                throw new IOException("Invalid page size " + filePageSize + " in " + path);
+            }
+            PagedBPlusTree tree = new PagedBPlusTree(file, filePageSize, bufferPages, header.getInt(H_PAGE_COUNT));
+            tree.root = header.getInt(H_ROOT);
+            tree.height = header.getInt(H_HEIGHT);
+            tree.size = header.getLong(H_SIZE);
+            tree.sourceLength = header.getLong(H_SOURCE_LENGTH);
+            tree.sourceModified = header.getLong(H_SOURCE_MODIFIED);
+            if (tree.root <= 0 || tree.root >= tree.pool.pageCount() || tree.height < 1) {
+                throw new IOException("Corrupt paged B+ tree header in " + path);
+            }
+            return tree;
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @brief Writes the header and an empty root leaf into an empty file.
+     */
+    private void initialise() throws IOException {
+        pool.allocate();
+        int leaf = pool.allocate();
+        pool.pin(leaf).put(N_TYPE, LEAF);
+        pool.unpin(leaf, true);
+        root = leaf;
+        height = 1;
+        size = 0;
+        flush();
+    }
+
+    /**
+     * @brief Removes every entry and shrinks the file to an empty tree.
+     *
+     * @throws IOException If the file cannot be truncated or written.
+     */
+    public synchronized void clear() throws IOException {
+        modCount++;
+        channel.truncate(0);
+        pool.reset(0);
+        sourceLength = -1;
+        sourceModified = -1;
+        initialise();
+    }
+
+    // ---- Page accessors ----
+
+    private static boolean isLeaf(ByteBuffer page) {
+        return page.get(N_TYPE) == LEAF;
+    }
+
+    private static int count(ByteBuffer page) {
+        return page.getInt(N_COUNT);
+    }
+
+    private static int leafKey(ByteBuffer page, int i) {
+        return page.getInt(NODE_HEADER + i * LEAF_ENTRY);
+    }
+
+    private static long leafValue(ByteBuffer page, int i) {
+        return page.getLong(NODE_HEADER + i * LEAF_ENTRY + 4);
+    }
+
+    private static int internalKey(ByteBuffer page, int i) {
+        return page.getInt(NODE_HEADER + 4 + i * 8);
+    }
+
+    private static int child(ByteBuffer page, int i) {
+        return page.getInt(NODE_HEADER + i * 8);
+    }
+
+    private static int key(ByteBuffer page, int i) {
+        return isLeaf(page) ? leafKey(page, i) : internalKey(page, i);
+    }
+
+    /**
+     * @brief Returns the index of the first key of a node that is not less than `key`.
+     */
+    private static int lowerBound(ByteBuffer page, int key) {
+        int low = 0;
+        int high = count(page);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key(page, mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @brief Returns the index of the first key of a node that is greater than `key`.
+     */
+    private static int upperBound(ByteBuffer page, int key) {
+        int low = 0;
+        int high = count(page);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key(page, mid) <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // ---- Insertion ----
+
+    /**
+     * @brief Inserts an entry; entries with an equal key keep their insertion order.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @throws IOException If a page cannot be read or written.
+     */
+    public synchronized void insert(int key, long value) throws IOException {
+        long split = insert(root, key, value);
+        if (split != NO_SPLIT) {
+            int newRoot = pool.allocate();
+            ByteBuffer page = pool.pin(newRoot);
+            page.put(N_TYPE, INTERNAL);
+            page.putInt(N_COUNT, 1);
+            page.putInt(NODE_HEADER, root);
+            page.putInt(NODE_HEADER + 4, separatorOf(split));
+            page.putInt(NODE_HEADER + 8, siblingOf(split));
+            pool.unpin(newRoot, true);
+            root = newRoot;
+            height++;
+        }
+        size++;
+        modCount++;
+    }
+
+    private static long split(int separator, int sibling) {
+        return (long) separator << 32 | (sibling & 0xFFFFFFFFL);
+    }
+
+    private static int separatorOf(long split) {
+        return (int) (split >>> 32);
+    }
+
+    private static int siblingOf(long split) {
+        return (int) split;
+    }
+
+    /**
+     * @brief Inserts into a subtree.
+     *
+     * No pin is held across the recursive call, so an insert needs only three frames
+     * whatever the height of the tree.
+     *
+     * @return `NO_SPLIT`, or the separator and the page of the new right sibling.
+     */
+    private long insert(int pageId, int key, long value) throws IOException {
+        ByteBuffer page = pool.pin(pageId);
+        if (isLeaf(page)) {
+            try {
+                return insertInLeaf(pageId, page, key, value);
+            } finally {
+                pool.unpin(pageId, true);
+            }
+        }
+        int i = upperBound(page, key);
+        int child = child(page, i);
+        pool.unpin(pageId, false);
+
+        long split = insert(child, key, value);
+        if (split == NO_SPLIT) {
+            return NO_SPLIT;
+        }
+        page = pool.pin(pageId);
+        try {
+            return insertInInternal(page, i, separatorOf(split), siblingOf(split));
+        } finally {
+            pool.unpin(pageId, true);
+        }
+    }
+
+    private long insertInLeaf(int pageId, ByteBuffer page, int key, long value) throws IOException {
+        int n = count(page);
+        int i = upperBound(page, key);
+        if (n < leafCapacity) {
+            byte[] bytes = page.array();
+            int at = NODE_HEADER + i * LEAF_ENTRY;
+            System.arraycopy(bytes, at, bytes, at + LEAF_ENTRY, (n - i) * LEAF_ENTRY);
+            page.putInt(at, key);
+            page.putLong(at + 4, value);
+            page.putInt(N_COUNT, n + 1);
+            return NO_SPLIT;
+        }
+
+        int[] keys = new int[n + 1];
+        long[] values = new long[n + 1];
+        for (int j = 0, k = 0; j <= n; j++) {
+            if (j == i) {
+                keys[j] = key;
+                values[j] = value;
+            } else {
+                keys[j] = leafKey(page, k);
+                values[j] = leafValue(page, k);
+                k++;
+            }
+        }
+        int mid = (n + 1) / 2;
+        int siblingId = pool.allocate();
+        ByteBuffer sibling = pool.pin(siblingId);
+        try {
+            sibling.put(N_TYPE, LEAF);
+            writeLeaf(sibling, keys, values, mid, n + 1);
+            sibling.putInt(N_NEXT, page.getInt(N_NEXT));
+            writeLeaf(page, keys, values, 0, mid);
+            page.putInt(N_NEXT, siblingId);
+        } finally {
+            pool.unpin(siblingId, true);
+        }
+        return split(keys[mid], siblingId);
+    }
+
+    private static void writeLeaf(ByteBuffer page, int[] keys, long[] values, int from, int to) {
+        for (int j = from; j < to; j++) {
+            page.putInt(NODE_HEADER + (j - from) * LEAF_ENTRY, keys[j]);
+            page.putLong(NODE_HEADER + (j - from) * LEAF_ENTRY + 4, values[j]);
+        }
+        page.putInt(N_COUNT, to - from);
+    }
+
+    /**
+     * @brief Adds a separator and its right child after child `i` of an internal node.
+     */
+    private long insertInInternal(ByteBuffer page, int i, int separator, int siblingPage) throws IOException {
+        int n = count(page);
+        if (n < internalCapacity) {
+            byte[] bytes = page.array();
+            int at = NODE_HEADER + 4 + i * 8;
+            System.arraycopy(bytes, at, bytes, at + 8, (n - i) * 8);
+            page.putInt(at, separator);
+            page.putInt(at + 4, siblingPage);
+            page.putInt(N_COUNT, n + 1);
+            return NO_SPLIT;
+        }
+
+        int[] keys = new int[n + 1];
+        int[] children = new int[n + 2];
+        children[0] = child(page, 0);
+        for (int j = 0, k = 0; j <= n; j++) {
+            if (j == i) {
+                keys[j] = separator;
+                children[j + 1] = siblingPage;
+            } else {
+                keys[j] = internalKey(page, k);
+                children[j + 1] = child(page, k + 1);
+                k++;
+            }
+        }
+        int mid = (n + 1) / 2;
+        int rightId = pool.allocate();
+        ByteBuffer right = pool.pin(rightId);
+        try {
+            right.put(N_TYPE, INTERNAL);
+            writeInternal(right, keys, children, mid + 1, n + 1);
+            writeInternal(page, keys, children, 0, mid);
+        } finally {
+            pool.unpin(rightId, true);
+        }
+        return split(keys[mid], rightId);
+    }
+
+    /**
+     * @brief Writes keys `from..to-1` and children `from..to` into an internal page.
+     */
+    private static void writeInternal(ByteBuffer page, int[] keys, int[] children, int from, int to) {
+        page.putInt(NODE_HEADER, children[from]);
+        for (int j = from; j < to; j++) {
+            page.putInt(NODE_HEADER + 4 + (j - from) * 8, keys[j]);
+            page.putInt(NODE_HEADER + 8 + (j - from) * 8, children[j + 1]);
+        }
+        page.putInt(N_COUNT, to - from);
+    }
+
+    // ---- Bulk loading ----
+
+    /**
+     * @brief Replaces the contents of the tree with sorted entries, built bottom-up.
+     *
+     * Leaf pages are written left to right, `fillFactor` full, each linked to the page
+     * allocated after it; then every internal level is written from the level below.
+     * Every page is written once, so loading is linear in the number of entries instead
+     * of `O(n log n)` with a split for most pages. The source stamp is reset.
+     *
+     * @param keys The keys, sorted; equal keys keep their order.
+     * @param values The values, parallel to `keys`.
+     * @param n Number of entries to load.
+     * @param fillFactor Fraction of each page to fill, in `(0, 1]`.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If the keys are not sorted or a parameter is out
+     *         of range.
+     */
+    public synchronized void bulkLoad(int[] keys, long[] values, int n, double fillFactor) throws IOException {
+        for (int i = 1; i < n; i++) {
+            if (keys[i] < keys[i - 1]) {
+                throw new IllegalArgumentException("Keys are not sorted at index " + i);
+            }
+        }
+        int leafTarget = BPlusTree.fillTarget(leafCapacity, leafCapacity / 2, fillFactor);
+        int childTarget = BPlusTree.fillTarget(internalCapacity, internalCapacity / 2, fillFactor) + 1;
+        if (n == 0) {
+            clear();
+            return;
+        }
+
+        modCount++;
+        channel.truncate(0);
+        pool.reset(0);
+        sourceLength = -1;
+        sourceModified = -1;
+        pool.allocate();
+
+        int[] sizes = BPlusTree.groupSizes(n, leafTarget, leafCapacity, leafCapacity / 2);
+        int[] level = new int[sizes.length];
+        int[] minKeys = new int[sizes.length];
+        int pageId = pool.allocate();
+        for (int g = 0, from = 0; g < sizes.length; from += sizes[g], g++) {
+            ByteBuffer page = pool.pin(pageId);
+            page.put(N_TYPE, LEAF);
+            writeLeaf(page, keys, values, from, from + sizes[g]);
+            int next = g + 1 < sizes.length ? pool.allocate() : 0;
+            page.putInt(N_NEXT, next);
+            pool.unpin(pageId, true);
+            level[g] = pageId;
+            minKeys[g] = keys[from];
+            pageId = next;
+        }
+
+        height = 1;
+        while (level.length > 1) {
+            sizes = BPlusTree.groupSizes(level.length, childTarget, internalCapacity + 1, internalCapacity / 2 + 1);
+            int[] parents = new int[sizes.length];
+            int[] parentMinKeys = new int[sizes.length];
+            for (int g = 0, from = 0; g < sizes.length; from += sizes[g], g++) {
+                int parentId = pool.allocate();
+                ByteBuffer page = pool.pin(parentId);
+                page.put(N_TYPE, INTERNAL);
+                page.putInt(NODE_HEADER, level[from]);
+                for (int j = 1; j < sizes[g]; j++) {
+                    page.putInt(NODE_HEADER + 4 + (j - 1) * 8, minKeys[from + j]);
+                    page.putInt(NODE_HEADER + 8 + (j - 1) * 8, level[from + j]);
+                }
+                page.putInt(N_COUNT, sizes[g] - 1);
+                pool.unpin(parentId, true);
+                parents[g] = parentId;
+                parentMinKeys[g] = minKeys[from];
+            }
+            level = parents;
+            minKeys = parentMinKeys;
+            height++;
+        }
+        root = level[0];
+        size = n;
+        flush();
+    }
+
+    // ---- Queries ----
+
+    /**
+     * @brief Passes every entry with a key in a range to a consumer, in key order.
+     *
+     * Descends once to the first leaf that may hold `startKey` and follows the leaf
+     * chain, pinning one page at a time.
+     *
+     * @param startKey The start key, inclusive.
+     * @param endKey The end key, inclusive.
+     * @param consumer Receives the entries.
+     * @return The number of entries passed.
+     * @throws IOException If a page cannot be read.
+     */
+    public synchronized long forEachInRange(int startKey, int endKey, EntryConsumer consumer) throws IOException {
+        int pageId = root;
+        ByteBuffer page = pool.pin(pageId);
+        while (!isLeaf(page)) {
+            int child = child(page, lowerBound(page, startKey));
+            pool.unpin(pageId, false);
+            pageId = child;
+            page = pool.pin(pageId);
+        }
+
+        long found = 0;
+        int i = lowerBound(page, startKey);
+        while (true) {
+            int n = count(page);
+            for (; i < n; i++) {
+                int key = leafKey(page, i);
+                if (key > endKey) {
+                    pool.unpin(pageId, false);
+                    return found;
+                }
+                consumer.accept(key, leafValue(page, i));
+                found++;
+            }
+            int next = page.getInt(N_NEXT);
+            pool.unpin(pageId, false);
+            if (next == 0) {
+                return found;
+            }
+            pageId = next;
+            page = pool.pin(pageId);
+            i = 0;
+        }
+    }
+
+    /**
+     * @brief Counts the entries with a key in a range.
+     *
+     * @param startKey The start key, inclusive.
+     * @param endKey The end key, inclusive.
+     * @return The number of entries.
+     * @throws IOException If a page cannot be read.
+     */
+    public long count(int startKey, int endKey) throws IOException {
+        return forEachInRange(startKey, endKey, (key, value) -> { });
+    }
+
+    /**
+     * @brief Returns a cursor over one page of the entries with a key in a range.
+     *
+     * @param startKey The start key, inclusive.
+     * @param endKey The end key, inclusive.
+     * @param offset Number of entries to skip, in iteration order.
+     * @param limit Largest number of entries to return.
+     * @param descending `true` to return the greatest keys first; equal keys then come
+     *        latest inserted first.
+     * @return The cursor, positioned before its first entry.
+     * @throws IllegalArgumentException If the offset or limit is negative.
+     */
+    public RangeCursor cursor(int startKey, int endKey, long offset, long limit, boolean descending) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
+        }
+        synchronized (this) {
+            return new RangeCursor(startKey, endKey, offset, limit, descending);
+        }
+    }
+
+    // ---- Header and lifecycle ----
+
+    /**
+     * @brief Returns the length of the source file recorded by `setSource`.
+     * @return The length, or `-1` if none was recorded.
+     */
+    public synchronized long getSourceLength() {
+        return sourceLength;
+    }
+
+    /**
+     * @brief Returns the modification time of the source file recorded by `setSource`.
+     * @return The time, or `-1` if none was recorded.
+     */
+    public synchronized long getSourceModified() {
+        return sourceModified;
+    }
+
+    /**
+     * @brief Records the state of the file the tree was built from.
+     *
+     * @param length Length of the source file.
+     * @param modified Modification time of the source file.
+     */
+    public synchronized void setSource(long length, long modified) {
+        this.sourceLength = length;
+        this.sourceModified = modified;
+    }
+
+    /**
+     * @brief Writes every dirty page and then the header to the file.
+     *
+     * The node pages are written and forced before the header, which is written and
+     * forced last. The header on disk, with its root and source stamp, therefore never
+     * describes node pages that are not on disk yet: after a crash during a flush it
+     * still holds the previous root and stamp. An owner that changes its source before
+     * it changes the tree, as `DeadlineIndex.add` does, then finds a stamp that no
+     * longer matches the source and rebuilds the tree.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public synchronized void flush() throws IOException {
+        pool.flush();
+        channel.force(false);
+
+        ByteBuffer header = pool.pin(0);
+        try {
+            header.putInt(H_MAGIC, MAGIC);
+            header.putInt(H_VERSION, VERSION);
+            header.putInt(H_PAGE_SIZE, pageSize);
+            header.putInt(H_ROOT, root);
+            header.putInt(H_HEIGHT, height);
+            header.putInt(H_PAGE_COUNT, pool.pageCount());
+            header.putLong(H_SIZE, size);
+            header.putLong(H_SOURCE_LENGTH, sourceLength);
+            header.putLong(H_SOURCE_MODIFIED, sourceModified);
+        } finally {
+            pool.unpin(0, true);
+        }
+        pool.flush();
+        channel.force(false);
+    }
+
+    /**
+     * @brief Returns the number of entries.
+     * @return The entry count.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * @brief Returns the number of levels.
+     * @return `1` while the root is a leaf.
+     */
+    public synchronized int height() {
+        return height;
+    }
+
+    /**
+     * @brief Returns the page size in bytes.
+     * @return The page size.
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @brief Returns the most entries a leaf page holds.
+     * @return The leaf capacity.
+     */
+    public int getLeafCapacity() {
+        return leafCapacity;
+    }
+
+    /**
+     * @brief Returns the buffer pool, e.g. for its hit and miss counts.
+     * @return The pool.
+     */
+    public BufferPool getBufferPool() {
+        return pool;
+    }
+
+    /**
+     * @brief Flushes and closes the file.
+     *
+     * @throws IOException If the file cannot be written or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (channel.isOpen()) {
+                flush();
+            }
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * @class RangeCursor
+     * @brief Cursor over a key range of the tree, with offset, limit and direction.
+     *
+     * The cursor copies the matching entries of one leaf at a time and holds no pinned
+     * page between calls. Ascending iteration follows the leaf chain. Leaves have no
+     * pointer to their predecessor, so descending iteration keeps the path from the
+     * root and steps to the previous leaf through the nearest ancestor with a child
+     * further left, as `BPlusTreeRangeIterator` does for the in-memory tree.
+     *
+     * Skipped entries (the offset) are dropped a whole leaf at a time. The tree must not
+     * be changed while the cursor is in use; `next` then throws
+     * `ConcurrentModificationException`.
+     */
+    public final class RangeCursor {
+
+        private final int startKey;
+        private final int endKey;
+        private final boolean descending;
+        private final int expectedModCount;
+
+        /** @brief Entries still to be skipped. */
+        private long skip;
+
+        /** @brief Entries still to be returned. */
+        private long remaining;
+
+        /** @brief Descending only: the internal pages above the last leaf and the child taken in each. */
+        private final int[] pathPages;
+        private final int[] pathSlots;
+
+        /** @brief Ascending only: the next leaf to read, or `0` at the end of the chain. */
+        private int nextLeaf;
+
+        private boolean started;
+        private boolean exhausted;
+
+        /** @brief Matching entries of the last leaf read, in iteration order. */
+        private final int[] keys = new int[leafCapacity];
+        private final long[] values = new long[leafCapacity];
+        private int position;
+        private int buffered;
+
+        private int key;
+        private long value;
+
+        private RangeCursor(int startKey, int endKey, long offset, long limit, boolean descending) {
+            this.startKey = startKey;
+            this.endKey = endKey;
+            this.descending = descending;
+            this.expectedModCount = modCount;
+            this.skip = offset;
+            this.remaining = limit;
+            this.pathPages = new int[height - 1];
+            this.pathSlots = new int[height - 1];
+        }
+
+        /**
+         * @brief Moves to the next entry.
+         *
+         * @return `true` if there is an entry, `false` past the last one.
+         * @throws IOException If a page cannot be read.
+         * @throws ConcurrentModificationException If the tree was changed since the
+         *         cursor was created.
+         */
+        public boolean next() throws IOException {
+            synchronized (PagedBPlusTree.this) {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (remaining == 0) {
+                    return false;
+                }
+                while (position == buffered) {
+                    if (!load()) {
+                        remaining = 0;
+                        return false;
+                    }
+                }
+                key = keys[position];
+                value = values[position];
+                position++;
+                remaining--;
+                return true;
+            }
+        }
+
+        /**
+         * @brief Returns the key of the current entry.
+         * @return The key.
+         */
+        public int key() {
+            return key;
+        }
+
+        /**
+         * @brief Returns the value of the current entry.
+         * @return The value.
+         */
+        public long value() {
+            return value;
+        }
+
+        /**
+         * @brief Reads the matching entries of the next leaf into the buffer.
+         *
+         * @return `false` if no leaf is left.
+         */
+        private boolean load() throws IOException {
+            if (exhausted) {
+                return false;
+            }
+            int pageId;
+            if (!started) {
+                started = true;
+                pageId = firstLeaf();
+            } else {
+                pageId = descending ? previousLeaf() : nextLeaf;
+            }
+            if (pageId == 0) {
+                exhausted = true;
+                return false;
+            }
+
+            ByteBuffer page = pool.pin(pageId);
+            try {
+                int from = lowerBound(page, startKey);
+                int to = upperBound(page, endKey);
+                if (descending ? from > 0 : to < count(page)) {
+                    // The leaf holds a key past the range, so no further leaf matches
+                    exhausted = true;
+                }
+                nextLeaf = page.getInt(N_NEXT);
+                int n = Math.max(0, to - from);
+                position = 0;
+                buffered = 0;
+                if (skip >= n) {
+                    skip -= n;
+                    return true;
+                }
+                for (int j = 0; j < n; j++) {
+                    int i = descending ? to - 1 - j : from + j;
+                    keys[j] = leafKey(page, i);
+                    values[j] = leafValue(page, i);
+                }
+                position = (int) skip;
+                buffered = n;
+                skip = 0;
+                return true;
+            } finally {
+                pool.unpin(pageId, false);
+            }
+        }
+
+        /**
+         * @brief Descends to the leaf where the iteration starts.
+         */
+        private int firstLeaf() throws IOException {
+            int pageId = root;
+            ByteBuffer page = pool.pin(pageId);
+            for (int depth = 0; !isLeaf(page); depth++) {
+                int slot = descending ? upperBound(page, endKey) : lowerBound(page, startKey);
+                if (descending) {
+                    pathPages[depth] = pageId;
+                    pathSlots[depth] = slot;
+                }
+                int next = child(page, slot);
+                pool.unpin(pageId, false);
+                pageId = next;
+                page = pool.pin(pageId);
+            }
+            pool.unpin(pageId, false);
+            return pageId;
+        }
+
+        /**
+         * @brief Steps the descent path to the leaf left of the last one.
+         *
+         * @return The leaf, or `0` if the last leaf was the leftmost.
+         */
+        private int previousLeaf() throws IOException {
+            int level = pathPages.length - 1;
+            while (level >= 0 && pathSlots[level] == 0) {
+                level--;
+            }
+            if (level < 0) {
+                return 0;
+            }
+            pathSlots[level]--;
+            ByteBuffer page = pool.pin(pathPages[level]);
+            int pageId = child(page, pathSlots[level]);
+            pool.unpin(pathPages[level], false);
+            for (int depth = level + 1; depth < pathPages.length; depth++) {
+                page = pool.pin(pageId);
+                int slot = count(page);
+                pathPages[depth] = pageId;
+                pathSlots[depth] = slot;
+                int next = child(page, slot);
+                pool.unpin(pageId, false);
+                pageId = next;
+            }
+            return pageId;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/**
+ * @file PasswordHasher.java
+ * @brief Salted PBKDF2 password hashes and a cache of recent verifications.
+ *
+ * This class turns a password into the string stored in the password field of a user
+ * record, and checks a login attempt against that string. Hashing is deliberately slow;
+ * a small cache remembers recent successful logins, so a user who logs in repeatedly
+ * pays the key derivation only once per cache lifetime.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * @class PasswordHasher
+ * @brief PBKDF2-HMAC-SHA256 hashing with a bounded, expiring verification cache.
+ *
+ * A stored hash has the form `pbkdf2-sha256$<iterations>$<salt>$<hash>` with a random
+ * 16-byte salt and a 32-byte hash, both Base64 encoded. The iteration count is stored
+ * with the hash, so changing the work factor only affects new passwords. A stored value
+ * without this prefix is a legacy plain-text password and is compared directly.
+ *
+ * The cache is an LRU map of at most `cacheSize` entries, each valid for `cacheTtl`
+ * after it was added. The key is the user id and an HMAC of the stored hash and the
+ * password under a random per-process key, so the cache never holds a password and an
+ * entry stops matching as soon as the stored hash changes. Only successful
+ * verifications are cached.
+ */
+public class PasswordHasher {
+
+    /** @brief System property with the PBKDF2 iteration count of new hashes. */
+    public static final String ITERATIONS_PROPERTY = "users.pbkdf2.iterations";
+
+    /** @brief System property with the maximum number of cached verifications. */
+    public static final String CACHE_SIZE_PROPERTY = "users.login.cache.size";
+
+    /** @brief System property with the lifetime of a cached verification, in seconds. */
+    public static final String CACHE_TTL_PROPERTY = "users.login.cache.ttl";
+
+    /** @brief Iteration count used when nothing is configured. */
+    public static final int DEFAULT_ITERATIONS = 210_000;
+
+    /** @brief Cache size used when nothing is configured. */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    /** @brief Cache lifetime used when nothing is configured, in seconds. */
+    public static final long DEFAULT_CACHE_TTL_SECONDS = 300;
+
+    /** @brief Prefix of a stored PBKDF2 hash. */
+    public static final String PREFIX = "pbkdf2-sha256";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** @brief Iteration count of new hashes. */
+    private final int iterations;
+
+    /** @brief Recent successful verifications. */
+    private final VerificationCache cache;
+
+    /** @brief Key of the cache digests, chosen at random for this instance. */
+    private final SecretKeySpec cacheKey;
+
+    /**
+     * @brief Creates a hasher.
+     *
+     * @param iterations PBKDF2 iteration count of new hashes.
+     * @param cacheSize Maximum number of cached verifications; `0` disables the cache.
+     * @param cacheTtlMillis Lifetime of a cached verification, in milliseconds.
+     * @throws IllegalArgumentException If a parameter is out of range.
+     */
+    public PasswordHasher(int iterations, int cacheSize, long cacheTtlMillis) {
+        this(iterations, cacheSize, cacheTtlMillis, System::nanoTime);
+    }
+
+    /**
+     * @brief Creates a hasher with a clock for the cache lifetime.
+     *
+     * @param iterations PBKDF2 iteration count of new hashes.
+     * @param cacheSize Maximum number of cached verifications.
+     * @param cacheTtlMillis Lifetime of a cached verification, in milliseconds.
+     * @param clock Source of the current time in nanoseconds.
+     */
+    PasswordHasher(int iterations, int cacheSize, long cacheTtlMillis, LongSupplier clock) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iteration count must be positive: " + iterations);
+        }
+        if (cacheSize < 0 || cacheTtlMillis < 0) {
+            throw new IllegalArgumentException("Cache size and lifetime must not be negative.");
+        }
+        this.iterations = iterations;
+        this.cache = new VerificationCache(cacheSize, TimeUnit.MILLISECONDS.toNanos(cacheTtlMillis), clock);
+        byte[] key = new byte[32];
+        RANDOM.nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    /**
+     * @brief Creates a hasher configured by the `users.pbkdf2.*` and `users.login.cache.*`
+     *        system properties.
+     * @return The hasher.
+     */
+    public static PasswordHasher fromSystemProperties() {
+        int iterations = Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+        int cacheSize = Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE);
+        long ttlSeconds = Long.getLong(CACHE_TTL_PROPERTY, DEFAULT_CACHE_TTL_SECONDS);
+        return new PasswordHasher(iterations, cacheSize, TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+    /**
+     * @brief Hashes a password with a new random salt.
+     *
+     * @param password The plain-text password.
+     * @return The string to store in the user record.
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + base64.encodeToString(salt)
+                + "$" + base64.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * @brief Checks whether a stored password is a PBKDF2 hash.
+     *
+     * @param stored The stored password field.
+     * @return `true` for a hash made by `hash`, `false` for a legacy plain-text password.
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    /**
+     * @brief Checks a password against a stored password field.
+     *
+     * A hit in the verification cache skips the key derivation. A successful PBKDF2
+     * verification is added to the cache.
+     *
+     * @param userId Id of the user the stored password belongs to.
+     * @param password The password entered at login.
+     * @param stored The stored password field.
+     * @return `true` if the password matches.
+     */
+    public boolean verify(int userId, String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String key = cache.isEnabled() ? userId + ":" + cacheDigest(password, stored) : null;
+        if (key != null && cache.contains(key)) {
+            return true;
+        }
+
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        byte[] salt;
+        byte[] expected;
+        int storedIterations;
+        try {
+            storedIterations = Integer.parseInt(parts[1]);
+            salt = Base64.getDecoder().decode(parts[2]);
+            expected = Base64.getDecoder().decode(parts[3]);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (storedIterations < 1) {
+            return false;
+        }
+
+        boolean matches = MessageDigest.isEqual(expected, derive(password, salt, storedIterations));
+        if (matches && key != null) {
+            cache.add(key);
+        }
+        return matches;
+    }
+
+    /**
+     * @brief Runs PBKDF2-HMAC-SHA256.
+     */
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available.", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * @brief Computes the cache digest of a password and a stored hash.
+     */
+    private String cacheDigest(String password, String stored) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            mac.update(stored.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available.", e);
+        }
+    }
+
+    /**
+     * @brief Returns the iteration count of new hashes.
+     * @return The work factor.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @brief Returns the number of cached verifications, expired ones included.
+     * @return The cache size.
+     */
+    public int cacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * @brief Returns how many verifications were answered by the cache.
+     * @return The cache hits.
+     */
+    public long cacheHits() {
+        return cache.hits();
+    }
+
+    /**
+     * @brief Forgets every cached verification.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * @class VerificationCache
+     * @brief Synchronised LRU set of keys with an expiry time per key.
+     */
+    private static final class VerificationCache {
+
+        private final int maxSize;
+        private final long ttlNanos;
+        private final LongSupplier clock;
+        private final LinkedHashMap<String, Long> expiries;
+        private long hits;
+
+        VerificationCache(int maxSize, long ttlNanos, LongSupplier clock) {
+            this.maxSize = maxSize;
+            this.ttlNanos = ttlNanos;
+            this.clock = clock;
+            this.expiries = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                    return size() > VerificationCache.this.maxSize;
+                }
+            };
+        }
+
+        boolean isEnabled() {
+            return maxSize > 0 && ttlNanos > 0;
+        }
+
+        synchronized boolean contains(String key) {
+            Long expiry = expiries.get(key);
+            if (expiry == null) {
+                return false;
+            }
+            if (clock.getAsLong() - expiry >= 0) {
+                expiries.remove(key);
+                return false;
+            }
+            hits++;
+            return true;
+        }
+
+        synchronized void add(String key) {
+            expiries.put(key, clock.getAsLong() + ttlNanos);
+        }
+
+        synchronized int size() {
+            return expiries.size();
+        }
+
+        synchronized long hits() {
+            return hits;
+        }
+
+        synchronized void clear() {
+            expiries.clear();
+        }
+    }
+}
@@ -0,0 +1,490 @@
+/**
+ * @file ProbingHashTable.java
+ * @brief Fixed-size open-addressing user table with probe metrics.
+ *
+ * This class is the single table behind the collision-resolution demos of the algorithms
+ * menu. The demos differ only in their `ProbingStrategy`, their hash functions and, for
+ * Brent's method, in relocating resident keys; the table records how many probes every
+ * operation needed so the strategies can be compared on real email sets.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * @class ProbingHashTable
+ * @brief Open-addressing table from email to `User` that measures its own probing.
+ *
+ * The home slot of a key is `homeHash(email)` reduced to the capacity; the probe
+ * sequence is `strategy.slot(home, keyHash(email), attempt, capacity)`. Keys are never
+ * removed, so a lookup ends at the first empty slot of its sequence.
+ *
+ * With Brent's method enabled, an insert whose home slot is taken may move a resident
+ * key further along that key's own sequence when this makes the new key's sequence
+ * shorter; the sum of both probe lengths is minimised, which keeps the average lookup
+ * cost close to that of a nearly empty table.
+ */
+public class ProbingHashTable {
+
+    /**
+     * @enum Operation
+     * @brief Kind of a recorded operation.
+     */
+    public enum Operation {
+        /** @brief A user was added or rejected. */
+        INSERT,
+        /** @brief A user was looked up. */
+        FIND
+    }
+
+    /**
+     * @class Result
+     * @brief Outcome and cost of one operation.
+     */
+    public static final class Result {
+
+        /** @brief The kind of operation. */
+        public final Operation operation;
+
+        /** @brief `true` if the user was placed (insert) or found (find). */
+        public final boolean success;
+
+        /** @brief The user found, the user placed, or the existing user of a duplicate insert. */
+        public final User user;
+
+        /** @brief Slot of the user, or `-1` if there is none. */
+        public final int slot;
+
+        /** @brief Number of slots inspected. */
+        public final int probes;
+
+        /** @brief Probe attempt at which the user sits in its sequence; `0` is the home slot. */
+        public final int displacement;
+
+        /** @brief Number of resident keys moved by Brent's method. */
+        public final int relocations;
+
+        /** @brief Load factor after the operation. */
+        public final double loadFactor;
+
+        /** @brief Size of the run of occupied slots around `slot`, or `0`. */
+        public final int clusterSize;
+
+        /**
+         * @brief Creates a result.
+         */
+        Result(Operation operation, boolean success, User user, int slot, int probes,
+               int displacement, int relocations, double loadFactor, int clusterSize) {
+            this.operation = operation;
+            this.success = success;
+            this.user = user;
+            this.slot = slot;
+            this.probes = probes;
+            this.displacement = displacement;
+            this.relocations = relocations;
+            this.loadFactor = loadFactor;
+            this.clusterSize = clusterSize;
+        }
+    }
+
+    /**
+     * @class Metrics
+     * @brief Probe statistics accumulated over all operations of a table.
+     */
+    public static final class Metrics {
+
+        /** @brief Highest probe count tracked individually by `probeHistogram`. */
+        public static final int HISTOGRAM_LIMIT = 16;
+
+        /** @brief Successful inserts. */
+        public int inserts;
+
+        /** @brief Inserts rejected as duplicates or because no slot was free. */
+        public int failedInserts;
+
+        /** @brief Lookups, found or not. */
+        public int lookups;
+
+        /** @brief Lookups that did not find the key. */
+        public int misses;
+
+        /** @brief Slots inspected by successful inserts. */
+        public long insertProbes;
+
+        /** @brief Slots inspected by lookups. */
+        public long lookupProbes;
+
+        /** @brief Largest probe count of any operation. */
+        public int maxProbes;
+
+        /** @brief Largest displacement of a placed key. */
+        public int maxDisplacement;
+
+        /** @brief Keys moved by Brent's method. */
+        public int relocations;
+
+        /** @brief Operations by probe count; the last entry counts `HISTOGRAM_LIMIT` or more. */
+        public final int[] probeHistogram = new int[HISTOGRAM_LIMIT + 1];
+
+        /**
+         * @brief Returns the average probe count of successful inserts.
+         * @return The average, or `0` without inserts.
+         */
+        public double averageInsertProbes() {
+            return inserts == 0 ? 0 : (double) insertProbes / inserts;
+        }
+
+        /**
+         * @brief Returns the average probe count of lookups.
+         * @return The average, or `0` without lookups.
+         */
+        public double averageLookupProbes() {
+            return lookups == 0 ? 0 : (double) lookupProbes / lookups;
+        }
+
+        /**
+         * @brief Adds one operation to the statistics.
+         *
+         * @param result The operation.
+         */
+        void record(Result result) {
+            if (result.operation == Operation.INSERT) {
+                if (result.success) {
+                    inserts++;
+                    insertProbes += result.probes;
+                    maxDisplacement = Math.max(maxDisplacement, result.displacement);
+                    relocations += result.relocations;
+                } else {
+                    failedInserts++;
+                }
+            } else {
+                lookups++;
+                lookupProbes += result.probes;
+                if (!result.success) {
+                    misses++;
+                }
+            }
+            maxProbes = Math.max(maxProbes, result.probes);
+            probeHistogram[Math.min(result.probes, HISTOGRAM_LIMIT)]++;
+        }
+    }
+
+    /** @brief Probe sequence of the table. */
+    private final ProbingStrategy strategy;
+
+    /** @brief Hash that selects the home slot. */
+    private final ToIntFunction<String> homeHash;
+
+    /** @brief Hash handed to the strategy, e.g. the step of double hashing. */
+    private final ToIntFunction<String> keyHash;
+
+    /** @brief Whether inserts relocate resident keys by Brent's method. */
+    private final boolean brent;
+
+    /** @brief Users by slot; `null` marks an empty slot. */
+    private final User[] users;
+
+    /** @brief Home slot of each resident key. */
+    private final int[] homes;
+
+    /** @brief Strategy hash of each resident key. */
+    private final int[] keyHashes;
+
+    /** @brief Probe attempt at which each resident key sits. */
+    private final int[] displacements;
+
+    /** @brief Number of users. */
+    private int size;
+
+    /** @brief Statistics of all operations. */
+    private final Metrics metrics = new Metrics();
+
+    /** @brief Outcome of the latest operation. */
+    private Result lastResult;
+
+    /**
+     * @brief Creates an empty table.
+     *
+     * @param capacity Number of slots.
+     * @param strategy The probe sequence.
+     * @param homeHash Hash that selects the home slot; reduced modulo the capacity.
+     * @param keyHash Hash handed to the strategy.
+     * @param brent `true` to relocate resident keys by Brent's method.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public ProbingHashTable(int capacity, ProbingStrategy strategy, ToIntFunction<String> homeHash,
+                            ToIntFunction<String> keyHash, boolean brent) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.strategy = strategy;
+        this.homeHash = homeHash;
+        this.keyHash = keyHash;
+        this.brent = brent;
+        this.users = new User[capacity];
+        this.homes = new int[capacity];
+        this.keyHashes = new int[capacity];
+        this.displacements = new int[capacity];
+    }
+
+    /**
+     * @brief Creates an empty table without Brent's method.
+     *
+     * @param capacity Number of slots.
+     * @param strategy The probe sequence.
+     * @param homeHash Hash that selects the home slot.
+     * @param keyHash Hash handed to the strategy.
+     */
+    public ProbingHashTable(int capacity, ProbingStrategy strategy, ToIntFunction<String> homeHash,
+                            ToIntFunction<String> keyHash) {
+        this(capacity, strategy, homeHash, keyHash, false);
+    }
+
+    /**
+     * @brief Returns the slot visited by a probe attempt of a resident or new key.
+     */
+    private int slot(int home, int hash, int attempt) {
+        return strategy.slot(home, hash, attempt, users.length);
+    }
+
+    /**
+     * @brief Adds a user unless its email is already present.
+     *
+     * @param user The user.
+     * @return The outcome; on a duplicate `success` is `false` and `user` is the resident user.
+     */
+    public Result insert(User user) {
+        String email = user.getEmail();
+        int home = Math.floorMod(homeHash.applyAsInt(email), users.length);
+        int hash = keyHash.applyAsInt(email);
+
+        // Walk the sequence up to the first empty slot; a duplicate can only be before it
+        int probes = 0;
+        int free = -1;
+        for (int attempt = 0; attempt < users.length; attempt++) {
+            int slot = slot(home, hash, attempt);
+            probes++;
+            if (users[slot] == null) {
+                free = attempt;
+                break;
+            }
+            if (users[slot].getEmail().equals(email)) {
+                return record(new Result(Operation.INSERT, false, users[slot], slot, probes,
+                        displacements[slot], 0, loadFactor(), clusterSize(slot)));
+            }
+        }
+        if (free < 0) {
+            return record(new Result(Operation.INSERT, false, null, -1, probes, 0, 0, loadFactor(), 0));
+        }
+
+        if (brent && free > 1) {
+            // Brent: find the cheapest i + j where the key takes attempt i and the resident
+            // key of that slot moves j attempts along its own sequence
+            for (int total = 1; total < free; total++) {
+                for (int i = 0; i < total; i++) {
+                    int slot = slot(home, hash, i);
+                    int j = total - i;
+                    int moved = displacements[slot] + j;
+                    if (moved >= users.length) {
+                        continue;
+                    }
+                    int target = slot(homes[slot], keyHashes[slot], moved);
+                    probes++;
+                    if (users[target] == null) {
+                        place(target, users[slot], homes[slot], keyHashes[slot], moved);
+                        place(slot, user, home, hash, i);
+                        size++;
+                        return record(new Result(Operation.INSERT, true, user, slot, probes, i, 1,
+                                loadFactor(), clusterSize(slot)));
+                    }
+                }
+            }
+        }
+
+        int slot = slot(home, hash, free);
+        place(slot, user, home, hash, free);
+        size++;
+        return record(new Result(Operation.INSERT, true, user, slot, probes, free, 0,
+                loadFactor(), clusterSize(slot)));
+    }
+
+    /**
+     * @brief Stores a key in a slot.
+     */
+    private void place(int slot, User user, int home, int hash, int displacement) {
+        users[slot] = user;
+        homes[slot] = home;
+        keyHashes[slot] = hash;
+        displacements[slot] = displacement;
+    }
+
+    /**
+     * @brief Looks up a user by email.
+     *
+     * @param email The email address.
+     * @return The outcome; `user` is `null` if the email is not present.
+     */
+    public Result find(String email) {
+        int home = Math.floorMod(homeHash.applyAsInt(email), users.length);
+        int hash = keyHash.applyAsInt(email);
+        int probes = 0;
+        for (int attempt = 0; attempt < users.length; attempt++) {
+            int slot = slot(home, hash, attempt);
+            probes++;
+            if (users[slot] == null) {
+                break;
+            }
+            if (users[slot].getEmail().equals(email)) {
+                return record(new Result(Operation.FIND, true, users[slot], slot, probes,
+                        displacements[slot], 0, loadFactor(), clusterSize(slot)));
+            }
+        }
+        return record(new Result(Operation.FIND, false, null, -1, probes, 0, 0, loadFactor(), 0));
+    }
+
+    /**
+     * @brief Stores an operation as the latest one and adds it to the metrics.
+     */
+    private Result record(Result result) {
+        metrics.record(result);
+        lastResult = result;
+        return result;
+    }
+
+    /**
+     * @brief Returns the size of the run of occupied slots that contains a slot.
+     *
+     * Runs wrap around the end of the table.
+     *
+     * @param slot The slot.
+     * @return The run length, or `0` if the slot is empty.
+     */
+    public int clusterSize(int slot) {
+        if (users[slot] == null) {
+            return 0;
+        }
+        if (size == users.length) {
+            return size;
+        }
+        int n = users.length;
+        int length = 1;
+        for (int i = (slot + 1) % n; users[i] != null; i = (i + 1) % n) {
+            length++;
+        }
+        for (int i = (slot - 1 + n) % n; users[i] != null; i = (i - 1 + n) % n) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * @brief Returns the lengths of all runs of occupied slots.
+     *
+     * @return The run lengths, starting with the first run after an empty slot.
+     */
+    public List<Integer> clusterSizes() {
+        List<Integer> clusters = new ArrayList<>();
+        int n = users.length;
+        if (size == 0) {
+            return clusters;
+        }
+        if (size == n) {
+            clusters.add(n);
+            return clusters;
+        }
+        int start = 0;
+        while (users[start] != null) {
+            start++;
+        }
+        int run = 0;
+        for (int k = 1; k <= n; k++) {
+            int i = (start + k) % n;
+            if (users[i] != null) {
+                run++;
+            } else if (run > 0) {
+                clusters.add(run);
+                run = 0;
+            }
+        }
+        return clusters;
+    }
+
+    /**
+     * @brief Returns the longest run of occupied slots.
+     * @return The largest cluster size.
+     */
+    public int largestCluster() {
+        int max = 0;
+        for (int cluster : clusterSizes()) {
+            max = Math.max(max, cluster);
+        }
+        return max;
+    }
+
+    /**
+     * @brief Returns the user in a slot.
+     *
+     * @param slot The slot.
+     * @return The user, or `null` for an empty slot.
+     */
+    public User getUser(int slot) {
+        return users[slot];
+    }
+
+    /**
+     * @brief Returns the displacement of the key in a slot.
+     *
+     * @param slot The slot.
+     * @return The probe attempt of the key, or `0` for an empty slot.
+     */
+    public int getDisplacement(int slot) {
+        return users[slot] == null ? 0 : displacements[slot];
+    }
+
+    /**
+     * @brief Returns the number of users.
+     * @return The user count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Returns the number of slots.
+     * @return The capacity.
+     */
+    public int capacity() {
+        return users.length;
+    }
+
+    /**
+     * @brief Returns the fraction of used slots.
+     * @return `size / capacity`.
+     */
+    public double loadFactor() {
+        return (double) size / users.length;
+    }
+
+    /**
+     * @brief Returns the statistics of all operations.
+     * @return The live metrics.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @brief Returns the outcome of the latest operation.
+     * @return The latest result, or `null` before the first operation.
+     */
+    public Result getLastResult() {
+        return lastResult;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * @file ProbingStrategy.java
+ * @brief Probe sequences for open-addressing hash tables.
+ *
+ * This interface describes where an open-addressing table looks next after a collision.
+ * The user index and the collision-resolution demos share these sequences instead of
+ * repeating the probing arithmetic in every method.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+/**
+ * @interface ProbingStrategy
+ * @brief Maps a key's home slot and probe attempt to a table slot.
+ *
+ * Attempt `0` is always the home slot. The standard strategies visit every slot of a
+ * table whose capacity is a power of two; for other capacities they may revisit slots,
+ * so callers bound the number of attempts by the capacity.
+ */
+@FunctionalInterface
+public interface ProbingStrategy {
+
+    /**
+     * @brief Computes the slot visited by a probe attempt.
+     *
+     * @param home The home slot of the key (`0 <= home < capacity`).
+     * @param hash The full hash of the key, used by strategies with a key-dependent step.
+     * @param attempt The probe attempt, starting at `0`.
+     * @param capacity The number of slots in the table.
+     * @return The slot to inspect, in `[0, capacity)`.
+     */
+    int slot(int home, int hash, int attempt, int capacity);
+
+    /** @brief Linear probing: `home + i`. */
+    ProbingStrategy LINEAR = (home, hash, attempt, capacity) ->
+            (int) ((home + (long) attempt) % capacity);
+
+    /** @brief Quadratic probing over triangular numbers: `home + i(i+1)/2`. */
+    ProbingStrategy QUADRATIC = (home, hash, attempt, capacity) ->
+            (int) ((home + (long) attempt * (attempt + 1) / 2) % capacity);
+
+    /** @brief Double hashing: `home + i * step`, with an odd step taken from the upper hash bits. */
+    ProbingStrategy DOUBLE_HASHING = (home, hash, attempt, capacity) ->
+            (int) ((home + (long) attempt * (((hash >>> 16) % capacity) | 1)) % capacity);
+
+    /** @brief Linear quotient: `home + i * step`, with an odd step taken from `hash / capacity`. */
+    ProbingStrategy LINEAR_QUOTIENT = (home, hash, attempt, capacity) ->
+            (int) ((home + (long) attempt
+                    * ((Integer.divideUnsigned(hash, capacity) % capacity) | 1)) % capacity);
+
+    /**
+     * @brief Double hashing with the key hash as the step: `home + i * hash`.
+     *
+     * For a secondary hash function that already returns a step, such as
+     * `Task.hashFunction2`. A step of `0` modulo the capacity is replaced by `1`.
+     */
+    ProbingStrategy KEY_STEP = (home, hash, attempt, capacity) ->
+            (int) ((home + (long) attempt * Math.max(1, Math.floorMod(hash, capacity))) % capacity);
+}
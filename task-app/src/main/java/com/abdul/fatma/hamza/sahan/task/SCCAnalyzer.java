@@ -143,29 +143,144 @@ public class SCCAnalyzer {
     /**
      * @brief Analyzes SCCs in a list of tasks.
      *
-     * Converts the list of tasks into an adjacency list and identifies SCCs.
+     * Converts the list of tasks into its CSR dependency graph and identifies SCCs.
      *
      * @param taskList A list of tasks with dependencies.
      * @param output A StringBuilder to store SCC analysis results.
      */
     public void analyzeSCC(ArrayList<TaskInfo> taskList, StringBuilder output) {
-        int V = taskList.size(); // Total number of vertices
+        analyzeSCC(TaskDependencyGraph.fromTasks(taskList), output);
+    }
+
+    /**
+     * @brief Analyzes SCCs of a CSR dependency graph.
+     *
+     * Task `id` is vertex `id - 1` and the number of vertices is the number of tasks,
+     * as in the list based analysis. Both passes of Kosaraju's algorithm run on flat
+     * CSR arrays with an explicit DFS stack, so no per-vertex lists are allocated and
+     * deep dependency chains cannot overflow the call stack.
+     *
+     * @param graph The dependency graph.
+     * @param output A StringBuilder to store SCC analysis results.
+     */
+    public void analyzeSCC(TaskDependencyGraph graph, StringBuilder output) {
+        int V = graph.rowCount();
 
-        // Build adjacency list
-        for (TaskInfo task : taskList) {
-            int taskId = task.getId() - 1; // Convert to 0-based index
-            if (!adjList.containsKey(taskId)) {
-                adjList.put(taskId, new ArrayList<>());
+        // Forward adjacency indexed by vertex, keeping row order and dependency order
+        int[] forwardStart = new int[V + 1];
+        for (int row = 0; row < V; row++) {
+            int source = graph.taskId(row) - 1;
+            if (source >= 0 && source < V) {
+                for (int i = graph.dependencyStart(row); i < graph.dependencyEnd(row); i++) {
+                    int target = graph.dependencyAt(i) - 1;
+                    if (target >= 0 && target < V) {
+                        forwardStart[source + 1]++;
+                    }
+                }
+            }
+        }
+        for (int v = 0; v < V; v++) {
+            forwardStart[v + 1] += forwardStart[v];
+        }
+        int[] forward = new int[forwardStart[V]];
+        int[] fill = Arrays.copyOf(forwardStart, V);
+        for (int row = 0; row < V; row++) {
+            int source = graph.taskId(row) - 1;
+            if (source >= 0 && source < V) {
+                for (int i = graph.dependencyStart(row); i < graph.dependencyEnd(row); i++) {
+                    int target = graph.dependencyAt(i) - 1;
+                    if (target >= 0 && target < V) {
+                        forward[fill[source]++] = target;
+                    }
+                }
             }
+        }
+
+        // Transposed adjacency, built by ascending source vertex
+        int[] reverseStart = new int[V + 1];
+        for (int target : forward) {
+            reverseStart[target + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            reverseStart[v + 1] += reverseStart[v];
+        }
+        int[] reverse = new int[forward.length];
+        fill = Arrays.copyOf(reverseStart, V);
+        for (int source = 0; source < V; source++) {
+            for (int i = forwardStart[source]; i < forwardStart[source + 1]; i++) {
+                reverse[fill[forward[i]]++] = source;
+            }
+        }
 
-            for (int dependency : task.getDependencies()) {
-                if (dependency != 0) {
-                    adjList.get(taskId).add(dependency - 1); // Convert to 0-based index
+        boolean[] visited = new boolean[V];
+        int[] stack = new int[2 * V];
+        int[] frames = new int[V];
+        int[] frameEdge = new int[V];
+        int top = 0;
+
+        for (int i = 0; i < V; i++) {
+            if (!visited[i]) {
+                top = dfs(i, visited, forwardStart, forward, stack, top, frames, frameEdge);
+            }
+        }
+
+        Arrays.fill(visited, false);
+        int numSCC = 0;
+
+        while (top > 0) {
+            int v = stack[--top];
+
+            if (!visited[v]) {
+                numSCC++;
+                output.append("SCC #").append(numSCC).append(": ");
+
+                top = dfs(v, visited, reverseStart, reverse, stack, top, frames, frameEdge);
+
+                while (top > 0 && visited[stack[top - 1]]) {
+                    output.append(stack[--top]).append(" ");
                 }
+                output.append("\n");
             }
         }
+    }
 
-        // Find and output SCCs
-        findSCCs(V, adjList, output);
+    /**
+     * @brief Iterative DFS over a CSR graph that pushes vertices in visiting order.
+     *
+     * Equivalent to `dfsUtil`, without recursion.
+     *
+     * @param start The starting vertex.
+     * @param visited Array tracking visited vertices.
+     * @param rowStart CSR row offsets.
+     * @param targets CSR targets.
+     * @param stack The SCC stack.
+     * @param top Current size of the SCC stack.
+     * @param frames Scratch array for the DFS path.
+     * @param frameEdge Scratch array for the next edge of each DFS path entry.
+     * @return The new size of the SCC stack.
+     */
+    private int dfs(int start, boolean[] visited, int[] rowStart, int[] targets,
+                    int[] stack, int top, int[] frames, int[] frameEdge) {
+        int depth = 0;
+        visited[start] = true;
+        stack[top++] = start;
+        frames[depth] = start;
+        frameEdge[depth++] = rowStart[start];
+
+        while (depth > 0) {
+            int v = frames[depth - 1];
+            if (frameEdge[depth - 1] < rowStart[v + 1]) {
+                int neighbor = targets[frameEdge[depth - 1]++];
+                if (!visited[neighbor]) {
+                    visited[neighbor] = true;
+                    stack[top++] = neighbor;
+                    frames[depth] = neighbor;
+                    frameEdge[depth++] = rowStart[neighbor];
+                }
+            } else {
+                depth--;
+            }
+        }
+        return top;
     }
 }
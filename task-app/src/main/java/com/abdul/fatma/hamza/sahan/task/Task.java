@@ -16,9 +16,10 @@ package com.abdul.fatma.hamza.sahan.task;
 import java.util.Scanner;
 import java.io.*;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.PriorityQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * @class Task
@@ -74,19 +75,41 @@ public class Task {
     public static final int TABLE_SIZE = 100;
 
     /**
-     * @brief Hash table for storing users.
+     * @brief Registered users by email.
      *
-     * An array of linked lists used to store `User` objects in hash table format.
-     * Each index of the array represents a bucket for handling hash collisions.
+     * A lock-striped set of Robin Hood hash tables (see `ConcurrentUserIndex`) filled by
+     * `loadUserTable` and `registerUser` and searched by `searchUserInHashTable`; safe to
+     * use from many threads at once.
      */
-    public static LinkedList<User>[] hashTable = new LinkedList[TABLE_SIZE];
+    public static final ConcurrentUserIndex userIndex = new ConcurrentUserIndex();
+
+    /**
+     * @brief Guards the user files and their email index.
+     *
+     * Logins read under the read lock; registrations, recovery and index rebuilds write
+     * under the write lock.
+     */
+    private static final ReentrantReadWriteLock userFileLock = new ReentrantReadWriteLock();
+
+    /**
+     * @brief Hashes new passwords and verifies logins.
+     *
+     * Configured by the `users.pbkdf2.iterations`, `users.login.cache.size` and
+     * `users.login.cache.ttl` system properties (see `PasswordHasher`).
+     */
+    public static final PasswordHasher passwordHasher = PasswordHasher.fromSystemProperties();
+
+    /** @brief User file whose users were loaded into `userIndex` by `loadUserTable`. */
+    private static String loadedUserFile;
 
     /**
      * @brief List of tasks in the system.
      *
-     * Stores task details in an `ArrayList` for quick access and management.
+     * Stores task details in a `TaskList` for quick access and management. The list has
+     * no fixed size limit; its growth and memory budget are set by a `TaskCapacityPolicy`
+     * read from system properties (see `setCapacityPolicy`).
      */
-    private static ArrayList<TaskInfo> taskList = new ArrayList<>();
+    private static TaskList taskList = new TaskList(TaskCapacityPolicy.fromSystemProperties());
 
     /**
      * @brief The current count of tasks in the system.
@@ -96,11 +119,57 @@ public class Task {
     private static int taskCount = 0;
 
     /**
-     * @brief The maximum number of tasks allowed in the system.
+     * @brief Path of the task store file.
+     *
+     * Tasks are persisted in a memory-mapped `TaskStore` kept in this file.
+     */
+    private static final String TASKS_FILE = "tasks.bin";
+
+    /**
+     * @brief Path of the deadline file.
+     *
+     * Saved deadlines are appended to this file and indexed by date in a
+     * `DeadlineIndex` next to it.
+     */
+    private static final String DEADLINES_FILE = "deadlines.bin";
+
+    /** @brief Number of deadlines `viewDeadlinesInRange` shows before asking for more. */
+    private static final int DEADLINE_PAGE_SIZE = 20;
+
+    /**
+     * @brief Write-ahead log of task mutations, opened on first use.
+     *
+     * Single-task edits are appended here instead of being written into the store;
+     * a background compactor folds the log into `tasks.bin`.
+     */
+    private static TaskLog taskLog;
+
+    /** @brief Last compaction failure of `taskLog` that was reported to the user. */
+    private static Exception reportedCompactionFailure;
+
+    /** @brief How often the task log compactor checks the log size, in milliseconds. */
+    private static final long COMPACT_PERIOD_MILLIS = 5000;
+
+    /** @brief Log size in bytes above which the task log is compacted. */
+    private static final long COMPACT_THRESHOLD_BYTES = 64 * 1024;
+
+    /**
+     * @brief Number of threads used to decode `tasks.bin` at load time.
+     *
+     * Defaults to the `tasks.loadThreads` system property, or the number of available
+     * processors. Small files are always decoded on one thread.
+     */
+    private static int loadThreads = Integer.getInteger("tasks.loadThreads",
+            Runtime.getRuntime().availableProcessors());
+
+    /**
+     * @brief Whether task listings run over an off-heap `TaskTable`.
      *
-     * Defines an upper limit on the number of tasks that can be managed simultaneously.
+     * Defaults to `true` when the `tasks.backend` system property is `table`. Listing,
+     * filtering, searching and importance ordering then read a `TaskTable` copy of the
+     * task list instead of the `TaskInfo` objects (see `taskSource`).
      */
-    private static final int MAX_TASKS = 100;
+    private static boolean tableBackend = "table".equalsIgnoreCase(System.getProperty("tasks.backend"));
 
     /**
      * @brief Head node of a doubly linked list of tasks.
@@ -131,28 +200,6 @@ public class Task {
      */
     public PriorityQueue<Assignment> deadlineHeap = new PriorityQueue<>();
 
-    /**
-     * @brief Overflow area for user storage.
-     *
-     * An `ArrayList` used as an overflow area when the hash table exceeds its capacity.
-     * Supports up to `OVERFLOW_SIZE` additional users.
-     */
-    private static final int OVERFLOW_SIZE = 20;
-
-    /**
-     * @brief List of overflow users.
-     *
-     * Stores `User` objects that cannot fit into the main hash table.
-     */
-    private static ArrayList<User> overflowArea = new ArrayList<>(OVERFLOW_SIZE);
-
-
-
-
-
-
-
-
     /**
      * @brief Doubly linked list for task management.
      *
@@ -401,6 +448,9 @@ public class Task {
     public void mainMenu(String pathFileUsers) {
         int choice;
 
+        recoverUserFiles(pathFileUsers);
+        loadUserTable(pathFileUsers);
+
         while (true) {
             clearScreen();
             openingScreenMenu();
@@ -498,7 +548,6 @@ public class Task {
      */
 
     public void createTaskMenu() {
-        int maxTasks = 100;
         int choice;
 
         TaskQueue taskQueue = new TaskQueue();
@@ -516,7 +565,7 @@ public class Task {
 
             switch (choice) {
                 case 1:
-                    taskCount = addTask(taskList, taskDoublyLinkedList, taskCount, maxTasks);
+                    taskCount += addTask(taskList, taskDoublyLinkedList);
                     enterToContinue();
                     break;
                 case 2:
@@ -561,7 +610,7 @@ public class Task {
                     break;
                 case 8:
                     XORLinkedList xorList = new XORLinkedList();
-                    xorList.loadTasksToXORList("tasks.bin");
+                    xorList.loadTasksToXORList(TASKS_FILE);
                     xorList.navigateXORList();
                     enterToContinue();
                     break;
@@ -588,7 +637,6 @@ public class Task {
      */
 
     public void deadlineSettingsMenu() {
-        int maxTasks = 100;
         int choice;
 
         while (true) {
@@ -610,8 +658,7 @@ public class Task {
                     enterToContinue();
                     break;
                 case 3:
-                    BPlusTree tree = new BPlusTree();
-                    tree.viewDeadlinesInRange();
+                    viewDeadlinesInRange();
                     enterToContinue();
                     break;
                 case 4:
@@ -638,7 +685,6 @@ public class Task {
      */
 
     public void reminderSystemMenu() {
-        int maxTasks = 100;
 
         int choice;
 
@@ -683,7 +729,6 @@ public class Task {
      */
 
     public void taskPrioritizationMenu() {
-        int maxTasks = 100;
 
         int choice;
 
@@ -727,7 +772,6 @@ public class Task {
      * The method operates in a loop until the user chooses to exit.
      */
     public void algorithmsMenu() {
-        int maxTasks = 100;
 
         int choice;
 
@@ -789,10 +833,17 @@ public class Task {
     }
 
     /**
-     * @brief Logs in a user using Huffman decoding for email and password.
+     * @brief Logs in a user through the persistent email index.
+     *
+     * This method checks the user's credentials against the stored users. The email is
+     * looked up in the email index of the user file (`UserEmailIndex`), which yields the
+     * offset of the user's record, so a login costs one index probe and one record read
+     * however many users are registered. The index is rebuilt automatically if it is
+     * missing or older than the user file.
      *
-     * This method checks the user's credentials against stored users in the file.
-     * It decodes the email and password using Huffman decoding before validation.
+     * Logins of any number of threads run in parallel; see `findUserInFile`. The password
+     * is checked by `passwordHasher`, which also accepts the plain-text passwords of users
+     * registered before passwords were hashed.
      *
      * @param loginUser The User object attempting to log in.
      * @param pathFileUsers The path to the user database file.
@@ -805,41 +856,14 @@ public class Task {
             return 0;
         }
 
-        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
-            int userCount = raf.readInt();
-            ArrayList<User> users = new ArrayList<>();
-
-            for (int i = 0; i < userCount; i++) {
-                User tempUser = new User();
-                tempUser.readFromFile(raf);
-                users.add(tempUser);
-            }
-
-            for (User user : users) {
-                insertUserToHashTable(user);
-            }
+        try {
+            User user = findUserInFile(pathFileUsers, loginUser.getEmail());
 
-            // Huffman dosyasından kontrol
-            try (DataInputStream huffDis = new DataInputStream(new FileInputStream("user.huf"))) {
-                while (huffDis.available() > 0) {
-                    int id = huffDis.readInt();
-                    int emailLength = huffDis.readInt();
-                    byte[] emailBytes = new byte[emailLength];
-                    huffDis.readFully(emailBytes);
-                    String decodedEmail = HuffmanCoding.huffmanDecode(new String(emailBytes));
-
-                    int passwordLength = huffDis.readInt();
-                    byte[] passwordBytes = new byte[passwordLength];
-                    huffDis.readFully(passwordBytes);
-                    String decodedPassword = HuffmanCoding.huffmanDecode(new String(passwordBytes));
-
-                    if (decodedEmail.equals(loginUser.getEmail()) && decodedPassword.equals(loginUser.getPassword())) {
-                        out.println("╔══════════════════════════════════════════════════╗");
-                        out.println("║ SUCCESS: Login successful!                      ║");
-                        out.println("╚══════════════════════════════════════════════════╝");
-                        return 1;
-                    }
-                }
+            if (user != null && passwordHasher.verify(user.getId(), loginUser.getPassword(), user.getPassword())) {
+                out.println("╔══════════════════════════════════════════════════╗");
+                out.println("║ SUCCESS: Login successful!                      ║");
+                out.println("╚══════════════════════════════════════════════════╝");
+                return 1;
             }
 
             out.println("╔══════════════════════════════════════════════════╗");
@@ -854,6 +878,36 @@ public class Task {
         }
     }
 
+    /**
+     * @brief Looks up a user in a user file through its email index.
+     *
+     * A current index is read under the read lock of `userFileLock`, so lookups of many
+     * threads proceed together. Only a missing or stale index is rebuilt, under the write
+     * lock, which also guards registrations.
+     *
+     * @param pathFileUsers The path to the user database file.
+     * @param email The email address.
+     * @return The user record, or `null` if no user has this email.
+     * @throws IOException If the user file or its index cannot be read.
+     */
+    static User findUserInFile(String pathFileUsers, String email) throws IOException {
+        userFileLock.readLock().lock();
+        try (UserEmailIndex index = UserEmailIndex.openReadOnly(pathFileUsers)) {
+            if (index != null) {
+                return index.find(email);
+            }
+        } finally {
+            userFileLock.readLock().unlock();
+        }
+
+        userFileLock.writeLock().lock();
+        try (UserEmailIndex index = UserEmailIndex.open(pathFileUsers)) {
+            return index.find(email);
+        } finally {
+            userFileLock.writeLock().unlock();
+        }
+    }
+
     /**
      * @brief Displays the User Login Menu and handles user authentication.
      *
@@ -896,43 +950,90 @@ public class Task {
     }
 
     /**
-     * @brief Inserts a user into the hash table based on their email address.
+     * @brief Inserts a user into the user index based on their email address.
      *
-     * This method calculates the hash index using the user's email and inserts the user
-     * into the appropriate position in the hash table. If no list exists at the index,
-     * a new linked list is created.
+     * A user with the same email that is already in `userIndex` is replaced.
      *
      * @param user The User object containing user information to be inserted into the hash table.
      */
     public static void insertUserToHashTable(User user) {
-        int index = hashFunction(user.getEmail());
-
+        userIndex.put(user);
+    }
 
-        if (hashTable[index] == null) {
-            hashTable[index] = new LinkedList<>();
+    /**
+     * @brief Repairs the user file and its Huffman file after an interrupted registration.
+     *
+     * Runs `UserLog.recover` and reports what was repaired. Nothing is printed when the
+     * files were already consistent.
+     *
+     * @param pathFileUsers The path to the user database file.
+     */
+    private void recoverUserFiles(String pathFileUsers) {
+        userFileLock.writeLock().lock();
+        try {
+            UserLog.Recovery recovery = UserLog.recover(pathFileUsers, UserLog.huffmanPathFor(pathFileUsers));
+            if (!recovery.isClean()) {
+                out.println("User files recovered: " + recovery.adoptedUsers + " user(s) adopted, "
+                        + recovery.truncatedUserBytes + " torn byte(s) removed, "
+                        + recovery.addedHuffmanEntries + " Huffman entry(ies) added, "
+                        + recovery.removedHuffmanEntries + " removed"
+                        + (recovery.rebuiltHuffmanFile ? ", Huffman file rebuilt." : "."));
+            }
+        } catch (IOException e) {
+            out.println("Error checking user file: " + e.getMessage());
+        } finally {
+            userFileLock.writeLock().unlock();
         }
+    }
 
-        hashTable[index].add(user);
+    /**
+     * @brief Loads the users of a user file into the user index once.
+     *
+     * Called at startup. Later calls for the same file do nothing; new registrations are
+     * added by `registerUser`.
+     *
+     * @param pathFileUsers The path to the user database file.
+     */
+    public static synchronized void loadUserTable(String pathFileUsers) {
+        if (pathFileUsers.equals(loadedUserFile)) {
+            return;
+        }
+        File file = new File(pathFileUsers);
+        userFileLock.readLock().lock();
+        try {
+            if (file.length() > 0) {
+                try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                    int userCount = raf.readInt();
+                    for (int i = 0; i < userCount; i++) {
+                        User user = new User();
+                        user.readFromFile(raf);
+                        insertUserToHashTable(user);
+                    }
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        } finally {
+            userFileLock.readLock().unlock();
+        }
+        loadedUserFile = pathFileUsers;
     }
 
     /**
-     * @brief Searches for a user in the hash table using linear probing.
+     * @brief Searches for a user in the user index.
+     *
+     * The password is checked by `passwordHasher` against the stored hash.
      *
      * @param email The email of the user.
      * @param password The password of the user.
      * @return User The user object if found, otherwise null.
      */
     public static User searchUserInHashTable(String email, String password) {
-        int index = hashFunction(email);
-        LinkedList<User> userList = hashTable[index];
-
-        // Bağlı liste üzerinde arama yapıyoruz
-        if (userList != null) {
-            for (User user : userList) {
-                if (user.getEmail().equals(email) && user.getPassword().equals(password)) {
-                    return user;  // Kullanıcı bulundu
-                }
-            }
+        User user = userIndex.get(email);
+
+        // E-posta bulunduysa şifre karşılaştırılır
+        if (user != null && passwordHasher.verify(user.getId(), password, user.getPassword())) {
+            return user;  // Kullanıcı bulundu
         }
         return null;  // Kullanıcı bulunamadı
     }
@@ -943,69 +1044,41 @@ public class Task {
      * This method registers a new user by checking if the user already exists,
      * encoding their email and password using Huffman coding, and saving them
      * into a binary file (`users.bin`) and a Huffman-encoded file (`user.huf`).
-     *
-     * @param user The User object containing the user's details.
+     * Whether the email is already registered is answered by the email index, which
+     * is updated with the offset of the new record. The user file is append-only
+     * (`UserLog.append`), so a registration costs the same I/O however many users
+     * exist. The password is replaced by its salted hash (`PasswordHasher.hash`) before
+     * anything is written, so neither file holds it in plain text. Registrations hold the
+     * write lock of `userFileLock`, so they are serialised with each other and with index
+     * rebuilds while logins keep running in between.
+     *
+     * @param user The User object containing the user's details; its id is set and its
+     *        password is replaced by the stored hash.
      * @param pathFileUser The path to the user database file.
      * @return int Returns 1 if registration is successful, otherwise 0.
      */
     public int registerUser(User user, String pathFileUser) {
-        File file = new File(pathFileUser);
-        int userCount = 0;
-        ArrayList<User> users = new ArrayList<>();
-
+        userFileLock.writeLock().lock();
         try {
-            if (file.exists()) {
-                RandomAccessFile raf = new RandomAccessFile(file, "rw");
-                if (raf.length() > 0) {
-                    userCount = raf.readInt();
-
-                    for (int i = 0; i < userCount; i++) {
-                        User tempUser = new User();
-                        tempUser.readFromFile(raf);
-                        users.add(tempUser);
-                    }
-
-                    for (User u : users) {
-                        insertUserToHashTable(u);
-                    }
-
-                    if (searchUserInHashTable(user.getEmail(), user.getPassword()) != null) {
-                        out.println("User already exists.");
-                        raf.close();
-                        return 0;
-                    }
+            try (UserEmailIndex index = UserEmailIndex.open(pathFileUser)) {
+                if (index.find(user.getEmail()) != null) {
+                    out.println("User already exists.");
+                    return 0;
                 }
-                raf.close();
-            } else {
-                file.createNewFile();
-            }
 
-            // Yeni kullanıcı ekleniyor
-            user.setId(userCount + 1);
-            insertUserToHashTable(user);
-
-            // Huffman Kodlama
-            String encodedEmail = HuffmanCoding.huffmanEncode(user.getEmail());
-            String encodedPassword = HuffmanCoding.huffmanEncode(user.getPassword());
-
-            // Huffman dosyasına yazma
-            try (DataOutputStream huffDos = new DataOutputStream(new FileOutputStream("user.huf", true))) {
-                huffDos.writeInt(user.getId());
-                huffDos.writeInt(encodedEmail.length());
-                huffDos.writeBytes(encodedEmail);
-                huffDos.writeInt(encodedPassword.length());
-                huffDos.writeBytes(encodedPassword);
-            }
+                // Şifre düz metin olarak saklanmaz
+                user.setPassword(passwordHasher.hash(user.getPassword()));
+
+                // Yeni kullanıcı dosyanın sonuna eklenir, ardından sayaç güncellenir
+                long offset = UserLog.append(pathFileUser, user);
+                insertUserToHashTable(user);
 
-            users.add(user);
-            userCount++;
+                // Huffman dosyasına yazma
+                UserLog.appendHuffman(UserLog.huffmanPathFor(pathFileUser), user);
 
-            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
-                raf.seek(0);
-                raf.writeInt(userCount);
-                for (User u : users) {
-                    u.writeToFile(raf);
-                }
+                // Yeni kaydın konumu indekse eklenir
+                index.put(user.getEmail(), offset);
+                index.sync();
             }
 
             out.println("╔══════════════════════════════════════════════════╗");
@@ -1019,6 +1092,8 @@ public class Task {
             e.printStackTrace();
             out.println("Error processing user file.");
             return 0;
+        } finally {
+            userFileLock.writeLock().unlock();
         }
     }
     /**
@@ -1065,20 +1140,16 @@ public class Task {
      * and adds it to both the task list and doubly linked list.
      * It also handles task dependencies and ensures task data is saved properly.
      *
+     * There is no fixed task limit. If `taskList` is a `TaskList` with a memory budget,
+     * its `TaskCapacityPolicy` decides whether the new task is kept in memory, rejected
+     * or spilled (saved to disk only).
+     *
      * @param taskList An ArrayList containing existing tasks.
      * @param taskDoublyLinkedList A DoubleLinkedList structure for managing tasks.
-     * @param taskCount The current count of tasks.
-     * @param maxTasks The maximum allowed number of tasks.
      *
-     * @return Returns `1` if the task is successfully added, or `0` if the task limit is reached.
+     * @return Returns `1` if the task is successfully added, or `0` if it was rejected by the memory budget.
      */
-    public int addTask(ArrayList<TaskInfo> taskList, DoubleLinkedList taskDoublyLinkedList, int taskCount, int maxTasks) {
-        if (taskCount >= maxTasks) {
-            out.println("Task list is full. Cannot add more tasks.");
-            return 0;
-        }
-
-
+    public int addTask(ArrayList<TaskInfo> taskList, DoubleLinkedList taskDoublyLinkedList) {
         int newId = getNewTaskId(taskList);
 
         TaskInfo newTask = new TaskInfo();
@@ -1099,14 +1170,28 @@ public class Task {
 
         out.print("Enter number of dependencies: ");
         int dependencyCount = scanner.nextInt();
-        newTask.setDependencyCount(dependencyCount);
         scanner.nextLine();
 
-        for (int i = 0; i < newTask.getDependencyCount(); i++) {
+        int[] dependencies = new int[Math.max(dependencyCount, 0)];
+        for (int i = 0; i < dependencies.length; i++) {
             out.print("Enter dependency task ID for dependency " + (i + 1) + ": ");
-            newTask.getDependencies()[i] = scanner.nextInt();
+            dependencies[i] = scanner.nextInt();
             scanner.nextLine();
         }
+        newTask.setDependencies(dependencies);
+
+        TaskCapacityPolicy.Action admission = taskList instanceof TaskList
+                ? ((TaskList) taskList).admit(newTask) : TaskCapacityPolicy.Action.ACCEPT;
+        if (admission == TaskCapacityPolicy.Action.REJECT) {
+            out.println("Task memory budget reached. Cannot add more tasks.");
+            return 0;
+        }
+        if (admission == TaskCapacityPolicy.Action.SPILL) {
+            saveTask((TaskList) taskList, newTask);
+            ((TaskList) taskList).recordSpill(newId);
+            out.println("Task memory budget reached. Task saved to disk only.");
+            return 1;
+        }
 
         taskList.add(newTask);
 
@@ -1115,7 +1200,7 @@ public class Task {
         taskCount++;
 
 
-        saveTasks(taskList);
+        saveTask(taskList, newTask);
 
         out.println("Task added and saved successfully!");
         return 1;
@@ -1124,9 +1209,18 @@ public class Task {
     /**
      * @brief Saves the task list to a binary file.
      *
-     * This method serializes the task list and writes it to a binary file named `tasks.bin`.
-     * Each task's details, including ID, name, description, category, due date,
-     * dependency count, importance ID, and dependencies, are saved sequentially.
+     * This method persists the task list into the memory-mapped task store (`tasks.bin`)
+     * through `TaskLog.flush`. Tasks that were not modified since they were loaded or
+     * last saved are skipped without being encoded. The modified tasks are appended to
+     * the task log and then written into their own slots of the store in place (new
+     * tasks are appended), so the cost depends on the number of changes, not on the
+     * number of tasks. The whole store is only rewritten, as a new snapshot that
+     * atomically replaces the old one, when the changes do not fit its layout or when
+     * tasks were removed from the list.
+     *
+     * If tasks were spilled to disk by the memory budget, the list is partial: stored
+     * tasks missing from it are kept and the task log is left for the compactor.
+     * Otherwise the task log is emptied afterwards.
      *
      * @param taskList An ArrayList containing tasks to be saved.
      *
@@ -1134,64 +1228,203 @@ public class Task {
      */
 
     public void saveTasks(ArrayList<TaskInfo> taskList) {
-        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream("tasks.bin"))) {
-            dos.writeInt(taskList.size());
-            for (TaskInfo task : taskList) {
-                dos.writeInt(task.getId());                // ID
-                dos.writeUTF(task.getName());              // Name
-                dos.writeUTF(task.getDescription());       // Description
-                dos.writeUTF(task.getCategory());          // Category
-                dos.writeUTF(task.getDueDate());           // Due Date
-                dos.writeInt(task.getDependencyCount());   // Dependency Count
-                dos.writeInt(task.getImportanceId());      // Importance ID
-                for (int dep : task.getDependencies()) {
-                    dos.writeInt(dep);                     // Dependencies
-                }
-            }
+        try {
+            boolean partial = taskList instanceof TaskList && ((TaskList) taskList).getSpilledCount() > 0;
+            openTaskLog(taskList).flush(taskList, !partial);
+        } catch (IOException e) {
+            out.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @brief Saves a single task through the task log.
+     *
+     * The task is appended to the write-ahead log as one small record and made durable
+     * with a group commit, so the cost of one edit does not depend on the number of
+     * stored tasks. The record is folded into the store by the log compactor.
+     *
+     * @param taskList The in-memory task list, used to migrate an old-format file once.
+     * @param task The task that was added or modified.
+     *
+     * @note If an IOException occurs during the save process, an error message is displayed.
+     */
+    public void saveTask(ArrayList<TaskInfo> taskList, TaskInfo task) {
+        try {
+            openTaskLog(taskList).logUpsert(task);
         } catch (IOException e) {
             out.println("Error saving tasks: " + e.getMessage());
         }
     }
 
+    /**
+     * @brief Returns the task log, bound to the current generation of the task store.
+     *
+     * The log is opened, bound and its compactor started once. Appends then cost one
+     * log record and no access to `tasks.bin`. The log rebinds itself when it
+     * replaces the store (`TaskLog.flush`, `TaskLog.compact`).
+     *
+     * @param taskList The in-memory task list, used to migrate an old-format file once.
+     * @return The task log.
+     * @throws IOException If the store or the log cannot be opened.
+     */
+    private TaskLog openTaskLog(ArrayList<TaskInfo> taskList) throws IOException {
+        synchronized (Task.class) {
+            if (taskLog == null) {
+                long generation = prepareTaskStore(taskList);
+                taskLog = TaskLog.open(TASKS_FILE);
+                taskLog.bind(generation);
+                taskLog.startCompactor(COMPACT_PERIOD_MILLIS, COMPACT_THRESHOLD_BYTES);
+            }
+            reportCompactionFailure();
+            return taskLog;
+        }
+    }
+
+    /**
+     * @brief Makes sure `tasks.bin` is a current task store and returns its generation.
+     *
+     * Old files are upgraded to the current store version by `TaskStore.upgrade`. A
+     * file that can be neither upgraded nor opened is never overwritten: it is moved
+     * aside by `TaskStore.moveAside` (to `tasks.bin.corrupt`), and only then, as when
+     * there is no file yet, a new store is written from the in-memory list.
+     *
+     * @param taskList The in-memory task list written into a freshly created store.
+     * @return The generation of the store.
+     * @throws IOException If the store cannot be opened or created, or an unreadable
+     *         file cannot be moved aside.
+     */
+    private long prepareTaskStore(ArrayList<TaskInfo> taskList) throws IOException {
+        if (new File(TASKS_FILE).length() > 0) {
+            try {
+                if (!TaskStore.isStoreFile(TASKS_FILE)) {
+                    TaskStore.upgrade(TASKS_FILE);
+                }
+                try (TaskStore store = TaskStore.open(TASKS_FILE)) {
+                    return store.getGeneration();
+                }
+            } catch (IOException e) {
+                String aside = TaskStore.moveAside(TASKS_FILE);
+                out.println("Tasks file could not be read (" + e.getMessage() + "); it was moved to "
+                        + aside + " and a new one is started.");
+            }
+        }
+        return TaskStore.replace(TASKS_FILE, taskList);
+    }
+
+    /**
+     * @brief Prints a failure of the background log compactor once.
+     *
+     * The compactor runs on its own thread and does not print; its failures are shown
+     * here, on this instance's output, the next time the log is used.
+     */
+    private void reportCompactionFailure() {
+        Exception failure = taskLog.getCompactionFailure();
+        if (failure != null && failure != reportedCompactionFailure) {
+            reportedCompactionFailure = failure;
+            out.println("Error compacting task log: " + failure.getMessage());
+        }
+    }
+
     /**
      * @brief Loads tasks from a binary file into the task list.
      *
      * This method reads tasks from a binary file (`tasks.bin`) and populates the given task list.
-     * Each task is deserialized using the `readFromFile` method of the `TaskInfo` class.
+     * Decoding is done by `TaskFileLoader`: a task store file is read from its memory
+     * mapping and the records of the task log (`tasks.bin.wal`) are replayed on top (a
+     * record that fails its checksum is recovered from the log if it was logged), while
+     * older sequential files are read with one bulk read and decoded from memory. Large
+     * files are decoded on `loadThreads` threads (see `setLoadThreads`). A `TaskList`
+     * admits each task through its memory budget; tasks that do not fit are recorded as
+     * spilled and stay in the file only.
      *
      * @param taskList An ArrayList to store the loaded tasks.
      *
-     * @return The number of tasks successfully loaded. Returns `0` if no tasks are found or an error occurs.
+     * @return The number of tasks loaded into the list. Returns `0` if no tasks are found or an error occurs.
      *
      * @note If the file `tasks.bin` does not exist or an IOException occurs, an appropriate message is displayed.
      */
 
     public int loadTasks(ArrayList<TaskInfo> taskList) {
-        File file = new File("tasks.bin");
+        File file = new File(TASKS_FILE);
         if (!file.exists()) {
             out.println("No previous tasks found.");
             return 0;
         }
 
-        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
-            int taskCount = raf.readInt();
-            out.println("Task count read from file: " + taskCount);
-
-            for (int i = 0; i < taskCount; i++) {
-                TaskInfo task = new TaskInfo();
-                task.readFromFile(raf);
+        TaskFileLoader loader = new TaskFileLoader(TASKS_FILE, loadThreads);
+        try {
+            List<TaskInfo> loaded = loader.loadAll();
+            out.println("Task count read from file: " + loader.getStoredCount());
+            if (loader.getReplayedCount() > 0) {
+                out.println(loader.getReplayedCount() + " task log records replayed.");
+            }
+            if (loader.getDamagedCount() > 0) {
+                out.println(loader.getDamagedCount() + " damaged task records could not be recovered.");
+            }
+
+            int resident = 0;
+            for (TaskInfo task : loaded) {
+                if (taskList instanceof TaskList
+                        && ((TaskList) taskList).admit(task) != TaskCapacityPolicy.Action.ACCEPT) {
+                    // Over the memory budget: the task stays in the store only
+                    ((TaskList) taskList).recordSpill(task.getId());
+                    continue;
+                }
                 out.println("Task loaded: ID=" + task.getId() + ", Name=" + task.getName());
                 taskList.add(task);
+                resident++;
             }
 
-            out.println(taskCount + " tasks loaded successfully!");
-            return taskCount;
+            out.println(resident + " tasks loaded successfully!");
+            if (resident < loaded.size()) {
+                out.println((loaded.size() - resident) + " tasks kept on disk only (memory budget reached).");
+            }
+            return resident;
         } catch (IOException e) {
             out.println("Error reading tasks file: " + e.getMessage());
             return 0;
         }
     }
 
+    /**
+     * @brief Sets the number of threads `loadTasks` uses to decode large task files.
+     *
+     * @param threads The thread count; `1` decodes sequentially.
+     */
+    public static void setLoadThreads(int threads) {
+        loadThreads = Math.max(1, threads);
+    }
+
+    /**
+     * @brief Selects the backend the task listings read from.
+     *
+     * @param table `true` to read a `TaskTable` copy of the list, `false` to read the
+     *        list in place.
+     */
+    public static void setTableBackend(boolean table) {
+        tableBackend = table;
+    }
+
+    /**
+     * @brief Returns the tasks of a list through the selected backend.
+     *
+     * @param taskList The task list.
+     * @return A `TaskTable` holding a copy of the list if the table backend is selected,
+     *         otherwise a source reading the list in place.
+     */
+    static TaskSource taskSource(List<? extends TaskInfo> taskList) {
+        return tableBackend ? TaskTable.fromTasks(taskList) : TaskSource.of(taskList);
+    }
+
+    /**
+     * @brief Sets the growth and memory budget rules of the task list.
+     *
+     * @param policy The capacity policy; tasks already loaded are kept.
+     */
+    public static void setCapacityPolicy(TaskCapacityPolicy policy) {
+        taskList.setPolicy(policy);
+    }
+
 
     /**
      * @brief Navigates through tasks in a doubly linked list.
@@ -1288,7 +1521,16 @@ public class Task {
 
 
     public void viewTask(ArrayList<TaskInfo> taskList) {
-        if (taskList.isEmpty()) {
+        viewTask(taskSource(taskList));
+    }
+
+    /**
+     * @brief Displays all tasks of any task backend.
+     *
+     * @param tasks The tasks to be displayed, e.g. a wrapped list or a `TaskTable`.
+     */
+    public void viewTask(TaskSource tasks) {
+        if (tasks.isEmpty()) {
             out.println("No tasks found. The task list is empty.");
             enterToContinue();
             return;
@@ -1297,12 +1539,12 @@ public class Task {
         out.println("\n--- List of Tasks ---");
 
 
-        for (TaskInfo task : taskList) {
-            out.println("ID: " + task.getId());
-            out.println("Name: " + task.getName());
-            out.println("Description: " + task.getDescription());
-            out.println("Category: " + task.getCategory());
-            out.println("Due Date: " + task.getDueDate());
+        for (int i = 0; i < tasks.size(); i++) {
+            out.println("ID: " + tasks.getId(i));
+            out.println("Name: " + tasks.getName(i));
+            out.println("Description: " + tasks.getDescription(i));
+            out.println("Category: " + tasks.getCategory(i));
+            out.println("Due Date: " + tasks.getDueDate(i));
             out.println("---------------------------");
         }
 
@@ -1320,7 +1562,8 @@ public class Task {
      * @return A new unique task ID, which is one greater than the maximum existing task ID.
      */
     public static int getNewTaskId(ArrayList<TaskInfo> taskList) {
-        int maxId = 0;
+        // Tasks spilled to disk keep their ids
+        int maxId = taskList instanceof TaskList ? ((TaskList) taskList).getHighestSpilledId() : 0;
 
         // Iterate through the task list to find the maximum ID
         for (TaskInfo task : taskList) {
@@ -1346,6 +1589,15 @@ public class Task {
      */
 
     public void categorizeTask(ArrayList<TaskInfo> taskList) {
+        categorizeTask(taskSource(taskList));
+    }
+
+    /**
+     * @brief Displays the tasks of one category from any task backend.
+     *
+     * @param tasks The tasks to be filtered.
+     */
+    public void categorizeTask(TaskSource tasks) {
 
 
 
@@ -1357,12 +1609,12 @@ public class Task {
         out.println("\n--- Tasks in Category '" + category + "' ---");
 
 
-        for (TaskInfo task : taskList) {
-            if (task.getCategory().equalsIgnoreCase(category)) {
-                out.println("ID: " + task.getId());
-                out.println("Name: " + task.getName());
-                out.println("Description: " + task.getDescription());
-                out.println("Due Date: " + task.getDueDate());
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.getCategory(i).equalsIgnoreCase(category)) {
+                out.println("ID: " + tasks.getId(i));
+                out.println("Name: " + tasks.getName(i));
+                out.println("Description: " + tasks.getDescription(i));
+                out.println("Due Date: " + tasks.getDueDate(i));
                 out.println("---------------------------");
                 found = true;
             }
@@ -1387,26 +1639,37 @@ public class Task {
      * @note The method uses a `visited` array to prevent infinite loops in case of circular dependencies.
      */
     public void printDependencies(ArrayList<TaskInfo> taskList, int startTaskId) {
-        boolean[] visited = new boolean[taskList.size()]; // Ziyaret edilen görevler için dizi
+        printDependencies(TaskDependencyGraph.fromTasks(taskList), startTaskId);
+    }
+
+    /**
+     * @brief Displays the dependencies of a specific task from the CSR dependency graph.
+     *
+     * @param graph The dependency graph of all tasks.
+     * @param startTaskId The ID of the task whose dependencies are to be displayed.
+     */
+    public void printDependencies(TaskDependencyGraph graph, int startTaskId) {
+        boolean[] visited = new boolean[graph.rowCount()]; // Ziyaret edilen görevler için dizi
 
         out.println("Dependencies for Task " + startTaskId + ":");
-        printDependenciesUtil(taskList, startTaskId, visited); // Yardımcı fonksiyonu çağır
+        printDependenciesUtil(graph, startTaskId, visited); // Yardımcı fonksiyonu çağır
     }
 
     /**
      * @brief Recursively prints the dependencies of a task.
      *
      * This private utility method explores and displays the dependencies of a specific task
-     * while preventing circular dependencies using a `visited` array.
+     * while preventing circular dependencies using a `visited` array. The rows of the task
+     * are found through the graph's id index instead of scanning every task.
      *
-     * @param taskList An ArrayList containing all tasks.
+     * @param graph The dependency graph of all tasks.
      * @param taskId The ID of the task whose dependencies are being processed.
      * @param visited A boolean array tracking visited tasks to prevent infinite loops in circular dependencies.
      *
      * @note If a task has already been visited, the method returns immediately to prevent circular dependency loops.
      */
 
-    private void printDependenciesUtil(ArrayList<TaskInfo> taskList, int taskId, boolean[] visited) {
+    private void printDependenciesUtil(TaskDependencyGraph graph, int taskId, boolean[] visited) {
         if (visited[taskId - 1]) {
             return; // Görev zaten ziyaret edildiyse döngüyü önlemek için dur
         }
@@ -1414,14 +1677,11 @@ public class Task {
         visited[taskId - 1] = true; // Görevi ziyaret edildi olarak işaretle
 
         // Görevi bul ve bağımlılıklarını yazdır
-        for (TaskInfo task : taskList) {
-            if (task.getId() == taskId) {
-                for (int depId : task.getDependencies()) {
-                    if (depId != 0) { // Sıfır olmayan bağımlılıkları yazdır
-                        out.println("Task " + taskId + " depends on Task " + depId);
-                        printDependenciesUtil(taskList, depId, visited); // Bağımlılıkları yinelemeli olarak yazdır
-                    }
-                }
+        for (int row = graph.firstRowOf(taskId); row >= 0; row = graph.nextRowWithSameId(row)) {
+            for (int i = graph.dependencyStart(row); i < graph.dependencyEnd(row); i++) {
+                int depId = graph.dependencyAt(i);
+                out.println("Task " + taskId + " depends on Task " + depId);
+                printDependenciesUtil(graph, depId, visited); // Bağımlılıkları yinelemeli olarak yazdır
             }
         }
     }
@@ -1505,6 +1765,15 @@ public class Task {
      * @note The search is case-sensitive.
      */
     public void searchTasksByKeyword(ArrayList<TaskInfo> taskList) {
+        searchTasksByKeyword(taskSource(taskList));
+    }
+
+    /**
+     * @brief Searches the task descriptions of any task backend for a keyword.
+     *
+     * @param tasks The tasks to be searched.
+     */
+    public void searchTasksByKeyword(TaskSource tasks) {
 
         out.print("Enter the keyword to search in task descriptions: ");
         String keyword = scanner.nextLine();
@@ -1514,13 +1783,14 @@ public class Task {
         out.println("\nTasks containing the keyword '" + keyword + "' in their descriptions:");
         out.println("----------------------------------------------------");
 
-        for (TaskInfo task : taskList) {
-            if (KMPsearch(task.getDescription(), keyword)) {
-                out.println("ID: " + task.getId());
-                out.println("Name: " + task.getName());
-                out.println("Description: " + task.getDescription());
-                out.println("Category: " + task.getCategory());
-                out.println("Due Date: " + task.getDueDate());
+        for (int i = 0; i < tasks.size(); i++) {
+            String description = tasks.getDescription(i);
+            if (KMPsearch(description, keyword)) {
+                out.println("ID: " + tasks.getId(i));
+                out.println("Name: " + tasks.getName(i));
+                out.println("Description: " + description);
+                out.println("Category: " + tasks.getCategory(i));
+                out.println("Due Date: " + tasks.getDueDate(i));
                 out.println("----------------------------------------------------");
                 found = true;
             }
@@ -1561,15 +1831,80 @@ public class Task {
         Assignment assignment = new Assignment(taskName, day, month, year);
         deadlineHeap.add(assignment);
 
-        // Dosyaya kaydetme işlemi
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream("deadlines.bin", true))) {
-            oos.writeObject(assignment);
+        // Dosyaya kaydetme işlemi; indeks de güncellenir
+        try (DeadlineIndex index = DeadlineIndex.open(DEADLINES_FILE)) {
+            index.add(assignment);
             out.println("Deadline assigned and saved successfully!");
         } catch (IOException e) {
             out.println("Error saving deadline: " + e.getMessage());
         }
     }
 
+    /**
+     * @brief Displays the saved deadlines within a date range.
+     *
+     * Prompts for a start and end date and prints the deadlines saved in
+     * `deadlines.bin` within that range, `DEADLINE_PAGE_SIZE` at a time, reading only
+     * the index pages and records of each page from the `DeadlineIndex`. An end date
+     * before the start date lists the range latest deadline first.
+     *
+     * @return The number of deadlines displayed, or `-1` if the deadlines cannot be read.
+     */
+    public long viewDeadlinesInRange() {
+        out.print("Enter start date (day month year): ");
+        int startDay = scanner.nextInt();
+        int startMonth = scanner.nextInt();
+        int startYear = scanner.nextInt();
+
+        out.print("Enter end date (day month year): ");
+        int endDay = scanner.nextInt();
+        int endMonth = scanner.nextInt();
+        int endYear = scanner.nextInt();
+
+        out.printf("\n--- Tasks between %02d/%02d/%04d and %02d/%02d/%04d ---\n",
+                startDay, startMonth, startYear, endDay, endMonth, endYear);
+
+        int startKey = DeadlineIndex.dateKey(startDay, startMonth, startYear);
+        int endKey = DeadlineIndex.dateKey(endDay, endMonth, endYear);
+        boolean descending = endKey < startKey;
+        try (DeadlineIndex index = DeadlineIndex.open(DEADLINES_FILE)) {
+            long count = 0;
+            boolean lineRead = false;
+            while (true) {
+                // One extra deadline tells whether another page follows
+                List<Assignment> page = index.range(Math.min(startKey, endKey), Math.max(startKey, endKey),
+                        count, DEADLINE_PAGE_SIZE + 1, descending);
+                for (Assignment deadline : page.subList(0, Math.min(page.size(), DEADLINE_PAGE_SIZE))) {
+                    out.printf("Task: %s, Deadline: %02d/%02d/%04d\n",
+                            deadline.getName(),
+                            deadline.getDay(),
+                            deadline.getMonth(),
+                            deadline.getYear());
+                    count++;
+                }
+                if (page.size() <= DEADLINE_PAGE_SIZE) {
+                    break;
+                }
+                out.print("Show more? (y/n): ");
+                if (!lineRead && scanner.hasNextLine()) {
+                    // Rest of the end date line
+                    scanner.nextLine();
+                    lineRead = true;
+                }
+                if (!scanner.hasNextLine() || !scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                    break;
+                }
+            }
+            if (count == 0) {
+                out.println("No deadlines in this range.");
+            }
+            return count;
+        } catch (IOException e) {
+            out.println("Error reading deadlines: " + e.getMessage());
+            return -1;
+        }
+    }
+
     /**
      * @brief Displays upcoming deadlines in sorted order.
      *
@@ -1697,7 +2032,7 @@ public class Task {
      *
      * @note The method validates both the task name and the importance ID.
      * @note Valid importance IDs are: 1 (Low), 2 (Medium), 3 (High).
-     * @note After marking the importance, the updated task list is saved using `saveTasks`.
+     * @note After marking the importance, only the change is appended to the task log.
      */
 
     public void markTaskImportance(ArrayList<TaskInfo> taskList) {
@@ -1750,7 +2085,11 @@ public class Task {
 
         // Önem Derecesini Güncelle
         selectedTask.setImportanceId(importanceId);
-        saveTasks(taskList);
+        try {
+            openTaskLog(taskList).logImportance(selectedTask.getId(), importanceId);
+        } catch (IOException e) {
+            out.println("Error saving tasks: " + e.getMessage());
+        }
 
         out.printf("Importance level of '%s' marked successfully as %d.%n",
                 selectedTask.getName(), importanceId);
@@ -1783,29 +2122,38 @@ public class Task {
     /**
      * @brief Displays tasks ordered by their importance level.
      *
-     * This function sorts the task list by importance levels (High, Medium, Low) and displays them
-     * in a tabular format for better readability.
+     * This function displays the tasks by importance levels (High, Medium, Low) in a tabular
+     * format for better readability. The task list itself is not reordered.
      *
      * @param taskList The list of tasks to be displayed in order of importance.
      */
     public void importanceOrdering(ArrayList<TaskInfo> taskList) {
+        importanceOrdering(taskSource(taskList));
+    }
+
+    /**
+     * @brief Displays the tasks of any task backend ordered by importance level.
+     *
+     * The source itself is not reordered: the row order is computed with a stable
+     * counting sort over the importance ids, which takes linear time.
+     *
+     * @param tasks The tasks to be displayed.
+     */
+    public void importanceOrdering(TaskSource tasks) {
         clearScreen();
 
-        if (taskList.isEmpty()) {
+        if (tasks.isEmpty()) {
             out.println("No tasks available to display.");
             enterToContinue();
             return;
         }
 
-        // Görevleri Önem Derecesine Göre Sırala (High → Medium → Low)
-        taskList.sort((task1, task2) -> Integer.compare(task1.getImportanceId(), task2.getImportanceId()));
-
         out.println("┌──────────┬────────────────────┬──────────────────────┬────────────┬─────────────┐");
         out.println("│  ID      │ Task Name          │ Description          │ Category   │ Importance  │");
         out.println("├──────────┼────────────────────┼──────────────────────┼────────────┼─────────────┤");
 
-        for (TaskInfo task : taskList) {
-            String importanceStr = switch (task.getImportanceId()) {
+        for (int row : importanceOrder(tasks)) {
+            String importanceStr = switch (tasks.getImportanceId(row)) {
                 case 1 -> "Low";
                 case 2 -> "Medium";
                 case 3 -> "High";
@@ -1813,1037 +2161,160 @@ public class Task {
             };
 
             out.printf("│ %-8d │ %-18s │ %-20s │ %-10s │ %-11s │%n",
-                    task.getId(),
-                    task.getName(),
-                    task.getDescription(),
-                    task.getCategory(),
+                    tasks.getId(row),
+                    tasks.getName(row),
+                    tasks.getDescription(row),
+                    tasks.getCategory(row),
                     importanceStr);
         }
 
         out.println("└──────────┴────────────────────┴──────────────────────┴────────────┴─────────────┘");
         enterToContinue();
     }
+
     /**
-     * @brief Demonstrates user management using Linear Probing in hash tables.
-     *
-     * This method provides an interactive menu for demonstrating Linear Probing.
-     * Users can:
-     * - Add a user using linear probing collision resolution.
-     * - Search for a user in the hash table.
-     * - Display all users stored in the hash table.
+     * @brief Orders the rows of a task source by importance id without moving them.
      *
-     * @note The menu provides options to add, search, display, or exit the demo.
-     * @note Invalid input is handled gracefully, and the user is prompted to retry.
+     * @param tasks The tasks.
+     * @return Row indices sorted by ascending importance id; rows with equal importance
+     *         keep their original order.
      */
-
-
-    public void linearProbingDemo() {
-        int choice;
-
-        while (true) {
-            clearScreen();
-            out.println("╔══════════════════════════════════════════════════╗");
-            out.println("║            LINEAR PROBING DEMO                   ║");
-            out.println("╚══════════════════════════════════════════════════╝");
-            out.println("1. Add User");
-            out.println("2. Search User");
-            out.println("3. Display Users");
-            out.println("4. Exit");
-            out.print("Enter your choice: ");
-
-            choice = getInput();
-
-            if (choice == -2) {
-                handleInputError();
-                enterToContinue();
-                continue;
-            }
-
-            switch (choice) {
-                case 1:
-                    addUserWithLinearProbing();
-                    break;
-                case 2:
-                    searchUserWithLinearProbing();
-                    break;
-                case 3:
-                    displayUsersWithLinearProbing();
-                    break;
-                case 4:
-                    out.println("Exiting Linear Probing Demo...");
-                    return; // Menüden çıkış
-                default:
-                    out.println("Invalid choice. Please try again.");
-                    enterToContinue();
-            }
-        }
-    }
-
-    /**
-     * @brief Adds a new user to the hash table using Linear Probing.
-     *
-     * This method collects user details such as name, surname, email, and password,
-     * and inserts the user into the hash table using Linear Probing to resolve collisions.
-     *
-     * @note If a user with the same email already exists, the operation is aborted.
-     * @note Linear Probing is used to find the next available slot in case of collisions.
-     */
-
-    private void addUserWithLinearProbing() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║            USER REGISTRATION MENU                ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        User user = new User();
-
-        out.print("➤ Enter Name       : ");
-        user.setName(scanner.nextLine());
-
-        out.print("➤ Enter Surname    : ");
-        user.setSurname(scanner.nextLine());
-
-        out.print("➤ Enter Email      : ");
-        user.setEmail(scanner.nextLine());
-
-        out.print("➤ Enter Password   : ");
-        user.setPassword(scanner.nextLine());
-
-        int index = hashFunction(user.getEmail());
-        int originalIndex = index;
-
-        int probes = 0;
-
-        // Linear Probing ile uygun boş indeks bul
-        while (hashTable[index] != null) {
-            for (User u : hashTable[index]) {
-                if (u.getEmail().equals(user.getEmail())) {
-                    out.println("╔══════════════════════════════════════════════════╗");
-                    out.println("║ ERROR: User already exists at index " + index + ". ║");
-                    out.println("╚══════════════════════════════════════════════════╝");
-                    return;
-                }
-            }
-
-        }
-
-        if (hashTable[index] == null) {
-            hashTable[index] = new LinkedList<>();
-        }
-
-        hashTable[index].add(user);
-
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║ SUCCESS: User added at index " + index + " using Linear Probing. ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        enterToContinue();
-    }
-
-    /**
-     * @brief Searches for a user in the hash table using Linear Probing.
-     *
-     * This method allows users to search for a specific user by providing their email and password.
-     * It uses Linear Probing to handle potential collisions during the search process.
-     *
-     * @note If the user is found, their name and surname are displayed.
-     * @note If the user is not found, an appropriate error message is shown.
-     */
-    private void searchUserWithLinearProbing() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║                USER SEARCH MENU                  ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        out.print("➤ Enter Email to search: ");
-        String email = scanner.nextLine();
-
-        out.print("➤ Enter Password       : ");
-        String password = scanner.nextLine();
-
-        int index = hashFunction(email);
-        int originalIndex = index;
-        int probes = 0;
-
-        while (hashTable[index] != null) {
-            for (User u : hashTable[index]) {
-                if (u.getEmail().equals(email) && u.getPassword().equals(password)) {
-                    out.println("╔══════════════════════════════════════════════════╗");
-                    out.println("║ USER FOUND IN HASH TABLE                         ║");
-                    out.println("╠══════════════════════════════════════════════════╣");
-                    out.println("║ Name     : " + u.getName());
-                    out.println("║ Surname  : " + u.getSurname());
-                    out.println("╚══════════════════════════════════════════════════╝");
-                    enterToContinue();
-                    return;
-                }
-            }
-
-            index = (index + 1) % TABLE_SIZE;
-            probes++;
-
-            if (index == originalIndex || probes >= TABLE_SIZE) {
-                break;
-            }
-        }
-
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║ ERROR: User not found in Hash Table.             ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-        enterToContinue();
-    }
-
-    /**
-     * @brief Displays all users stored in the hash table using Linear Probing.
-     *
-     * This method iterates through the hash table and displays all users stored at each index.
-     * If an index contains multiple users (due to collision resolution via Linear Probing),
-     * they are listed sequentially.
-     *
-     * @note Empty indexes are skipped, and only non-empty indexes are displayed.
-     */
-    private void displayUsersWithLinearProbing() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║              DISPLAY ALL USERS                   ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        for (int i = 0; i < TABLE_SIZE; i++) {
-            if (hashTable[i] != null && !hashTable[i].isEmpty()) {
-                out.println("╔═══ HASH TABLE INDEX: " + i + " ══════════════════════════╗");
-                for (User u : hashTable[i]) {
-                    out.println("║ Name  : " + u.getName());
-                    out.println("║ Email : " + u.getEmail());
-                    out.println("╠──────────────────────────────────────────────────╣");
-                }
-            }
-        }
-
-        out.println("╚══════════════════════════════════════════════════╝");
-        enterToContinue();
-    }
-
-
-    /**
-     * @brief Demonstrates user management using Progressive Overflow in hash tables.
-     *
-     * This method provides an interactive menu for demonstrating Progressive Overflow handling.
-     * Users can:
-     * - Add a user to the hash table.
-     * - Search for a user in the hash table.
-     * - Display all users in the hash table.
-     *
-     * @note Progressive Overflow is used to handle collisions by finding alternative slots systematically.
-     * @note Invalid inputs are handled gracefully, and the user is prompted to retry.
-     */
-    public void progressiveOverflowDemo() {
-        int choice;
-
-        while (true) {
-            clearScreen();
-            out.println("╔══════════════════════════════════════════════════╗");
-            out.println("║           PROGRESSIVE OVERFLOW DEMO              ║");
-            out.println("╚══════════════════════════════════════════════════╝");
-            out.println("1. Add User");
-            out.println("2. Search User");
-            out.println("3. Display Users");
-            out.println("4. Exit");
-            out.print("Enter your choice: ");
-
-            choice = getInput();
-
-            if (choice == -2) {
-                handleInputError();
-                enterToContinue();
-                continue;
-            }
-
-            switch (choice) {
-                case 1:
-                    addUserToHashTable();
-                    break;
-                case 2:
-                    searchUserInHashTable();
-                    break;
-                case 3:
-                    displayUsersFromHashTable();
-                    break;
-                case 4:
-                    out.println("Exiting Progressive Overflow Demo...");
-                    return; // Menüden çıkış
-                default:
-                    out.println("Invalid choice. Please try again.");
-                    enterToContinue();
-            }
-        }
-    }
-
-    /**
-     * @brief Adds a new user to the hash table using Progressive Overflow strategy.
-     *
-     * This method collects user details (name, surname, email, and password) and attempts to add the user
-     * to the hash table. If the calculated index is already occupied, Progressive Overflow is used
-     * to find an alternative slot.
-     *
-     * @note If a user with the same email already exists at the computed index, the operation is aborted.
-     * @note The hash table uses a `LinkedList` at each index to handle collisions.
-     */
-
-
-    private void addUserToHashTable() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║               USER REGISTRATION MENU             ║");
-        out.println("╠══════════════════════════════════════════════════╣");
-        out.println("║ Please provide the following details to register ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        User user = new User();
-
-        out.print("➤ Enter Name       : ");
-        user.setName(scanner.nextLine());
-
-        out.print("➤ Enter Surname    : ");
-        user.setSurname(scanner.nextLine());
-
-        out.print("➤ Enter Email      : ");
-        user.setEmail(scanner.nextLine());
-
-        out.print("➤ Enter Password   : ");
-        user.setPassword(scanner.nextLine());
-
-        int index = hashFunction(user.getEmail());
-
-        // Eğer indeks boşsa, yeni bir LinkedList oluştur
-        if (hashTable[index] == null) {
-            hashTable[index] = new LinkedList<>();
-        }
-
-        // Aynı email var mı kontrol et
-        for (User u : hashTable[index]) {
-            if (u.getEmail().equals(user.getEmail())) {
-                out.println("User already exists at index " + index + " in hash table.");
-                return;
-            }
-        }
-
-        // Hash tablosuna ekle
-        if (hashTable[index].size() < TABLE_SIZE) {
-            hashTable[index].add(user);
-            out.println("\n╔══════════════════════════════════════════════════╗");
-            out.println("║ SUCCESS: User added to Main Hash Table.          ║");
-            out.println("║ Index: " + index + "                                    ║");
-            out.println("╚══════════════════════════════════════════════════╝");
-        } else {
-
-        }
-
-        enterToContinue();
-    }
-
-    /**
-     * @brief Searches for a user in the hash table using Progressive Overflow strategy.
-     *
-     * This method allows users to search for a specific user by providing their email and password.
-     * The search begins at the computed hash index and examines all linked entries at that index.
-     *
-     *
-     * @note If the user is found, their name and surname are displayed.
-     * @note If the user is not found, an appropriate error message is shown.
-     */
-
-    private void searchUserInHashTable() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║                 USER SEARCH MENU                 ║");
-        out.println("╠══════════════════════════════════════════════════╣");
-        out.println("║ Please provide the email to search for a user.   ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        out.print("➤ Enter Email to search: ");
-        String email = scanner.nextLine();
-
-        out.print("Enter Password: ");
-        String password = scanner.nextLine();
-
-        int index = hashFunction(email);
-
-        // Hash tablosunda ara
-        if (hashTable[index] != null) {
-            for (User u : hashTable[index]) {
-                if (u.getEmail().equals(email) && u.getPassword().equals(password)) {
-                    out.println("\n╔════════════════════════════════════════════════╗");
-                    out.println("║ USER FOUND IN MAIN TABLE                         ║");
-                    out.println("╠══════════════════════════════════════════════════╣");
-                    out.println("║ Name     : " + u.getName());
-                    out.println("║ Surname  : " + u.getSurname());
-                    out.println("╚══════════════════════════════════════════════════╝");
-                    enterToContinue();
-                    return;
-                }
-            }
-        }
-
-        out.println("\n╔════════════════════════════════════════════════╗");
-        out.println("║ ERROR: User not found in Main Table or Overflow. ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-        enterToContinue();
-    }
-    /**
-     * @brief Displays all users stored in the hash table.
-     *
-     * This method iterates through each index of the hash table and displays all users
-     * stored at each index, including any overflow entries.
-     * Each user's name and email are printed in a formatted structure.
-     *
-     * @note Empty indexes are skipped, and only non-empty indexes are displayed.
-     */
-
-    private void displayUsersFromHashTable() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║               DISPLAY ALL USERS                  ║");
-        out.println("╠══════════════════════════════════════════════════╣");
-        for (int i = 0; i < TABLE_SIZE; i++) {
-            if (hashTable[i] != null && !hashTable[i].isEmpty()) {
-                out.println("╠═══ MAIN TABLE INDEX: " + i + " ═══════════════════════════╣");
-                for (User u : hashTable[i]) {
-                    out.println("║ Name     : " + u.getName());
-                    out.println("║ Email    : " + u.getEmail());
-                    out.println("╠──────────────────────────────────────────────────╣");                }
-            }
-        }
-
-        enterToContinue();
-    }
-
-    /**
-     * @brief Demonstrates user management using Quadratic Probing in hash tables.
-     *
-     * This method provides an interactive menu for demonstrating Quadratic Probing.
-     * Users can:
-     * - Add a user using Quadratic Probing collision resolution.
-     * - Search for a user in the hash table.
-     * - Display all users stored in the hash table.
-     *
-     * @note Quadratic Probing resolves collisions by exploring slots using a quadratic sequence.
-     * @note Invalid inputs are handled gracefully, and the user is prompted to retry.
-     */
-
-    public void quadraticProbingDemo() {
-        int choice;
-
-        while (true) {
-            clearScreen();
-            out.println("╔══════════════════════════════════════════════════╗");
-            out.println("║           QUADRATIC PROBING DEMO                 ║");
-            out.println("╚══════════════════════════════════════════════════╝");
-            out.println("1. Add User");
-            out.println("2. Search User");
-            out.println("3. Display Users");
-            out.println("4. Exit");
-            out.print("Enter your choice: ");
-
-            choice = getInput();
-
-            if (choice == -2) { handleInputError(); enterToContinue(); continue; }
-
-            switch (choice) {
-                case 1:
-                    addUserWithQuadraticProbing();
-                    break;
-                case 2:
-                    searchUserWithQuadraticProbing();
-                    break;
-                case 3:
-                    displayUsersWithQuadraticProbing();
-                    break;
-                case 4:
-                    out.println("Exiting Quadratic Probing Demo...");
-                    return; // Menüden çıkış
-                default:
-                    out.println("Invalid choice. Please try again.");
-                    enterToContinue();
-            }
-        }
-    }
-    /**
-     * @brief Adds a new user to the hash table using Quadratic Probing.
-     *
-     * This method collects user details (name, surname, email, and password) and attempts to add the user
-     * to the hash table using Quadratic Probing to resolve collisions. If the computed index is occupied,
-     * the method searches alternative slots using a quadratic sequence.
-     *
-     * @note If a user with the same email already exists, the operation is aborted.
-     * @note Quadratic Probing uses the formula: (index + i^2) % TABLE_SIZE to find an empty slot.
-     */
-
-    private void addUserWithQuadraticProbing() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║            USER REGISTRATION MENU                ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        User user = new User();
-
-        out.print("➤ Enter Name       : ");
-        user.setName(scanner.nextLine());
-
-        out.print("➤ Enter Surname    : ");
-        user.setSurname(scanner.nextLine());
-
-        out.print("➤ Enter Email      : ");
-        user.setEmail(scanner.nextLine());
-
-        out.print("➤ Enter Password   : ");
-        user.setPassword(scanner.nextLine());
-
-        int index = hashFunction(user.getEmail());
-        int i = 1;
-
-        // Quadratic probing ile uygun bir boş indeks bul
-        while (hashTable[index] != null) {
-            LinkedList<User> bucket = hashTable[index];
-            if (bucket != null) {
-                for (User u : bucket) {
-                    if (u.getEmail().equals(user.getEmail())) {
-                        out.println("╔══════════════════════════════════════════════════╗");
-                        out.println("║ ERROR: User already exists at index " + index +".║");
-                        out.println("╚══════════════════════════════════════════════════╝");
-                        return;
-                    }
-                }
-            }
-
-        }
-
-        if (hashTable[index] == null) {
-            hashTable[index] = new LinkedList<>();
-        }
-
-        hashTable[index].add(user);
-
-        out.println("╔═════════════════════════════════════════════════════════════════════╗");
-        out.println("║ SUCCESS: User added at index " + index + " using Quadratic Probing. ║");
-        out.println("╚═════════════════════════════════════════════════════════════════════╝");
-
-        enterToContinue();
-    }
-    /**
-     * @brief Searches for a user in the hash table using Quadratic Probing.
-     *
-     * This method allows users to search for a specific user by providing their email and password.
-     * If a collision occurs, Quadratic Probing is used to resolve it and continue searching
-     * at subsequent slots determined by the quadratic formula.
-     *
-     * @note If the user is found, their name and surname are displayed.
-     * @note If the user is not found after probing, an error message is displayed.
-     */
-
-    private void searchUserWithQuadraticProbing() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║                USER SEARCH MENU                  ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        out.print("➤ Enter Email to search: ");
-        String email = scanner.nextLine();
-
-        out.print("➤ Enter Password       : ");
-        String password = scanner.nextLine();
-
-        int index = hashFunction(email);
-        int i = 1;
-
-        while (hashTable[index] != null) {
-            for (User u : hashTable[index]) {
-                if (u.getEmail().equals(email) && u.getPassword().equals(password)) {
-                    out.println("╔══════════════════════════════════════════════════╗");
-                    out.println("║ USER FOUND IN HASH TABLE                         ║");
-                    out.println("╠══════════════════════════════════════════════════╣");
-                    out.println("║ Name     : " + u.getName());
-                    out.println("║ Surname  : " + u.getSurname());
-                    out.println("╚══════════════════════════════════════════════════╝");
-                    enterToContinue();
-                    return;
-                }
-            }
-
-            index = (index + i * i) % TABLE_SIZE;
-            i++;
-
-            if (i >= TABLE_SIZE) {
-                break;
-            }
-        }
-
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║ ERROR: User not found in Hash Table.             ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-        enterToContinue();
-    }
-
-    /**
-     * @brief Displays all users stored in the hash table using Quadratic Probing.
-     *
-     * This method iterates through the hash table and displays all users stored at each index.
-     * If an index contains multiple users (due to collision resolution via Quadratic Probing),
-     * they are listed sequentially.
-     *
-     * @note Empty indexes are skipped, and only non-empty indexes are displayed.
-     */
-
-    private void displayUsersWithQuadraticProbing() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║              DISPLAY ALL USERS                   ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        for (int i = 0; i < TABLE_SIZE; i++) {
-            if (hashTable[i] != null && !hashTable[i].isEmpty()) {
-                out.println("╔═══ HASH TABLE INDEX: " + i + " ══════════════════════════╗");
-                for (User u : hashTable[i]) {
-                    out.println("║ Name  : " + u.getName());
-                    out.println("║ Email : " + u.getEmail());
-                    out.println("╠──────────────────────────────────────────────────╣");
-                }
-            }
-        }
-
-        out.println("╚══════════════════════════════════════════════════╝");
-        enterToContinue();
-    }
-    /**
-     * @brief Demonstrates user management using Double Hashing in hash tables.
-     *
-     * This method provides an interactive menu for demonstrating Double Hashing.
-     * Users can:
-     * - Add a user using Double Hashing collision resolution.
-     * - Search for a user in the hash table.
-     * - Display all users stored in the hash table.
-     *
-     * @note Double Hashing uses a secondary hash function to resolve collisions.
-     * @note Invalid inputs are handled gracefully, and the user is prompted to retry.
-     */
-
-    public void doubleHashingDemo() {
-        int choice;
-
-        while (true) {
-            clearScreen();
-            out.println("╔══════════════════════════════════════════════════╗");
-            out.println("║              DOUBLE HASHING DEMO                 ║");
-            out.println("╚══════════════════════════════════════════════════╝");
-            out.println("1. Add User");
-            out.println("2. Search User");
-            out.println("3. Display Users");
-            out.println("4. Exit");
-            out.print("Enter your choice: ");
-
-            choice = getInput();
-
-            if (choice == -2) {
-                handleInputError();
-                enterToContinue();
-                continue;
-            }
-
-            switch (choice) {
-                case 1:
-                    addUserWithDoubleHashing();
-                    break;
-                case 2:
-                    searchUserWithDoubleHashing();
-                    break;
-                case 3:
-                    displayUsersWithDoubleHashing();
-                    break;
-                case 4:
-                    out.println("Exiting Double Hashing Demo...");
-                    return; // Menüden çıkış
-                default:
-                    out.println("Invalid choice. Please try again.");
-                    enterToContinue();
-            }
-        }
-    }
-
-    /**
-     * @brief Adds a new user to the hash table using Double Hashing.
-     *
-     * This method collects user details (name, surname, email, and password) and attempts to add
-     * the user to the hash table using Double Hashing to resolve collisions.
-     * If the computed index is occupied, a secondary hash function is used to determine the next slot.
-     *
-     * @note If a user with the same email already exists, the operation is aborted.
-     * @note Double Hashing uses the formula: (index + i * stepSize) % TABLE_SIZE to find an empty slot.
-     */
-
-    public void addUserWithDoubleHashing() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║            USER REGISTRATION MENU                ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        User user = new User();
-
-        out.print("➤ Enter Name       : ");
-        user.setName(scanner.nextLine());
-
-        out.print("➤ Enter Surname    : ");
-        user.setSurname(scanner.nextLine());
-
-        out.print("➤ Enter Email      : ");
-        user.setEmail(scanner.nextLine());
-
-        out.print("➤ Enter Password   : ");
-        user.setPassword(scanner.nextLine());
-
-        int index = hashFunction(user.getEmail());
-        int stepSize = hashFunction2(user.getEmail());
-        int i = 0;
-
-        // Double hashing ile uygun bir boş indeks bul
-        while (hashTable[index] != null) {
-            LinkedList<User> bucket = hashTable[index];
-            if (bucket != null) {
-                for (User u : bucket) {
-                    if (u.getEmail().equals(user.getEmail())) {
-                        out.println("╔══════════════════════════════════════════════════╗");
-                        out.println("║ ERROR: User already exists at index " + index +".║");
-                        out.println("╚══════════════════════════════════════════════════╝");
-                        return;
-                    }
-                }
-            }
-
-        }
-
-        if (hashTable[index] == null) {
-            hashTable[index] = new LinkedList<>();
-        }
-
-        hashTable[index].add(user);
-
-        out.println("╔══════════════════════════════════════════════════════════════════╗");
-        out.println("║ SUCCESS: User added at index " + index + " using Double Hashing. ║");
-        out.println("╚══════════════════════════════════════════════════════════════════╝");
-
-        enterToContinue();
-    }
+    static int[] importanceOrder(TaskSource tasks) {
+        int[] start = new int[5];
+        for (int row = 0; row < tasks.size(); row++) {
+            start[importanceBucket(tasks.getImportanceId(row)) + 1]++;
+        }
+        for (int bucket = 1; bucket < start.length; bucket++) {
+            start[bucket] += start[bucket - 1];
+        }
+        int[] order = new int[tasks.size()];
+        for (int row = 0; row < tasks.size(); row++) {
+            order[start[importanceBucket(tasks.getImportanceId(row))]++] = row;
+        }
+        return order;
+    }
 
     /**
-     * @brief Searches for a user in the hash table using Double Hashing.
+     * @brief Maps an importance id to its counting-sort bucket.
      *
-     * This method allows users to search for a specific user by providing their email and password.
-     * If a collision occurs, Double Hashing is used to resolve it and continue searching
-     * at subsequent slots determined by the secondary hash function.
-     *
-     * @note If the user is found, their name and surname are displayed.
-     * @note If the user is not found after probing, an error message is displayed.
+     * @param importanceId The importance id.
+     * @return A bucket between `0` and `3`.
      */
+    private static int importanceBucket(int importanceId) {
+        return Math.max(0, Math.min(3, importanceId));
+    }
+    /**
+     * @brief Table of the Progressive Overflow demo: the next free slot after the home address.
+     */
+    private static final ProbingHashTable progressiveOverflowTable = new ProbingHashTable(
+            TABLE_SIZE, ProbingStrategy.LINEAR, Task::hashFunction, UserIndex::hash);
 
-    private void searchUserWithDoubleHashing() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║                USER SEARCH MENU                  ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        out.print("➤ Enter Email to search: ");
-        String email = scanner.nextLine();
-
-        out.print("➤ Enter Password       : ");
-        String password = scanner.nextLine();
+    /** @brief Table of the Linear Probing demo. */
+    private static final ProbingHashTable linearProbingTable = new ProbingHashTable(
+            TABLE_SIZE, ProbingStrategy.LINEAR, Task::hashFunction, UserIndex::hash);
 
-        int index = hashFunction(email);
-        int stepSize = hashFunction2(email);
-        int i = 0;
-
-        while (hashTable[index] != null) {
-            for (User u : hashTable[index]) {
-                if (u.getEmail().equals(email) && u.getPassword().equals(password)) {
-                    out.println("╔══════════════════════════════════════════════════╗");
-                    out.println("║ USER FOUND IN HASH TABLE                         ║");
-                    out.println("╠══════════════════════════════════════════════════╣");
-                    out.println("║ Name     : " + u.getName());
-                    out.println("║ Surname  : " + u.getSurname());
-                    out.println("╚══════════════════════════════════════════════════╝");
-                    enterToContinue();
-                    return;
-                }
-            }
+    /** @brief Table of the Quadratic Probing demo. */
+    private static final ProbingHashTable quadraticProbingTable = new ProbingHashTable(
+            TABLE_SIZE, ProbingStrategy.QUADRATIC, Task::hashFunction, UserIndex::hash);
 
-            index = (index + stepSize) % TABLE_SIZE;
-            i++;
+    /** @brief Table of the Double Hashing demo; `hashFunction2` gives the step. */
+    private static final ProbingHashTable doubleHashingTable = new ProbingHashTable(
+            TABLE_SIZE, ProbingStrategy.KEY_STEP, Task::hashFunction, Task::hashFunction2);
 
-            if (i >= TABLE_SIZE) {
-                break;
-            }
-        }
+    /** @brief Table of the Linear Quotient demo; the step is the quotient of the key hash. */
+    private static final ProbingHashTable linearQuotientTable = new ProbingHashTable(
+            TABLE_SIZE, ProbingStrategy.LINEAR_QUOTIENT, Task::hashFunction, UserIndex::hash);
 
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║ ERROR: User not found in Hash Table.             ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-        enterToContinue();
-    }
+    /** @brief Table of the Brent's Method demo; `secondHashFunction` gives the step. */
+    private static final ProbingHashTable brentsMethodTable = new ProbingHashTable(
+            TABLE_SIZE, ProbingStrategy.KEY_STEP, Task::hashFunction, Task::secondHashFunction, true);
 
     /**
-     * @brief Displays all users stored in the hash table using Double Hashing.
+     * @brief Demonstrates user management using Linear Probing in hash tables.
      *
-     * This method iterates through the hash table and displays all users stored at each index.
-     * If an index contains multiple users (due to collision resolution via Double Hashing),
-     * they are listed sequentially.
+     * This method provides an interactive menu for demonstrating Linear Probing.
+     * Users can:
+     * - Add a user using linear probing collision resolution.
+     * - Search for a user in the hash table.
+     * - Display all users stored in the hash table.
      *
-     * @note Empty indexes are skipped, and only non-empty indexes are displayed.
+     * @note The menu provides options to add, search, display, or exit the demo.
+     * @note Invalid input is handled gracefully, and the user is prompted to retry.
      */
-
-    private void displayUsersWithDoubleHashing() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║              DISPLAY ALL USERS                   ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        for (int i = 0; i < TABLE_SIZE; i++) {
-            if (hashTable[i] != null && !hashTable[i].isEmpty()) {
-                out.println("╔═══ HASH TABLE INDEX: " + i + " ══════════════════════════╗");
-                for (User u : hashTable[i]) {
-                    out.println("║ Name  : " + u.getName());
-                    out.println("║ Email : " + u.getEmail());
-                    out.println("╠──────────────────────────────────────────────────╣");
-                }
-            }
-        }
-
-        out.println("╚══════════════════════════════════════════════════╝");
-        enterToContinue();
+    public void linearProbingDemo() {
+        probingDemo("LINEAR PROBING DEMO", "Linear Probing", linearProbingTable);
     }
 
     /**
-     * @brief Demonstrates user management using Linear Quotient Hashing.
+     * @brief Demonstrates user management using Progressive Overflow in hash tables.
      *
-     * This method provides an interactive menu for demonstrating Linear Quotient Hashing.
-     * Users can:
-     * - Add a user using Linear Quotient collision resolution.
-     * - Search for a user in the hash table.
-     * - Display all users stored in the hash table.
+     * A user whose home address is taken is stored in the next free address, wrapping
+     * around at the end of the table.
      *
-     * @note Linear Quotient Hashing resolves collisions by systematically probing subsequent slots.
+     * @note Progressive Overflow is used to handle collisions by finding alternative slots systematically.
      * @note Invalid inputs are handled gracefully, and the user is prompted to retry.
      */
-
-    public void linearQuotientDemo() {
-        int choice;
-
-        while (true) {
-            clearScreen();
-            out.println("╔══════════════════════════════════════════════════╗");
-            out.println("║              LINEAR QUOTIENT DEMO                ║");
-            out.println("╚══════════════════════════════════════════════════╝");
-            out.println("1. Add User");
-            out.println("2. Search User");
-            out.println("3. Display Users");
-            out.println("4. Exit");
-            out.print("Enter your choice: ");
-
-            choice = getInput();
-
-            if (choice == -2) {
-                handleInputError();
-                enterToContinue();
-                continue;
-            }
-
-            switch (choice) {
-                case 1:
-                    addUserWithLinearQuotient();
-                    break;
-                case 2:
-                    searchUserWithLinearQuotient();
-                    break;
-                case 3:
-                    displayUsersWithLinearQuotient();
-                    break;
-                case 4:
-                    out.println("Exiting Linear Quotient Demo...");
-                    return; // Menüden çıkış
-                default:
-                    out.println("Invalid choice. Please try again.");
-                    enterToContinue();
-            }
-        }
+    public void progressiveOverflowDemo() {
+        probingDemo("PROGRESSIVE OVERFLOW DEMO", "Progressive Overflow", progressiveOverflowTable);
     }
 
     /**
-     * @brief Adds a new user to the hash table using Linear Quotient Hashing.
-     *
-     * This method collects user details (name, surname, email, and password) and attempts to add
-     * the user to the hash table using Linear Quotient collision resolution. If the computed index
-     * is occupied, a fixed step size is added to find an alternative slot.
+     * @brief Demonstrates user management using Quadratic Probing in hash tables.
      *
-     * @note If a user with the same email already exists, the operation is aborted.
-     * @note Linear Quotient uses a fixed step size to resolve collisions.
+     * @note Quadratic Probing resolves collisions by exploring slots using a quadratic sequence.
+     * @note Invalid inputs are handled gracefully, and the user is prompted to retry.
      */
-
-    private void addUserWithLinearQuotient() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║            USER REGISTRATION MENU                ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        User user = new User();
-
-        out.print("➤ Enter Name       : ");
-        user.setName(scanner.nextLine());
-
-        out.print("➤ Enter Surname    : ");
-        user.setSurname(scanner.nextLine());
-
-        out.print("➤ Enter Email      : ");
-        user.setEmail(scanner.nextLine());
-
-        out.print("➤ Enter Password   : ");
-        user.setPassword(scanner.nextLine());
-
-        int index = hashFunction(user.getEmail());
-        int stepSize = 3; // Linear Quotient sabit adım değeri
-        int originalIndex = index;
-
-        // Linear Quotient ile uygun bir boş indeks bul
-        while (hashTable[index] != null) {
-            LinkedList<User> bucket = hashTable[index];
-            if (bucket != null) {
-                for (User u : bucket) {
-                    if (u.getEmail().equals(user.getEmail())) {
-                        out.println("╔══════════════════════════════════════════════════╗");
-                        out.println("║ ERROR: User already exists at index " + index +".║");
-                        out.println("╚══════════════════════════════════════════════════╝");
-                        return;
-                    }
-                }
-            }
-
-
-        }
-
-        if (hashTable[index] == null) {
-            hashTable[index] = new LinkedList<>();
-        }
-
-        hashTable[index].add(user);
-
-        out.println("╔═══════════════════════════════════════════════════════════════════╗");
-        out.println("║ SUCCESS: User added at index " + index + " using Linear Quotient. ║");
-        out.println("╚═══════════════════════════════════════════════════════════════════╝");
-
-        enterToContinue();
+    public void quadraticProbingDemo() {
+        probingDemo("QUADRATIC PROBING DEMO", "Quadratic Probing", quadraticProbingTable);
     }
 
     /**
-     * @brief Searches for a user in the hash table using Linear Quotient Hashing.
-     *
-     * This method allows users to search for a specific user by providing their email and password.
-     * If a collision occurs, Linear Quotient Hashing uses a fixed step size to resolve collisions
-     * and continues searching in subsequent slots.
+     * @brief Demonstrates user management using Double Hashing in hash tables.
      *
-     * @note If the user is found, their name and surname are displayed.
-     * @note If the user is not found after probing, an error message is displayed.
+     * @note Double Hashing uses a secondary hash function to resolve collisions.
+     * @note Invalid inputs are handled gracefully, and the user is prompted to retry.
      */
-
-    private void searchUserWithLinearQuotient() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║                USER SEARCH MENU                  ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        out.print("➤ Enter Email to search: ");
-        String email = scanner.nextLine();
-
-        out.print("➤ Enter Password       : ");
-        String password = scanner.nextLine();
-
-        int index = hashFunction(email);
-        int stepSize = 3;
-        int originalIndex = index;
-
-        while (hashTable[index] != null) {
-            for (User u : hashTable[index]) {
-                if (u.getEmail().equals(email) && u.getPassword().equals(password)) {
-                    out.println("╔══════════════════════════════════════════════════╗");
-                    out.println("║ USER FOUND IN HASH TABLE                         ║");
-                    out.println("╠══════════════════════════════════════════════════╣");
-                    out.println("║ Name     : " + u.getName());
-                    out.println("║ Surname  : " + u.getSurname());
-                    out.println("╚══════════════════════════════════════════════════╝");
-                    enterToContinue();
-                    return;
-                }
-            }
-
-            index = (index + stepSize) % TABLE_SIZE;
-
-            if (index == originalIndex) {
-                break;
-            }
-        }
-
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║ ERROR: User not found in Hash Table.             ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-        enterToContinue();
+    public void doubleHashingDemo() {
+        probingDemo("DOUBLE HASHING DEMO", "Double Hashing", doubleHashingTable);
     }
 
     /**
-     * @brief Displays all users stored in the hash table using Linear Quotient Hashing.
-     *
-     * This method iterates through each index of the hash table and displays all users
-     * stored at each index. If an index contains multiple users (due to Linear Quotient
-     * collision resolution), they are displayed sequentially.
+     * @brief Demonstrates user management using Linear Quotient Hashing.
      *
-     * @note Empty indexes are skipped, and only non-empty indexes are displayed.
+     * @note Linear Quotient Hashing steps through the table by the quotient of the key hash.
+     * @note Invalid inputs are handled gracefully, and the user is prompted to retry.
      */
-
-    private void displayUsersWithLinearQuotient() {
-        clearScreen();
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║              DISPLAY ALL USERS                   ║");
-        out.println("╚══════════════════════════════════════════════════╝");
-
-        for (int i = 0; i < TABLE_SIZE; i++) {
-            if (hashTable[i] != null && !hashTable[i].isEmpty()) {
-                out.println("╔═══ HASH TABLE INDEX: " + i + " ══════════════════════════╗");
-                for (User u : hashTable[i]) {
-                    out.println("║ Name  : " + u.getName());
-                    out.println("║ Email : " + u.getEmail());
-                    out.println("╠──────────────────────────────────────────────────╣");
-                }
-            }
-        }
-
-        out.println("╚══════════════════════════════════════════════════╝");
-        enterToContinue();
+    public void linearQuotientDemo() {
+        probingDemo("LINEAR QUOTIENT DEMO", "Linear Quotient", linearQuotientTable);
     }
 
     /**
      * @brief Demonstrates user management using Brent's Method in hash tables.
      *
-     * This method provides an interactive menu for demonstrating Brent's Method.
-     * Users can:
-     * - Add a user using Brent's Method for collision resolution.
-     * - Search for a user in the hash table.
-     * - Display all users stored in the hash table.
-     *
      * @note Brent's Method minimizes the number of probes during collision resolution
-     *       by optimizing the reallocation strategy.
+     *       by moving a resident user along its own probe sequence when that is cheaper.
      * @note Invalid inputs are handled gracefully, and the user is prompted to retry.
      */
-
     public void brentsMethodDemo() {
+        probingDemo("BRENT'S METHOD DEMO", "Brent's Method", brentsMethodTable);
+    }
+
+    /**
+     * @brief Runs the add/search/display menu of a collision-resolution demo.
+     *
+     * @param title Title shown in the menu header.
+     * @param method Name of the collision-resolution method used in messages.
+     * @param table The table of the demo.
+     */
+    private void probingDemo(String title, String method, ProbingHashTable table) {
         int choice;
+        int padding = Math.max(0, (50 - title.length()) / 2);
+        String header = " ".repeat(padding) + title + " ".repeat(Math.max(0, 50 - padding - title.length()));
 
         while (true) {
             clearScreen();
             out.println("╔══════════════════════════════════════════════════╗");
-            out.println("║               BRENT'S METHOD DEMO                ║");
+            out.println("║" + header + "║");
             out.println("╚══════════════════════════════════════════════════╝");
             out.println("1. Add User");
             out.println("2. Search User");
@@ -2861,16 +2332,16 @@ public class Task {
 
             switch (choice) {
                 case 1:
-                    addUserWithBrentsMethod();
+                    addUserWithProbing(table, method);
                     break;
                 case 2:
-                    searchUserWithBrentsMethod();
+                    searchUserWithProbing(table);
                     break;
                 case 3:
-                    displayUsersWithBrentsMethod();
+                    displayUsersWithProbing(table);
                     break;
                 case 4:
-                    out.println("Exiting Brent's Method Demo...");
+                    out.println("Exiting " + method + " Demo...");
                     return; // Menüden çıkış
                 default:
                     out.println("Invalid choice. Please try again.");
@@ -2880,17 +2351,17 @@ public class Task {
     }
 
     /**
-     * @brief Adds a new user to the hash table using Brent's Method.
+     * @brief Adds a new user to a demo table.
+     *
+     * This method collects user details such as name, surname, email, and password,
+     * inserts the user into the table and prints how many probes the insert needed.
      *
-     * This method collects user details (name, surname, email, and password) and attempts to add
-     * the user to the hash table using Brent's Method. Brent's Method optimizes collision resolution
-     * by minimizing the total number of probes required during reallocation.
+     * @param table The demo table.
+     * @param method Name of the collision-resolution method.
      *
      * @note If a user with the same email already exists, the operation is aborted.
-     * @note Brent's Method evaluates two potential positions during collision resolution and selects the optimal one.
      */
-
-    private void addUserWithBrentsMethod() {
+    private void addUserWithProbing(ProbingHashTable table, String method) {
         clearScreen();
         out.println("╔══════════════════════════════════════════════════╗");
         out.println("║            USER REGISTRATION MENU                ║");
@@ -2910,65 +2381,40 @@ public class Task {
         out.print("➤ Enter Password   : ");
         user.setPassword(scanner.nextLine());
 
-        int index = hashFunction(user.getEmail());
-        int stepSize = secondHashFunction(user.getEmail());
-        int originalIndex = index;
-
-        // Brent's Method ile uygun bir boş indeks bul
-        int i = 1;
-        int trialIndex1, trialIndex2;
-        boolean placed = false;
-
-        while (hashTable[index] != null) {
-            for (User u : hashTable[index]) {
-                if (u.getEmail().equals(user.getEmail())) {
-                    out.println("╔══════════════════════════════════════════════════╗");
-                    out.println("║ ERROR: User already exists at index " + index +".║");
-                    out.println("╚══════════════════════════════════════════════════╝");
-                    return;
-                }
-            }
-
-            trialIndex1 = (index + i * stepSize) % TABLE_SIZE; // İlk alternatif konum
-            trialIndex2 = (originalIndex + i) % TABLE_SIZE;    // İkinci alternatif konum
-
-            if (hashTable[trialIndex1] == null) {
-                index = trialIndex1;
-                placed = true;
-                break;
-            } else if (hashTable[trialIndex2] == null) {
-                index = trialIndex2;
-                placed = true;
-                break;
-            }
+        ProbingHashTable.Result result = table.insert(user);
 
+        if (!result.success && result.user != null) {
+            out.println("╔══════════════════════════════════════════════════╗");
+            out.println("║ ERROR: User already exists at index " + result.slot + ". ║");
+            out.println("╚══════════════════════════════════════════════════╝");
+            return;
         }
 
-        if (hashTable[index] == null) {
-            hashTable[index] = new LinkedList<>();
+        if (!result.success) {
+            out.println("╔══════════════════════════════════════════════════╗");
+            out.println("║ ERROR: No free slot found for this user.         ║");
+            out.println("╚══════════════════════════════════════════════════╝");
+            enterToContinue();
+            return;
         }
 
-        hashTable[index].add(user);
-
-        out.println("╔══════════════════════════════════════════════════════════════════╗");
-        out.println("║ SUCCESS: User added at index " + index + " using Brent's Method. ║");
-        out.println("╚══════════════════════════════════════════════════════════════════╝");
+        out.println("╔══════════════════════════════════════════════════╗");
+        out.println("║ SUCCESS: User added at index " + result.slot + " using " + method + ". ║");
+        out.println("╚══════════════════════════════════════════════════╝");
+        printProbeResult(result);
 
         enterToContinue();
     }
 
     /**
-     * @brief Searches for a user in the hash table using Brent's Method.
+     * @brief Searches for a user in a demo table.
      *
-     * This method allows users to search for a specific user by providing their email and password.
-     * Brent's Method uses a combination of primary and secondary hash functions to optimize
-     * collision resolution during the search process.
+     * @param table The demo table.
      *
      * @note If the user is found, their name and surname are displayed.
-     * @note If the user is not found after probing, an error message is displayed.
+     * @note If the user is not found, an appropriate error message is shown.
      */
-
-    private void searchUserWithBrentsMethod() {
+    private void searchUserWithProbing(ProbingHashTable table) {
         clearScreen();
         out.println("╔══════════════════════════════════════════════════╗");
         out.println("║                USER SEARCH MENU                  ║");
@@ -2980,64 +2426,71 @@ public class Task {
         out.print("➤ Enter Password       : ");
         String password = scanner.nextLine();
 
-        int index = hashFunction(email);
-        int stepSize = secondHashFunction(email);
-
-        int i = 0;
-        while (hashTable[index] != null) {
-            for (User u : hashTable[index]) {
-                if (u.getEmail().equals(email) && u.getPassword().equals(password)) {
-                    out.println("╔══════════════════════════════════════════════════╗");
-                    out.println("║ USER FOUND IN HASH TABLE                         ║");
-                    out.println("╠══════════════════════════════════════════════════╣");
-                    out.println("║ Name     : " + u.getName());
-                    out.println("║ Surname  : " + u.getSurname());
-                    out.println("╚══════════════════════════════════════════════════╝");
-                    enterToContinue();
-                    return;
-                }
-            }
+        ProbingHashTable.Result result = table.find(email);
+        User u = result.user;
 
-            index = (index + stepSize) % TABLE_SIZE;
-            i++;
-            if (i >= TABLE_SIZE) {
-                break;
-            }
+        if (u != null && passwordHasher.verify(u.getId(), password, u.getPassword())) {
+            out.println("╔══════════════════════════════════════════════════╗");
+            out.println("║ USER FOUND IN HASH TABLE                         ║");
+            out.println("╠══════════════════════════════════════════════════╣");
+            out.println("║ Name     : " + u.getName());
+            out.println("║ Surname  : " + u.getSurname());
+            out.println("╚══════════════════════════════════════════════════╝");
+        } else {
+            out.println("╔══════════════════════════════════════════════════╗");
+            out.println("║ ERROR: User not found in Hash Table.             ║");
+            out.println("╚══════════════════════════════════════════════════╝");
         }
-
-        out.println("╔══════════════════════════════════════════════════╗");
-        out.println("║ ERROR: User not found in Hash Table.             ║");
-        out.println("╚══════════════════════════════════════════════════╝");
+        printProbeResult(result);
         enterToContinue();
     }
 
     /**
-     * @brief Displays all users stored in the hash table using Brent's Method.
+     * @brief Prints the cost of one demo table operation.
+     *
+     * @param result The operation.
+     */
+    private void printProbeResult(ProbingHashTable.Result result) {
+        out.println("Probes: " + result.probes
+                + " | Displacement: " + result.displacement
+                + " | Relocations: " + result.relocations
+                + " | Cluster: " + result.clusterSize
+                + " | Load factor: " + String.format("%.2f", result.loadFactor));
+    }
+
+    /**
+     * @brief Displays all users stored in a demo table and its probe statistics.
      *
-     * This method iterates through the hash table and displays all users stored at each index.
-     * If an index contains multiple users (due to Brent's Method collision resolution),
-     * they are displayed sequentially.
+     * @param table The demo table.
      *
      * @note Empty indexes are skipped, and only non-empty indexes are displayed.
      */
-
-    private void displayUsersWithBrentsMethod() {
+    private void displayUsersWithProbing(ProbingHashTable table) {
         clearScreen();
         out.println("╔══════════════════════════════════════════════════╗");
         out.println("║              DISPLAY ALL USERS                   ║");
         out.println("╚══════════════════════════════════════════════════╝");
 
-        for (int i = 0; i < TABLE_SIZE; i++) {
-            if (hashTable[i] != null && !hashTable[i].isEmpty()) {
+        for (int i = 0; i < table.capacity(); i++) {
+            User u = table.getUser(i);
+            if (u != null) {
                 out.println("╔═══ HASH TABLE INDEX: " + i + " ══════════════════════════╗");
-                for (User u : hashTable[i]) {
-                    out.println("║ Name  : " + u.getName());
-                    out.println("║ Email : " + u.getEmail());
-                    out.println("╠──────────────────────────────────────────────────╣");
-                }
-            }
-        }
-
+                out.println("║ Name  : " + u.getName());
+                out.println("║ Email : " + u.getEmail());
+                out.println("║ Displacement : " + table.getDisplacement(i));
+                out.println("╠──────────────────────────────────────────────────╣");
+            }
+        }
+
+        ProbingHashTable.Metrics metrics = table.getMetrics();
+        out.println("║ Users          : " + table.size() + " / " + table.capacity());
+        out.println("║ Load factor    : " + String.format("%.2f", table.loadFactor()));
+        out.println("║ Avg insert     : " + String.format("%.2f", metrics.averageInsertProbes()) + " probes");
+        out.println("║ Avg lookup     : " + String.format("%.2f", metrics.averageLookupProbes()) + " probes");
+        out.println("║ Max probes     : " + metrics.maxProbes);
+        out.println("║ Max displace   : " + metrics.maxDisplacement);
+        out.println("║ Clusters       : " + table.clusterSizes().size() + " (largest " + table.largestCluster() + ")");
+        out.println("║ Relocations    : " + metrics.relocations);
         out.println("╚══════════════════════════════════════════════════╝");
         enterToContinue();
     }
@@ -0,0 +1,184 @@
+/**
+ * @file TaskCapacityPolicy.java
+ * @brief Capacity planning and admission rules for the in-memory task list.
+ *
+ * This class replaces the fixed limit of 100 tasks. It decides how large the task list
+ * starts, how fast it grows and what happens to a new task once the estimated heap
+ * footprint of the resident tasks exceeds a memory budget.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+/**
+ * @class TaskCapacityPolicy
+ * @brief Immutable growth and admission settings of a `TaskList`.
+ *
+ * A budget of `0` or less means unlimited; this is the default, so the task list only
+ * grows with the available memory. With a budget, a task that does not fit is either
+ * rejected or spilled: written to the task store on disk without being kept in memory.
+ *
+ * Which tasks are spilled is not saved; `Task.loadTasks` applies the budget again to
+ * every task it reads, in file order, and keeps the tasks that do not fit on disk only,
+ * whichever action the policy names, so a reload never drops a saved task. The file
+ * is still decoded in full before the budget is applied.
+ */
+public final class TaskCapacityPolicy {
+
+    /**
+     * @enum Action
+     * @brief Outcome of the admission check for a new task.
+     */
+    public enum Action {
+        /** @brief The task is kept in memory. */
+        ACCEPT,
+        /** @brief The task is refused. */
+        REJECT,
+        /** @brief The task is only written to disk. */
+        SPILL
+    }
+
+    /** @brief Default initial capacity of the task list. */
+    public static final int DEFAULT_INITIAL_CAPACITY = 128;
+
+    /** @brief Default growth factor of the task list. */
+    public static final double DEFAULT_GROWTH_FACTOR = 1.5;
+
+    /** @brief Estimated fixed heap cost of a `TaskInfo` object and its list reference. */
+    static final long TASK_OVERHEAD_BYTES = 80;
+
+    /** @brief Estimated fixed heap cost of a `String` object. */
+    static final long STRING_OVERHEAD_BYTES = 40;
+
+    /** @brief Initial capacity of the task list. */
+    private final int initialCapacity;
+
+    /** @brief Factor the capacity is multiplied by when the list is full. */
+    private final double growthFactor;
+
+    /** @brief Memory budget of the resident tasks in bytes, `0` or less for none. */
+    private final long memoryBudget;
+
+    /** @brief Action taken for tasks that exceed the budget: `REJECT` or `SPILL`. */
+    private final Action overBudget;
+
+    /**
+     * @brief Creates a policy.
+     *
+     * @param initialCapacity Initial capacity of the task list (at least 1).
+     * @param growthFactor Growth factor, greater than 1.
+     * @param memoryBudget Memory budget in bytes, `0` or less for unlimited.
+     * @param overBudget `Action.REJECT` or `Action.SPILL`.
+     * @throws IllegalArgumentException If a value is out of range.
+     */
+    public TaskCapacityPolicy(int initialCapacity, double growthFactor, long memoryBudget, Action overBudget) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be at least 1: " + initialCapacity);
+        }
+        if (!(growthFactor > 1.0)) {
+            throw new IllegalArgumentException("Growth factor must be greater than 1: " + growthFactor);
+        }
+        if (overBudget == Action.ACCEPT) {
+            throw new IllegalArgumentException("Over-budget action must be REJECT or SPILL");
+        }
+        this.initialCapacity = initialCapacity;
+        this.growthFactor = growthFactor;
+        this.memoryBudget = memoryBudget;
+        this.overBudget = overBudget;
+    }
+
+    /**
+     * @brief Returns the default policy: no memory budget.
+     * @return The unlimited policy.
+     */
+    public static TaskCapacityPolicy unlimited() {
+        return new TaskCapacityPolicy(DEFAULT_INITIAL_CAPACITY, DEFAULT_GROWTH_FACTOR, 0, Action.REJECT);
+    }
+
+    /**
+     * @brief Builds a policy from system properties.
+     *
+     * Reads `tasks.initialCapacity`, `tasks.growthFactor`, `tasks.memoryBudget` (bytes)
+     * and `tasks.overBudget` (`reject` or `spill`). Missing or invalid values fall back
+     * to the defaults of `unlimited()`.
+     *
+     * @return The configured policy.
+     */
+    public static TaskCapacityPolicy fromSystemProperties() {
+        try {
+            int initialCapacity = Integer.getInteger("tasks.initialCapacity", DEFAULT_INITIAL_CAPACITY);
+            double growthFactor = Double.parseDouble(
+                    System.getProperty("tasks.growthFactor", String.valueOf(DEFAULT_GROWTH_FACTOR)));
+            long memoryBudget = Long.getLong("tasks.memoryBudget", 0);
+            Action overBudget = "spill".equalsIgnoreCase(System.getProperty("tasks.overBudget"))
+                    ? Action.SPILL : Action.REJECT;
+            return new TaskCapacityPolicy(initialCapacity, growthFactor, memoryBudget, overBudget);
+        } catch (IllegalArgumentException e) {
+            return unlimited();
+        }
+    }
+
+    /**
+     * @brief Returns the initial capacity.
+     * @return The initial capacity of the task list.
+     */
+    public int getInitialCapacity() { return initialCapacity; }
+
+    /**
+     * @brief Returns the growth factor.
+     * @return The factor the capacity grows by.
+     */
+    public double getGrowthFactor() { return growthFactor; }
+
+    /**
+     * @brief Returns the memory budget.
+     * @return The budget in bytes, `0` or less for unlimited.
+     */
+    public long getMemoryBudget() { return memoryBudget; }
+
+    /**
+     * @brief Returns the action for tasks over the budget.
+     * @return `Action.REJECT` or `Action.SPILL`.
+     */
+    public Action getOverBudget() { return overBudget; }
+
+    /**
+     * @brief Computes the next capacity of a full list.
+     *
+     * @param capacity The current capacity.
+     * @param needed The minimum capacity required.
+     * @return The new capacity.
+     */
+    public int nextCapacity(int capacity, int needed) {
+        long grown = (long) Math.ceil(capacity * growthFactor);
+        long next = Math.max(Math.max(grown, capacity + 1L), needed);
+        return (int) Math.min(next, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * @brief Decides whether a new task may be kept in memory.
+     *
+     * @param residentBytes Estimated heap bytes of the tasks already in memory.
+     * @param task The new task.
+     * @return `Action.ACCEPT`, or the over-budget action if the task does not fit.
+     */
+    public Action admit(long residentBytes, TaskInfo task) {
+        if (memoryBudget <= 0 || residentBytes + task.estimateHeapBytes() <= memoryBudget) {
+            return Action.ACCEPT;
+        }
+        return overBudget;
+    }
+
+    /**
+     * @brief Estimates the heap footprint of a string.
+     *
+     * @param value The string, may be `null`.
+     * @return The estimated size in bytes.
+     */
+    static long estimateBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + 2L * value.length();
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * @file TaskDependencyGraph.java
+ * @brief Compressed sparse row (CSR) form of the task dependency graph.
+ *
+ * This class stores the dependencies of all tasks in two flat int arrays instead of
+ * one array per task, so graph algorithms walk contiguous memory and tasks without
+ * dependencies take no space at all.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @class TaskDependencyGraph
+ * @brief Immutable CSR adjacency of task dependencies.
+ *
+ * Row `r` describes the `r`-th task of the list the graph was built from. Its
+ * dependency ids are `dependencies[rowStart[r]] .. dependencies[rowStart[r + 1] - 1]`.
+ * Dependency ids of `0` (the historical "no dependency" marker) are left out.
+ */
+public final class TaskDependencyGraph {
+
+    /** @brief Task id of every row. */
+    private final int[] taskIds;
+
+    /** @brief Start of every row in `dependencies`; has one extra trailing entry. */
+    private final int[] rowStart;
+
+    /** @brief Dependency ids of all rows, concatenated. */
+    private final int[] dependencies;
+
+    /** @brief First row of every task id. */
+    private final Map<Integer, Integer> firstRow;
+
+    /** @brief Next row with the same task id, or `-1`. */
+    private final int[] nextRowWithSameId;
+
+    /**
+     * @brief Creates a graph from its CSR arrays.
+     *
+     * @param taskIds Task id of every row.
+     * @param rowStart Row offsets into `dependencies`, of length `taskIds.length + 1`.
+     * @param dependencies Concatenated dependency ids.
+     */
+    TaskDependencyGraph(int[] taskIds, int[] rowStart, int[] dependencies) {
+        this.taskIds = taskIds;
+        this.rowStart = rowStart;
+        this.dependencies = dependencies;
+        this.firstRow = new HashMap<>(taskIds.length * 2);
+        this.nextRowWithSameId = new int[taskIds.length];
+        Arrays.fill(nextRowWithSameId, -1);
+        for (int row = taskIds.length - 1; row >= 0; row--) {
+            Integer next = firstRow.put(taskIds[row], row);
+            if (next != null) {
+                nextRowWithSameId[row] = next;
+            }
+        }
+    }
+
+    /**
+     * @brief Builds the graph of a task list.
+     *
+     * @param taskList The tasks, one row per task in list order.
+     * @return The dependency graph.
+     */
+    public static TaskDependencyGraph fromTasks(List<TaskInfo> taskList) {
+        int rows = taskList.size();
+        int[] taskIds = new int[rows];
+        int[] rowStart = new int[rows + 1];
+        int edges = 0;
+        for (int row = 0; row < rows; row++) {
+            TaskInfo task = taskList.get(row);
+            taskIds[row] = task.getId();
+            edges += countDependencies(task);
+        }
+
+        int[] dependencies = new int[edges];
+        int next = 0;
+        for (int row = 0; row < rows; row++) {
+            rowStart[row] = next;
+            TaskInfo task = taskList.get(row);
+            int[] taskDependencies = task.getDependencies();
+            for (int i = 0; i < dependencyLength(task); i++) {
+                if (taskDependencies[i] != 0) {
+                    dependencies[next++] = taskDependencies[i];
+                }
+            }
+        }
+        rowStart[rows] = next;
+        return new TaskDependencyGraph(taskIds, rowStart, dependencies);
+    }
+
+    /**
+     * @brief Returns how many dependency entries of a task are valid.
+     *
+     * @param task The task.
+     * @return The smaller of the dependency count and the array length.
+     */
+    private static int dependencyLength(TaskInfo task) {
+        return Math.min(task.getDependencyCount(), task.getDependencies().length);
+    }
+
+    /**
+     * @brief Counts the non-zero dependencies of a task.
+     *
+     * @param task The task.
+     * @return The number of dependency edges of the task.
+     */
+    private static int countDependencies(TaskInfo task) {
+        int[] taskDependencies = task.getDependencies();
+        int count = 0;
+        for (int i = 0; i < dependencyLength(task); i++) {
+            if (taskDependencies[i] != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @brief Returns the number of rows (tasks).
+     * @return The row count.
+     */
+    public int rowCount() {
+        return taskIds.length;
+    }
+
+    /**
+     * @brief Returns the total number of dependency edges.
+     * @return The edge count.
+     */
+    public int edgeCount() {
+        return dependencies.length;
+    }
+
+    /**
+     * @brief Returns the task id of a row.
+     * @param row The row index.
+     * @return The task id.
+     */
+    public int taskId(int row) {
+        return taskIds[row];
+    }
+
+    /**
+     * @brief Returns the index of the first dependency of a row.
+     * @param row The row index.
+     * @return Start index into the dependency array.
+     */
+    public int dependencyStart(int row) {
+        return rowStart[row];
+    }
+
+    /**
+     * @brief Returns the index just past the last dependency of a row.
+     * @param row The row index.
+     * @return End index (exclusive) into the dependency array.
+     */
+    public int dependencyEnd(int row) {
+        return rowStart[row + 1];
+    }
+
+    /**
+     * @brief Returns one entry of the concatenated dependency array.
+     * @param index Index between `dependencyStart` and `dependencyEnd` of some row.
+     * @return The dependency task id.
+     */
+    public int dependencyAt(int index) {
+        return dependencies[index];
+    }
+
+    /**
+     * @brief Finds the first row holding a task id.
+     *
+     * @param taskId The task id.
+     * @return The row index, or `-1` if no task has this id.
+     */
+    public int firstRowOf(int taskId) {
+        Integer row = firstRow.get(taskId);
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * @brief Finds the next row holding the same task id as a given row.
+     *
+     * @param row A row index.
+     * @return The next row with the same task id, or `-1`.
+     */
+    public int nextRowWithSameId(int row) {
+        return nextRowWithSameId[row];
+    }
+}
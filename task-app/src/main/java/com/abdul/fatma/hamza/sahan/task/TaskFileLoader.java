@@ -0,0 +1,617 @@
+/**
+ * @file TaskFileLoader.java
+ * @brief Bulk loader for task files.
+ *
+ * This class loads tasks from `tasks.bin` with as few system calls as possible:
+ * sequential task files are read into one buffer and decoded in memory, and task
+ * store files are decoded from their memory mapping. A streaming iterator reads
+ * large files in fixed-size chunks instead.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @class TaskFileLoader
+ * @brief Decodes tasks from a task file held in memory.
+ *
+ * Both supported layouts are handled:
+ * - Task store files (`TaskStore`), whose pending task log records are replayed.
+ *   Current stores are mapped read-only; older store versions are decoded in memory
+ *   and left for the next save to upgrade. Loading never writes to the file.
+ * - Sequential files: a task count followed by `TaskStore.writeRecord` records.
+ */
+public class TaskFileLoader {
+
+    /** @brief Default chunk size of the streaming iterator, in bytes. */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /** @brief Files with fewer records than this are always decoded on one thread. */
+    public static final int PARALLEL_THRESHOLD = 2048;
+
+    /** @brief Records decoded by one fork/join leaf task. */
+    private static final int PARALLEL_GRAIN = 512;
+
+    /** @brief Path of the task file. */
+    private final String path;
+
+    /** @brief Number of threads used to decode records. */
+    private final int threads;
+
+    /** @brief Task count stored in the file, set by `loadAll`. */
+    private int storedCount;
+
+    /** @brief Number of task log records replayed by `loadAll`. */
+    private int replayedCount;
+
+    /** @brief Number of damaged store records `loadAll` could not recover. */
+    private int damagedCount;
+
+    /** @brief Generation of the task store read by `loadAll`, or `0`. */
+    private long generation;
+
+    /**
+     * @brief Creates a loader for a task file.
+     *
+     * @param path Path of the task file.
+     */
+    public TaskFileLoader(String path) {
+        this(path, 1);
+    }
+
+    /**
+     * @brief Creates a loader that decodes large files on several threads.
+     *
+     * @param path Path of the task file.
+     * @param threads Number of decoding threads; `1` or less decodes sequentially.
+     */
+    public TaskFileLoader(String path, int threads) {
+        this.path = path;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * @brief Returns the task count stored in the file by the last `loadAll`.
+     * @return The stored task count.
+     */
+    public int getStoredCount() {
+        return storedCount;
+    }
+
+    /**
+     * @brief Returns the number of task log records replayed by the last `loadAll`.
+     * @return The replayed record count.
+     */
+    public int getReplayedCount() {
+        return replayedCount;
+    }
+
+    /**
+     * @brief Returns the number of damaged records the last `loadAll` left out.
+     *
+     * A damaged record whose task was rewritten by the task log is recovered and not
+     * counted.
+     *
+     * @return The number of lost tasks.
+     */
+    public int getDamagedCount() {
+        return damagedCount;
+    }
+
+    /**
+     * @brief Returns the generation of the task store read by the last `loadAll`.
+     * @return The snapshot generation, or `0` for a sequential file.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @brief Loads every task of the file.
+     *
+     * A sequential file is read with a single bulk read and decoded from memory.
+     * A task store is read from its mapping and its task log is replayed on top. A
+     * store record that fails its checksum does not fail the load: if the log holds a
+     * newer version of the task, that version is used, otherwise the task is left out
+     * and counted by `getDamagedCount`.
+     * The returned tasks are `LazyTaskInfo` views (except tasks added by the log), so
+     * descriptions, categories and due dates are only decoded when they are read.
+     * Files with at least `PARALLEL_THRESHOLD` records are decoded on the configured
+     * number of threads; the result is identical to the sequential one.
+     *
+     * @return The loaded tasks, in file order.
+     * @throws IOException If the file cannot be read or is corrupt.
+     */
+    public List<TaskInfo> loadAll() throws IOException {
+        replayedCount = 0;
+        damagedCount = 0;
+        generation = 0;
+        int version = TaskStore.storeVersion(path);
+        if (version > 0) {
+            TaskLog.SNAPSHOT_LOCK.readLock().lock();
+            try {
+                return loadStore(version);
+            } finally {
+                TaskLog.SNAPSHOT_LOCK.readLock().unlock();
+            }
+        }
+
+        ByteBuffer data = readFully(path);
+        try {
+            storedCount = data.getInt();
+            if (storedCount < 0) {
+                throw new IOException("Corrupt task count: " + storedCount);
+            }
+            // Never trust the count for sizing: a corrupt header must not allocate gigabytes.
+            byte[] bytes = data.array();
+            if (threads > 1 && storedCount >= PARALLEL_THRESHOLD) {
+                int[] offsets = recordOffsets(data, storedCount);
+                return decodeAll(storedCount, threads, i -> new LazyTaskInfo(bytes, offsets[i], false));
+            }
+            List<TaskInfo> tasks = new ArrayList<>(Math.min(storedCount, data.remaining() / 8));
+            int position = data.position();
+            for (int i = 0; i < storedCount; i++) {
+                LazyTaskInfo task = new LazyTaskInfo(bytes, position, false);
+                position = task.end();
+                tasks.add(task);
+            }
+            return tasks;
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Task file ended in the middle of a record");
+        }
+    }
+
+    /**
+     * @brief Loads a task store and replays its task log.
+     *
+     * The caller holds the snapshot read lock.
+     *
+     * @param version Layout version of the store.
+     * @return The loaded tasks, in slot order, with the log applied.
+     * @throws IOException If the store cannot be read.
+     */
+    private List<TaskInfo> loadStore(int version) throws IOException {
+        List<TaskInfo> tasks;
+        // Damaged records become id-only placeholders that a log upsert can replace
+        Set<TaskInfo> damaged = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (version < TaskStore.VERSION) {
+            tasks = new ArrayList<>();
+            generation = TaskStore.readOlderVersion(path, tasks);
+        } else {
+            try (TaskStore store = TaskStore.openReadOnly(path)) {
+                generation = store.getGeneration();
+                tasks = store.readAll(threads, true);
+                for (int slot = 0; slot < tasks.size(); slot++) {
+                    if (tasks.get(slot) == null) {
+                        TaskInfo placeholder = new TaskInfo();
+                        placeholder.setId(store.getId(slot));
+                        tasks.set(slot, placeholder);
+                        damaged.add(placeholder);
+                    }
+                }
+            }
+        }
+        storedCount = tasks.size();
+        replayedCount = TaskLog.replay(path, generation, tasks);
+        if (!damaged.isEmpty()) {
+            int before = tasks.size();
+            tasks.removeIf(damaged::contains);
+            damagedCount = before - tasks.size();
+        }
+        return tasks;
+    }
+
+    /**
+     * @brief Returns a streaming iterator over the tasks of the file.
+     *
+     * Only one chunk of the file is held in memory at a time, which keeps memory use
+     * bounded for files larger than the heap budget. Task log records are not
+     * replayed; use `loadAll` when the latest state is required.
+     *
+     * @param chunkSize Number of bytes read per chunk.
+     * @return An iterator that must be closed after use.
+     * @throws IOException If the file cannot be opened.
+     */
+    public TaskIterator iterator(int chunkSize) throws IOException {
+        int version = TaskStore.storeVersion(path);
+        if (version == TaskStore.VERSION) {
+            return new StoreIterator(TaskStore.openReadOnly(path));
+        }
+        if (version > 0) {
+            List<TaskInfo> tasks = new ArrayList<>();
+            TaskStore.readOlderVersion(path, tasks);
+            Iterator<TaskInfo> iterator = tasks.iterator();
+            return new TaskIterator() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public TaskInfo next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+        return new ChunkIterator(path, chunkSize);
+    }
+
+    /**
+     * @brief Reads a whole file into a heap buffer with one bulk read.
+     *
+     * @param path Path of the file.
+     * @return A buffer positioned at the start of the file contents.
+     * @throws IOException If the file cannot be read.
+     */
+    private static ByteBuffer readFully(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+            while (data.hasRemaining() && channel.read(data) > 0) {
+                // a single read normally fills the buffer
+            }
+            data.flip();
+            return data;
+        }
+    }
+
+    // --- Parallel decoding ---
+
+    /**
+     * @interface RecordDecoder
+     * @brief Decodes the record with a given index.
+     */
+    interface RecordDecoder {
+        /**
+         * @brief Decodes one record.
+         * @param index The record index.
+         * @return The decoded task.
+         * @throws IOException If the record is corrupt.
+         */
+        TaskInfo decode(int index) throws IOException;
+    }
+
+    /**
+     * @brief Decodes `count` records, in parallel when worthwhile.
+     *
+     * The index range is split in halves on a `ForkJoinPool` until ranges reach
+     * `PARALLEL_GRAIN` records. Every record is written to its own position of the
+     * result, so the order does not depend on scheduling.
+     *
+     * @param count Number of records.
+     * @param threads Number of threads; `1` or less decodes on the calling thread.
+     * @param decoder Decodes one record; must be safe to call from several threads.
+     * @return The decoded tasks, in index order.
+     * @throws IOException If any record is corrupt.
+     */
+    static List<TaskInfo> decodeAll(int count, int threads, RecordDecoder decoder) throws IOException {
+        TaskInfo[] result = new TaskInfo[count];
+        if (threads <= 1 || count < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < count; i++) {
+                result[i] = decoder.decode(i);
+            }
+            return new ArrayList<>(Arrays.asList(result));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new DecodeRange(decoder, result, 0, count));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Task file ended in the middle of a record");
+        } finally {
+            pool.shutdown();
+        }
+        return new ArrayList<>(Arrays.asList(result));
+    }
+
+    /**
+     * @class DecodeRange
+     * @brief Fork/join task decoding a range of record indexes.
+     */
+    private static final class DecodeRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RecordDecoder decoder;
+        private final TaskInfo[] result;
+        private final int from;
+        private final int to;
+
+        DecodeRange(RecordDecoder decoder, TaskInfo[] result, int from, int to) {
+            this.decoder = decoder;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_GRAIN) {
+                try {
+                    for (int i = from; i < to; i++) {
+                        result[i] = decoder.decode(i);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DecodeRange(decoder, result, from, middle),
+                    new DecodeRange(decoder, result, middle, to));
+        }
+    }
+
+    /**
+     * @brief Finds the start of every record of a sequential file without decoding it.
+     *
+     * Only length prefixes and counts are read, so this pass is much cheaper than
+     * decoding and gives the parallel decoder independent starting points.
+     *
+     * @param data Buffer positioned at the first record.
+     * @param count Number of records.
+     * @return The absolute start offset of every record.
+     * @throws IOException If a record is corrupt.
+     */
+    private static int[] recordOffsets(ByteBuffer data, int count) throws IOException {
+        if (count > data.remaining() / 8) {
+            throw new EOFException("Task file ended in the middle of a record");
+        }
+        int[] offsets = new int[count];
+        int position = data.position();
+        try {
+            for (int i = 0; i < count; i++) {
+                offsets[i] = position;
+                position += 4;
+                for (int field = 0; field < 4; field++) {
+                    position += 2 + (data.getShort(position) & 0xFFFF);
+                }
+                int dependencyCount = data.getInt(position);
+                if (dependencyCount < 0 || dependencyCount > data.limit() / 4) {
+                    throw new IOException("Corrupt dependency count: " + dependencyCount);
+                }
+                position += 4 + 4 * dependencyCount;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            position = Integer.MAX_VALUE;
+        }
+        if (position > data.limit()) {
+            throw new EOFException("Task file ended in the middle of a record");
+        }
+        return offsets;
+    }
+
+    // --- Record decoding ---
+
+    /**
+     * @brief Decodes one sequential record (see `TaskStore.writeRecord`) from memory.
+     *
+     * @param data Buffer positioned at the start of a record; advanced past it.
+     * @return The decoded task.
+     * @throws IOException If the record is corrupt.
+     * @throws BufferUnderflowException If the buffer ends inside the record.
+     */
+    static TaskInfo decode(ByteBuffer data) throws IOException {
+        return decode(data, new TaskInfo());
+    }
+
+    /**
+     * @brief Decodes one sequential record into an existing task.
+     *
+     * @param data Buffer positioned at the start of a record; advanced past it.
+     * @param task The task to populate.
+     * @return The populated task.
+     * @throws IOException If the record is corrupt.
+     * @throws BufferUnderflowException If the buffer ends inside the record.
+     */
+    static TaskInfo decode(ByteBuffer data, TaskInfo task) throws IOException {
+        task.setId(data.getInt());
+        task.setName(readUTF(data));
+        task.setDescription(readUTF(data));
+        task.setCategory(readUTF(data));
+        task.setDueDate(readUTF(data));
+        readDependencies(data, task);
+        return task;
+    }
+
+    /**
+     * @brief Reads the dependency list of a sequential record.
+     *
+     * @param data Buffer positioned at the dependency count; advanced past the list.
+     * @param task The task that receives the dependencies.
+     * @throws IOException If the count is corrupt.
+     * @throws BufferUnderflowException If the buffer ends inside the list.
+     */
+    static void readDependencies(ByteBuffer data, TaskInfo task) throws IOException {
+        int dependencyCount = data.getInt();
+        if (dependencyCount < 0 || dependencyCount > data.remaining() / 4) {
+            if (dependencyCount > 0 && dependencyCount <= Integer.MAX_VALUE / 4) {
+                throw new BufferUnderflowException(); // may still arrive in the next chunk
+            }
+            throw new IOException("Corrupt dependency count: " + dependencyCount);
+        }
+        int[] dependencies = dependencyCount == 0 ? TaskInfo.NO_DEPENDENCIES : new int[dependencyCount];
+        for (int i = 0; i < dependencyCount; i++) {
+            dependencies[i] = data.getInt();
+        }
+        task.setDependencies(dependencies);
+    }
+
+    /**
+     * @brief Decodes a string written by `DataOutput.writeUTF`.
+     *
+     * ASCII strings, the common case, are decoded directly; other strings go through
+     * `DataInputStream.readUTF` to handle the modified UTF-8 encoding.
+     *
+     * @param data Buffer positioned at the length prefix; advanced past the string.
+     * @return The decoded string.
+     * @throws IOException If the string is malformed.
+     */
+    static String readUTF(ByteBuffer data) throws IOException {
+        int length = data.getShort() & 0xFFFF;
+        if (length > data.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        for (byte b : bytes) {
+            if (b <= 0) {
+                ByteArrayOutputStream encoded = new ByteArrayOutputStream(length + 2);
+                encoded.write(length >>> 8);
+                encoded.write(length);
+                encoded.write(bytes, 0, length);
+                return new DataInputStream(new ByteArrayInputStream(encoded.toByteArray())).readUTF();
+            }
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    // --- Streaming ---
+
+    /**
+     * @interface TaskIterator
+     * @brief An iterator over tasks that holds an open file.
+     */
+    public interface TaskIterator extends Iterator<TaskInfo>, Closeable {
+    }
+
+    /**
+     * @class StoreIterator
+     * @brief Iterates the slots of a mapped task store.
+     */
+    private static final class StoreIterator implements TaskIterator {
+        private final TaskStore store;
+        private int slot;
+
+        StoreIterator(TaskStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < store.size();
+        }
+
+        @Override
+        public TaskInfo next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return store.read(slot++);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            store.close();
+        }
+    }
+
+    /**
+     * @class ChunkIterator
+     * @brief Decodes a sequential task file chunk by chunk.
+     *
+     * Records that straddle a chunk boundary are handled by compacting the buffer and
+     * reading the next chunk; the buffer doubles when one record exceeds a chunk.
+     */
+    private static final class ChunkIterator implements TaskIterator {
+        private final FileChannel channel;
+        private ByteBuffer buffer;
+        private int remainingTasks;
+
+        ChunkIterator(String path, int chunkSize) throws IOException {
+            this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(Math.max(chunkSize, 64));
+            this.buffer.flip();
+            try {
+                fill(4);
+                remainingTasks = buffer.getInt();
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * @brief Makes sure at least `needed` bytes are buffered.
+         *
+         * @param needed The number of bytes required.
+         * @throws IOException If the file ends first.
+         */
+        private void fill(int needed) throws IOException {
+            if (needed > buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(needed, buffer.capacity() * 2));
+                larger.put(buffer).flip();
+                buffer = larger;
+            }
+            buffer.compact();
+            while (buffer.position() < needed) {
+                if (channel.read(buffer) < 0) {
+                    buffer.flip();
+                    throw new EOFException("Task file ended in the middle of a record");
+                }
+            }
+            buffer.flip();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remainingTasks > 0;
+        }
+
+        @Override
+        public TaskInfo next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                while (true) {
+                    int start = buffer.position();
+                    try {
+                        TaskInfo task = decode(buffer);
+                        remainingTasks--;
+                        return task;
+                    } catch (BufferUnderflowException e) {
+                        buffer.position(start);
+                        fill(buffer.remaining() + 1);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -14,6 +14,7 @@
 package com.abdul.fatma.hamza.sahan.task;
 
 import java.io.*;
+import java.util.Arrays;
 
 /**
  * @class TaskInfo
@@ -43,8 +44,15 @@ public class TaskInfo {
     /** @brief Number of dependencies associated with the task. */
     private int dependencyCount;
 
-    /** @brief Array of dependency task IDs (up to 10 dependencies). */
-    private int[] dependencies = new int[10];
+    /**
+     * @brief Shared, empty dependency array.
+     *
+     * Tasks without dependencies all point at this array, so they do not allocate one.
+     */
+    static final int[] NO_DEPENDENCIES = new int[0];
+
+    /** @brief Array of dependency task IDs, sized to the dependency count. */
+    private int[] dependencies = NO_DEPENDENCIES;
 
     /**
      * @brief Importance level of the task.
@@ -57,6 +65,15 @@ public class TaskInfo {
      */
     private int importanceId = 0;
 
+    /**
+     * @brief Generation of the task store this task is known to match, or `0` if dirty.
+     *
+     * Every setter resets it to `0`. It is set when the task is read from a task store,
+     * and when a write of the task to a store has been forced to disk, so a store can
+     * skip tasks that have not changed since.
+     */
+    private long cleanGeneration = 0;
+
     // --- Getters and Setters ---
 
     /**
@@ -69,7 +86,10 @@ public class TaskInfo {
      * @brief Sets the task ID.
      * @param id The unique identifier for the task.
      */
-    public void setId(int id) { this.id = id; }
+    public void setId(int id) {
+        this.id = id;
+        cleanGeneration = 0;
+    }
 
     /**
      * @brief Retrieves the task name.
@@ -81,7 +101,10 @@ public class TaskInfo {
      * @brief Sets the task name.
      * @param name The name of the task.
      */
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) {
+        this.name = name;
+        cleanGeneration = 0;
+    }
 
     /**
      * @brief Retrieves the task description.
@@ -93,7 +116,10 @@ public class TaskInfo {
      * @brief Sets the task description.
      * @param description The description of the task.
      */
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) {
+        this.description = description;
+        cleanGeneration = 0;
+    }
 
     /**
      * @brief Retrieves the task category.
@@ -105,7 +131,10 @@ public class TaskInfo {
      * @brief Sets the task category.
      * @param category The category of the task.
      */
-    public void setCategory(String category) { this.category = category; }
+    public void setCategory(String category) {
+        this.category = category;
+        cleanGeneration = 0;
+    }
 
     /**
      * @brief Retrieves the due date of the task.
@@ -117,7 +146,10 @@ public class TaskInfo {
      * @brief Sets the due date of the task.
      * @param dueDate The due date of the task.
      */
-    public void setDueDate(String dueDate) { this.dueDate = dueDate; }
+    public void setDueDate(String dueDate) {
+        this.dueDate = dueDate;
+        cleanGeneration = 0;
+    }
 
     /**
      * @brief Retrieves the number of dependencies.
@@ -127,9 +159,18 @@ public class TaskInfo {
 
     /**
      * @brief Sets the number of dependencies.
+     *
+     * The dependency array grows when it is too small for the new count.
+     *
      * @param dependencyCount The number of dependencies.
      */
-    public void setDependencyCount(int dependencyCount) { this.dependencyCount = dependencyCount; }
+    public void setDependencyCount(int dependencyCount) {
+        if (dependencyCount > dependencies.length) {
+            dependencies = Arrays.copyOf(dependencies, dependencyCount);
+        }
+        this.dependencyCount = dependencyCount;
+        cleanGeneration = 0;
+    }
 
     /**
      * @brief Retrieves the dependency array.
@@ -139,9 +180,16 @@ public class TaskInfo {
 
     /**
      * @brief Sets the dependency array.
-     * @param dependencies An array of dependency IDs.
+     *
+     * The dependency count becomes the length of the array.
+     *
+     * @param dependencies An array of dependency IDs (`null` means no dependencies).
      */
-    public void setDependencies(int[] dependencies) { this.dependencies = dependencies; }
+    public void setDependencies(int[] dependencies) {
+        this.dependencies = dependencies == null || dependencies.length == 0 ? NO_DEPENDENCIES : dependencies;
+        this.dependencyCount = this.dependencies.length;
+        cleanGeneration = 0;
+    }
 
     /**
      * @brief Retrieves the importance ID.
@@ -163,51 +211,128 @@ public class TaskInfo {
     public void setImportanceId(int importanceId) {
         if (importanceId >= 1 && importanceId <= 3) {
             this.importanceId = importanceId;
+            cleanGeneration = 0;
         } else {
             throw new IllegalArgumentException("Invalid importance ID! Must be 1 (Low), 2 (Medium), or 3 (High).");
         }
     }
 
+    // --- Change Tracking ---
+
+    /**
+     * @brief Checks whether the task changed since it was last read or written.
+     *
+     * Note that writing into the array returned by `getDependencies` is not tracked;
+     * use `setDependencies` to change dependencies.
+     *
+     * @return `true` if the task has unsaved changes.
+     */
+    public boolean isDirty() { return cleanGeneration == 0; }
+
+    /**
+     * @brief Checks whether the task is known to match a given task store.
+     *
+     * @param generation The generation of the task store.
+     * @return `true` if the task is unchanged since it was read from or written to that store.
+     */
+    public boolean isCleanIn(long generation) { return cleanGeneration != 0 && cleanGeneration == generation; }
+
+    /**
+     * @brief Records that the task matches the content of a task store.
+     *
+     * @param generation The generation of the task store.
+     */
+    void markClean(long generation) { this.cleanGeneration = generation; }
+
+    /**
+     * @brief Returns the generation of the store the task is known to match.
+     * @return The generation, or `0` if the task is dirty.
+     */
+    long getCleanGeneration() { return cleanGeneration; }
+
+    // --- Memory Accounting ---
+
+    /**
+     * @brief Estimates how many heap bytes the task occupies.
+     *
+     * Used by `TaskCapacityPolicy` to enforce a memory budget. The estimate covers the
+     * object, its strings and its dependency array.
+     *
+     * @return The estimated size in bytes.
+     */
+    long estimateHeapBytes() {
+        return TaskCapacityPolicy.TASK_OVERHEAD_BYTES
+                + TaskCapacityPolicy.estimateBytes(name)
+                + TaskCapacityPolicy.estimateBytes(description)
+                + TaskCapacityPolicy.estimateBytes(category)
+                + TaskCapacityPolicy.estimateBytes(dueDate)
+                + (dependencies.length == 0 ? 0 : 16 + 4L * dependencies.length);
+    }
+
     // --- File Operations ---
 
     /**
      * @brief Writes task details to a file.
      *
      * Saves the task's attributes, including ID, name, description, category, due date,
-     * dependency count, and dependency IDs into a binary file.
+     * dependency count, and dependency IDs into a binary file using the sequential
+     * record format of `TaskStore`.
      *
      * @param raf The `RandomAccessFile` object to write data.
      * @throws IOException If an I/O error occurs.
      */
     public void writeToFile(RandomAccessFile raf) throws IOException {
-        raf.writeInt(id);
-        raf.writeUTF(name);
-        raf.writeUTF(description);
-        raf.writeUTF(category);
-        raf.writeUTF(dueDate);
-        raf.writeInt(dependencyCount);
-        for (int i = 0; i < dependencyCount; i++) {
-            raf.writeInt(dependencies[i]);
-        }
+        TaskStore.writeRecord(raf, this);
     }
 
     /**
      * @brief Reads task details from a file.
      *
-     * Populates the task's attributes by reading data from a binary file.
+     * Populates the task's attributes by reading a sequential record from a binary file.
      *
      * @param raf The `RandomAccessFile` object to read data.
      * @throws IOException If an I/O error occurs.
      */
     public void readFromFile(RandomAccessFile raf) throws IOException {
-        this.id = raf.readInt();
-        this.name = raf.readUTF();
-        this.description = raf.readUTF();
-        this.category = raf.readUTF();
-        this.dueDate = raf.readUTF();
-        this.dependencyCount = raf.readInt();
-        for (int i = 0; i < dependencyCount; i++) {
-            this.dependencies[i] = raf.readInt();
+        TaskStore.readRecord(raf, this);
+    }
+
+    /**
+     * @brief Writes the task into a task store.
+     *
+     * Updates the slot already holding this task id, or appends a new slot. The task is
+     * not marked clean here: `TaskStore.flush` does that once the write is on disk.
+     *
+     * @param store The store to write to.
+     * @return The slot index holding the task.
+     * @throws IOException If the store cannot grow.
+     */
+    public int writeToStore(TaskStore store) throws IOException {
+        int slot = store.findSlot(id);
+        if (slot < 0) {
+            return store.append(this);
+        }
+        store.update(slot, this);
+        return slot;
+    }
+
+    /**
+     * @brief Reads the task from a slot of a task store.
+     *
+     * The record payload is decoded straight from the store's mapping after its
+     * checksum has been verified.
+     *
+     * @param store The store to read from.
+     * @param slot The slot index.
+     * @throws IOException If the record is damaged.
+     */
+    public void readFromStore(TaskStore store, int slot) throws IOException {
+        try {
+            TaskStore.readCompactRecord(store.recordPayload(slot), this);
+        } catch (java.nio.BufferUnderflowException e) {
+            throw new EOFException("Task record " + slot + " is truncated");
         }
+        this.importanceId = store.getImportanceId(slot);
+        this.cleanGeneration = store.getGeneration();
     }
 }
@@ -0,0 +1,302 @@
+/**
+ * @file TaskList.java
+ * @brief Growable in-memory task list governed by a `TaskCapacityPolicy`.
+ *
+ * The list is a drop-in replacement for the `ArrayList<TaskInfo>` used by `Task`. It
+ * has no upper limit on the number of tasks; instead it grows by the policy's growth
+ * factor and asks the policy whether a new task fits the memory budget.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * @class TaskList
+ * @brief An `ArrayList<TaskInfo>` with planned growth and memory-budget admission.
+ *
+ * Besides the resident tasks the list remembers the ids of tasks that were spilled to
+ * disk because the budget was exhausted, so new task ids never collide with them and
+ * a save does not drop them from the task store.
+ *
+ * The estimated heap size of the resident tasks is kept as a running total, updated by
+ * every add, set and remove, so admitting a task costs O(1). A task is counted with
+ * its estimate at the time it enters the list; bulk removals and `setPolicy` recount
+ * the total, which also picks up tasks that grew after they were added. `set` and
+ * `removeIf` on a `subList` view bypass the total until the next recount.
+ */
+public class TaskList extends ArrayList<TaskInfo> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** @brief Shared empty array of spilled ids. */
+    private static final int[] NO_SPILLED_IDS = new int[0];
+
+    /** @brief Growth and admission settings. */
+    private TaskCapacityPolicy policy;
+
+    /** @brief Capacity requested from the underlying array so far. */
+    private int capacity;
+
+    /** @brief Ids of the tasks that were written to disk only. */
+    private int[] spilledIds = NO_SPILLED_IDS;
+
+    /** @brief Number of valid entries in `spilledIds`. */
+    private int spilledCount;
+
+    /** @brief Running estimate of the heap bytes of the resident tasks. */
+    private long residentBytes;
+
+    /**
+     * @brief Creates an empty list with the default, unlimited policy.
+     */
+    public TaskList() {
+        this(TaskCapacityPolicy.unlimited());
+    }
+
+    /**
+     * @brief Creates an empty list with a policy.
+     *
+     * @param policy The growth and admission settings.
+     */
+    public TaskList(TaskCapacityPolicy policy) {
+        super(policy.getInitialCapacity());
+        this.policy = policy;
+        this.capacity = policy.getInitialCapacity();
+    }
+
+    /**
+     * @brief Returns the policy of the list.
+     * @return The growth and admission settings.
+     */
+    public TaskCapacityPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @brief Replaces the policy of the list.
+     *
+     * Tasks already in the list stay there even if they exceed a new, smaller budget.
+     *
+     * @param policy The new growth and admission settings.
+     */
+    public void setPolicy(TaskCapacityPolicy policy) {
+        this.policy = policy;
+        recountResidentBytes();
+    }
+
+    /**
+     * @brief Makes room for a number of tasks, growing by the policy's growth factor.
+     *
+     * @param needed The number of tasks the list must be able to hold.
+     */
+    private void reserve(int needed) {
+        if (needed > capacity) {
+            capacity = policy.nextCapacity(capacity, needed);
+            ensureCapacity(capacity);
+        }
+    }
+
+    /**
+     * @brief Returns the estimate of a task, `0` for `null`.
+     *
+     * @param task The task, or `null`.
+     * @return The estimated heap bytes of the task.
+     */
+    private static long bytesOf(TaskInfo task) {
+        return task == null ? 0 : task.estimateHeapBytes();
+    }
+
+    /**
+     * @brief Takes an estimate off the running total, never going below zero.
+     *
+     * @param bytes The estimate of a task that left the list.
+     */
+    private void release(long bytes) {
+        residentBytes = Math.max(0, residentBytes - bytes);
+    }
+
+    @Override
+    public boolean add(TaskInfo task) {
+        reserve(size() + 1);
+        super.add(task);
+        residentBytes += bytesOf(task);
+        return true;
+    }
+
+    @Override
+    public void add(int index, TaskInfo task) {
+        reserve(size() + 1);
+        super.add(index, task);
+        residentBytes += bytesOf(task);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends TaskInfo> tasks) {
+        reserve(size() + tasks.size());
+        for (TaskInfo task : tasks) {
+            residentBytes += bytesOf(task);
+        }
+        return super.addAll(tasks);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends TaskInfo> tasks) {
+        reserve(size() + tasks.size());
+        for (TaskInfo task : tasks) {
+            residentBytes += bytesOf(task);
+        }
+        return super.addAll(index, tasks);
+    }
+
+    @Override
+    public TaskInfo set(int index, TaskInfo task) {
+        TaskInfo old = super.set(index, task);
+        release(bytesOf(old));
+        residentBytes += bytesOf(task);
+        return old;
+    }
+
+    @Override
+    public TaskInfo remove(int index) {
+        TaskInfo old = super.remove(index);
+        release(bytesOf(old));
+        return old;
+    }
+
+    @Override
+    public boolean remove(Object task) {
+        int index = indexOf(task);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        super.removeRange(fromIndex, toIndex);
+        recountResidentBytes();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super TaskInfo> filter) {
+        boolean removed = super.removeIf(filter);
+        recountResidentBytes();
+        return removed;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> tasks) {
+        boolean removed = super.removeAll(tasks);
+        recountResidentBytes();
+        return removed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> tasks) {
+        boolean removed = super.retainAll(tasks);
+        recountResidentBytes();
+        return removed;
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<TaskInfo> operator) {
+        super.replaceAll(operator);
+        recountResidentBytes();
+    }
+
+    /**
+     * @brief Returns the estimated heap bytes used by the resident tasks.
+     *
+     * This is the running total, so the call is O(1).
+     *
+     * @return The sum of the task estimates.
+     */
+    public long residentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * @brief Recomputes the running total from the current task estimates.
+     *
+     * @return The new total.
+     */
+    public long recountResidentBytes() {
+        long bytes = 0;
+        for (TaskInfo task : this) {
+            bytes += bytesOf(task);
+        }
+        residentBytes = bytes;
+        return bytes;
+    }
+
+    /**
+     * @brief Asks the policy whether a new task may be kept in memory.
+     *
+     * @param task The new task.
+     * @return `ACCEPT`, `REJECT` or `SPILL`.
+     */
+    public TaskCapacityPolicy.Action admit(TaskInfo task) {
+        if (policy.getMemoryBudget() <= 0) {
+            return TaskCapacityPolicy.Action.ACCEPT;
+        }
+        return policy.admit(residentBytes(), task);
+    }
+
+    /**
+     * @brief Records that a task was written to disk without being kept in memory.
+     *
+     * @param taskId The id of the spilled task.
+     */
+    public void recordSpill(int taskId) {
+        if (spilledCount == spilledIds.length) {
+            spilledIds = Arrays.copyOf(spilledIds, Math.max(8, spilledCount * 2));
+        }
+        spilledIds[spilledCount++] = taskId;
+    }
+
+    /**
+     * @brief Returns the number of spilled tasks.
+     * @return The spilled task count.
+     */
+    public int getSpilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * @brief Returns the ids of the spilled tasks.
+     * @return A copy of the spilled ids, in spill order.
+     */
+    public int[] getSpilledIds() {
+        return Arrays.copyOf(spilledIds, spilledCount);
+    }
+
+    /**
+     * @brief Returns the highest id of a spilled task.
+     * @return The highest spilled id, or `0` if nothing was spilled.
+     */
+    public int getHighestSpilledId() {
+        int max = 0;
+        for (int i = 0; i < spilledCount; i++) {
+            max = Math.max(max, spilledIds[i]);
+        }
+        return max;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        spilledCount = 0;
+        residentBytes = 0;
+    }
+}
@@ -0,0 +1,686 @@
+/**
+ * @file TaskLog.java
+ * @brief Append-only write-ahead log for task mutations.
+ *
+ * This class records task mutations (added or changed tasks and importance changes)
+ * as small checksummed binary records. Appends are group-committed
+ * so concurrent writers share one fsync, and a background compactor periodically
+ * folds the log into the `TaskStore` snapshot. Saving a task list writes only its
+ * modified tasks into the snapshot in place, logging them first.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * @class TaskLog
+ * @brief A write-ahead log bound to one generation of a task store.
+ *
+ * File layout:
+ * - Header (`HEADER_SIZE` bytes): magic, version and the generation of the snapshot
+ *   the log applies to.
+ * - Records: payload length, CRC32 of the payload, then the payload itself
+ *   (an operation code followed by its arguments).
+ *
+ * Every record is an idempotent upsert, so replaying a record that is already part
+ * of the snapshot is harmless. A torn record at the end of the file (for example
+ * after a crash during an append) fails its checksum and is ignored.
+ */
+public class TaskLog implements Closeable {
+
+    /** @brief Magic number identifying a task log file ("TWAL"). */
+    public static final int MAGIC = 0x5457414C;
+
+    /** @brief Current layout version of the log. */
+    public static final int VERSION = 1;
+
+    /** @brief Size of the log header in bytes. */
+    static final int HEADER_SIZE = 16;
+
+    /** @brief Operation: insert or replace a whole task. */
+    static final byte OP_UPSERT = 1;
+
+    /** @brief Operation: set the importance of a task. */
+    static final byte OP_IMPORTANCE = 2;
+
+    /** @brief File name suffix of a log next to its task store. */
+    public static final String SUFFIX = ".wal";
+
+    /**
+     * @brief Lock guarding the snapshot against concurrent compaction.
+     *
+     * Readers that load the snapshot and then replay the log hold the read lock, so a
+     * compaction cannot empty the log between the two steps.
+     */
+    static final ReentrantReadWriteLock SNAPSHOT_LOCK = new ReentrantReadWriteLock();
+
+    /** @brief Path of the task store this log belongs to. */
+    private final String storePath;
+
+    /** @brief Channel of the log file. */
+    private final FileChannel channel;
+
+    /** @brief Guards the write position and the append sequence. */
+    private final Object appendLock = new Object();
+
+    /** @brief Serializes fsync calls; the holder commits for every waiting writer. */
+    private final Object syncLock = new Object();
+
+    /** @brief Byte offset where the next record is written. */
+    private long writePosition;
+
+    /** @brief Sequence number of the last appended record. */
+    private long appendedSeq;
+
+    /** @brief Sequence number of the last record known to be on disk. */
+    private volatile long syncedSeq;
+
+    /** @brief Number of records in the log. */
+    private int recordCount;
+
+    /** @brief Generation of the snapshot the log is bound to. */
+    private long generation;
+
+    /**
+     * @brief Generation the caller's tasks were last read or written in.
+     *
+     * Set by `bind` and whenever the snapshot is written from the caller's tasks. A
+     * compaction changes `generation` but not this one: it only folds in log records,
+     * so a task that was clean in the old snapshot still matches the new one.
+     */
+    private long baseGeneration;
+
+    /** @brief Background compaction scheduler, if started. */
+    private ScheduledExecutorService compactor;
+
+    /** @brief Failure of the last background compaction; cleared when one succeeds. */
+    private volatile Exception compactionFailure;
+
+    /**
+     * @brief Opens the log that belongs to a task store.
+     *
+     * @param storePath Path of the task store file.
+     * @throws IOException If the log file cannot be opened.
+     */
+    private TaskLog(String storePath) throws IOException {
+        this.storePath = storePath;
+        this.channel = FileChannel.open(Paths.get(logPath(storePath)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() == HEADER_SIZE && header.getInt() == MAGIC && header.getInt() == VERSION) {
+            generation = header.getLong();
+            baseGeneration = generation;
+            List<byte[]> records = new ArrayList<>();
+            writePosition = scan(channel, records);
+            recordCount = records.size();
+            channel.truncate(writePosition); // drop a torn tail
+        } else {
+            writeHeader(0);
+        }
+    }
+
+    /**
+     * @brief Opens (or creates) the log next to a task store.
+     *
+     * @param storePath Path of the task store file.
+     * @return The opened log.
+     * @throws IOException If the log file cannot be opened.
+     */
+    public static TaskLog open(String storePath) throws IOException {
+        return new TaskLog(storePath);
+    }
+
+    /**
+     * @brief Returns the path of the log that belongs to a task store.
+     *
+     * @param storePath Path of the task store file.
+     * @return The log file path.
+     */
+    public static String logPath(String storePath) {
+        return storePath + SUFFIX;
+    }
+
+    /**
+     * @brief Resets the log to an empty log for the given generation.
+     *
+     * @param newGeneration The snapshot generation the log applies to.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeHeader(long newGeneration) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(newGeneration).flip();
+        channel.truncate(0);
+        channel.write(header, 0);
+        channel.force(true);
+        generation = newGeneration;
+        writePosition = HEADER_SIZE;
+        recordCount = 0;
+    }
+
+    /**
+     * @brief Binds the log to a snapshot generation.
+     *
+     * A log written for another snapshot (for example after the task file was
+     * replaced) is stale and is discarded.
+     *
+     * @param snapshotGeneration Generation of the current task store.
+     * @throws IOException If the log cannot be reset.
+     */
+    public void bind(long snapshotGeneration) throws IOException {
+        synchronized (appendLock) {
+            if (generation != snapshotGeneration) {
+                writeHeader(snapshotGeneration);
+            }
+            baseGeneration = snapshotGeneration;
+        }
+    }
+
+    /**
+     * @brief Returns the generation this log is bound to.
+     * @return The snapshot generation.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @brief Returns the number of records in the log.
+     * @return The record count.
+     */
+    public int getRecordCount() {
+        synchronized (appendLock) {
+            return recordCount;
+        }
+    }
+
+    /**
+     * @brief Returns the size of the log file in bytes.
+     * @return The current write position.
+     */
+    public long sizeInBytes() {
+        synchronized (appendLock) {
+            return writePosition;
+        }
+    }
+
+    // --- Appending ---
+
+    /**
+     * @brief Logs a new or changed task.
+     *
+     * @param task The task to record.
+     * @throws IOException If the record cannot be made durable.
+     */
+    public void logUpsert(TaskInfo task) throws IOException {
+        append(upsertPayload(task));
+    }
+
+    /**
+     * @brief Encodes the payload of an upsert record.
+     *
+     * @param task The task to record.
+     * @return The payload bytes.
+     * @throws IOException If a string cannot be encoded.
+     */
+    private static byte[] upsertPayload(TaskInfo task) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bytes);
+        dos.writeByte(OP_UPSERT);
+        TaskStore.writeRecord(dos, task);
+        dos.writeInt(task.getImportanceId());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @brief Logs an importance change.
+     *
+     * @param taskId The id of the task.
+     * @param importanceId The new importance level.
+     * @throws IOException If the record cannot be made durable.
+     */
+    public void logImportance(int taskId, int importanceId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bytes);
+        dos.writeByte(OP_IMPORTANCE);
+        dos.writeInt(taskId);
+        dos.writeInt(importanceId);
+        append(bytes.toByteArray());
+    }
+
+    /**
+     * @brief Appends a record and waits until it is durable.
+     *
+     * The record is written under the append lock, then committed with group commit:
+     * the first writer to take the sync lock fsyncs everything appended so far, and
+     * writers whose records were covered by that fsync return without syncing again.
+     *
+     * @param payload The record payload (operation code and arguments).
+     * @throws IOException If the record cannot be written or synced.
+     */
+    private void append(byte[] payload) throws IOException {
+        long seq;
+        synchronized (appendLock) {
+            seq = write(payload);
+        }
+        commit(seq);
+    }
+
+    /**
+     * @brief Writes a record at the end of the log without syncing it.
+     *
+     * Must be called while holding the append lock.
+     *
+     * @param payload The record payload (operation code and arguments).
+     * @return The sequence number of the record.
+     * @throws IOException If the record cannot be written.
+     */
+    private long write(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (record.hasRemaining()) {
+            writePosition += channel.write(record, writePosition);
+        }
+        recordCount++;
+        return ++appendedSeq;
+    }
+
+    /**
+     * @brief Makes sure every record up to `seq` is on disk.
+     *
+     * @param seq The sequence number that must be durable.
+     * @throws IOException If the fsync fails.
+     */
+    private void commit(long seq) throws IOException {
+        if (syncedSeq >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedSeq >= seq) {
+                return; // another writer's fsync covered this record
+            }
+            long target;
+            synchronized (appendLock) {
+                target = appendedSeq;
+            }
+            channel.force(false);
+            syncedSeq = target;
+        }
+    }
+
+    // --- Replay ---
+
+    /**
+     * @brief Reads all valid records from a log channel.
+     *
+     * @param channel The log channel, positioned anywhere.
+     * @param records Receives the payload of each valid record.
+     * @return The byte offset just past the last valid record.
+     * @throws IOException If the file cannot be read.
+     */
+    private static long scan(FileChannel channel, List<byte[]> records) throws IOException {
+        long size = channel.size();
+        ByteBuffer data = ByteBuffer.allocate((int) Math.max(0, size - HEADER_SIZE));
+        while (data.hasRemaining() && channel.read(data, HEADER_SIZE + data.position()) > 0) {
+            // keep reading until the buffer is full
+        }
+        data.flip();
+        return HEADER_SIZE + parse(data, records);
+    }
+
+    /**
+     * @brief Parses records from a buffer, stopping at the first invalid one.
+     *
+     * @param data The record bytes.
+     * @param records Receives the payload of each valid record.
+     * @return The number of bytes consumed by valid records.
+     */
+    private static int parse(ByteBuffer data, List<byte[]> records) {
+        CRC32 crc = new CRC32();
+        while (data.remaining() >= 8) {
+            int start = data.position();
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length <= 0 || length > data.remaining()) {
+                data.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            data.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                data.position(start);
+                break;
+            }
+            records.add(payload);
+        }
+        return data.position();
+    }
+
+    /**
+     * @brief Replays the log of a task store onto a task list.
+     *
+     * The log is only applied when it was written for the given snapshot generation.
+     *
+     * @param storePath Path of the task store file.
+     * @param snapshotGeneration Generation of the snapshot that was loaded.
+     * @param taskList The task list loaded from the snapshot; updated in place.
+     * @return The number of records applied.
+     * @throws IOException If the log exists but cannot be read.
+     */
+    public static int replay(String storePath, long snapshotGeneration, List<TaskInfo> taskList) throws IOException {
+        File file = new File(logPath(storePath));
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return 0;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        if (data.getInt() != MAGIC || data.getInt() != VERSION || data.getLong() != snapshotGeneration) {
+            return 0;
+        }
+        List<byte[]> records = new ArrayList<>();
+        parse(data.slice(), records);
+        Map<Integer, Integer> positions = positions(taskList);
+        for (byte[] payload : records) {
+            apply(payload, taskList, positions);
+        }
+        return records.size();
+    }
+
+    /**
+     * @brief Applies one record to a task list.
+     *
+     * @param payload The record payload.
+     * @param taskList The task list to update.
+     * @param positions Map from task id to list position; updated when a task is added.
+     * @throws IOException If the payload is malformed.
+     */
+    private static void apply(byte[] payload, List<TaskInfo> taskList, Map<Integer, Integer> positions) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte op = in.readByte();
+        switch (op) {
+            case OP_UPSERT: {
+                TaskInfo task = new TaskInfo();
+                TaskStore.readRecord(in, task);
+                int importanceId = in.readInt();
+                if (importanceId != 0) {
+                    task.setImportanceId(importanceId);
+                }
+                upsert(taskList, positions, task);
+                break;
+            }
+            case OP_IMPORTANCE: {
+                Integer index = positions.get(in.readInt());
+                int importanceId = in.readInt();
+                if (index != null) {
+                    taskList.get(index).setImportanceId(importanceId);
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unknown task log operation: " + op);
+        }
+    }
+
+    /**
+     * @brief Maps every task id of a list to its position.
+     *
+     * Built once per replay or flush, so looking up a record's task is O(1) instead of
+     * a scan of the list. When an id occurs twice, its first position is kept.
+     *
+     * @param taskList The list to index.
+     * @return Map from task id to list position.
+     */
+    private static Map<Integer, Integer> positions(List<TaskInfo> taskList) {
+        Map<Integer, Integer> positions = new HashMap<>(taskList.size() * 2);
+        for (int i = 0; i < taskList.size(); i++) {
+            positions.putIfAbsent(taskList.get(i).getId(), i);
+        }
+        return positions;
+    }
+
+    /**
+     * @brief Replaces the task with the same id, or appends the task.
+     *
+     * @param taskList The list to update.
+     * @param positions Map from task id to list position; updated when the task is appended.
+     * @param task The task to store.
+     */
+    private static void upsert(List<TaskInfo> taskList, Map<Integer, Integer> positions, TaskInfo task) {
+        Integer index = positions.get(task.getId());
+        if (index == null) {
+            positions.put(task.getId(), taskList.size());
+            taskList.add(task);
+        } else {
+            taskList.set(index, task);
+        }
+    }
+
+    // --- Checkpoint and compaction ---
+
+    /**
+     * @brief Writes the modified tasks of a list into the snapshot.
+     *
+     * Only tasks that changed since they were read from or written to the snapshot
+     * are written; the cost is proportional to their number. They are first appended
+     * to the log, which is synced once for all of them, and then written into their
+     * own slots of the store in place (see `TaskStore.flush`). A crash while the store
+     * is being written therefore leaves at worst damaged records of logged tasks,
+     * which `TaskFileLoader` recovers from the log.
+     *
+     * A new snapshot is written with `TaskStore.replace` instead when an in-place
+     * write would move records that are already stored (the offset table is full or
+     * most of the heap is dead), when the store does not belong to this log, and when
+     * a complete list no longer holds every stored task, since in-place writes never
+     * remove a task.
+     *
+     * @param tasks The tasks to persist.
+     * @param complete `true` if the list holds every task: the log is emptied and stored
+     *                 tasks missing from the list are dropped. `false` for a partial list,
+     *                 whose missing tasks are kept.
+     * @return The number of modified tasks written.
+     * @throws IOException If the log or the snapshot cannot be written.
+     */
+    public int flush(Collection<? extends TaskInfo> tasks, boolean complete) throws IOException {
+        SNAPSHOT_LOCK.writeLock().lock();
+        try {
+            synchronized (appendLock) {
+                List<TaskInfo> modified = new ArrayList<>();
+                for (TaskInfo task : tasks) {
+                    if (!task.isCleanIn(generation) && !task.isCleanIn(baseGeneration)) {
+                        modified.add(task);
+                    }
+                }
+                if (TaskStore.storeVersion(storePath) == TaskStore.VERSION) {
+                    try (TaskStore store = TaskStore.open(storePath)) {
+                        if (writeInPlace(store, modified, tasks.size(), complete)) {
+                            return modified.size();
+                        }
+                    }
+                }
+                replaceSnapshot(tasks, complete);
+                return modified.size();
+            }
+        } finally {
+            SNAPSHOT_LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @brief Logs the modified tasks and writes them into their slots of the store.
+     *
+     * Must be called while holding the append lock.
+     *
+     * @param store The open snapshot.
+     * @param modified The tasks to write.
+     * @param listSize Number of tasks in the caller's list.
+     * @param complete `true` if the caller's list holds every task.
+     * @return `false`, with nothing written, if the write needs a new snapshot instead.
+     * @throws IOException If the log or the store cannot be written.
+     */
+    private boolean writeInPlace(TaskStore store, List<TaskInfo> modified, int listSize, boolean complete) throws IOException {
+        if (store.getGeneration() != generation) {
+            return false;
+        }
+        int appends = 0;
+        for (TaskInfo task : modified) {
+            if (store.findSlot(task.getId()) < 0) {
+                appends++;
+            }
+        }
+        if (!store.fitsInPlace(appends) || (complete && store.size() + appends != listSize)) {
+            return false;
+        }
+        if (modified.isEmpty()) {
+            return true;
+        }
+        for (TaskInfo task : modified) {
+            write(upsertPayload(task));
+        }
+        channel.force(false);
+        syncedSeq = appendedSeq;
+
+        store.flush(modified);
+        if (complete) {
+            writeHeader(generation);
+        }
+        return true;
+    }
+
+    /**
+     * @brief Writes a new snapshot from the caller's tasks and empties the log.
+     *
+     * The snapshot is replaced atomically by `TaskStore.replace`, and the log is then
+     * bound to the new generation. A partial list is laid over the stored tasks (with
+     * the log replayed), so the tasks of the list, which are newer than any log record,
+     * win. Must be called while holding the snapshot write lock and the append lock.
+     *
+     * @param tasks The tasks to persist.
+     * @param complete `true` if the list holds every task.
+     * @throws IOException If the snapshot cannot be read or written.
+     */
+    private void replaceSnapshot(Collection<? extends TaskInfo> tasks, boolean complete) throws IOException {
+        List<TaskInfo> taskList = new ArrayList<>();
+        if (!complete && new File(storePath).exists()) {
+            taskList = new TaskFileLoader(storePath).loadAll();
+        }
+        Map<Integer, Integer> positions = positions(taskList);
+        for (TaskInfo task : tasks) {
+            upsert(taskList, positions, task);
+        }
+        long newGeneration = TaskStore.replace(storePath, taskList);
+        writeHeader(newGeneration);
+        baseGeneration = newGeneration;
+    }
+
+    /**
+     * @brief Folds the log into a new snapshot and empties the log.
+     *
+     * The snapshot is never changed in place: the stored tasks with the log replayed
+     * on top (read by `TaskFileLoader.loadAll`, which also recovers damaged records
+     * from the log) are written by `TaskStore.replace`, and only then is the log
+     * truncated and bound to the new generation.
+     *
+     * @return The number of records folded into the snapshot.
+     * @throws IOException If the snapshot cannot be read or written.
+     */
+    public int compact() throws IOException {
+        SNAPSHOT_LOCK.writeLock().lock();
+        try {
+            synchronized (appendLock) {
+                if (recordCount == 0 || !TaskStore.isStoreFile(storePath)) {
+                    return 0;
+                }
+                TaskFileLoader loader = new TaskFileLoader(storePath);
+                List<TaskInfo> taskList = loader.loadAll();
+                if (loader.getGeneration() != generation) {
+                    return 0;
+                }
+                writeHeader(TaskStore.replace(storePath, taskList));
+                return loader.getReplayedCount();
+            }
+        } finally {
+            SNAPSHOT_LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @brief Starts a background thread that compacts the log when it grows too large.
+     *
+     * A failed compaction does not stop the thread; the next period tries again. The
+     * thread prints nothing: the failure is kept for `getCompactionFailure`, so the
+     * owner of the log can report it on its own output.
+     *
+     * @param periodMillis How often the log size is checked, in milliseconds.
+     * @param thresholdBytes Log size above which a compaction is run.
+     */
+    public synchronized void startCompactor(long periodMillis, long thresholdBytes) {
+        if (compactor != null) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                if (sizeInBytes() > thresholdBytes) {
+                    compact();
+                    compactionFailure = null;
+                }
+            } catch (Exception e) {
+                // Any exception escaping here would cancel the schedule for good
+                compactionFailure = e;
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @brief Returns the failure of the last background compaction.
+     *
+     * @return The exception, or `null` if no compaction has failed since the last
+     *         successful one.
+     */
+    public Exception getCompactionFailure() {
+        return compactionFailure;
+    }
+
+    /**
+     * @brief Stops the compactor and closes the log.
+     *
+     * @throws IOException If the channel cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (compactor != null) {
+            compactor.shutdownNow();
+            compactor = null;
+        }
+        channel.close();
+    }
+}
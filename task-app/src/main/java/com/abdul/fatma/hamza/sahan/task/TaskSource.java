@@ -0,0 +1,195 @@
+/**
+ * @file TaskSource.java
+ * @brief Read access to a collection of tasks, independent of how they are stored.
+ *
+ * The task listing, filtering, search and ordering operations of `Task` work on this
+ * interface, so they run the same way over an `ArrayList<TaskInfo>` and over the
+ * off-heap `TaskTable`.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.util.List;
+
+/**
+ * @interface TaskSource
+ * @brief Indexed, field-by-field view of a set of tasks.
+ *
+ * Tasks are addressed by their position (`0 .. size() - 1`). Fields are read one at a
+ * time so that a columnar backend never has to build a `TaskInfo` object.
+ */
+public interface TaskSource {
+
+    /**
+     * @brief Returns the number of tasks.
+     * @return The task count.
+     */
+    int size();
+
+    /**
+     * @brief Checks whether there are no tasks.
+     * @return `true` if the source is empty.
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @brief Returns the id of a task.
+     * @param index The task position.
+     * @return The task id.
+     */
+    int getId(int index);
+
+    /**
+     * @brief Returns the name of a task.
+     * @param index The task position.
+     * @return The task name.
+     */
+    String getName(int index);
+
+    /**
+     * @brief Returns the description of a task.
+     * @param index The task position.
+     * @return The task description.
+     */
+    String getDescription(int index);
+
+    /**
+     * @brief Returns the category of a task.
+     * @param index The task position.
+     * @return The task category.
+     */
+    String getCategory(int index);
+
+    /**
+     * @brief Returns the due date of a task.
+     * @param index The task position.
+     * @return The due date string.
+     */
+    String getDueDate(int index);
+
+    /**
+     * @brief Returns the importance level of a task.
+     * @param index The task position.
+     * @return The importance id (`0` = unmarked, `1` = low, `2` = medium, `3` = high).
+     */
+    int getImportanceId(int index);
+
+    /**
+     * @brief Returns the number of dependencies of a task.
+     * @param index The task position.
+     * @return The dependency count.
+     */
+    int getDependencyCount(int index);
+
+    /**
+     * @brief Returns one dependency of a task.
+     * @param index The task position.
+     * @param n The dependency number, between `0` and `getDependencyCount(index) - 1`.
+     * @return The id of the task depended on.
+     */
+    int getDependency(int index, int n);
+
+    /**
+     * @brief Builds a `TaskInfo` holding all fields of a task.
+     *
+     * @param index The task position.
+     * @return A new, detached `TaskInfo`.
+     */
+    default TaskInfo toTaskInfo(int index) {
+        TaskInfo task = new TaskInfo();
+        task.setId(getId(index));
+        task.setName(getName(index));
+        task.setDescription(getDescription(index));
+        task.setCategory(getCategory(index));
+        task.setDueDate(getDueDate(index));
+        int[] dependencies = new int[getDependencyCount(index)];
+        for (int n = 0; n < dependencies.length; n++) {
+            dependencies[n] = getDependency(index, n);
+        }
+        task.setDependencies(dependencies);
+        if (getImportanceId(index) != 0) {
+            task.setImportanceId(getImportanceId(index));
+        }
+        return task;
+    }
+
+    /**
+     * @brief Wraps a task list without copying it.
+     *
+     * @param taskList The tasks.
+     * @return A source reading straight from the list.
+     */
+    static TaskSource of(List<? extends TaskInfo> taskList) {
+        return new ListSource(taskList);
+    }
+
+    /**
+     * @class ListSource
+     * @brief `TaskSource` backed by a list of `TaskInfo` objects.
+     */
+    final class ListSource implements TaskSource {
+
+        /** @brief The wrapped list. */
+        private final List<? extends TaskInfo> taskList;
+
+        /**
+         * @brief Creates a view over a list.
+         * @param taskList The tasks.
+         */
+        ListSource(List<? extends TaskInfo> taskList) {
+            this.taskList = taskList;
+        }
+
+        @Override
+        public int size() {
+            return taskList.size();
+        }
+
+        @Override
+        public int getId(int index) {
+            return taskList.get(index).getId();
+        }
+
+        @Override
+        public String getName(int index) {
+            return taskList.get(index).getName();
+        }
+
+        @Override
+        public String getDescription(int index) {
+            return taskList.get(index).getDescription();
+        }
+
+        @Override
+        public String getCategory(int index) {
+            return taskList.get(index).getCategory();
+        }
+
+        @Override
+        public String getDueDate(int index) {
+            return taskList.get(index).getDueDate();
+        }
+
+        @Override
+        public int getImportanceId(int index) {
+            return taskList.get(index).getImportanceId();
+        }
+
+        @Override
+        public int getDependencyCount(int index) {
+            TaskInfo task = taskList.get(index);
+            return Math.min(task.getDependencyCount(), task.getDependencies().length);
+        }
+
+        @Override
+        public int getDependency(int index, int n) {
+            return taskList.get(index).getDependencies()[n];
+        }
+    }
+}
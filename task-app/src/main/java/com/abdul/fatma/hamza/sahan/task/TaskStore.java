@@ -0,0 +1,1180 @@
+/**
+ * @file TaskStore.java
+ * @brief Memory-mapped, versioned persistent store for tasks.
+ *
+ * This class keeps tasks in a single self-describing file laid out as a header, an
+ * offset table and a record heap. Every record carries a length prefix and a
+ * checksum, so readers can seek to record N, skip records without decoding them and
+ * detect corruption. Appending or updating a task only touches its own record and
+ * table entry instead of rewriting the whole file.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * @class TaskStore
+ * @brief A task file backed by a `MappedByteBuffer`.
+ *
+ * File layout (version 3):
+ * - Header (`HEADER_SIZE` bytes): magic, version, record count, table capacity,
+ *   heap end, schema id, a generation number that ties a write-ahead log to this
+ *   snapshot, and the number of dead heap bytes.
+ * - Offset table (`SLOT_SIZE` bytes per entry): heap offset and allocated size of the
+ *   record, plus the task id and importance so they can be read and changed without
+ *   touching the record.
+ * - Record heap: each record is `[int length][int crc32][payload]`, where the payload
+ *   is the compact record of `writeCompactRecord`. Records may have slack after the
+ *   payload so that small edits can be rewritten in place.
+ *
+ * When the offset table is full its capacity is doubled and the heap is moved once,
+ * so appends stay amortized O(1). Files written in the older layouts (version 1 and 2
+ * stores and the plain sequential file) are upgraded when opened.
+ *
+ * Edits through an open store change the file in place and are not atomic; `TaskLog`
+ * logs every task before writing it in place. A complete new snapshot is written with
+ * `replace`, which builds it in a temporary file and moves it over the old one, so a
+ * crash leaves either the old or the new snapshot. Relocated records leave dead bytes
+ * in the heap, which are reclaimed by the next `replace`.
+ */
+public class TaskStore implements Closeable {
+
+    /** @brief Magic number identifying a task store file ("TSKS"). */
+    public static final int MAGIC = 0x54534B53;
+
+    /** @brief Current layout version of the store. */
+    public static final int VERSION = 3;
+
+    /** @brief Description of the record payload; its checksum is stored in the header. */
+    static final String SCHEMA = "id:i32,name:utf,description:utf,category:utf,dueDate:utf,dependencies:varint-delta[]";
+
+    /** @brief Identifier of `SCHEMA` written into the header. */
+    static final int SCHEMA_ID = schemaId(SCHEMA);
+
+    /** @brief Size of the file header in bytes. */
+    static final int HEADER_SIZE = 64;
+
+    /** @brief Size of one offset table entry in bytes. */
+    static final int SLOT_SIZE = 16;
+
+    /** @brief Size of the length and checksum prefix of a record. */
+    static final int RECORD_HEADER_SIZE = 8;
+
+    /** @brief Suffix of the temporary file a new snapshot is written to. */
+    static final String TEMP_SUFFIX = ".tmp";
+
+    /** @brief Suffix of a file that could not be read and was moved aside by `moveAside`. */
+    static final String CORRUPT_SUFFIX = ".corrupt";
+
+    /** @brief Table capacity of a newly created store. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** @brief Dead heap bytes tolerated before the store should be rewritten by `replace`. */
+    private static final int COMPACT_MIN_GARBAGE = 64 * 1024;
+
+    // Header field offsets
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_COUNT = 8;
+    private static final int H_CAPACITY = 12;
+    private static final int H_HEAP_END = 16;
+    private static final int H_SCHEMA = 20;
+    private static final int H_GENERATION = 24;
+    private static final int H_GARBAGE = 32;
+
+    // Offset table entry field offsets
+    private static final int S_OFFSET = 0;
+    private static final int S_ALLOCATED = 4;
+    private static final int S_ID = 8;
+    private static final int S_IMPORTANCE = 12;
+
+    /** @brief Channel of the underlying file. */
+    private final FileChannel channel;
+
+    /** @brief Random access handle that owns the channel. */
+    private final RandomAccessFile file;
+
+    /** @brief Current mapping of the whole file. */
+    private MappedByteBuffer buffer;
+
+    /** @brief `true` if the file was opened by `openReadOnly`. */
+    private final boolean readOnly;
+
+    /** @brief Lazily built map from task id to slot index. */
+    private Map<Integer, Integer> slotById;
+
+    /**
+     * @brief Opens (or creates) a task store.
+     *
+     * @param path Path of the store file.
+     * @param generation Generation written into a newly created store.
+     * @throws IOException If the file exists but is not a current task store, or on I/O errors.
+     */
+    private TaskStore(String path, long generation) throws IOException {
+        this(path, generation, false);
+    }
+
+    /**
+     * @brief Opens a task store for reading and writing, or for reading only.
+     *
+     * @param path Path of the store file.
+     * @param generation Generation written into a newly created store.
+     * @param readOnly `true` to open and map the file read-only; it must then exist.
+     * @throws IOException If the file is not a current task store, or on I/O errors.
+     */
+    private TaskStore(String path, long generation, boolean readOnly) throws IOException {
+        this.readOnly = readOnly;
+        this.file = new RandomAccessFile(path, readOnly ? "r" : "rw");
+        this.channel = file.getChannel();
+
+        long length = channel.size();
+        if (length == 0 && !readOnly) {
+            map(HEADER_SIZE + (long) INITIAL_CAPACITY * SLOT_SIZE);
+            buffer.putInt(H_MAGIC, MAGIC);
+            buffer.putInt(H_VERSION, VERSION);
+            buffer.putInt(H_COUNT, 0);
+            buffer.putInt(H_CAPACITY, INITIAL_CAPACITY);
+            buffer.putInt(H_HEAP_END, 0);
+            buffer.putInt(H_SCHEMA, SCHEMA_ID);
+            buffer.putLong(H_GENERATION, generation);
+            buffer.putInt(H_GARBAGE, 0);
+        } else {
+            if (length < HEADER_SIZE) {
+                close();
+                throw new IOException("File is too small to be a task store.");
+            }
+            map(length);
+            if (buffer.getInt(H_MAGIC) != MAGIC) {
+                close();
+                throw new IOException("File is not a task store.");
+            }
+            if (buffer.getInt(H_VERSION) != VERSION) {
+                int version = buffer.getInt(H_VERSION);
+                close();
+                throw new IOException("Unsupported task store version: " + version);
+            }
+            if (buffer.getInt(H_SCHEMA) != SCHEMA_ID) {
+                close();
+                throw new IOException("Task store schema does not match this program.");
+            }
+        }
+    }
+
+    /**
+     * @brief Opens an existing task store or creates an empty one.
+     *
+     * A store in an older layout is upgraded to the current version first.
+     *
+     * @param path Path of the store file.
+     * @return The opened store.
+     * @throws IOException If the file is not a task store or cannot be mapped.
+     */
+    public static TaskStore open(String path) throws IOException {
+        int version = storeVersion(path);
+        if (version > 0 && version < VERSION) {
+            upgrade(path);
+        }
+        return new TaskStore(path, newGeneration());
+    }
+
+    /**
+     * @brief Opens an existing, current task store without ever writing to it.
+     *
+     * The file is opened with a read-only channel and mapped with
+     * `MapMode.READ_ONLY`; closing the store does not force the mapping. A store in an
+     * older layout is not upgraded: read it with `readOlderVersion` instead.
+     *
+     * @param path Path of the store file.
+     * @return The opened store; every write method throws `ReadOnlyBufferException`.
+     * @throws IOException If the file is not a current task store or cannot be mapped.
+     */
+    public static TaskStore openReadOnly(String path) throws IOException {
+        return new TaskStore(path, 0, true);
+    }
+
+    /**
+     * @brief Creates a fresh task store, discarding any previous file content.
+     *
+     * @param path Path of the store file.
+     * @return The new, empty store.
+     * @throws IOException If the file cannot be created.
+     */
+    public static TaskStore create(String path) throws IOException {
+        return create(path, newGeneration());
+    }
+
+    /**
+     * @brief Creates a fresh task store with a given generation.
+     *
+     * @param path Path of the store file.
+     * @param generation Generation written into the header.
+     * @return The new, empty store.
+     * @throws IOException If the file cannot be created.
+     */
+    private static TaskStore create(String path, long generation) throws IOException {
+        new RandomAccessFile(path, "rw").getChannel().truncate(0).close();
+        return new TaskStore(path, generation);
+    }
+
+    /**
+     * @brief Checks whether a file starts with the task store magic number.
+     *
+     * @param path Path of the file to inspect.
+     * @return `true` if the file exists and is a task store of any version, otherwise `false`.
+     */
+    public static boolean isStoreFile(String path) {
+        return storeVersion(path) > 0;
+    }
+
+    /**
+     * @brief Reads the layout version of a task store file.
+     *
+     * @param path Path of the file to inspect.
+     * @return The version, or `0` if the file is missing or not a task store.
+     */
+    static int storeVersion(String path) {
+        File f = new File(path);
+        if (!f.exists() || f.length() < HEADER_SIZE) {
+            return 0;
+        }
+        try (DataInputStream dis = new DataInputStream(new FileInputStream(f))) {
+            return dis.readInt() == MAGIC ? dis.readInt() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @brief Computes the schema id stored in the header.
+     *
+     * @param schema The schema description.
+     * @return The CRC32 of the description.
+     */
+    private static int schemaId(String schema) {
+        CRC32 crc = new CRC32();
+        crc.update(schema.getBytes(StandardCharsets.US_ASCII));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @brief Creates a generation number for a new store.
+     *
+     * @return A random, non-zero generation number.
+     */
+    private static long newGeneration() {
+        long generation = 0;
+        while (generation == 0) {
+            generation = ThreadLocalRandom.current().nextLong();
+        }
+        return generation;
+    }
+
+    // --- Upgrading older files ---
+
+    /**
+     * @brief Converts a task file in an older layout to the current store version.
+     *
+     * Handles version 1 and 2 stores (whose generation is kept, so a pending task log
+     * stays valid) and plain sequential task files (which get a new generation). The new
+     * file is written next to the old one and then atomically moved over it, so a
+     * crash during the upgrade leaves the old file intact.
+     *
+     * @param path Path of the file to upgrade.
+     * @return The number of upgraded tasks.
+     * @throws IOException If the old file cannot be decoded or the new one cannot be written.
+     */
+    public static int upgrade(String path) throws IOException {
+        int version = storeVersion(path);
+        if (version == VERSION) {
+            return -1;
+        }
+        if (version > VERSION) {
+            throw new IOException("Unsupported task store version: " + version);
+        }
+        List<TaskInfo> tasks;
+        long generation;
+        if (version > 0) {
+            tasks = new ArrayList<>();
+            generation = readOlderVersion(path, tasks);
+        } else {
+            generation = newGeneration();
+            tasks = new TaskFileLoader(path).loadAll();
+        }
+
+        writeSnapshot(path, tasks, generation);
+        return tasks.size();
+    }
+
+    /**
+     * @brief Atomically replaces a store with a new snapshot of a task list.
+     *
+     * The snapshot gets a new generation, so a task log bound to the old snapshot no
+     * longer applies to it. If the process stops before the move, the old file is
+     * left unchanged. The tasks are marked clean in the new generation only after the
+     * move succeeded.
+     *
+     * @param path Path of the store file.
+     * @param tasks The complete task list, in order.
+     * @return The generation of the new snapshot.
+     * @throws IOException If the snapshot cannot be written or moved into place.
+     */
+    public static long replace(String path, List<? extends TaskInfo> tasks) throws IOException {
+        long generation = newGeneration();
+        writeSnapshot(path, tasks, generation);
+        for (TaskInfo task : tasks) {
+            task.markClean(generation);
+        }
+        return generation;
+    }
+
+    /**
+     * @brief Moves a file that cannot be read out of the way, so that nothing overwrites it.
+     *
+     * The file is renamed to `path + CORRUPT_SUFFIX`, or to that name followed by `.1`,
+     * `.2`, ... when earlier files were already moved aside; an existing file is never
+     * replaced.
+     *
+     * @param path Path of the file.
+     * @return The path the file was moved to.
+     * @throws IOException If the file cannot be moved.
+     */
+    public static String moveAside(String path) throws IOException {
+        Path source = Paths.get(path);
+        for (int i = 0; ; i++) {
+            Path target = Paths.get(path + CORRUPT_SUFFIX + (i == 0 ? "" : "." + i));
+            if (Files.exists(target)) {
+                continue;
+            }
+            try {
+                Files.move(source, target);
+                return target.toString();
+            } catch (FileAlreadyExistsException e) {
+                // Taken since the check; try the next name
+            }
+        }
+    }
+
+    /**
+     * @brief Writes a snapshot to `path + TEMP_SUFFIX`, forces it and moves it over `path`.
+     *
+     * @param path Path of the store file.
+     * @param tasks The tasks to write.
+     * @param generation Generation written into the header.
+     * @throws IOException If the snapshot cannot be written or moved into place.
+     */
+    private static void writeSnapshot(String path, List<? extends TaskInfo> tasks, long generation) throws IOException {
+        Path target = Paths.get(path);
+        Path temp = Paths.get(path + TEMP_SUFFIX);
+        try (TaskStore store = create(temp.toString(), generation)) {
+            for (TaskInfo task : tasks) {
+                store.append(task);
+            }
+            store.force();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @brief Reads every task of a version 1 or 2 store without changing the file.
+     *
+     * @param path Path of the store file.
+     * @param tasks Receives the stored tasks, in slot order.
+     * @return The generation of the store.
+     * @throws IOException If the file cannot be read or a record is damaged.
+     */
+    static long readOlderVersion(String path, List<TaskInfo> tasks) throws IOException {
+        ByteBuffer old = ByteBuffer.wrap(Files.readAllBytes(Paths.get(path)));
+        int version = old.getInt(H_VERSION);
+        if (version < 1 || version >= VERSION) {
+            throw new IOException("Not an older task store version: " + version);
+        }
+        tasks.addAll(version == 1 ? readVersion1(old) : readVersion2(old));
+        return old.getLong(H_GENERATION);
+    }
+
+    /**
+     * @brief Decodes a version 1 store.
+     *
+     * Version 1 used 96-byte slots holding id, importance, dependency count, four
+     * offset/length pairs into a UTF-8 string heap and ten dependency ids.
+     *
+     * @param old The complete file content.
+     * @return The stored tasks.
+     */
+    private static List<TaskInfo> readVersion1(ByteBuffer old) {
+        final int slotSize = 96;
+        int count = old.getInt(H_COUNT);
+        int heapStart = HEADER_SIZE + old.getInt(H_CAPACITY) * slotSize;
+        List<TaskInfo> tasks = new ArrayList<>(count);
+        for (int slot = 0; slot < count; slot++) {
+            int pos = HEADER_SIZE + slot * slotSize;
+            String[] strings = new String[4];
+            for (int field = 0; field < 4; field++) {
+                int offset = old.getInt(pos + 12 + field * 8);
+                int length = old.getInt(pos + 16 + field * 8);
+                strings[field] = new String(old.array(), heapStart + offset, length, StandardCharsets.UTF_8);
+            }
+            TaskInfo task = new TaskInfo();
+            task.setId(old.getInt(pos));
+            task.setName(strings[0]);
+            task.setDescription(strings[1]);
+            task.setCategory(strings[2]);
+            task.setDueDate(strings[3]);
+            int importanceId = old.getInt(pos + 4);
+            if (importanceId != 0) {
+                task.setImportanceId(importanceId);
+            }
+            int dependencyCount = old.getInt(pos + 8);
+            task.setDependencyCount(dependencyCount);
+            for (int i = 0; i < dependencyCount; i++) {
+                task.getDependencies()[i] = old.getInt(pos + 44 + i * 4);
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * @brief Decodes a version 2 store.
+     *
+     * Version 2 had the current offset table and record heap, but its record payload
+     * was the sequential record of `writeRecord`, with plain 32-bit dependency ids.
+     *
+     * @param old The complete file content.
+     * @return The stored tasks.
+     * @throws IOException If a record is damaged.
+     */
+    private static List<TaskInfo> readVersion2(ByteBuffer old) throws IOException {
+        int count = old.getInt(H_COUNT);
+        int heapStart = HEADER_SIZE + old.getInt(H_CAPACITY) * SLOT_SIZE;
+        List<TaskInfo> tasks = new ArrayList<>(count);
+        try {
+            for (int slot = 0; slot < count; slot++) {
+                int pos = slotPositionOf(slot);
+                int record = heapStart + old.getInt(pos + S_OFFSET);
+                ByteBuffer payload = old.duplicate();
+                payload.position(record + RECORD_HEADER_SIZE).limit(record + RECORD_HEADER_SIZE + old.getInt(record));
+                TaskInfo task = TaskFileLoader.decode(payload.slice());
+                int importanceId = old.getInt(pos + S_IMPORTANCE);
+                if (importanceId != 0) {
+                    task.setImportanceId(importanceId);
+                }
+                tasks.add(task);
+            }
+        } catch (java.nio.BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Version 2 task store is damaged.");
+        }
+        return tasks;
+    }
+
+    // --- Layout helpers ---
+
+    /**
+     * @brief Returns the generation number of this store.
+     *
+     * A write-ahead log only applies to the snapshot with the same generation.
+     *
+     * @return The generation stored in the header.
+     */
+    public long getGeneration() {
+        return buffer.getLong(H_GENERATION);
+    }
+
+    /**
+     * @brief Maps the file with at least the given size.
+     *
+     * @param size The number of bytes to map.
+     * @throws IOException If the mapping fails.
+     */
+    private void map(long size) throws IOException {
+        buffer = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * @brief Returns the number of tasks stored.
+     * @return The record count from the header.
+     */
+    public int size() {
+        return buffer.getInt(H_COUNT);
+    }
+
+    /**
+     * @brief Returns the current offset table capacity.
+     * @return The number of entries available before the table has to grow.
+     */
+    int capacity() {
+        return buffer.getInt(H_CAPACITY);
+    }
+
+    /**
+     * @brief Computes the absolute position of the record heap.
+     * @return Byte offset where the heap starts.
+     */
+    private int heapStart() {
+        return HEADER_SIZE + capacity() * SLOT_SIZE;
+    }
+
+    /**
+     * @brief Computes the absolute position of an offset table entry.
+     * @param slot The slot index.
+     * @return Byte offset of the entry.
+     */
+    private int slotPosition(int slot) {
+        return slotPositionOf(slot);
+    }
+
+    /**
+     * @brief Computes the absolute position of an offset table entry.
+     * @param slot The slot index.
+     * @return Byte offset of the entry.
+     */
+    private static int slotPositionOf(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * @brief Computes the absolute position of the record of a slot.
+     * @param slot The slot index.
+     * @return Byte offset of the record length prefix.
+     */
+    private int recordPosition(int slot) {
+        return heapStart() + buffer.getInt(slotPosition(slot) + S_OFFSET);
+    }
+
+    /**
+     * @brief Makes sure the mapping covers at least `required` bytes.
+     *
+     * The file grows geometrically so a sequence of appends only remaps O(log n) times.
+     *
+     * @param required Minimum number of bytes the mapping must cover.
+     * @throws IOException If the file cannot be remapped.
+     */
+    private void ensureMapped(long required) throws IOException {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long newSize = Math.max(required, (long) buffer.capacity() * 2);
+        buffer.force();
+        map(newSize);
+    }
+
+    /**
+     * @brief Doubles the offset table, moving the record heap once.
+     *
+     * Heap offsets stored in the table are relative to the heap start, so they stay
+     * valid after the move.
+     *
+     * @throws IOException If the file cannot be remapped.
+     */
+    private void growSlots() throws IOException {
+        int oldCapacity = capacity();
+        int newCapacity = oldCapacity * 2;
+        int oldHeapStart = heapStart();
+        int heapEnd = buffer.getInt(H_HEAP_END);
+        int newHeapStart = HEADER_SIZE + newCapacity * SLOT_SIZE;
+
+        ensureMapped((long) newHeapStart + heapEnd);
+
+        byte[] heap = new byte[heapEnd];
+        buffer.get(oldHeapStart, heap);
+        buffer.put(newHeapStart, heap);
+        buffer.putInt(H_CAPACITY, newCapacity);
+    }
+
+    // --- Records ---
+
+    /**
+     * @brief Encodes the payload of a task record.
+     *
+     * @param task The task to encode.
+     * @return The payload bytes.
+     * @throws IOException If a string cannot be encoded.
+     */
+    private static byte[] encode(TaskInfo task) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        writeCompactRecord(new DataOutputStream(bytes), task);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @brief Computes the heap space allocated for a record.
+     *
+     * A quarter of slack is added so that small edits fit in place.
+     *
+     * @param payloadLength Length of the record payload.
+     * @return The allocation size, a multiple of 8 bytes.
+     */
+    private static int allocationSize(int payloadLength) {
+        int size = RECORD_HEADER_SIZE + payloadLength + payloadLength / 4;
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * @brief Computes the checksum of a record payload.
+     *
+     * @param payload The payload bytes.
+     * @param offset Start of the payload in `payload`.
+     * @param length Length of the payload.
+     * @return The CRC32 value.
+     */
+    private static int checksum(byte[] payload, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @brief Writes a record into the heap at a given position.
+     *
+     * @param position Absolute position of the record.
+     * @param payload The payload bytes.
+     */
+    private void putRecord(int position, byte[] payload) {
+        buffer.putInt(position, payload.length);
+        buffer.putInt(position + 4, checksum(payload, 0, payload.length));
+        buffer.put(position + RECORD_HEADER_SIZE, payload);
+    }
+
+    /**
+     * @brief Allocates heap space for a record and writes it there.
+     *
+     * @param slot The slot that will reference the record.
+     * @param payload The payload bytes.
+     * @throws IOException If the file cannot grow.
+     */
+    private void allocateRecord(int slot, byte[] payload) throws IOException {
+        int allocated = allocationSize(payload.length);
+        int heapEnd = buffer.getInt(H_HEAP_END);
+        ensureMapped((long) heapStart() + heapEnd + allocated);
+        putRecord(heapStart() + heapEnd, payload);
+        buffer.putInt(H_HEAP_END, heapEnd + allocated);
+        buffer.putInt(slotPosition(slot) + S_OFFSET, heapEnd);
+        buffer.putInt(slotPosition(slot) + S_ALLOCATED, allocated);
+    }
+
+    /**
+     * @brief Returns the payload length of the record of a slot, without decoding it.
+     *
+     * @param slot The slot index.
+     * @return The payload length in bytes.
+     */
+    public int recordLength(int slot) {
+        checkSlot(slot);
+        return buffer.getInt(recordPosition(slot));
+    }
+
+    /**
+     * @brief Returns a read-only view of the payload of a slot's record.
+     *
+     * The checksum is verified before the view is returned. The view shares the
+     * mapping, so no bytes are copied.
+     *
+     * @param slot The slot index.
+     * @return A buffer positioned at the start of the payload.
+     * @throws IOException If the record is damaged.
+     */
+    ByteBuffer recordPayload(int slot) throws IOException {
+        checkSlot(slot);
+        int position = recordPosition(slot);
+        int length = buffer.getInt(position);
+        int allocated = buffer.getInt(slotPosition(slot) + S_ALLOCATED);
+        if (length < 0 || length > allocated - RECORD_HEADER_SIZE
+                || (long) position + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+            throw new IOException("Corrupt length of task record " + slot);
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(position + RECORD_HEADER_SIZE + length).position(position + RECORD_HEADER_SIZE);
+        payload = payload.slice().asReadOnlyBuffer();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            throw new IOException("Checksum mismatch in task record " + slot);
+        }
+        return payload;
+    }
+
+    /**
+     * @brief Checks the checksum of every record.
+     *
+     * @return The number of damaged records.
+     */
+    public int verify() {
+        int damaged = 0;
+        for (int i = 0; i < size(); i++) {
+            try {
+                recordPayload(i);
+            } catch (IOException e) {
+                damaged++;
+            }
+        }
+        return damaged;
+    }
+
+    /**
+     * @brief Writes a task into a slot.
+     *
+     * Nothing is written when the payload is unchanged. A changed payload is rewritten
+     * in place when it fits the record's allocation and moved to the end of the heap
+     * otherwise; the old allocation is counted as dead bytes (see `fitsInPlace`).
+     *
+     * @param slot The slot index.
+     * @param task The task to write.
+     * @param fresh `true` if the slot has no previous content.
+     * @throws IOException If the heap cannot grow.
+     */
+    private void writeSlot(int slot, TaskInfo task, boolean fresh) throws IOException {
+        int pos = slotPosition(slot);
+        buffer.putInt(pos + S_ID, task.getId());
+        buffer.putInt(pos + S_IMPORTANCE, task.getImportanceId());
+
+        byte[] payload = encode(task);
+        if (fresh) {
+            allocateRecord(slot, payload);
+            return;
+        }
+        int position = recordPosition(slot);
+        int allocated = buffer.getInt(pos + S_ALLOCATED);
+        if (buffer.getInt(position) == payload.length
+                && buffer.getInt(position + 4) == checksum(payload, 0, payload.length)) {
+            return;
+        }
+        if (RECORD_HEADER_SIZE + payload.length <= allocated) {
+            putRecord(position, payload);
+        } else {
+            buffer.putInt(H_GARBAGE, buffer.getInt(H_GARBAGE) + allocated);
+            allocateRecord(slot, payload);
+        }
+    }
+
+    /**
+     * @brief Checks whether dead records take more than half of the heap.
+     *
+     * @return `true` if the store should be rewritten by `replace`.
+     */
+    private boolean isWasteful() {
+        int garbage = buffer.getInt(H_GARBAGE);
+        return garbage >= COMPACT_MIN_GARBAGE && garbage * 2 > buffer.getInt(H_HEAP_END);
+    }
+
+    /**
+     * @brief Checks whether tasks can be written without moving stored records.
+     *
+     * Updates and appends that fit the current layout only touch the slots and records
+     * of the written tasks, the heap tail and the header. Appending past the table
+     * capacity moves the whole heap, and the dead records of a heap are only reclaimed
+     * by writing a new snapshot with `replace`.
+     *
+     * @param appends Number of tasks that will be appended.
+     * @return `true` if the writes fit the current layout.
+     */
+    boolean fitsInPlace(int appends) {
+        return size() + appends <= capacity() && !isWasteful();
+    }
+
+    /**
+     * @brief Appends a task to the store.
+     *
+     * Only the new table entry, the heap tail and the header count are written.
+     *
+     * @param task The task to append.
+     * @return The slot index of the new task.
+     * @throws IOException If the file cannot grow.
+     */
+    public int append(TaskInfo task) throws IOException {
+        int slot = size();
+        if (slot == capacity()) {
+            growSlots();
+        }
+        writeSlot(slot, task, true);
+        buffer.putInt(H_COUNT, slot + 1);
+        if (slotById != null) {
+            slotById.put(task.getId(), slot);
+        }
+        return slot;
+    }
+
+    /**
+     * @brief Overwrites the task stored in a slot.
+     *
+     * The record is only rewritten when its content changed.
+     *
+     * @param slot The slot index.
+     * @param task The new task content.
+     * @throws IOException If the heap cannot grow.
+     */
+    public void update(int slot, TaskInfo task) throws IOException {
+        checkSlot(slot);
+        int oldId = getId(slot);
+        writeSlot(slot, task, false);
+        if (slotById != null && oldId != task.getId()) {
+            slotById.remove(oldId);
+            slotById.put(task.getId(), slot);
+        }
+    }
+
+    /**
+     * @brief Writes only the modified tasks of a collection.
+     *
+     * Tasks that are clean in this store are skipped. A modified record is rewritten in
+     * place when it still fits its allocation and relocated to the end of the heap
+     * otherwise; tasks that are not stored yet are appended. Apart from one pass over
+     * the offset table to find the slots, the cost is proportional to the number of
+     * edits, not to the number of tasks. `TaskLog.flush` saves task lists this way.
+     *
+     * The written tasks are marked clean only after the mapping has been forced to
+     * disk, so a task whose write fails stays dirty and is written again by the next
+     * flush.
+     *
+     * @param tasks The tasks to flush.
+     * @return The number of records written.
+     * @throws IOException If the file cannot grow.
+     */
+    public int flush(Collection<? extends TaskInfo> tasks) throws IOException {
+        long generation = getGeneration();
+        List<TaskInfo> written = new ArrayList<>();
+        for (TaskInfo task : tasks) {
+            if (!task.isCleanIn(generation)) {
+                task.writeToStore(this);
+                written.add(task);
+            }
+        }
+        force();
+        for (TaskInfo task : written) {
+            task.markClean(generation);
+        }
+        return written.size();
+    }
+
+    /**
+     * @brief Returns the id of the task stored in a slot.
+     * @param slot The slot index.
+     * @return The task id.
+     */
+    public int getId(int slot) {
+        return buffer.getInt(slotPosition(slot) + S_ID);
+    }
+
+    /**
+     * @brief Returns the importance of the task stored in a slot.
+     * @param slot The slot index.
+     * @return The importance level.
+     */
+    public int getImportanceId(int slot) {
+        return buffer.getInt(slotPosition(slot) + S_IMPORTANCE);
+    }
+
+    /**
+     * @brief Finds the slot holding a task id.
+     *
+     * @param taskId The task id to look up.
+     * @return The slot index, or `-1` if the id is not stored.
+     */
+    public int findSlot(int taskId) {
+        if (slotById == null) {
+            slotById = new HashMap<>();
+            int count = size();
+            for (int i = 0; i < count; i++) {
+                slotById.put(getId(i), i);
+            }
+        }
+        Integer slot = slotById.get(taskId);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @brief Reads the task stored in a slot.
+     *
+     * @param slot The slot index.
+     * @return A new `TaskInfo` holding the slot content.
+     * @throws IOException If the record is damaged.
+     */
+    public TaskInfo read(int slot) throws IOException {
+        TaskInfo task = new TaskInfo();
+        task.readFromStore(this, slot);
+        return task;
+    }
+
+    /**
+     * @brief Reads every task as a lazy view over one copy of the record heap.
+     *
+     * @return The stored tasks, in slot order.
+     * @throws IOException If a record is damaged.
+     */
+    public List<TaskInfo> readAll() throws IOException {
+        return readAll(1);
+    }
+
+    /**
+     * @brief Reads every task as a lazy view over one copy of the record heap.
+     *
+     * The heap is copied out of the mapping with a single bulk copy, so the views stay
+     * valid after the store is closed or rewritten. Description, category and due date
+     * are only decoded when they are first read (see `LazyTaskInfo`). Because the
+     * offset table gives every record's position, large stores are decoded in
+     * parallel slot ranges with the same result as a sequential pass.
+     *
+     * @param threads Number of decoding threads; `1` decodes sequentially.
+     * @return The stored tasks, in slot order.
+     * @throws IOException If a record is damaged.
+     */
+    public List<TaskInfo> readAll(int threads) throws IOException {
+        return readAll(threads, false);
+    }
+
+    /**
+     * @brief Reads every task, optionally leaving damaged records out.
+     *
+     * With `skipDamaged`, a record that fails its length or checksum check yields
+     * `null` at its position instead of failing the whole read, so a caller can
+     * recover the task from the task log or drop it.
+     *
+     * @param threads Number of decoding threads; `1` decodes sequentially.
+     * @param skipDamaged `true` to return `null` for damaged records.
+     * @return The stored tasks, in slot order.
+     * @throws IOException If a record is damaged and `skipDamaged` is `false`.
+     */
+    List<TaskInfo> readAll(int threads, boolean skipDamaged) throws IOException {
+        int count = size();
+        byte[] heap = new byte[buffer.getInt(H_HEAP_END)];
+        buffer.get(heapStart(), heap);
+        ByteBuffer view = ByteBuffer.wrap(heap);
+        ByteBuffer table = buffer.duplicate();
+        long generation = getGeneration();
+
+        try {
+            return TaskFileLoader.decodeAll(count, threads, slot -> {
+                int pos = slotPosition(slot);
+                int offset = table.getInt(pos + S_OFFSET);
+                int length = offset >= 0 && offset <= heap.length - RECORD_HEADER_SIZE ? view.getInt(offset) : -1;
+                if (length < 0 || length > table.getInt(pos + S_ALLOCATED) - RECORD_HEADER_SIZE
+                        || (long) offset + RECORD_HEADER_SIZE + length > heap.length) {
+                    if (skipDamaged) {
+                        return null;
+                    }
+                    throw new IOException("Corrupt length of task record " + slot);
+                }
+                if (checksum(heap, offset + RECORD_HEADER_SIZE, length) != view.getInt(offset + 4)) {
+                    if (skipDamaged) {
+                        return null;
+                    }
+                    throw new IOException("Checksum mismatch in task record " + slot);
+                }
+                TaskInfo task = new LazyTaskInfo(heap, offset + RECORD_HEADER_SIZE, length, true);
+                int importanceId = table.getInt(pos + S_IMPORTANCE);
+                if (importanceId != 0) {
+                    task.setImportanceId(importanceId);
+                }
+                task.markClean(generation);
+                return task;
+            });
+        } catch (IndexOutOfBoundsException | java.nio.BufferUnderflowException e) {
+            throw new IOException("Task store record is truncated.");
+        }
+    }
+
+    /**
+     * @brief Validates a slot index.
+     * @param slot The slot index.
+     */
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= size()) {
+            throw new IndexOutOfBoundsException("Invalid task slot: " + slot);
+        }
+    }
+
+    /**
+     * @brief Flushes modified pages of the mapping to disk.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * @brief Flushes and closes the store.
+     *
+     * A read-only store is closed without flushing.
+     *
+     * @throws IOException If the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer != null && !readOnly) {
+            buffer.force();
+        }
+        file.close();
+    }
+
+    // --- Record codec shared with TaskInfo ---
+
+    /**
+     * @brief Writes a task as a sequential record.
+     *
+     * This is the record format used by `TaskInfo.writeToFile` for streams that are
+     * not a task store: id, four UTF strings, dependency count and the dependency ids.
+     *
+     * @param out Destination of the record.
+     * @param task The task to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void writeRecord(DataOutput out, TaskInfo task) throws IOException {
+        out.writeInt(task.getId());
+        out.writeUTF(task.getName());
+        out.writeUTF(task.getDescription());
+        out.writeUTF(task.getCategory());
+        out.writeUTF(task.getDueDate());
+        out.writeInt(task.getDependencyCount());
+        for (int i = 0; i < task.getDependencyCount(); i++) {
+            out.writeInt(task.getDependencies()[i]);
+        }
+    }
+
+    /**
+     * @brief Reads a sequential record written by `writeRecord`.
+     *
+     * @param in Source of the record.
+     * @param task The task to populate.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void readRecord(DataInput in, TaskInfo task) throws IOException {
+        task.setId(in.readInt());
+        task.setName(in.readUTF());
+        task.setDescription(in.readUTF());
+        task.setCategory(in.readUTF());
+        task.setDueDate(in.readUTF());
+        int dependencyCount = in.readInt();
+        if (dependencyCount < 0) {
+            throw new IOException("Corrupt dependency count: " + dependencyCount);
+        }
+        int[] dependencies = new int[dependencyCount];
+        for (int i = 0; i < dependencyCount; i++) {
+            dependencies[i] = in.readInt();
+        }
+        task.setDependencies(dependencies);
+    }
+
+    /**
+     * @brief Writes a task as a compact record (the store payload).
+     *
+     * Same as `writeRecord`, except that the dependency list is a varint count followed
+     * by the zigzag-varint difference of each id to the previous one. Ids of related
+     * tasks are usually close together, so most dependencies take a single byte and a
+     * task without dependencies takes one byte for the whole list.
+     *
+     * @param out Destination of the record.
+     * @param task The task to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void writeCompactRecord(DataOutput out, TaskInfo task) throws IOException {
+        out.writeInt(task.getId());
+        out.writeUTF(task.getName());
+        out.writeUTF(task.getDescription());
+        out.writeUTF(task.getCategory());
+        out.writeUTF(task.getDueDate());
+        int dependencyCount = task.getDependencyCount();
+        int[] dependencies = task.getDependencies();
+        writeVarInt(out, dependencyCount);
+        int previous = 0;
+        for (int i = 0; i < dependencyCount; i++) {
+            int delta = dependencies[i] - previous;
+            writeVarInt(out, (delta << 1) ^ (delta >> 31));
+            previous = dependencies[i];
+        }
+    }
+
+    /**
+     * @brief Reads a compact record written by `writeCompactRecord`.
+     *
+     * @param data Buffer positioned at the start of the record; advanced past it.
+     * @param task The task to populate.
+     * @return The populated task.
+     * @throws IOException If the record is corrupt.
+     * @throws java.nio.BufferUnderflowException If the buffer ends inside the record.
+     */
+    static TaskInfo readCompactRecord(ByteBuffer data, TaskInfo task) throws IOException {
+        task.setId(data.getInt());
+        task.setName(TaskFileLoader.readUTF(data));
+        task.setDescription(TaskFileLoader.readUTF(data));
+        task.setCategory(TaskFileLoader.readUTF(data));
+        task.setDueDate(TaskFileLoader.readUTF(data));
+        readDependencies(data, task);
+        return task;
+    }
+
+    /**
+     * @brief Reads the varint delta dependency list of a compact record.
+     *
+     * @param data Buffer positioned at the dependency count; advanced past the list.
+     * @param task The task that receives the dependencies.
+     * @throws IOException If the list is corrupt.
+     */
+    static void readDependencies(ByteBuffer data, TaskInfo task) throws IOException {
+        int dependencyCount = readVarInt(data);
+        if (dependencyCount < 0 || dependencyCount > data.remaining()) {
+            throw new IOException("Corrupt dependency count: " + dependencyCount);
+        }
+        int[] dependencies = dependencyCount == 0 ? TaskInfo.NO_DEPENDENCIES : new int[dependencyCount];
+        int previous = 0;
+        for (int i = 0; i < dependencyCount; i++) {
+            int zigzag = readVarInt(data);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            dependencies[i] = previous;
+        }
+        task.setDependencies(dependencies);
+    }
+
+    /**
+     * @brief Writes an unsigned LEB128 varint.
+     *
+     * @param out Destination of the value.
+     * @param value The value, treated as unsigned.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * @brief Reads an unsigned LEB128 varint.
+     *
+     * @param data Buffer positioned at the value; advanced past it.
+     * @return The value.
+     * @throws IOException If the varint is longer than five bytes.
+     */
+    static int readVarInt(ByteBuffer data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = data.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,481 @@
+/**
+ * @file TaskTable.java
+ * @brief Off-heap, column-oriented task storage for very large task lists.
+ *
+ * A `TaskInfo` object costs five `String` objects, an `int[]` and the object headers
+ * around them. This class keeps the same data in a handful of direct `ByteBuffer`s:
+ * one primitive column per field and one byte arena holding every distinct string
+ * once, so the garbage-collected heap stays small however many tasks are loaded.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * @class TaskTable
+ * @brief Columnar `TaskSource` whose data lives outside the Java heap.
+ *
+ * Every column is a direct buffer of 4-byte entries, one per row:
+ * - id, importance and due-date key (`yyyymmdd`, or `0` if the date cannot be parsed);
+ * - name, description, category and due date as handles into the string arena
+ *   (`-1` for `null`);
+ * - the end of the row's dependencies in the dependency column, which concatenates
+ *   the dependency ids of all rows (compressed sparse row layout).
+ *
+ * Arena entries are `[length][UTF-8 bytes]`. Equal strings share one entry, which is
+ * found through an open-addressing hash index of arena offsets, so repeated
+ * categories and due dates are stored only once. Columns grow by doubling.
+ *
+ * Rows are appended with `add`; apart from the importance level they are immutable.
+ * The table is not thread-safe for writers.
+ */
+public class TaskTable implements TaskSource {
+
+    /** @brief Column of task ids. */
+    private static final int C_ID = 0;
+
+    /** @brief Column of importance ids. */
+    private static final int C_IMPORTANCE = 1;
+
+    /** @brief Column of numeric due-date keys. */
+    private static final int C_DUE_KEY = 2;
+
+    /** @brief Column of name handles. */
+    private static final int C_NAME = 3;
+
+    /** @brief Column of description handles. */
+    private static final int C_DESCRIPTION = 4;
+
+    /** @brief Column of category handles. */
+    private static final int C_CATEGORY = 5;
+
+    /** @brief Column of due-date string handles. */
+    private static final int C_DUE_DATE = 6;
+
+    /** @brief Column of dependency end offsets. */
+    private static final int C_DEPENDENCY_END = 7;
+
+    /** @brief Number of per-row columns. */
+    private static final int COLUMNS = 8;
+
+    /** @brief Handle stored for a `null` string. */
+    private static final int NULL_STRING = -1;
+
+    /** @brief Initial arena size in bytes. */
+    private static final int INITIAL_ARENA = 4096;
+
+    /** @brief Per-row columns. */
+    private final ByteBuffer[] columns = new ByteBuffer[COLUMNS];
+
+    /** @brief Concatenated dependency ids of all rows. */
+    private ByteBuffer dependencies;
+
+    /** @brief Number of dependency ids in use. */
+    private int dependencyCount;
+
+    /** @brief String arena. */
+    private ByteBuffer arena;
+
+    /** @brief Number of arena bytes in use. */
+    private int arenaSize;
+
+    /** @brief Hash index of arena entries: `offset + 1`, or `0` for an empty slot. */
+    private int[] stringIndex = new int[64];
+
+    /** @brief Number of distinct strings in the arena. */
+    private int stringCount;
+
+    /** @brief Number of rows. */
+    private int size;
+
+    /** @brief Row capacity of the columns. */
+    private int capacity;
+
+    /**
+     * @brief Creates an empty table.
+     */
+    public TaskTable() {
+        this(16);
+    }
+
+    /**
+     * @brief Creates an empty table with room for a number of rows.
+     *
+     * @param capacity Expected number of rows.
+     */
+    public TaskTable(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+        for (int c = 0; c < COLUMNS; c++) {
+            columns[c] = allocate(this.capacity * Integer.BYTES);
+        }
+        dependencies = allocate(this.capacity * Integer.BYTES);
+        arena = allocate(INITIAL_ARENA);
+    }
+
+    /**
+     * @brief Builds a table holding a copy of some tasks.
+     *
+     * @param tasks The tasks, in row order.
+     * @return The filled table.
+     */
+    public static TaskTable fromTasks(Collection<? extends TaskInfo> tasks) {
+        TaskTable table = new TaskTable(tasks.size());
+        for (TaskInfo task : tasks) {
+            table.add(task);
+        }
+        return table;
+    }
+
+    /**
+     * @brief Allocates a zeroed direct buffer in native byte order.
+     *
+     * @param bytes The buffer size.
+     * @return The buffer.
+     */
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @brief Copies a buffer into a larger one.
+     *
+     * @param buffer The full buffer.
+     * @param used Number of bytes to keep.
+     * @param needed Minimum size of the new buffer.
+     * @return The new buffer.
+     */
+    private static ByteBuffer grow(ByteBuffer buffer, int used, int needed) {
+        long size = Math.max((long) buffer.capacity() * 2, needed);
+        if (size > Integer.MAX_VALUE - 8) {
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Task table column exceeds 2 GiB");
+            }
+            size = Integer.MAX_VALUE - 8;
+        }
+        ByteBuffer larger = allocate((int) size);
+        ByteBuffer content = buffer.duplicate();
+        content.position(0).limit(used);
+        larger.put(content);
+        larger.clear();
+        return larger;
+    }
+
+    /**
+     * @brief Appends a copy of a task as a new row.
+     *
+     * @param task The task.
+     * @return The row index.
+     */
+    public int add(TaskInfo task) {
+        if (size == capacity) {
+            int newCapacity = capacity * 2;
+            for (int c = 0; c < COLUMNS; c++) {
+                columns[c] = grow(columns[c], size * Integer.BYTES, newCapacity * Integer.BYTES);
+            }
+            capacity = newCapacity;
+        }
+
+        int[] taskDependencies = task.getDependencies();
+        int count = Math.min(task.getDependencyCount(), taskDependencies.length);
+        int needed = (dependencyCount + count) * Integer.BYTES;
+        if (needed > dependencies.capacity()) {
+            dependencies = grow(dependencies, dependencyCount * Integer.BYTES, needed);
+        }
+        for (int n = 0; n < count; n++) {
+            dependencies.putInt((dependencyCount + n) * Integer.BYTES, taskDependencies[n]);
+        }
+        dependencyCount += count;
+
+        int row = size;
+        int pos = row * Integer.BYTES;
+        columns[C_ID].putInt(pos, task.getId());
+        columns[C_IMPORTANCE].putInt(pos, task.getImportanceId());
+        columns[C_DUE_KEY].putInt(pos, dueDateKey(task.getDueDate()));
+        columns[C_NAME].putInt(pos, intern(task.getName()));
+        columns[C_DESCRIPTION].putInt(pos, intern(task.getDescription()));
+        columns[C_CATEGORY].putInt(pos, intern(task.getCategory()));
+        columns[C_DUE_DATE].putInt(pos, intern(task.getDueDate()));
+        columns[C_DEPENDENCY_END].putInt(pos, dependencyCount);
+        size++;
+        return row;
+    }
+
+    /**
+     * @brief Converts a `YYYY-MM-DD` date into a sortable integer.
+     *
+     * @param dueDate The due date.
+     * @return `yyyymmdd`, or `0` if the date is missing or not in that format.
+     */
+    static int dueDateKey(String dueDate) {
+        if (dueDate == null || dueDate.length() != 10
+                || dueDate.charAt(4) != '-' || dueDate.charAt(7) != '-') {
+            return 0;
+        }
+        int key = 0;
+        for (int i = 0; i < dueDate.length(); i++) {
+            if (i == 4 || i == 7) {
+                continue;
+            }
+            char c = dueDate.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+
+    // --- String arena ---
+
+    /**
+     * @brief Stores a string in the arena unless an equal string is already there.
+     *
+     * @param value The string, may be `null`.
+     * @return The arena handle of the string.
+     */
+    private int intern(String value) {
+        if (value == null) {
+            return NULL_STRING;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes);
+        int mask = stringIndex.length - 1;
+        int slot = hash & mask;
+        while (stringIndex[slot] != 0) {
+            int offset = stringIndex[slot] - 1;
+            if (arenaEquals(offset, bytes)) {
+                return offset;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int needed = arenaSize + Integer.BYTES + bytes.length;
+        if (needed < 0) {
+            throw new IllegalStateException("Task table string arena exceeds 2 GiB");
+        }
+        if (needed > arena.capacity()) {
+            arena = grow(arena, arenaSize, needed);
+        }
+        int offset = arenaSize;
+        arena.putInt(offset, bytes.length);
+        arena.put(offset + Integer.BYTES, bytes);
+        arenaSize = needed;
+
+        stringIndex[slot] = offset + 1;
+        if (++stringCount * 2 > stringIndex.length) {
+            rehash();
+        }
+        return offset;
+    }
+
+    /**
+     * @brief Hashes the UTF-8 bytes of a string.
+     *
+     * @param bytes The bytes.
+     * @return The spread hash code.
+     */
+    private static int hash(byte[] bytes) {
+        int h = 1;
+        for (byte b : bytes) {
+            h = 31 * h + b;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @brief Compares an arena entry with a byte sequence.
+     *
+     * @param offset Offset of the arena entry.
+     * @param bytes The bytes to compare with.
+     * @return `true` if the entry holds exactly these bytes.
+     */
+    private boolean arenaEquals(int offset, byte[] bytes) {
+        if (arena.getInt(offset) != bytes.length) {
+            return false;
+        }
+        int start = offset + Integer.BYTES;
+        for (int i = 0; i < bytes.length; i++) {
+            if (arena.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @brief Doubles the hash index and reinserts every arena entry.
+     */
+    private void rehash() {
+        int[] larger = new int[stringIndex.length * 2];
+        int mask = larger.length - 1;
+        for (int entry : stringIndex) {
+            if (entry == 0) {
+                continue;
+            }
+            byte[] bytes = new byte[arena.getInt(entry - 1)];
+            arena.get(entry - 1 + Integer.BYTES, bytes);
+            int slot = hash(bytes) & mask;
+            while (larger[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            larger[slot] = entry;
+        }
+        stringIndex = larger;
+    }
+
+    /**
+     * @brief Decodes a string column of a row.
+     *
+     * @param column The column.
+     * @param row The row index.
+     * @return The string, or `null`.
+     */
+    private String string(int column, int row) {
+        int offset = columns[column].getInt(checkRow(row) * Integer.BYTES);
+        if (offset == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[arena.getInt(offset)];
+        arena.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @brief Validates a row index.
+     *
+     * @param row The row index.
+     * @return The same index.
+     * @throws IndexOutOfBoundsException If the row does not exist.
+     */
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return row;
+    }
+
+    // --- TaskSource ---
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getId(int index) {
+        return columns[C_ID].getInt(checkRow(index) * Integer.BYTES);
+    }
+
+    @Override
+    public String getName(int index) {
+        return string(C_NAME, index);
+    }
+
+    @Override
+    public String getDescription(int index) {
+        return string(C_DESCRIPTION, index);
+    }
+
+    @Override
+    public String getCategory(int index) {
+        return string(C_CATEGORY, index);
+    }
+
+    @Override
+    public String getDueDate(int index) {
+        return string(C_DUE_DATE, index);
+    }
+
+    @Override
+    public int getImportanceId(int index) {
+        return columns[C_IMPORTANCE].getInt(checkRow(index) * Integer.BYTES);
+    }
+
+    @Override
+    public int getDependencyCount(int index) {
+        return dependencyEnd(index) - dependencyStart(index);
+    }
+
+    @Override
+    public int getDependency(int index, int n) {
+        int position = dependencyStart(index) + n;
+        if (n < 0 || position >= dependencyEnd(index)) {
+            throw new IndexOutOfBoundsException("Dependency " + n + " out of bounds for task row " + index);
+        }
+        return dependencies.getInt(position * Integer.BYTES);
+    }
+
+    // --- Table specific access ---
+
+    /**
+     * @brief Changes the importance level of a row.
+     *
+     * @param row The row index.
+     * @param importanceId 1 (Low), 2 (Medium) or 3 (High).
+     * @throws IllegalArgumentException If the importance id is not valid.
+     */
+    public void setImportanceId(int row, int importanceId) {
+        if (importanceId < 1 || importanceId > 3) {
+            throw new IllegalArgumentException("Invalid importance ID! Must be 1 (Low), 2 (Medium), or 3 (High).");
+        }
+        columns[C_IMPORTANCE].putInt(checkRow(row) * Integer.BYTES, importanceId);
+    }
+
+    /**
+     * @brief Returns the numeric due-date key of a row.
+     *
+     * @param row The row index.
+     * @return `yyyymmdd`, or `0` if the due date is not a `YYYY-MM-DD` date.
+     */
+    public int getDueDateKey(int row) {
+        return columns[C_DUE_KEY].getInt(checkRow(row) * Integer.BYTES);
+    }
+
+    /**
+     * @brief Returns the index of the first dependency of a row in the dependency column.
+     *
+     * @param row The row index.
+     * @return The start offset.
+     */
+    public int dependencyStart(int row) {
+        return checkRow(row) == 0 ? 0 : columns[C_DEPENDENCY_END].getInt((row - 1) * Integer.BYTES);
+    }
+
+    /**
+     * @brief Returns the index just past the last dependency of a row.
+     *
+     * @param row The row index.
+     * @return The end offset (exclusive).
+     */
+    public int dependencyEnd(int row) {
+        return columns[C_DEPENDENCY_END].getInt(checkRow(row) * Integer.BYTES);
+    }
+
+    /**
+     * @brief Returns the number of distinct strings stored in the arena.
+     * @return The string count.
+     */
+    public int distinctStrings() {
+        return stringCount;
+    }
+
+    /**
+     * @brief Returns the number of off-heap bytes reserved by the table.
+     * @return The total capacity of all columns and the arena.
+     */
+    public long offHeapBytes() {
+        long bytes = (long) dependencies.capacity() + arena.capacity();
+        for (ByteBuffer column : columns) {
+            bytes += column.capacity();
+        }
+        return bytes;
+    }
+}
@@ -127,12 +127,13 @@ public class User {
     /**
      * @brief Writes user data to a file.
      *
-     * Persists user details into a binary file using `RandomAccessFile`.
+     * Persists user details into a binary file using `RandomAccessFile`, or into any
+     * other `DataOutput` such as a buffer that is appended in one write.
      *
-     * @param raf The `RandomAccessFile` object for writing data.
+     * @param raf The `RandomAccessFile` (or other `DataOutput`) for writing data.
      * @throws IOException If an I/O error occurs during writing.
      */
-    public void writeToFile(RandomAccessFile raf) throws IOException {
+    public void writeToFile(DataOutput raf) throws IOException {
         raf.writeInt(id);
         raf.writeUTF(name);
         raf.writeUTF(surname);
@@ -145,10 +146,10 @@ public class User {
      *
      * Populates user attributes by reading data from a binary file using `RandomAccessFile`.
      *
-     * @param raf The `RandomAccessFile` object for reading data.
+     * @param raf The `RandomAccessFile` (or other `DataInput`) for reading data.
      * @throws IOException If an I/O error occurs during reading.
      */
-    public void readFromFile(RandomAccessFile raf) throws IOException {
+    public void readFromFile(DataInput raf) throws IOException {
         this.id = raf.readInt();
         this.name = raf.readUTF();
         this.surname = raf.readUTF();
@@ -0,0 +1,397 @@
+/**
+ * @file UserEmailIndex.java
+ * @brief Persistent email index of the user file.
+ *
+ * This class keeps an on-disk hash table next to `users.bin` (in `users.bin.idx`) that
+ * maps every email address to the offset of its user record. Logging in or checking
+ * for an existing email is then one index probe and one record read instead of
+ * deserialising every user.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * @class UserEmailIndex
+ * @brief Memory-mapped open-addressing hash table from email to record offset.
+ *
+ * File layout:
+ * - Header (`HEADER_SIZE` bytes): magic, version, slot count, entry count, and the
+ *   length and modification time of the user file the index was built for.
+ * - Slots (`SLOT_SIZE` bytes each): a 32-bit hash of the email and the offset of the
+ *   record in the user file. An offset of `0` marks an empty slot; real records start
+ *   after the user count.
+ *
+ * Collisions are resolved by linear probing over a power-of-two table that is kept at
+ * most half full. A probe only reads a user record when the stored hash matches, and
+ * the email of that record is compared before it is returned. If the user file was
+ * changed by something other than this index (its length or modification time does
+ * not match the header), the index is rebuilt from the user file when it is opened.
+ */
+public class UserEmailIndex implements Closeable {
+
+    /** @brief Magic number identifying an index file ("UIDX"). */
+    public static final int MAGIC = 0x55494458;
+
+    /** @brief Current layout version of the index. */
+    public static final int VERSION = 1;
+
+    /** @brief Suffix appended to the user file path to get the index path. */
+    public static final String SUFFIX = ".idx";
+
+    /** @brief Size of the header in bytes. */
+    static final int HEADER_SIZE = 32;
+
+    /** @brief Size of one slot in bytes. */
+    static final int SLOT_SIZE = 8;
+
+    /** @brief Slot count of a new index. */
+    private static final int INITIAL_SLOTS = 64;
+
+    // Header field offsets
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_SLOTS = 8;
+    private static final int H_SIZE = 12;
+    private static final int H_USERS_LENGTH = 16;
+    private static final int H_USERS_MODIFIED = 24;
+
+    /** @brief The user file the index belongs to. */
+    private final File usersFile;
+
+    /** @brief Random access handle of the index file. */
+    private final RandomAccessFile file;
+
+    /** @brief Channel of the index file. */
+    private final FileChannel channel;
+
+    /** @brief Mapping of the whole index file. */
+    private MappedByteBuffer buffer;
+
+    /** @brief Number of slots. */
+    private int slots;
+
+    /** @brief Number of used slots. */
+    private int size;
+
+    /** @brief Whether the index was opened by `openReadOnly`. */
+    private final boolean readOnly;
+
+    /**
+     * @brief Opens the index file of a user file.
+     *
+     * @param usersFile The user file.
+     * @param readOnly `true` to open the index file for reading only.
+     * @throws IOException If the index file cannot be opened.
+     */
+    private UserEmailIndex(File usersFile, boolean readOnly) throws IOException {
+        this.usersFile = usersFile;
+        this.readOnly = readOnly;
+        this.file = new RandomAccessFile(usersFile.getPath() + SUFFIX, readOnly ? "r" : "rw");
+        this.channel = file.getChannel();
+    }
+
+    /**
+     * @brief Opens the index of a user file, rebuilding it if it is missing or stale.
+     *
+     * @param usersPath Path of the user file (`[int count][User records]`).
+     * @return The opened index.
+     * @throws IOException If the user file cannot be read or the index cannot be written.
+     */
+    public static UserEmailIndex open(String usersPath) throws IOException {
+        UserEmailIndex index = new UserEmailIndex(new File(usersPath), false);
+        try {
+            if (!index.load()) {
+                index.rebuild();
+            }
+            return index;
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @brief Opens the index of a user file for lookups only, if it is current.
+     *
+     * Nothing is written, so any number of threads may use read-only indexes of the same
+     * file at once, as long as no thread writes the user file or its index meanwhile.
+     *
+     * @param usersPath Path of the user file.
+     * @return The opened index, or `null` if the index is missing or stale and needs `open`.
+     * @throws IOException If the index file cannot be read.
+     */
+    public static UserEmailIndex openReadOnly(String usersPath) throws IOException {
+        if (!new File(usersPath + SUFFIX).exists()) {
+            return null;
+        }
+        UserEmailIndex index = new UserEmailIndex(new File(usersPath), true);
+        try {
+            if (index.load()) {
+                return index;
+            }
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+        index.close();
+        return null;
+    }
+
+    /**
+     * @brief Maps an existing index file and checks that it matches the user file.
+     *
+     * @return `true` if the index is valid and current.
+     * @throws IOException On I/O errors.
+     */
+    private boolean load() throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            return false;
+        }
+        buffer = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                0, channel.size());
+        slots = buffer.getInt(H_SLOTS);
+        size = buffer.getInt(H_SIZE);
+        return buffer.getInt(H_MAGIC) == MAGIC
+                && buffer.getInt(H_VERSION) == VERSION
+                && slots >= INITIAL_SLOTS && Integer.bitCount(slots) == 1
+                && channel.size() == HEADER_SIZE + (long) slots * SLOT_SIZE
+                && buffer.getLong(H_USERS_LENGTH) == usersFile.length()
+                && buffer.getLong(H_USERS_MODIFIED) == usersFile.lastModified();
+    }
+
+    /**
+     * @brief Creates an empty table with a given number of slots.
+     *
+     * @param slotCount The slot count, a power of two.
+     * @throws IOException On I/O errors.
+     */
+    private void reset(int slotCount) throws IOException {
+        buffer = null;
+        channel.truncate(0);
+        long length = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+        file.setLength(length);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        buffer.putInt(H_MAGIC, MAGIC);
+        buffer.putInt(H_VERSION, VERSION);
+        buffer.putInt(H_SLOTS, slotCount);
+        buffer.putInt(H_SIZE, 0);
+        slots = slotCount;
+        size = 0;
+    }
+
+    /**
+     * @brief Rebuilds the index by scanning the user file once.
+     *
+     * @throws IOException If the user file is unreadable or truncated.
+     */
+    public void rebuild() throws IOException {
+        reset(INITIAL_SLOTS);
+        if (usersFile.length() > 0) {
+            try (RandomAccessFile users = new RandomAccessFile(usersFile, "r")) {
+                int count = users.readInt();
+                for (int i = 0; i < count; i++) {
+                    long offset = users.getFilePointer();
+                    User user = new User();
+                    user.readFromFile(users);
+                    put(user.getEmail(), offset);
+                }
+            }
+        }
+        sync();
+    }
+
+    /**
+     * @brief Computes the hash of an email address.
+     *
+     * FNV-1a over the characters followed by a final avalanche step, so similar
+     * addresses land in unrelated slots.
+     *
+     * @param email The email address.
+     * @return The hash.
+     */
+    static int hash(String email) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < email.length(); i++) {
+            h = (h ^ email.charAt(i)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * @brief Returns the position of a slot in the mapping.
+     * @param slot The slot index.
+     * @return Byte position of the slot.
+     */
+    private static int slotPosition(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * @brief Adds an email to the index, or moves it to a new record offset.
+     *
+     * @param email The email address.
+     * @param offset Offset of the user record in the user file.
+     * @throws IOException If the index cannot grow.
+     */
+    public void put(String email, long offset) throws IOException {
+        if (offset <= 0 || offset > Integer.MAX_VALUE) {
+            throw new IOException("User record offset out of range: " + offset);
+        }
+        if ((size + 1) * 2 > slots) {
+            grow();
+        }
+        int h = hash(email);
+        int mask = slots - 1;
+        int slot = h & mask;
+        RandomAccessFile users = null;
+        try {
+            while (true) {
+                int pos = slotPosition(slot);
+                int stored = buffer.getInt(pos + 4);
+                if (stored == 0) {
+                    buffer.putInt(pos, h);
+                    buffer.putInt(pos + 4, (int) offset);
+                    buffer.putInt(H_SIZE, ++size);
+                    return;
+                }
+                if (buffer.getInt(pos) == h) {
+                    if (users == null) {
+                        users = new RandomAccessFile(usersFile, "r");
+                    }
+                    if (email.equals(readUser(users, stored).getEmail())) {
+                        buffer.putInt(pos + 4, (int) offset);
+                        return;
+                    }
+                }
+                slot = (slot + 1) & mask;
+            }
+        } finally {
+            if (users != null) {
+                users.close();
+            }
+        }
+    }
+
+    /**
+     * @brief Doubles the slot count and reinserts every entry.
+     *
+     * @throws IOException On I/O errors.
+     */
+    private void grow() throws IOException {
+        int[] hashes = new int[size];
+        int[] offsets = new int[size];
+        int n = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            int pos = slotPosition(slot);
+            if (buffer.getInt(pos + 4) != 0) {
+                hashes[n] = buffer.getInt(pos);
+                offsets[n++] = buffer.getInt(pos + 4);
+            }
+        }
+        reset(slots * 2);
+        int mask = slots - 1;
+        for (int i = 0; i < n; i++) {
+            int slot = hashes[i] & mask;
+            while (buffer.getInt(slotPosition(slot) + 4) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            buffer.putInt(slotPosition(slot), hashes[i]);
+            buffer.putInt(slotPosition(slot) + 4, offsets[i]);
+        }
+        size = n;
+        buffer.putInt(H_SIZE, size);
+    }
+
+    /**
+     * @brief Looks up a user by email.
+     *
+     * @param email The email address.
+     * @return The user record, or `null` if no user has this email.
+     * @throws IOException If the user file cannot be read.
+     */
+    public User find(String email) throws IOException {
+        int h = hash(email);
+        int mask = slots - 1;
+        int slot = h & mask;
+        RandomAccessFile users = null;
+        try {
+            while (true) {
+                int pos = slotPosition(slot);
+                int stored = buffer.getInt(pos + 4);
+                if (stored == 0) {
+                    return null;
+                }
+                if (buffer.getInt(pos) == h) {
+                    if (users == null) {
+                        users = new RandomAccessFile(usersFile, "r");
+                    }
+                    User user = readUser(users, stored);
+                    if (email.equals(user.getEmail())) {
+                        return user;
+                    }
+                }
+                slot = (slot + 1) & mask;
+            }
+        } finally {
+            if (users != null) {
+                users.close();
+            }
+        }
+    }
+
+    /**
+     * @brief Reads one user record.
+     *
+     * @param users The open user file.
+     * @param offset Offset of the record.
+     * @return The user.
+     * @throws IOException If the record cannot be read.
+     */
+    private static User readUser(RandomAccessFile users, long offset) throws IOException {
+        users.seek(offset);
+        User user = new User();
+        user.readFromFile(users);
+        return user;
+    }
+
+    /**
+     * @brief Returns the number of indexed emails.
+     * @return The entry count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Records the current length and modification time of the user file.
+     *
+     * Must be called after the user file was written, so the next `open` trusts the
+     * index instead of rebuilding it.
+     *
+     * @throws IOException If the index cannot be flushed.
+     */
+    public void sync() throws IOException {
+        buffer.putLong(H_USERS_LENGTH, usersFile.length());
+        buffer.putLong(H_USERS_MODIFIED, usersFile.lastModified());
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        file.close();
+    }
+}
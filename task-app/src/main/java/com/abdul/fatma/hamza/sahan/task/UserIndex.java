@@ -0,0 +1,435 @@
+/**
+ * @file UserIndex.java
+ * @brief In-memory user table keyed by email address.
+ *
+ * This class replaces the array of `LinkedList<User>` buckets that backed logins. It is
+ * an open-addressing hash table with Robin Hood displacement: a key that has probed
+ * further than the resident key takes its slot, which keeps probe lengths short and
+ * even at high load factors.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @class UserIndex
+ * @brief Resizable Robin Hood hash table from email to `User`.
+ *
+ * Emails are hashed by an `EmailHash`, chosen by the `users.hash` system property unless
+ * given explicitly (see `HashFunctionBenchmark`).
+ *
+ * The capacity is a power of two and doubles when the load factor would exceed
+ * `MAX_LOAD_FACTOR`. Every slot keeps the hash of its key and its probe distance, the
+ * number of attempts the key needed; a lookup stops as soon as it meets a key that is
+ * closer to its home slot than the probe, because Robin Hood insertion would have placed
+ * the searched key there.
+ *
+ * Deletion leaves no tombstones. With linear probing the following keys are shifted back
+ * by one slot until a key sits in its home slot; with any other strategy the remaining
+ * keys are reinserted into a fresh table of the same capacity.
+ */
+public class UserIndex {
+
+    /** @brief Default capacity of a new index. */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /** @brief Load factor above which the table doubles. */
+    public static final double MAX_LOAD_FACTOR = 0.75;
+
+    /** @brief Probe sequence of the table. */
+    private final ProbingStrategy strategy;
+
+    /** @brief Hash function of the emails. */
+    private final EmailHash emailHash;
+
+    /** @brief Users by slot; `null` marks an empty slot. */
+    private User[] users;
+
+    /** @brief Hash of the email in each slot. */
+    private int[] hashes;
+
+    /** @brief Probe attempt at which each slot's key was placed. */
+    private int[] distances;
+
+    /** @brief Number of users in the table. */
+    private int size;
+
+    /** @brief Number of users the table holds before it grows. */
+    private int threshold;
+
+    /**
+     * @brief Creates an empty index with linear probing and the configured hash.
+     */
+    public UserIndex() {
+        this(ProbingStrategy.LINEAR, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @brief Creates an empty index with a probe sequence.
+     *
+     * @param strategy The probe sequence.
+     */
+    public UserIndex(ProbingStrategy strategy) {
+        this(strategy, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @brief Creates an empty index sized for a number of users.
+     *
+     * @param strategy The probe sequence.
+     * @param expectedUsers The number of users expected; the capacity is rounded up so
+     *        they fit without growing.
+     */
+    public UserIndex(ProbingStrategy strategy, int expectedUsers) {
+        this(strategy, expectedUsers, EmailHash.fromSystemProperties());
+    }
+
+    /**
+     * @brief Creates an empty index with a hash function.
+     *
+     * @param strategy The probe sequence.
+     * @param expectedUsers The number of users expected.
+     * @param emailHash The hash function of the emails.
+     */
+    public UserIndex(ProbingStrategy strategy, int expectedUsers, EmailHash emailHash) {
+        this.strategy = strategy;
+        this.emailHash = emailHash;
+        allocate(capacityFor(expectedUsers));
+    }
+
+    /**
+     * @brief Computes the smallest power-of-two capacity that holds a number of users.
+     *
+     * @param expectedUsers The number of users.
+     * @return The capacity.
+     */
+    static int capacityFor(int expectedUsers) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < (1 << 30) && expectedUsers > (int) (capacity * MAX_LOAD_FACTOR)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * @brief Replaces the slot arrays with empty ones.
+     *
+     * @param capacity The new capacity, a power of two.
+     */
+    private void allocate(int capacity) {
+        users = new User[capacity];
+        hashes = new int[capacity];
+        distances = new int[capacity];
+        size = 0;
+        threshold = (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * @brief Computes the default hash of an email address.
+     *
+     * @param email The email address.
+     * @return The `EmailHash.DEFAULT` hash.
+     */
+    static int hash(String email) {
+        return EmailHash.DEFAULT.hash(email);
+    }
+
+    /**
+     * @brief Returns the slot visited by a probe attempt.
+     *
+     * @param hash The hash of the key.
+     * @param attempt The probe attempt.
+     * @return The slot.
+     */
+    private int slot(int hash, int attempt) {
+        int capacity = users.length;
+        return strategy.slot(hash & (capacity - 1), hash, attempt, capacity);
+    }
+
+    /**
+     * @brief Adds a user, replacing a user with the same email.
+     *
+     * @param user The user to add.
+     * @return The replaced user, or `null` if the email was new.
+     */
+    public User put(User user) {
+        return put(user, emailHash.hash(user.getEmail()));
+    }
+
+    /**
+     * @brief Adds a user whose email hash is already known.
+     *
+     * @param user The user to add.
+     * @param h `getEmailHash().hash(user.getEmail())`.
+     * @return The replaced user, or `null` if the email was new.
+     */
+    User put(User user, int h) {
+        int found = indexOf(user.getEmail(), h);
+        if (found >= 0) {
+            User previous = users[found];
+            users[found] = user;
+            return previous;
+        }
+        if (size >= threshold) {
+            resize(users.length * 2);
+        }
+        insert(user, h);
+        return null;
+    }
+
+    /**
+     * @brief Places a user whose email is not in the table.
+     *
+     * The user walks its probe sequence; whenever it has probed further than the key in
+     * the visited slot, the two swap and the evicted key continues from its own distance.
+     *
+     * @param user The user.
+     * @param h The hash of its email.
+     */
+    private void insert(User user, int h) {
+        int attempt = 0;
+        int limit = users.length;
+        while (true) {
+            int slot = slot(h, attempt);
+            if (users[slot] == null) {
+                users[slot] = user;
+                hashes[slot] = h;
+                distances[slot] = attempt;
+                size++;
+                return;
+            }
+            if (distances[slot] < attempt) {
+                User evicted = users[slot];
+                int evictedHash = hashes[slot];
+                int evictedAttempt = distances[slot];
+                users[slot] = user;
+                hashes[slot] = h;
+                distances[slot] = attempt;
+                user = evicted;
+                h = evictedHash;
+                attempt = evictedAttempt;
+            }
+            attempt++;
+            if (attempt >= limit) {
+                // The probe sequence revisits slots for this capacity; a larger table breaks the cycle.
+                resize(users.length * 2);
+                insert(user, h);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @brief Finds the slot of an email.
+     *
+     * @param email The email address.
+     * @param h The hash of the email.
+     * @return The slot, or `-1` if the email is not in the table.
+     */
+    private int indexOf(String email, int h) {
+        for (int attempt = 0; attempt < users.length; attempt++) {
+            int slot = slot(h, attempt);
+            if (users[slot] == null || distances[slot] < attempt) {
+                return -1;
+            }
+            if (hashes[slot] == h && users[slot].getEmail().equals(email)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Looks up a user by email.
+     *
+     * @param email The email address.
+     * @return The user, or `null` if no user has this email.
+     */
+    public User get(String email) {
+        return get(email, emailHash.hash(email));
+    }
+
+    /**
+     * @brief Looks up a user whose email hash is already known.
+     *
+     * @param email The email address.
+     * @param h `getEmailHash().hash(email)`.
+     * @return The user, or `null` if no user has this email.
+     */
+    User get(String email, int h) {
+        int slot = indexOf(email, h);
+        return slot < 0 ? null : users[slot];
+    }
+
+    /**
+     * @brief Checks whether a user with an email exists.
+     *
+     * @param email The email address.
+     * @return `true` if the email is in the table.
+     */
+    public boolean contains(String email) {
+        return indexOf(email, emailHash.hash(email)) >= 0;
+    }
+
+    /**
+     * @brief Removes the user with an email.
+     *
+     * @param email The email address.
+     * @return The removed user, or `null` if the email was not in the table.
+     */
+    public User remove(String email) {
+        return remove(email, emailHash.hash(email));
+    }
+
+    /**
+     * @brief Removes a user whose email hash is already known.
+     *
+     * @param email The email address.
+     * @param h `getEmailHash().hash(email)`.
+     * @return The removed user, or `null` if the email was not in the table.
+     */
+    User remove(String email, int h) {
+        int slot = indexOf(email, h);
+        if (slot < 0) {
+            return null;
+        }
+        User removed = users[slot];
+        if (strategy == ProbingStrategy.LINEAR) {
+            backwardShift(slot);
+            size--;
+        } else {
+            users[slot] = null;
+            resize(users.length);
+        }
+        return removed;
+    }
+
+    /**
+     * @brief Closes the gap left by a removed key under linear probing.
+     *
+     * @param slot The emptied slot.
+     */
+    private void backwardShift(int slot) {
+        int mask = users.length - 1;
+        int next = (slot + 1) & mask;
+        while (users[next] != null && distances[next] > 0) {
+            users[slot] = users[next];
+            hashes[slot] = hashes[next];
+            distances[slot] = distances[next] - 1;
+            slot = next;
+            next = (next + 1) & mask;
+        }
+        users[slot] = null;
+        hashes[slot] = 0;
+        distances[slot] = 0;
+    }
+
+    /**
+     * @brief Moves every user into a table of a new capacity.
+     *
+     * @param capacity The new capacity, a power of two.
+     */
+    private void resize(int capacity) {
+        User[] oldUsers = users;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        for (int i = 0; i < oldUsers.length; i++) {
+            if (oldUsers[i] != null) {
+                insert(oldUsers[i], oldHashes[i]);
+            }
+        }
+    }
+
+    /**
+     * @brief Removes every user; the capacity is kept.
+     */
+    public void clear() {
+        Arrays.fill(users, null);
+        Arrays.fill(hashes, 0);
+        Arrays.fill(distances, 0);
+        size = 0;
+    }
+
+    /**
+     * @brief Returns the number of users.
+     * @return The user count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Checks whether the table is empty.
+     * @return `true` if there are no users.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Returns the number of slots.
+     * @return The capacity.
+     */
+    public int capacity() {
+        return users.length;
+    }
+
+    /**
+     * @brief Returns the fraction of used slots.
+     * @return `size / capacity`.
+     */
+    public double loadFactor() {
+        return (double) size / users.length;
+    }
+
+    /**
+     * @brief Returns the longest probe distance of a key in the table.
+     * @return The maximum displacement from a home slot, in probe attempts.
+     */
+    public int maxDistance() {
+        int max = 0;
+        for (int i = 0; i < users.length; i++) {
+            if (users[i] != null) {
+                max = Math.max(max, distances[i]);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @brief Returns the hash function of the table.
+     * @return The email hash.
+     */
+    public EmailHash getEmailHash() {
+        return emailHash;
+    }
+
+    /**
+     * @brief Returns the probe sequence of the table.
+     * @return The strategy.
+     */
+    public ProbingStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @brief Returns the users in slot order.
+     * @return A new list of the users.
+     */
+    public List<User> values() {
+        List<User> values = new ArrayList<>(size);
+        for (User user : users) {
+            if (user != null) {
+                values.add(user);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,525 @@
+/**
+ * @file UserLog.java
+ * @brief Append-only user file and its recovery check.
+ *
+ * This class writes `users.bin` as an append-only log: a new user costs one record
+ * append and one update of the user count in the header, independent of how many users
+ * are registered. The Huffman file that accompanies the user file is derived from it,
+ * and a recovery check run at startup brings both files back in line after a crash.
+ *
+ * @version 1.0
+ * @date 2024-12-24
+ * @author User
+ */
+
+package com.abdul.fatma.hamza.sahan.task;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @class UserLog
+ * @brief Static helpers for the `[int count][User records]` user file.
+ *
+ * Registration appends the complete record with a single write, forces it to disk, and
+ * only then overwrites the 4-byte user count, which is the commit point. A crash can
+ * therefore leave complete records past the count, or a torn record at the end of the
+ * file, but never a count that points at missing data.
+ *
+ * The user file is the single source of truth. Entry `i` of the Huffman file holds the
+ * encoded email and password of user `i`; the Huffman file is appended after the user
+ * file is committed and is repaired from the user file by `recover`.
+ *
+ * Huffman file layout: `HUFFMAN_MAGIC`, the canonical code table of the file
+ * (`HuffmanCoding.CodeTable.writeTo`), then one entry per user:
+ * `[int id][email][password]`, each string stored as `[unsigned short chars][int bytes]`
+ * followed by its bit-packed code.
+ */
+public final class UserLog {
+
+    /** @brief Size of the user count at the start of the user file. */
+    static final int HEADER_SIZE = 4;
+
+    /** @brief Name of the Huffman file that belongs to the default `users.bin`. */
+    public static final String DEFAULT_HUFFMAN_FILE = "user.huf";
+
+    /** @brief Magic number at the start of a Huffman file ("HUF1"). */
+    public static final int HUFFMAN_MAGIC = 0x48554631;
+
+    private UserLog() {
+    }
+
+    /**
+     * @class Recovery
+     * @brief What `recover` changed.
+     */
+    public static final class Recovery {
+
+        /** @brief Committed records found past the stored user count and adopted. */
+        public int adoptedUsers;
+
+        /** @brief Bytes of a torn record cut off the end of the user file. */
+        public long truncatedUserBytes;
+
+        /** @brief Huffman entries written for users that had none. */
+        public int addedHuffmanEntries;
+
+        /** @brief Huffman entries removed because their user was never committed. */
+        public int removedHuffmanEntries;
+
+        /** @brief Whether the Huffman file had no readable header and was written anew. */
+        public boolean rebuiltHuffmanFile;
+
+        /**
+         * @brief Checks whether the files were already consistent.
+         * @return `true` if nothing had to be repaired.
+         */
+        public boolean isClean() {
+            return adoptedUsers == 0 && truncatedUserBytes == 0
+                    && addedHuffmanEntries == 0 && removedHuffmanEntries == 0
+                    && !rebuiltHuffmanFile;
+        }
+    }
+
+    /**
+     * @brief Returns the Huffman file that belongs to a user file.
+     *
+     * The default `users.bin` keeps its historical `user.huf` next to it; any other
+     * user file `name.bin` uses `name.huf`, so separate user files never share one
+     * Huffman file.
+     *
+     * @param usersPath Path of the user file.
+     * @return Path of the Huffman file.
+     */
+    public static String huffmanPathFor(String usersPath) {
+        File users = new File(usersPath);
+        String name = users.getName();
+        String huffman;
+        if (name.equals("users.bin")) {
+            huffman = DEFAULT_HUFFMAN_FILE;
+        } else if (name.endsWith(".bin")) {
+            huffman = name.substring(0, name.length() - 4) + ".huf";
+        } else {
+            huffman = name + ".huf";
+        }
+        File parent = users.getParentFile();
+        return parent == null ? huffman : new File(parent, huffman).getPath();
+    }
+
+    /**
+     * @brief Serialises a user record exactly as `User.writeToFile` writes it.
+     *
+     * @param user The user.
+     * @return The record bytes.
+     * @throws IOException If a field is too long to be encoded.
+     */
+    static byte[] encode(User user) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream dos = new DataOutputStream(bytes)) {
+            user.writeToFile(dos);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @brief Reads the committed user count.
+     *
+     * @param usersPath Path of the user file.
+     * @return The user count, or `0` for a missing or empty file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static int count(String usersPath) throws IOException {
+        File file = new File(usersPath);
+        if (file.length() < HEADER_SIZE) {
+            return 0;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return raf.readInt();
+        }
+    }
+
+    /**
+     * @brief Appends a user to the user file and commits it.
+     *
+     * The user gets the id `count + 1`. The record is written and forced before the
+     * new count is written and forced.
+     *
+     * @param usersPath Path of the user file; created if missing.
+     * @param user The user to append; its id is set.
+     * @return Offset of the new record in the user file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static long append(String usersPath, User user) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(usersPath, "rw")) {
+            int count = 0;
+            if (raf.length() < HEADER_SIZE) {
+                raf.setLength(0);
+                raf.writeInt(0);
+            } else {
+                count = raf.readInt();
+            }
+            user.setId(count + 1);
+            byte[] record = encode(user);
+
+            long offset = raf.length();
+            raf.getChannel().write(ByteBuffer.wrap(record), offset);
+            raf.getChannel().force(false);
+
+            raf.getChannel().write(ByteBuffer.allocate(HEADER_SIZE).putInt(0, count + 1), 0);
+            raf.getChannel().force(false);
+            return offset;
+        }
+    }
+
+    /**
+     * @brief Appends the Huffman entry of a user.
+     *
+     * The entry is encoded with the code table in the file header. A missing or empty
+     * file, or one without a readable header, is started anew with
+     * `HuffmanCoding.defaultTable()`; `recover` later regenerates the entries of the
+     * earlier users.
+     *
+     * The append is recorded in the file's `HuffmanDictionary`, which queues a background
+     * rebuild of the table once the entries have drifted away from it.
+     *
+     * @param huffmanPath Path of the Huffman file.
+     * @param user The user.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void appendHuffman(String huffmanPath, User user) throws IOException {
+        File file = new File(huffmanPath);
+        HuffmanDictionary dictionary = HuffmanDictionary.forFile(huffmanPath);
+        synchronized (dictionary) {
+            long lengthBefore = file.length();
+            HuffmanCoding.CodeTable table = readHuffmanTable(file);
+            boolean fresh = table == null;
+            if (fresh) {
+                table = HuffmanCoding.defaultTable();
+            }
+            try (DataOutputStream huffDos = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file, !fresh)))) {
+                if (fresh) {
+                    writeHuffmanHeader(huffDos, table);
+                }
+                writeHuffmanEntry(huffDos, table, user);
+            }
+            dictionary.recordAppend(fresh ? -1 : lengthBefore, user);
+        }
+        try {
+            dictionary.rebuildIfDrifted();
+        } catch (IOException e) {
+            // The entry is written; the table is only checked again on the next append
+            dictionary.invalidate();
+        }
+    }
+
+    /**
+     * @brief Reads the code table of a Huffman file.
+     *
+     * @param file The Huffman file.
+     * @return The table, or `null` if the file is missing, empty or has no valid header.
+     * @throws IOException If the file cannot be read.
+     */
+    static HuffmanCoding.CodeTable readHuffmanTable(File file) throws IOException {
+        if (file.length() < 4) {
+            return null;
+        }
+        try (DataInputStream huffDis = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return readHuffmanHeader(huffDis);
+        }
+    }
+
+    /**
+     * @brief Reads the magic number and code table at the start of a Huffman file.
+     *
+     * @param huffDis The input stream, positioned at the start of the file.
+     * @return The table, or `null` if the header is missing or invalid.
+     * @throws IOException On I/O errors other than a short or invalid header.
+     */
+    private static HuffmanCoding.CodeTable readHuffmanHeader(DataInputStream huffDis) throws IOException {
+        try {
+            if (huffDis.readInt() != HUFFMAN_MAGIC) {
+                return null;
+            }
+            return HuffmanCoding.CodeTable.readFrom(huffDis);
+        } catch (EOFException | StreamCorruptedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @brief Writes the magic number and the code table of a Huffman file.
+     *
+     * @param huffDos The output stream.
+     * @param table The code table.
+     * @throws IOException On I/O errors.
+     */
+    static void writeHuffmanHeader(DataOutput huffDos, HuffmanCoding.CodeTable table) throws IOException {
+        huffDos.writeInt(HUFFMAN_MAGIC);
+        table.writeTo(huffDos);
+    }
+
+    /**
+     * @brief Writes one Huffman entry: id, encoded email and encoded password.
+     *
+     * @param huffDos The output stream.
+     * @param table The code table of the file.
+     * @param user The user.
+     * @throws IOException On I/O errors.
+     */
+    static void writeHuffmanEntry(DataOutput huffDos, HuffmanCoding.CodeTable table, User user)
+            throws IOException {
+        huffDos.writeInt(user.getId());
+        writeHuffmanString(huffDos, table, user.getEmail());
+        writeHuffmanString(huffDos, table, user.getPassword());
+    }
+
+    private static void writeHuffmanString(DataOutput huffDos, HuffmanCoding.CodeTable table, String s)
+            throws IOException {
+        if (s.length() > 0xFFFF) {
+            throw new UTFDataFormatException("String too long for a Huffman entry: " + s.length());
+        }
+        byte[] code = table.encode(s);
+        huffDos.writeShort(s.length());
+        huffDos.writeInt(code.length);
+        huffDos.write(code);
+    }
+
+    /**
+     * @brief Reads every entry of a Huffman file.
+     *
+     * The entries are decoded in blocks by a `HuffmanBlockDecoder`.
+     *
+     * @param huffmanPath Path of the Huffman file.
+     * @return Users holding the id, email and password of each entry, in file order.
+     * @throws IOException If the file cannot be read or is not a Huffman file.
+     */
+    public static List<User> readHuffman(String huffmanPath) throws IOException {
+        List<User> users = new ArrayList<>();
+        HuffmanBlockDecoder decoder = HuffmanBlockDecoder.open(huffmanPath);
+        int count;
+        while ((count = decoder.nextBlock(HuffmanBlockDecoder.DEFAULT_BLOCK_SIZE)) > 0) {
+            for (int i = 0; i < count; i++) {
+                users.add(decoder.user(i));
+            }
+        }
+        return users;
+    }
+
+    /**
+     * @brief Looks up the Huffman entry of an email by scanning the Huffman file.
+     *
+     * @param huffmanPath Path of the Huffman file.
+     * @param email The email address.
+     * @return The entry as a user with id, email and password, or `null` if not found.
+     * @throws IOException If the file cannot be read or is not a Huffman file.
+     */
+    public static User findInHuffman(String huffmanPath, String email) throws IOException {
+        return HuffmanBlockDecoder.open(huffmanPath).find(email);
+    }
+
+    /**
+     * @brief Checks the user file and its Huffman file and repairs them.
+     *
+     * Complete records past the user count are adopted and a torn record at the end is
+     * cut off. The Huffman file is then trimmed to one entry per committed user, and
+     * missing entries are regenerated from the user records.
+     *
+     * @param usersPath Path of the user file.
+     * @param huffmanPath Path of the Huffman file.
+     * @return What was repaired.
+     * @throws IOException If the committed part of the user file is unreadable.
+     */
+    public static Recovery recover(String usersPath, String huffmanPath) throws IOException {
+        Recovery recovery = new Recovery();
+        File usersFile = new File(usersPath);
+        if (usersFile.length() < HEADER_SIZE) {
+            return recovery;
+        }
+
+        List<User> users = new ArrayList<>();
+        try (RandomAccessFile raf = new RandomAccessFile(usersFile, "rw")) {
+            int count = raf.readInt();
+            for (int i = 0; i < count; i++) {
+                User user = new User();
+                user.readFromFile(raf);
+                users.add(user);
+            }
+
+            long committedEnd = raf.getFilePointer();
+            while (committedEnd < raf.length()) {
+                User user = new User();
+                try {
+                    user.readFromFile(raf);
+                } catch (EOFException e) {
+                    break;
+                }
+                users.add(user);
+                committedEnd = raf.getFilePointer();
+                recovery.adoptedUsers++;
+            }
+            if (committedEnd < raf.length()) {
+                recovery.truncatedUserBytes = raf.length() - committedEnd;
+                raf.setLength(committedEnd);
+            }
+            if (recovery.adoptedUsers > 0) {
+                raf.seek(0);
+                raf.writeInt(users.size());
+            }
+            if (!recovery.isClean()) {
+                raf.getChannel().force(false);
+            }
+        }
+
+        reconcileHuffman(huffmanPath, users, recovery);
+        return recovery;
+    }
+
+    /**
+     * @brief Makes the Huffman file hold exactly one entry per user.
+     *
+     * Entries are kept while their id matches their position. A file without a readable
+     * header (such as one written before entries were compressed) is written anew with
+     * a code table trained on the users themselves.
+     *
+     * @param huffmanPath Path of the Huffman file.
+     * @param users The committed users, in file order.
+     * @param recovery Receives the number of added and removed entries.
+     * @throws IOException On I/O errors.
+     */
+    private static void reconcileHuffman(String huffmanPath, List<User> users, Recovery recovery)
+            throws IOException {
+        HuffmanDictionary dictionary = HuffmanDictionary.forFile(huffmanPath);
+        synchronized (dictionary) {
+            reconcileHuffman(new File(huffmanPath), users, recovery);
+            if (!recovery.isClean()) {
+                dictionary.invalidate();
+            }
+        }
+    }
+
+    /**
+     * @brief Does the work of `reconcileHuffman` while the dictionary of the file is locked.
+     */
+    private static void reconcileHuffman(File huffmanFile, List<User> users, Recovery recovery)
+            throws IOException {
+        HuffmanCoding.CodeTable table = readHuffmanTable(huffmanFile);
+        if (table == null) {
+            if (users.isEmpty() && huffmanFile.length() == 0) {
+                return;
+            }
+            recovery.rebuiltHuffmanFile = huffmanFile.length() > 0;
+            rewriteHuffman(huffmanFile, users, trainHuffmanTable(users));
+            recovery.addedHuffmanEntries = users.size();
+            return;
+        }
+
+        long validEnd;
+        int entries = 0;
+        int valid = 0;
+        try (DataInputStream huffDis = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(huffmanFile)))) {
+            readHuffmanHeader(huffDis);
+            long position = huffmanFile.length() - huffDis.available();
+            validEnd = position;
+            boolean inOrder = true;
+            while (true) {
+                try {
+                    int id = huffDis.readInt();
+                    position += 4 + skipHuffmanString(huffDis) + skipHuffmanString(huffDis);
+                    inOrder &= id == entries + 1;
+                } catch (EOFException e) {
+                    break;
+                }
+                entries++;
+                if (inOrder && entries <= users.size()) {
+                    valid = entries;
+                    validEnd = position;
+                }
+            }
+        }
+
+        if (validEnd < huffmanFile.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(huffmanFile, "rw")) {
+                raf.setLength(validEnd);
+            }
+            recovery.removedHuffmanEntries = entries - valid;
+        }
+        if (valid < users.size()) {
+            try (DataOutputStream huffDos = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(huffmanFile, true)))) {
+                for (int i = valid; i < users.size(); i++) {
+                    writeHuffmanEntry(huffDos, table, users.get(i));
+                    recovery.addedHuffmanEntries++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Trains a code table on the emails and passwords of users.
+     *
+     * @param users The users.
+     * @return The table, or the default table for no users.
+     */
+    static HuffmanCoding.CodeTable trainHuffmanTable(List<User> users) {
+        if (users.isEmpty()) {
+            return HuffmanCoding.defaultTable();
+        }
+        List<String> corpus = new ArrayList<>(users.size() * 2);
+        for (User user : users) {
+            corpus.add(user.getEmail());
+            corpus.add(user.getPassword());
+        }
+        return HuffmanCoding.train(corpus);
+    }
+
+    /**
+     * @brief Replaces a Huffman file with a header and one entry per user.
+     *
+     * @param huffmanFile The Huffman file.
+     * @param users The users, in file order.
+     * @param table The code table.
+     * @throws IOException On I/O errors.
+     */
+    static void rewriteHuffman(File huffmanFile, List<User> users, HuffmanCoding.CodeTable table)
+            throws IOException {
+        try (DataOutputStream huffDos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(huffmanFile, false)))) {
+            writeHuffmanHeader(huffDos, table);
+            for (User user : users) {
+                writeHuffmanEntry(huffDos, table, user);
+            }
+        }
+    }
+
+    /**
+     * @brief Skips one encoded string of a Huffman entry.
+     *
+     * @return The number of bytes skipped.
+     */
+    private static long skipHuffmanString(DataInputStream huffDis) throws IOException {
+        huffDis.readUnsignedShort();
+        int length = checkLength(huffDis.readInt());
+        huffDis.skipNBytes(length);
+        return 6L + length;
+    }
+
+    /**
+     * @brief Rejects a corrupt length prefix in the Huffman file.
+     *
+     * @param length The length read.
+     * @return The same length.
+     * @throws EOFException If the length cannot belong to a complete entry.
+     */
+    private static int checkLength(int length) throws EOFException {
+        // At most 16 escape bits plus the escape code per character
+        if (length < 0 || length > 0xFFFF * (16 + HuffmanCoding.MAX_CODE_LENGTH) / 8 + 1) {
+            throw new EOFException("Corrupt Huffman entry length " + length);
+        }
+        return length;
+    }
+}
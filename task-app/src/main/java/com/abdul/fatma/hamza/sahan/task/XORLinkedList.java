@@ -15,6 +15,7 @@ package com.abdul.fatma.hamza.sahan.task;
 
 import java.io.*;
 import java.util.Scanner;
+import java.util.List;
 
 /**
  * @class XORLinkedList
@@ -68,28 +69,16 @@ public class XORLinkedList {
      * @brief Loads tasks into the XOR Linked List from a file.
      *
      * Reads tasks from a binary file and adds them to the XOR Linked List.
+     * Decoding is shared with `Task.loadTasks` through `TaskFileLoader`.
      *
      * @param filename The name of the file containing task data.
      */
     public void loadTasksToXORList(String filename) {
-        try (DataInputStream dis = new DataInputStream(new FileInputStream(filename))) {
-            int taskCount = dis.readInt();
-            System.out.println("Number of tasks to load: " + taskCount);
-
-            for (int i = 0; i < taskCount; i++) {
-                TaskInfo task = new TaskInfo();
-                task.setId(dis.readInt());
-                task.setName(dis.readUTF());
-                task.setDescription(dis.readUTF());
-                task.setCategory(dis.readUTF());
-                task.setDueDate(dis.readUTF());
-
-                int dependencyCount = dis.readInt();
-                task.setDependencyCount(dependencyCount);
-                for (int j = 0; j < dependencyCount; j++) {
-                    task.getDependencies()[j] = dis.readInt();
-                }
-
+        TaskFileLoader loader = new TaskFileLoader(filename);
+        try {
+            List<TaskInfo> tasks = loader.loadAll();
+            System.out.println("Number of tasks to load: " + loader.getStoredCount());
+            for (TaskInfo task : tasks) {
                 addTaskToXORList(task);
             }
             System.out.println("Tasks loaded into XOR Linked List successfully!");
@@ -14,9 +14,26 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import org.junit.*;
 import org.junit.After;
 import org.junit.Before;
@@ -26,6 +43,8 @@ import org.junit.BeforeClass;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import static org.junit.Assert.*;
 
 
@@ -388,7 +407,7 @@ public class TaskTest {
     Task task = new Task(new Scanner(System.in), System.out);
 
     // Act
-    int result = task.addTask(taskList, taskDoublyLinkedList, 0, 100);
+    int result = task.addTask(taskList, taskDoublyLinkedList);
 
     // Assert
     assertEquals(1, result); // Task successfully added
@@ -855,7 +874,8 @@ public class TaskTest {
       assertEquals("John", loadedUser.getName()); // Ad doğrulama
       assertEquals("Doe", loadedUser.getSurname()); // Soyad doğrulama
       assertEquals("john.doe@example.com", loadedUser.getEmail()); // E-posta doğrulama
-      assertEquals("securepassword", loadedUser.getPassword()); // Şifre doğrulama
+      assertTrue(PasswordHasher.isHashed(loadedUser.getPassword())); // Şifre düz metin saklanmaz
+      assertTrue(Task.passwordHasher.verify(1, "securepassword", loadedUser.getPassword())); // Şifre doğrulama
     } catch (IOException e) {
       fail("Error reading from user file: " + e.getMessage());
     }
@@ -1931,12 +1951,7 @@ public class TaskTest {
     testUser.setEmail(testEmail);
     testUser.setPassword(testPassword);
 
-    int index = Task.hashFunction(testEmail);
-
-    if (Task.hashTable[index] == null) {
-      Task.hashTable[index] = new LinkedList<>();
-    }
-    Task.hashTable[index].add(testUser);
+    Task.insertUserToHashTable(testUser);
 
     // Act
     User result = Task.searchUserInHashTable(testEmail, testPassword);
@@ -1967,9 +1982,7 @@ public class TaskTest {
     String testPassword = "emptypassword";
 
     // Hash tablosunu temizle
-    for (int i = 0; i < Task.hashTable.length; i++) {
-      Task.hashTable[i] = null;
-    }
+    Task.userIndex.clear();
 
     // Act
     User result = Task.searchUserInHashTable(testEmail, testPassword);
@@ -2989,23 +3002,31 @@ public class TaskTest {
   }
 
   /**
-   * Test: insertInBPlusTree - Node Split Uyarısı
-   * Kontrol: Maksimum anahtar sınırına ulaşıldığında doğru uyarı verilip verilmediğini doğrula.
+   * Test: insertInBPlusTree - Node Split
+   * Kontrol: Maksimum anahtar sınırı aşıldığında düğümün bölündüğünü ve hiçbir görevin kaybolmadığını doğrula.
    */
   @Test
   public void testNodeSplitRequired() {
+    // Arrange
+    BPlusTree tree = new BPlusTree(3);
     ScheduledTask task4 = new ScheduledTask("Task 4", 15, 1, 2024);
 
-    bPlusTree.insertInBPlusTree(task1);
-    bPlusTree.insertInBPlusTree(task2);
-    bPlusTree.insertInBPlusTree(task3);
-    bPlusTree.insertInBPlusTree(task4);
+    // Act
+    tree.insertInBPlusTree(task1);
+    tree.insertInBPlusTree(task2);
+    tree.insertInBPlusTree(task3);
+    tree.insertInBPlusTree(task4);
 
+    // Assert
     String output = new String(outContent.toByteArray());
-    assertTrue(output.contains("Node splitting required. Implement split logic here."));
+    assertFalse(output.contains("Node splitting required"));
+    assertFalse(tree.root.isLeaf);
+    assertEquals(2, tree.height());
+    assertEquals(4, tree.size());
+    assertEquals(Arrays.asList(task1, task2, task3, task4), tree.rangeSearch(20240101, 20241231));
+    tree.checkStructure();
   }
 
-  
   @Test
   public void testNavigateXORList() {
     xorLinkedList.addTaskToXORList(task101);
@@ -3076,4 +3097,3291 @@ public class TaskTest {
     task.userOptionsMenu();
   }
 
+  /**
+   * Test: TaskStore append/read
+   * Kontrol: Görevlerin slotlara yazılıp dosya yeniden açıldığında okunabildiğini doğrula.
+   */
+  @Test
+  public void testTaskStoreAppendAndReopen() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    task101.setImportanceId(3);
+    task101.setDependencyCount(2);
+    task101.setDependencies(new int[]{202, 303});
+
+    // Act
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      store.append(task202);
+    }
+
+    // Assert
+    assertTrue(TaskStore.isStoreFile(storeFile));
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      assertEquals(2, store.size());
+      TaskInfo first = store.read(0);
+      assertEquals(101, first.getId());
+      assertEquals("Task 101", first.getName());
+      assertEquals("Description 101", first.getDescription());
+      assertEquals("Category 101", first.getCategory());
+      assertEquals("2024-09-15", first.getDueDate());
+      assertEquals(3, first.getImportanceId());
+      assertEquals(2, first.getDependencyCount());
+      assertEquals(303, first.getDependencies()[1]);
+      assertEquals("Task 202", store.read(1).getName());
+      assertEquals(1, store.findSlot(202));
+      assertEquals(-1, store.findSlot(999));
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: TaskStore update
+   * Kontrol: Değişmeyen alanların yeniden yazılmadığını ve önem güncellemesinin slotu değiştirdiğini doğrula.
+   */
+  @Test
+  public void testTaskStoreUpdateInPlace() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      store.append(task202);
+      long lengthBefore = new File(storeFile).length();
+
+      // Act
+      task202.setImportanceId(2);
+      task202.writeToStore(store);
+      task101.setImportanceId(1);
+      task101.writeToStore(store);
+
+      // Assert
+      assertEquals(2, store.size());
+      assertEquals(lengthBefore, new File(storeFile).length());
+      assertEquals(1, store.getImportanceId(0));
+      assertEquals(2, store.read(1).getImportanceId());
+
+      task202.setName("Renamed 202");
+      task202.writeToStore(store);
+      assertEquals("Renamed 202", store.read(1).getName());
+      assertEquals("Task 101", store.read(0).getName());
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: TaskStore growth
+   * Kontrol: Slot kapasitesi aşıldığında dizgi yığınının taşınıp verilerin korunduğunu doğrula.
+   */
+  @Test
+  public void testTaskStoreGrowsBeyondInitialCapacity() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+
+    // Act
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      for (int i = 1; i <= 100; i++) {
+        TaskInfo task = new TaskInfo();
+        task.setId(i);
+        task.setName("Task " + i);
+        task.setDescription("Description " + i);
+        task.setCategory("Category");
+        task.setDueDate("2025-01-01");
+        store.append(task);
+      }
+    }
+
+    // Assert
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      assertEquals(100, store.size());
+      for (int i = 0; i < 100; i++) {
+        TaskInfo task = store.read(i);
+        assertEquals(i + 1, task.getId());
+        assertEquals("Task " + (i + 1), task.getName());
+        assertEquals("Description " + (i + 1), task.getDescription());
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: saveTasks + loadTasks
+   * Kontrol: Görev listesinin görev deposu üzerinden kaydedilip geri yüklendiğini doğrula.
+   */
+  @Test
+  public void testSaveTasksAndLoadTasksUseTaskStore() throws IOException {
+    // Arrange
+    Files.deleteIfExists(Paths.get("tasks.bin"));
+    Task task = new Task(new Scanner(System.in), System.out);
+    ArrayList<TaskInfo> tasks = new ArrayList<>();
+    tasks.add(task101);
+    tasks.add(task202);
+    task202.setImportanceId(3);
+
+    // Act
+    task.saveTasks(tasks);
+    task303.setDependencyCount(1);
+    task303.setDependencies(new int[]{101});
+    tasks.add(task303);
+    task.saveTask(tasks, task303);
+
+    ArrayList<TaskInfo> loaded = new ArrayList<>();
+    int result = task.loadTasks(loaded);
+
+    // Assert
+    assertTrue(TaskStore.isStoreFile("tasks.bin"));
+    assertEquals(3, result);
+    assertEquals("Task 101", loaded.get(0).getName());
+    assertEquals(3, loaded.get(1).getImportanceId());
+    assertEquals(101, loaded.get(2).getDependencies()[0]);
+
+    XORLinkedList xorList = new XORLinkedList();
+    xorList.loadTasksToXORList("tasks.bin");
+    assertTrue(outContent.toString().contains("Tasks loaded into XOR Linked List successfully!"));
+  }
+
+  /**
+   * Test: TaskLog append/replay
+   * Kontrol: Günlüğe yazılan kayıtların aynı nesle ait anlık görüntü üzerine yeniden oynatıldığını doğrula.
+   */
+  @Test
+  public void testTaskLogReplayAppliesRecords() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    Files.deleteIfExists(Paths.get(TaskLog.logPath(storeFile)));
+    long generation;
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      generation = store.getGeneration();
+    }
+
+    // Act
+    task202.setDependencyCount(1);
+    task202.setDependencies(new int[]{101});
+    try (TaskLog log = TaskLog.open(storeFile)) {
+      log.bind(generation);
+      log.logUpsert(task202);
+      log.logImportance(101, 3);
+      assertEquals(2, log.getRecordCount());
+    }
+
+    // Assert
+    ArrayList<TaskInfo> tasks = new ArrayList<>();
+    tasks.add(new TaskInfo());
+    tasks.get(0).setId(101);
+    try {
+      assertEquals(2, TaskLog.replay(storeFile, generation, tasks));
+      assertEquals(2, tasks.size());
+      assertEquals(3, tasks.get(0).getImportanceId());
+      assertEquals("Task 202", tasks.get(1).getName());
+      assertEquals(1, tasks.get(1).getDependencyCount());
+      assertEquals(101, tasks.get(1).getDependencies()[0]);
+      assertEquals(0, TaskLog.replay(storeFile, generation + 1, tasks));
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+      Files.deleteIfExists(Paths.get(TaskLog.logPath(storeFile)));
+    }
+  }
+
+  /**
+   * Test: TaskLog torn tail
+   * Kontrol: Yarım yazılmış son kaydın yok sayılıp dosyadan kesildiğini doğrula.
+   */
+  @Test
+  public void testTaskLogIgnoresTornTail() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    String logFile = TaskLog.logPath(storeFile);
+    Files.deleteIfExists(Paths.get(logFile));
+    try (TaskLog log = TaskLog.open(storeFile)) {
+      log.bind(42);
+      log.logUpsert(task101);
+    }
+    long validLength = new File(logFile).length();
+    try (RandomAccessFile raf = new RandomAccessFile(logFile, "rw")) {
+      raf.seek(validLength);
+      raf.writeInt(100);
+      raf.writeInt(12345);
+      raf.writeByte(1);
+    }
+
+    // Act
+    ArrayList<TaskInfo> tasks = new ArrayList<>();
+    int replayed = TaskLog.replay(storeFile, 42, tasks);
+
+    // Assert
+    try (TaskLog log = TaskLog.open(storeFile)) {
+      assertEquals(1, replayed);
+      assertEquals(101, tasks.get(0).getId());
+      assertEquals(1, log.getRecordCount());
+      assertEquals(validLength, new File(logFile).length());
+    } finally {
+      Files.deleteIfExists(Paths.get(logFile));
+    }
+  }
+
+  /**
+   * Test: TaskLog compaction
+   * Kontrol: Sıkıştırmanın günlüğü depoya katlayıp günlüğü boşalttığını doğrula.
+   */
+  @Test
+  public void testTaskLogCompactFoldsIntoStore() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    Files.deleteIfExists(Paths.get(TaskLog.logPath(storeFile)));
+    long generation;
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      generation = store.getGeneration();
+    }
+
+    try (TaskLog log = TaskLog.open(storeFile)) {
+      log.bind(generation);
+      log.logUpsert(task202);
+      log.logImportance(101, 2);
+
+      // Act
+      int folded = log.compact();
+
+      // Assert
+      assertEquals(2, folded);
+      assertEquals(0, log.getRecordCount());
+      assertNotEquals(generation, log.getGeneration());
+      assertFalse(new File(storeFile + TaskStore.TEMP_SUFFIX).exists());
+    }
+    try (TaskStore store = TaskStore.open(storeFile);
+         TaskLog log = TaskLog.open(storeFile)) {
+      assertEquals(store.getGeneration(), log.getGeneration());
+      assertEquals(2, store.size());
+      assertEquals(2, store.getImportanceId(0));
+      assertEquals("Task 202", store.read(1).getName());
+      assertEquals(0, TaskLog.replay(storeFile, generation, new ArrayList<>()));
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+      Files.deleteIfExists(Paths.get(TaskLog.logPath(storeFile)));
+    }
+  }
+
+  /**
+   * Test: concurrent TaskLog appends
+   * Kontrol: Eşzamanlı yazıcıların grup işlemesiyle tüm kayıtları kaybetmeden yazdığını doğrula.
+   */
+  @Test
+  public void testTaskLogConcurrentAppends() throws Exception {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(TaskLog.logPath(storeFile)));
+    Thread[] writers = new Thread[4];
+
+    try (TaskLog log = TaskLog.open(storeFile)) {
+      log.bind(7);
+      for (int t = 0; t < writers.length; t++) {
+        final int base = t * 100;
+        writers[t] = new Thread(() -> {
+          for (int i = 1; i <= 25; i++) {
+            try {
+              log.logImportance(base + i, 1);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }
+        });
+        writers[t].start();
+      }
+
+      // Act
+      for (Thread writer : writers) {
+        writer.join();
+      }
+
+      // Assert
+      assertEquals(100, log.getRecordCount());
+      assertEquals(100, TaskLog.replay(storeFile, 7, new ArrayList<>()));
+    } finally {
+      Files.deleteIfExists(Paths.get(TaskLog.logPath(storeFile)));
+    }
+  }
+
+  /**
+   * Test: TaskFileLoader bulk load
+   * Kontrol: Sıralı görev dosyasının tek okumada belleğe alınıp ASCII olmayan metinlerle birlikte çözüldüğünü doğrula.
+   */
+  @Test
+  public void testTaskFileLoaderLoadsSequentialFile() throws IOException {
+    // Arrange
+    String file = "test_task_loader.bin";
+    task202.setName("Görev 202");
+    task303.setDependencyCount(2);
+    task303.setDependencies(new int[]{101, 202});
+    try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(file))) {
+      dos.writeInt(3);
+      TaskStore.writeRecord(dos, task101);
+      TaskStore.writeRecord(dos, task202);
+      TaskStore.writeRecord(dos, task303);
+    }
+
+    // Act
+    TaskFileLoader loader = new TaskFileLoader(file);
+    java.util.List<TaskInfo> tasks = loader.loadAll();
+
+    // Assert
+    try {
+      assertEquals(3, loader.getStoredCount());
+      assertEquals(3, tasks.size());
+      assertEquals("Task 101", tasks.get(0).getName());
+      assertEquals("Görev 202", tasks.get(1).getName());
+      assertEquals(202, tasks.get(2).getDependencies()[1]);
+    } finally {
+      Files.deleteIfExists(Paths.get(file));
+    }
+  }
+
+  /**
+   * Test: TaskFileLoader streaming iterator
+   * Kontrol: Parça sınırlarına denk gelen kayıtların küçük parça boyutuyla da doğru okunduğunu doğrula.
+   */
+  @Test
+  public void testTaskFileLoaderIteratorReadsAcrossChunks() throws IOException {
+    // Arrange
+    String file = "test_task_loader.bin";
+    try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(file))) {
+      dos.writeInt(50);
+      for (int i = 1; i <= 50; i++) {
+        TaskInfo task = new TaskInfo();
+        task.setId(i);
+        task.setName("Task " + i);
+        task.setDescription("A fairly long description for task number " + i);
+        task.setCategory("Category");
+        task.setDueDate("2025-01-01");
+        TaskStore.writeRecord(dos, task);
+      }
+    }
+
+    // Act
+    int count = 0;
+    try (TaskFileLoader.TaskIterator it = new TaskFileLoader(file).iterator(64)) {
+      while (it.hasNext()) {
+        TaskInfo task = it.next();
+        count++;
+        // Assert
+        assertEquals(count, task.getId());
+        assertEquals("Task " + count, task.getName());
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(file));
+    }
+    assertEquals(50, count);
+  }
+
+  /**
+   * Test: TaskFileLoader truncated file
+   * Kontrol: Yarıda kesilmiş bir dosyanın EOFException ile reddedildiğini doğrula.
+   */
+  @Test
+  public void testTaskFileLoaderRejectsTruncatedFile() throws IOException {
+    // Arrange
+    String file = "test_task_loader.bin";
+    try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(file))) {
+      dos.writeInt(2);
+      TaskStore.writeRecord(dos, task101);
+      dos.writeInt(202);
+    }
+
+    // Act & Assert
+    try {
+      new TaskFileLoader(file).loadAll();
+      fail("Expected EOFException");
+    } catch (EOFException e) {
+      // expected
+    } finally {
+      Files.deleteIfExists(Paths.get(file));
+    }
+  }
+
+  /**
+   * Test: TaskStore record checksum
+   * Kontrol: Bozulan bir kaydın sağlama toplamıyla tespit edildiğini ve diğer kayıtların okunabildiğini doğrula.
+   */
+  @Test
+  public void testTaskStoreDetectsCorruptRecord() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    int length;
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      store.append(task202);
+      length = store.recordLength(1);
+    }
+    byte[] bytes = Files.readAllBytes(Paths.get(storeFile));
+    int position = -1;
+    byte[] name = "Task 202".getBytes("UTF-8");
+    for (int i = 0; i + name.length <= bytes.length && position < 0; i++) {
+      if (java.util.Arrays.equals(java.util.Arrays.copyOfRange(bytes, i, i + name.length), name)) {
+        position = i;
+      }
+    }
+    bytes[position] = 'X';
+    Files.write(Paths.get(storeFile), bytes);
+
+    // Act & Assert
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      assertTrue(length > 0);
+      assertEquals(1, store.verify());
+      assertEquals("Task 101", store.read(0).getName());
+      try {
+        store.read(1);
+        fail("Expected checksum mismatch");
+      } catch (IOException e) {
+        assertTrue(e.getMessage().contains("Checksum mismatch"));
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: TaskStore upgrade of a sequential file
+   * Kontrol: Eski sıralı görev dosyasının güncel sürüme yükseltilip görevlerin korunduğunu doğrula.
+   */
+  @Test
+  public void testTaskStoreUpgradesSequentialFile() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(storeFile))) {
+      dos.writeInt(2);
+      TaskStore.writeRecord(dos, task101);
+      TaskStore.writeRecord(dos, task202);
+    }
+
+    // Act
+    int upgraded = TaskStore.upgrade(storeFile);
+
+    // Assert
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      assertEquals(2, upgraded);
+      assertTrue(TaskStore.isStoreFile(storeFile));
+      assertEquals(2, store.size());
+      assertEquals("Task 202", store.read(1).getName());
+      assertEquals(0, store.verify());
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: TaskStore upgrade of a version 1 store
+   * Kontrol: Sürüm 1 deposunun açılırken yükseltildiğini ve nesil numarasının korunduğunu doğrula.
+   */
+  @Test
+  public void testTaskStoreUpgradesVersion1Store() throws IOException {
+    // Arrange: header, one 96-byte slot (capacity 1) and the string heap
+    String storeFile = "test_task_store.bin";
+    byte[] heap = "Old taskOld descriptionCat2025-02-01".getBytes("UTF-8");
+    java.nio.ByteBuffer v1 = java.nio.ByteBuffer.allocate(64 + 96 + heap.length);
+    v1.putInt(0, TaskStore.MAGIC).putInt(4, 1).putInt(8, 1).putInt(12, 1).putInt(16, heap.length);
+    v1.putLong(24, 1234L);
+    v1.putInt(64, 7).putInt(68, 2).putInt(72, 1);
+    int[][] strings = {{0, 8}, {8, 15}, {23, 3}, {26, 10}};
+    for (int field = 0; field < 4; field++) {
+      v1.putInt(76 + field * 8, strings[field][0]).putInt(80 + field * 8, strings[field][1]);
+    }
+    v1.putInt(108, 5);
+    v1.position(160);
+    v1.put(heap);
+    Files.write(Paths.get(storeFile), v1.array());
+
+    // Act
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      TaskInfo task = store.read(0);
+
+      // Assert
+      assertEquals(1234L, store.getGeneration());
+      assertEquals(7, task.getId());
+      assertEquals("Old task", task.getName());
+      assertEquals("Old description", task.getDescription());
+      assertEquals("2025-02-01", task.getDueDate());
+      assertEquals(2, task.getImportanceId());
+      assertEquals(5, task.getDependencies()[0]);
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: TaskStore variable-length dependencies
+   * Kontrol: Ondan fazla bağımlılığın sıkıştırılmış biçimde saklanıp geri okunduğunu doğrula.
+   */
+  @Test
+  public void testTaskStoreStoresManyDependencies() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    int[] dependencies = new int[50];
+    for (int i = 0; i < dependencies.length; i++) {
+      dependencies[i] = (i % 2 == 0) ? 1000 + i : 5 - i;
+    }
+    task101.setDependencies(dependencies);
+
+    // Act
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      store.append(task202);
+
+      // Assert
+      assertTrue(store.recordLength(0) < 4 * dependencies.length);
+      TaskInfo first = store.read(0);
+      assertEquals(50, first.getDependencyCount());
+      assertArrayEquals(dependencies, first.getDependencies());
+      TaskInfo second = store.read(1);
+      assertEquals(0, second.getDependencyCount());
+      assertSame(TaskInfo.NO_DEPENDENCIES, second.getDependencies());
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: TaskDependencyGraph CSR
+   * Kontrol: Bağımlılıkların satır ofsetleriyle tek bir dizide tutulduğunu ve sıfırların atlandığını doğrula.
+   */
+  @Test
+  public void testTaskDependencyGraphBuildsCsr() {
+    // Arrange
+    ArrayList<TaskInfo> tasks = new ArrayList<>();
+    int[][] dependencies = {{2, 3}, {0}, {}, {1, 2, 3}};
+    for (int i = 0; i < dependencies.length; i++) {
+      TaskInfo task = new TaskInfo();
+      task.setId(i + 1);
+      task.setDependencies(dependencies[i]);
+      tasks.add(task);
+    }
+
+    // Act
+    TaskDependencyGraph graph = TaskDependencyGraph.fromTasks(tasks);
+
+    // Assert
+    assertEquals(4, graph.rowCount());
+    assertEquals(5, graph.edgeCount());
+    assertEquals(0, graph.dependencyStart(0));
+    assertEquals(2, graph.dependencyEnd(0));
+    assertEquals(graph.dependencyStart(1), graph.dependencyEnd(1));
+    assertEquals(3, graph.firstRowOf(4));
+    assertEquals(-1, graph.firstRowOf(9));
+    assertEquals(1, graph.dependencyAt(graph.dependencyStart(3)));
+  }
+
+  /**
+   * Test: SCC analysis on the CSR graph
+   * Kontrol: CSR tabanlı analizin liste tabanlı analizle aynı çıktıyı ürettiğini doğrula.
+   */
+  @Test
+  public void testAnalyzeSCCWithCsrGraphMatchesMapVersion() {
+    // Arrange
+    ArrayList<TaskInfo> tasks = new ArrayList<>();
+    int[][] dependencies = {{2}, {3}, {1, 4}, {5}, {4}, {}};
+    java.util.Map<Integer, java.util.List<Integer>> adjacency = new java.util.HashMap<>();
+    for (int i = 0; i < dependencies.length; i++) {
+      TaskInfo task = new TaskInfo();
+      task.setId(i + 1);
+      task.setDependencies(dependencies[i]);
+      tasks.add(task);
+      java.util.List<Integer> row = new ArrayList<>();
+      for (int dependency : dependencies[i]) {
+        row.add(dependency - 1);
+      }
+      adjacency.put(i, row);
+    }
+    StringBuilder expected = new StringBuilder();
+    new SCCAnalyzer().findSCCs(tasks.size(), adjacency, expected);
+
+    // Act
+    StringBuilder output = new StringBuilder();
+    new SCCAnalyzer().analyzeSCC(tasks, output);
+
+    // Assert
+    assertEquals(expected.toString(), output.toString());
+    assertTrue(output.toString().contains("SCC #1"));
+  }
+
+  /**
+   * Test: LazyTaskInfo on-demand decoding
+   * Kontrol: Açıklama, kategori ve tarih alanlarının ilk erişime kadar çözülmediğini doğrula.
+   */
+  @Test
+  public void testLazyTaskInfoDecodesFieldsOnFirstAccess() throws IOException {
+    // Arrange
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream dos = new DataOutputStream(bytes);
+    dos.writeInt(7);
+    task202.setDescription("Açıklama 202");
+    task202.setDependencies(new int[]{101, 303});
+    TaskStore.writeRecord(dos, task202);
+    TaskStore.writeRecord(dos, task303);
+
+    // Act
+    LazyTaskInfo first = new LazyTaskInfo(bytes.toByteArray(), 4, false);
+    LazyTaskInfo second = new LazyTaskInfo(bytes.toByteArray(), first.end(), false);
+
+    // Assert
+    assertEquals(202, first.getId());
+    assertEquals("Task 202", first.getName());
+    assertEquals(303, first.getDependencies()[1]);
+    assertTrue(first.isPending(LazyTaskInfo.DESCRIPTION));
+    assertEquals("Açıklama 202", first.getDescription());
+    assertFalse(first.isPending(LazyTaskInfo.DESCRIPTION));
+    assertTrue(first.isPending(LazyTaskInfo.CATEGORY));
+    first.setCategory("Changed");
+    assertEquals("Changed", first.getCategory());
+    assertEquals("2024-08-20", first.getDueDate());
+    assertEquals(303, second.getId());
+    assertEquals("Category 303", second.getCategory());
+  }
+
+  /**
+   * Test: TaskFileLoader returns lazy tasks
+   * Kontrol: Görev deposundan yüklenen görevlerin tembel görünümler olduğunu ve alanların doğru çözüldüğünü doğrula.
+   */
+  @Test
+  public void testTaskFileLoaderReturnsLazyTasksFromStore() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      task202.setImportanceId(2);
+      store.append(task101);
+      store.append(task202);
+    }
+
+    // Act
+    java.util.List<TaskInfo> tasks;
+    try {
+      tasks = new TaskFileLoader(storeFile).loadAll();
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+
+    // Assert
+    assertEquals(2, tasks.size());
+    assertTrue(tasks.get(0) instanceof LazyTaskInfo);
+    assertTrue(((LazyTaskInfo) tasks.get(1)).isPending(LazyTaskInfo.DESCRIPTION));
+    assertEquals(2, tasks.get(1).getImportanceId());
+    assertEquals("Description 101", tasks.get(0).getDescription());
+    assertEquals("Category 202", tasks.get(1).getCategory());
+  }
+
+  /**
+   * Test: parallel decoding of a sequential file
+   * Kontrol: Çok iş parçacıklı yüklemenin sıralı yükleme ile aynı sonucu verdiğini doğrula.
+   */
+  @Test
+  public void testTaskFileLoaderParallelMatchesSequential() throws IOException {
+    // Arrange
+    String file = "test_task_loader.bin";
+    int count = TaskFileLoader.PARALLEL_THRESHOLD * 2 + 17;
+    try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      dos.writeInt(count);
+      for (int i = 1; i <= count; i++) {
+        TaskInfo task = new TaskInfo();
+        task.setId(i);
+        task.setName("Task " + i);
+        task.setDescription("Description " + i);
+        task.setCategory(i % 2 == 0 ? "Work" : "Personal");
+        task.setDueDate("2025-01-01");
+        task.setDependencies(i > 1 ? new int[]{i - 1} : new int[0]);
+        TaskStore.writeRecord(dos, task);
+      }
+    }
+
+    // Act
+    java.util.List<TaskInfo> sequential;
+    java.util.List<TaskInfo> parallel;
+    try {
+      sequential = new TaskFileLoader(file, 1).loadAll();
+      parallel = new TaskFileLoader(file, 4).loadAll();
+    } finally {
+      Files.deleteIfExists(Paths.get(file));
+    }
+
+    // Assert
+    assertEquals(count, parallel.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(sequential.get(i).getId(), parallel.get(i).getId());
+      assertEquals(sequential.get(i).getDescription(), parallel.get(i).getDescription());
+      assertEquals(sequential.get(i).getDependencyCount(), parallel.get(i).getDependencyCount());
+    }
+  }
+
+  /**
+   * Test: parallel decoding of a task store
+   * Kontrol: Ofset tablosu üzerinden paralel çözülen deponun sırayı koruduğunu doğrula.
+   */
+  @Test
+  public void testTaskStoreParallelReadAll() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    int count = TaskFileLoader.PARALLEL_THRESHOLD + 100;
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      for (int i = 1; i <= count; i++) {
+        TaskInfo task = new TaskInfo();
+        task.setId(i);
+        task.setName("Task " + i);
+        task.setDescription("Description " + i);
+        task.setCategory("Category");
+        task.setDueDate("2025-01-01");
+        store.append(task);
+      }
+
+      // Act
+      java.util.List<TaskInfo> tasks = store.readAll(4);
+
+      // Assert
+      assertEquals(count, tasks.size());
+      for (int i = 0; i < count; i++) {
+        assertEquals(i + 1, tasks.get(i).getId());
+      }
+      assertEquals("Description " + count, tasks.get(count - 1).getDescription());
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: setters mark a task dirty
+   * Kontrol: Depodan okunan görevin temiz olduğunu ve herhangi bir ayarlayıcının onu kirli yaptığını doğrula.
+   */
+  @Test
+  public void testTaskInfoDirtyTracking() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      store.append(task202);
+
+      // Act
+      java.util.List<TaskInfo> tasks = store.readAll();
+      String description = tasks.get(0).getDescription();
+      tasks.get(1).setImportanceId(3);
+
+      // Assert
+      assertEquals("Description 101", description);
+      assertFalse(tasks.get(0).isDirty());
+      assertTrue(tasks.get(0).isCleanIn(store.getGeneration()));
+      assertTrue(tasks.get(1).isDirty());
+      assertTrue(new TaskInfo().isDirty());
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: flush writes only modified tasks
+   * Kontrol: Yalnızca değiştirilen görevlerin yazıldığını ve sığan kaydın yerinde güncellendiğini doğrula.
+   */
+  @Test
+  public void testTaskStoreFlushWritesOnlyDirtyTasks() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      for (int i = 1; i <= 50; i++) {
+        TaskInfo task = new TaskInfo();
+        task.setId(i);
+        task.setName("Task " + i);
+        task.setDescription("Description " + i);
+        task.setCategory("Category");
+        task.setDueDate("2025-01-01");
+        store.append(task);
+      }
+      java.util.List<TaskInfo> tasks = store.readAll();
+      long length = new File(storeFile).length();
+      tasks.get(7).setName("Task 8!");
+      tasks.get(30).setDescription("Edited");
+
+      // Act
+      int written = store.flush(tasks);
+      int writtenAgain = store.flush(tasks);
+
+      // Assert
+      assertEquals(2, written);
+      assertEquals(0, writtenAgain);
+      assertEquals(length, new File(storeFile).length());
+      assertEquals("Task 8!", store.read(7).getName());
+      assertEquals("Edited", store.read(30).getDescription());
+      assertEquals("Description 30", store.read(29).getDescription());
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: flush relocates grown records and appends new tasks
+   * Kontrol: Büyüyen kaydın taşındığını, yeni görevin eklendiğini ve diğer kayıtların korunduğunu doğrula.
+   */
+  @Test
+  public void testTaskStoreFlushRelocatesAndAppends() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      store.append(task202);
+      java.util.List<TaskInfo> tasks = store.readAll();
+      StringBuilder longDescription = new StringBuilder();
+      for (int i = 0; i < 100; i++) {
+        longDescription.append("long ");
+      }
+      tasks.get(0).setDescription(longDescription.toString());
+      TaskInfo added = new TaskInfo();
+      added.setId(303);
+      added.setName("Task 303");
+      added.setDescription("Description 303");
+      added.setCategory("Category 303");
+      added.setDueDate("2024-12-31");
+      tasks.add(added);
+
+      // Act
+      int written = store.flush(tasks);
+
+      // Assert
+      assertEquals(2, written);
+      assertEquals(3, store.size());
+      assertEquals(0, store.verify());
+      assertEquals(longDescription.toString(), store.read(0).getDescription());
+      assertEquals("Description 202", store.read(1).getDescription());
+      assertEquals(303, store.read(2).getId());
+      assertFalse(added.isDirty());
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+
+  /**
+   * Test: clean state is bound to one store
+   * Kontrol: Bir depoda temiz olan görevin başka bir depoya temizlenmiş sayılmadan yazıldığını doğrula.
+   */
+  @Test
+  public void testTaskStoreFlushOtherGeneration() throws IOException {
+    // Arrange
+    String firstFile = "test_task_store.bin";
+    String secondFile = "test_task_store2.bin";
+    Files.deleteIfExists(Paths.get(firstFile));
+    Files.deleteIfExists(Paths.get(secondFile));
+    try (TaskStore first = TaskStore.open(firstFile);
+         TaskStore second = TaskStore.open(secondFile)) {
+      first.append(task101);
+      java.util.List<TaskInfo> tasks = first.readAll();
+
+      // Act
+      int written = second.flush(tasks);
+
+      // Assert
+      assertEquals(1, written);
+      assertEquals(1, second.size());
+      assertEquals("Task 101", second.read(0).getName());
+    } finally {
+      Files.deleteIfExists(Paths.get(firstFile));
+      Files.deleteIfExists(Paths.get(secondFile));
+    }
+  }
+
+  /**
+   * Test: TaskTable stores tasks column by column
+   * Kontrol: Sütunlu tablonun tüm alanları doğru döndürdüğünü ve tekrarlanan metinleri bir kez sakladığını doğrula.
+   */
+  @Test
+  public void testTaskTableRoundTrip() {
+    // Arrange
+    ArrayList<TaskInfo> tasks = new ArrayList<>();
+    for (int i = 1; i <= 100; i++) {
+      TaskInfo task = new TaskInfo();
+      task.setId(i);
+      task.setName("Task " + i);
+      task.setDescription("Açıklama " + i);
+      task.setCategory(i % 2 == 0 ? "Work" : "Personal");
+      task.setDueDate("2025-01-0" + (i % 9 + 1));
+      task.setDependencies(i > 2 ? new int[]{i - 1, i - 2} : new int[0]);
+      if (i % 3 == 0) {
+        task.setImportanceId(2);
+      }
+      tasks.add(task);
+    }
+
+    // Act
+    TaskTable table = TaskTable.fromTasks(tasks);
+    TaskInfo copy = table.toTaskInfo(49);
+
+    // Assert
+    assertEquals(100, table.size());
+    assertEquals("Açıklama 50", table.getDescription(49));
+    assertEquals("Work", table.getCategory(49));
+    assertEquals(2, table.getDependencyCount(49));
+    assertEquals(48, table.getDependency(49, 1));
+    assertEquals(0, table.getDependencyCount(0));
+    assertEquals(2, table.getImportanceId(2));
+    assertEquals(20250106, table.getDueDateKey(49));
+    assertEquals("Task 50", copy.getName());
+    assertArrayEquals(new int[]{49, 48}, copy.getDependencies());
+    // 100 names + 100 descriptions + 2 categories + 9 due dates
+    assertEquals(211, table.distinctStrings());
+  }
+
+  /**
+   * Test: TaskTable grows and keeps null fields
+   * Kontrol: Kapasite aşıldığında tablonun büyüdüğünü ve boş alanların null olarak korunduğunu doğrula.
+   */
+  @Test
+  public void testTaskTableGrowsAndKeepsNulls() {
+    // Arrange
+    TaskTable table = new TaskTable(1);
+    TaskInfo empty = new TaskInfo();
+    empty.setId(7);
+
+    // Act
+    for (int i = 0; i < 5000; i++) {
+      table.add(i == 4321 ? empty : task101);
+    }
+    table.setImportanceId(0, 3);
+
+    // Assert
+    assertEquals(5000, table.size());
+    assertEquals(7, table.getId(4321));
+    assertNull(table.getName(4321));
+    assertEquals("Description 101", table.getDescription(4999));
+    assertEquals(0, table.getDueDateKey(4321));
+    assertEquals(3, table.getImportanceId(0));
+    assertEquals(4, table.distinctStrings());
+    assertTrue(table.offHeapBytes() >= 5000L * 4 * 8);
+  }
+
+  /**
+   * Test: Task operations run against the table backend
+   * Kontrol: Görev listeleme işlemlerinin liste ve tablo üzerinde aynı çıktıyı verdiğini doğrula.
+   */
+  @Test
+  public void testViewTaskWithTaskTable() {
+    // Arrange
+    ByteArrayOutputStream listOut = new ByteArrayOutputStream();
+    ByteArrayOutputStream tableOut = new ByteArrayOutputStream();
+    ArrayList<TaskInfo> tasks = new ArrayList<>(Arrays.asList(task101, task202, task303));
+    TaskTable table = TaskTable.fromTasks(tasks);
+
+    // Act
+    new Task(new Scanner("\n\n"), new PrintStream(listOut)).viewTask(tasks);
+    new Task(new Scanner("\n\n"), new PrintStream(tableOut)).viewTask(table);
+
+    // Assert
+    assertTrue(listOut.toString().contains("Description 101"));
+    assertEquals(listOut.toString(), tableOut.toString());
+  }
+
+  /**
+   * Test: importance order of a task source
+   * Kontrol: Önem sırasının kararlı olduğunu ve kaynağın yerinde sıralanmadığını doğrula.
+   */
+  @Test
+  public void testImportanceOrderOfTaskTable() {
+    // Arrange
+    TaskTable table = new TaskTable();
+    int[] importance = {3, 0, 1, 3, 2, 1};
+    for (int i = 0; i < importance.length; i++) {
+      TaskInfo task = new TaskInfo();
+      task.setId(i + 1);
+      task.setName("Task " + (i + 1));
+      if (importance[i] != 0) {
+        task.setImportanceId(importance[i]);
+      }
+      table.add(task);
+    }
+
+    // Act
+    int[] order = Task.importanceOrder(table);
+
+    // Assert
+    assertArrayEquals(new int[]{1, 2, 5, 4, 0, 3}, order);
+    assertEquals(1, table.getId(0));
+  }
+
+  /**
+   * Test: TaskList grows past the old limit of 100 tasks
+   * Kontrol: Görev listesinin sabit bir sınır olmadan büyüme katsayısıyla genişlediğini doğrula.
+   */
+  @Test
+  public void testTaskListGrowsWithoutLimit() {
+    // Arrange
+    TaskList tasks = new TaskList(new TaskCapacityPolicy(4, 2.0, 0, TaskCapacityPolicy.Action.REJECT));
+
+    // Act
+    for (int i = 1; i <= 1000; i++) {
+      TaskInfo task = new TaskInfo();
+      task.setId(i);
+      tasks.add(task);
+    }
+
+    // Assert
+    assertEquals(1000, tasks.size());
+    assertEquals(TaskCapacityPolicy.Action.ACCEPT, tasks.admit(task101));
+    assertEquals(1001, Task.getNewTaskId(tasks));
+  }
+
+  /**
+   * Test: capacity policy growth and admission
+   * Kontrol: Büyüme hesabının ve bellek bütçesi kararlarının doğru olduğunu doğrula.
+   */
+  @Test
+  public void testTaskCapacityPolicy() {
+    // Arrange
+    TaskCapacityPolicy policy = new TaskCapacityPolicy(10, 1.5, 1000, TaskCapacityPolicy.Action.SPILL);
+    long taskBytes = task101.estimateHeapBytes();
+
+    // Act & Assert
+    assertEquals(15, policy.nextCapacity(10, 11));
+    assertEquals(40, policy.nextCapacity(10, 40));
+    assertEquals(2, policy.nextCapacity(1, 2));
+    assertEquals(TaskCapacityPolicy.Action.ACCEPT, policy.admit(1000 - taskBytes, task101));
+    assertEquals(TaskCapacityPolicy.Action.SPILL, policy.admit(1001 - taskBytes, task101));
+    assertEquals(TaskCapacityPolicy.Action.ACCEPT, TaskCapacityPolicy.unlimited().admit(Long.MAX_VALUE / 2, task101));
+    try {
+      new TaskCapacityPolicy(10, 1.0, 0, TaskCapacityPolicy.Action.REJECT);
+      fail("Growth factor 1.0 must be rejected");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("Growth factor"));
+    }
+  }
+
+  /**
+   * Test: addTask rejects tasks over the memory budget
+   * Kontrol: Bellek bütçesi aşıldığında REJECT politikasının yeni görevi reddettiğini doğrula.
+   */
+  @Test
+  public void testAddTaskRejectedByMemoryBudget() {
+    // Arrange
+    TaskList tasks = new TaskList(new TaskCapacityPolicy(4, 2.0, 1, TaskCapacityPolicy.Action.REJECT));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Task task = new Task(new Scanner("Task1\nDescription1\nCategory1\n2024-12-31\n0\n"), new PrintStream(output));
+
+    // Act
+    int result = task.addTask(tasks, new DoubleLinkedList());
+
+    // Assert
+    assertEquals(0, result);
+    assertTrue(tasks.isEmpty());
+    assertTrue(output.toString().contains("Task memory budget reached. Cannot add more tasks."));
+  }
+
+  /**
+   * Test: addTask spills tasks over the memory budget to disk
+   * Kontrol: SPILL politikasında görevin yalnızca diske yazıldığını ve kimliğinin yeniden kullanılmadığını doğrula.
+   */
+  @Test
+  public void testAddTaskSpilledByMemoryBudget() {
+    // Arrange
+    TaskList tasks = new TaskList(new TaskCapacityPolicy(4, 2.0, 1, TaskCapacityPolicy.Action.SPILL));
+    tasks.add(task101);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Task task = new Task(new Scanner("Spilled\nDescription1\nCategory1\n2024-12-31\n0\n"), new PrintStream(output));
+
+    // Act
+    int result = task.addTask(tasks, new DoubleLinkedList());
+
+    // Assert
+    assertEquals(1, result);
+    assertEquals(1, tasks.size());
+    assertArrayEquals(new int[]{102}, tasks.getSpilledIds());
+    assertEquals(103, Task.getNewTaskId(tasks));
+    assertTrue(output.toString().contains("Task saved to disk only."));
+  }
+
+  /**
+   * Writes a user file in the `[count][records]` layout.
+   */
+  private void writeUserFile(String path, String... emails) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(path, "rw")) {
+      raf.setLength(0);
+      raf.writeInt(emails.length);
+      for (int i = 0; i < emails.length; i++) {
+        User user = new User();
+        user.setId(i + 1);
+        user.setName("Name" + i);
+        user.setSurname("Surname" + i);
+        user.setEmail(emails[i]);
+        user.setPassword("password" + i);
+        user.writeToFile(raf);
+      }
+    }
+  }
+
+  /**
+   * Test: email index built from a user file
+   * Kontrol: E-posta indeksinin kullanıcı dosyasından kurulduğunu ve doğru kaydı bulduğunu doğrula.
+   */
+  @Test
+  public void testUserEmailIndexFindsUsers() throws IOException {
+    // Arrange
+    String path = "test_index_users.bin";
+    String[] emails = new String[200];
+    for (int i = 0; i < emails.length; i++) {
+      emails[i] = "user" + i + "@example.com";
+    }
+    writeUserFile(path, emails);
+
+    // Act & Assert
+    try (UserEmailIndex index = UserEmailIndex.open(path)) {
+      assertEquals(200, index.size());
+      assertEquals("password123", index.find("user123@example.com").getPassword());
+      assertEquals(1, index.find("user0@example.com").getId());
+      assertNull(index.find("nobody@example.com"));
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(path + UserEmailIndex.SUFFIX));
+    }
+  }
+
+  /**
+   * Test: stale email index is rebuilt
+   * Kontrol: Kullanıcı dosyası dışarıdan değiştiğinde indeksin yeniden kurulduğunu doğrula.
+   */
+  @Test
+  public void testUserEmailIndexRebuildsWhenStale() throws IOException {
+    // Arrange
+    String path = "test_index_users.bin";
+    writeUserFile(path, "old@example.com");
+    try (UserEmailIndex index = UserEmailIndex.open(path)) {
+      assertNotNull(index.find("old@example.com"));
+    }
+    writeUserFile(path, "new@example.com", "other@example.com");
+    new File(path).setLastModified(new File(path).lastModified() + 2000);
+
+    // Act & Assert
+    try (UserEmailIndex index = UserEmailIndex.open(path)) {
+      assertNull(index.find("old@example.com"));
+      assertEquals("password1", index.find("other@example.com").getPassword());
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(path + UserEmailIndex.SUFFIX));
+    }
+  }
+
+  /**
+   * Test: registration and login through the email index
+   * Kontrol: Kayıt olan kullanıcının indeks üzerinden giriş yapabildiğini ve aynı e-postanın reddedildiğini doğrula.
+   */
+  @Test
+  public void testRegisterAndLoginWithEmailIndex() throws IOException {
+    // Arrange
+    String path = "test_index_users.bin";
+    Files.deleteIfExists(Paths.get(path));
+    Files.deleteIfExists(Paths.get(path + UserEmailIndex.SUFFIX));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Task task = new Task(new Scanner(System.in), new PrintStream(output));
+    User first = new User();
+    first.setName("Ada");
+    first.setSurname("Lovelace");
+    first.setEmail("ada@example.com");
+    first.setPassword("engine");
+    User second = new User();
+    second.setName("Alan");
+    second.setSurname("Turing");
+    second.setEmail("alan@example.com");
+    second.setPassword("enigma");
+    User login = new User();
+    login.setEmail("alan@example.com");
+    login.setPassword("enigma");
+    User wrongPassword = new User();
+    wrongPassword.setEmail("ada@example.com");
+    wrongPassword.setPassword("wrong");
+
+    try {
+      // Act
+      int registeredFirst = task.registerUser(first, path);
+      int registeredSecond = task.registerUser(second, path);
+      int registeredAgain = task.registerUser(first, path);
+      int loggedIn = task.loginUser(login, path);
+      int rejected = task.loginUser(wrongPassword, path);
+
+      // Assert
+      assertEquals(1, registeredFirst);
+      assertEquals(1, registeredSecond);
+      assertEquals(0, registeredAgain);
+      assertEquals(1, loggedIn);
+      assertEquals(0, rejected);
+      try (UserEmailIndex index = UserEmailIndex.open(path)) {
+        assertEquals(2, index.size());
+        assertEquals(2, index.find("alan@example.com").getId());
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(path + UserEmailIndex.SUFFIX));
+    }
+  }
+
+  /**
+   * Test: user hash table is loaded once
+   * Kontrol: Kullanıcıların karma tablosuna yalnızca bir kez yüklendiğini ve tekrar eklenmediğini doğrula.
+   */
+  @Test
+  public void testLoadUserTableOnce() throws IOException {
+    // Arrange
+    String path = "test_index_users.bin";
+    writeUserFile(path, "once@example.com");
+
+    try {
+      // Act
+      Task.loadUserTable(path);
+      Task.loadUserTable(path);
+
+      // Assert
+      int copies = 0;
+      for (User user : Task.userIndex.values()) {
+        if (user.getEmail().equals("once@example.com")) {
+          copies++;
+        }
+      }
+      assertEquals(1, copies);
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+    }
+  }
+
+
+  /**
+   * Test: append-only user registration
+   * Kontrol: Kullanıcıların dosyanın sonuna eklendiğini, sayacın güncellendiğini ve kayıtların okunabildiğini doğrula.
+   */
+  @Test
+  public void testUserLogAppend() throws IOException {
+    // Arrange
+    String path = "test_log_users.bin";
+    Files.deleteIfExists(Paths.get(path));
+    String[] emails = {"a@example.com", "b@example.com", "c@example.com"};
+    long[] offsets = new long[emails.length];
+
+    try {
+      // Act
+      for (int i = 0; i < emails.length; i++) {
+        User user = new User();
+        user.setName("Name" + i);
+        user.setSurname("Surname" + i);
+        user.setEmail(emails[i]);
+        user.setPassword("password" + i);
+        offsets[i] = UserLog.append(path, user);
+        assertEquals(i + 1, user.getId());
+      }
+
+      // Assert
+      assertEquals(3, UserLog.count(path));
+      assertEquals(UserLog.HEADER_SIZE, offsets[0]);
+      try (RandomAccessFile raf = new RandomAccessFile(path, "r")) {
+        assertEquals(3, raf.readInt());
+        for (int i = 0; i < emails.length; i++) {
+          assertEquals(offsets[i], raf.getFilePointer());
+          User user = new User();
+          user.readFromFile(raf);
+          assertEquals(emails[i], user.getEmail());
+        }
+        assertEquals(raf.length(), raf.getFilePointer());
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+    }
+  }
+
+  /**
+   * Test: recovery of an interrupted registration
+   * Kontrol: Sayaçtan sonra kalan tam kaydın benimsendiğini ve yarım kalan kaydın kesildiğini doğrula.
+   */
+  @Test
+  public void testUserLogRecoverAdoptsAndTruncates() throws IOException {
+    // Arrange
+    String path = "test_log_users.bin";
+    String huffPath = UserLog.huffmanPathFor(path);
+    writeUserFile(path, "a@example.com", "b@example.com");
+    Files.deleteIfExists(Paths.get(huffPath));
+    long committedLength;
+    try (RandomAccessFile raf = new RandomAccessFile(path, "rw")) {
+      raf.writeInt(1);
+      committedLength = raf.length();
+      raf.seek(committedLength);
+      raf.write(new byte[]{0, 0, 0, 9, 0, 5});
+    }
+
+    try {
+      // Act
+      UserLog.Recovery recovery = UserLog.recover(path, huffPath);
+      UserLog.Recovery again = UserLog.recover(path, huffPath);
+
+      // Assert
+      assertEquals(1, recovery.adoptedUsers);
+      assertEquals(6, recovery.truncatedUserBytes);
+      assertEquals(2, recovery.addedHuffmanEntries);
+      assertTrue(again.isClean());
+      assertEquals(2, UserLog.count(path));
+      assertEquals(committedLength, new File(path).length());
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(huffPath));
+    }
+  }
+
+  /**
+   * Test: Huffman file reconciled with the user file
+   * Kontrol: Huffman dosyasındaki fazla girdilerin silindiğini ve dosya adlarının doğru eşlendiğini doğrula.
+   */
+  @Test
+  public void testUserLogRecoverTrimsHuffmanFile() throws IOException {
+    // Arrange
+    String path = "test_log_users.bin";
+    String huffPath = UserLog.huffmanPathFor(path);
+    writeUserFile(path, "a@example.com");
+    User extra = new User();
+    extra.setId(2);
+    extra.setEmail("ghost@example.com");
+    extra.setPassword("ghost");
+    UserLog.recover(path, huffPath);
+    long validLength = new File(huffPath).length();
+    UserLog.appendHuffman(huffPath, extra);
+
+    try {
+      // Act
+      UserLog.Recovery recovery = UserLog.recover(path, huffPath);
+
+      // Assert
+      assertEquals(1, recovery.removedHuffmanEntries);
+      assertEquals(0, recovery.addedHuffmanEntries);
+      assertEquals(validLength, new File(huffPath).length());
+      assertEquals("test_log_users.huf", huffPath);
+      assertEquals(UserLog.DEFAULT_HUFFMAN_FILE, UserLog.huffmanPathFor("users.bin"));
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(huffPath));
+    }
+  }
+
+
+  /**
+   * Creates a user with only an email and a password.
+   */
+  private User indexUser(String email) {
+    User user = new User();
+    user.setEmail(email);
+    user.setPassword("pw-" + email);
+    return user;
+  }
+
+  private User fullUser(String email) {
+    User user = indexUser(email);
+    user.setName("Name");
+    user.setSurname("Surname");
+    return user;
+  }
+
+  /**
+   * Test: user index growth with colliding emails
+   * Kontrol: Eski karma fonksiyonunda çakışan e-postaların indekste bulunduğunu ve tablonun büyüdüğünü doğrula.
+   */
+  @Test
+  public void testUserIndexPutGetAndResize() {
+    // Arrange
+    UserIndex index = new UserIndex();
+    String[] anagrams = {"abc@x.com", "bca@x.com", "cab@x.com", "acb@x.com"};
+
+    // Act
+    for (String email : anagrams) {
+      index.put(indexUser(email));
+    }
+    for (int i = 0; i < 1000; i++) {
+      index.put(indexUser("user" + i + "@example.com"));
+    }
+    User replaced = index.put(indexUser("abc@x.com"));
+
+    // Assert
+    assertEquals(Task.hashFunction("abc@x.com"), Task.hashFunction("cab@x.com"));
+    assertNotNull(replaced);
+    assertEquals(1004, index.size());
+    assertEquals(1, Integer.bitCount(index.capacity()));
+    assertTrue(index.loadFactor() <= UserIndex.MAX_LOAD_FACTOR);
+    for (String email : anagrams) {
+      assertEquals("pw-" + email, index.get(email).getPassword());
+    }
+    assertEquals("pw-user999@example.com", index.get("user999@example.com").getPassword());
+    assertNull(index.get("missing@example.com"));
+  }
+
+  /**
+   * Test: tombstone-free deletion
+   * Kontrol: Silinen kullanıcıların bulunmadığını, kalanların ise tüm sondalama stratejilerinde bulunduğunu doğrula.
+   */
+  @Test
+  public void testUserIndexRemoveWithEveryStrategy() {
+    ProbingStrategy[] strategies = {ProbingStrategy.LINEAR, ProbingStrategy.QUADRATIC,
+        ProbingStrategy.DOUBLE_HASHING, ProbingStrategy.LINEAR_QUOTIENT};
+    for (ProbingStrategy strategy : strategies) {
+      // Arrange
+      UserIndex index = new UserIndex(strategy);
+      for (int i = 0; i < 500; i++) {
+        index.put(indexUser("user" + i + "@example.com"));
+      }
+
+      // Act
+      for (int i = 0; i < 500; i += 2) {
+        assertNotNull(index.remove("user" + i + "@example.com"));
+      }
+
+      // Assert
+      assertEquals(250, index.size());
+      assertNull(index.remove("user0@example.com"));
+      for (int i = 0; i < 500; i++) {
+        assertEquals(i % 2 == 1, index.contains("user" + i + "@example.com"));
+      }
+    }
+  }
+
+  /**
+   * Test: probe sequences cover the table
+   * Kontrol: Standart sondalama stratejilerinin iki kuvveti boyutlu tabloda tüm yuvaları ziyaret ettiğini doğrula.
+   */
+  @Test
+  public void testProbingStrategiesVisitEverySlot() {
+    ProbingStrategy[] strategies = {ProbingStrategy.LINEAR, ProbingStrategy.QUADRATIC,
+        ProbingStrategy.DOUBLE_HASHING, ProbingStrategy.LINEAR_QUOTIENT};
+    int capacity = 64;
+    int hash = UserIndex.hash("probe@example.com");
+    for (ProbingStrategy strategy : strategies) {
+      // Act
+      boolean[] seen = new boolean[capacity];
+      for (int attempt = 0; attempt < capacity; attempt++) {
+        seen[strategy.slot(hash & (capacity - 1), hash, attempt, capacity)] = true;
+      }
+
+      // Assert
+      for (boolean slot : seen) {
+        assertTrue(slot);
+      }
+      assertEquals(hash & (capacity - 1), strategy.slot(hash & (capacity - 1), hash, 0, capacity));
+    }
+  }
+
+
+  /**
+   * Test: probe metrics of colliding emails
+   * Kontrol: Aynı ev adresine düşen e-postaların yer değiştirme, küme ve sonda sayılarının kaydedildiğini doğrula.
+   */
+  @Test
+  public void testProbingHashTableRecordsMetrics() {
+    // Arrange
+    ProbingHashTable table = new ProbingHashTable(Task.TABLE_SIZE, ProbingStrategy.LINEAR,
+        Task::hashFunction, UserIndex::hash);
+    String[] anagrams = {"abc@x.com", "bca@x.com", "cab@x.com"};
+
+    // Act
+    for (String email : anagrams) {
+      assertTrue(table.insert(indexUser(email)).success);
+    }
+    ProbingHashTable.Result duplicate = table.insert(indexUser("cab@x.com"));
+    ProbingHashTable.Result found = table.find("cab@x.com");
+    ProbingHashTable.Result missing = table.find("zzz@x.com");
+
+    // Assert
+    assertFalse(duplicate.success);
+    assertEquals("cab@x.com", duplicate.user.getEmail());
+    assertTrue(found.success);
+    assertEquals(3, found.probes);
+    assertEquals(2, found.displacement);
+    assertEquals(3, found.clusterSize);
+    assertFalse(missing.success);
+    assertEquals(0.03, table.loadFactor(), 1e-9);
+    ProbingHashTable.Metrics metrics = table.getMetrics();
+    assertEquals(3, metrics.inserts);
+    assertEquals(1, metrics.failedInserts);
+    assertEquals(2, metrics.lookups);
+    assertEquals(1, metrics.misses);
+    assertEquals(2, metrics.maxDisplacement);
+    assertEquals(2.0, metrics.averageInsertProbes(), 1e-9);
+    assertSame(missing, table.getLastResult());
+    assertEquals(Arrays.asList(3), table.clusterSizes());
+  }
+
+  /**
+   * Test: every demo strategy on a synthetic email set
+   * Kontrol: Tüm sondalama stratejilerinde eklenen kullanıcıların bulunduğunu ve kümelerin toplamının doluluğa eşit olduğunu doğrula.
+   */
+  @Test
+  public void testProbingHashTableStrategiesFindAllUsers() {
+    ProbingStrategy[] strategies = {ProbingStrategy.LINEAR, ProbingStrategy.QUADRATIC,
+        ProbingStrategy.DOUBLE_HASHING, ProbingStrategy.LINEAR_QUOTIENT};
+    for (ProbingStrategy strategy : strategies) {
+      // Arrange
+      ProbingHashTable table = new ProbingHashTable(128, strategy, UserIndex::hash, UserIndex::hash);
+
+      // Act
+      for (int i = 0; i < 100; i++) {
+        assertTrue(table.insert(indexUser("user" + i + "@example.com")).success);
+      }
+
+      // Assert
+      int clustered = 0;
+      for (int cluster : table.clusterSizes()) {
+        clustered += cluster;
+      }
+      assertEquals(100, clustered);
+      for (int i = 0; i < 100; i++) {
+        assertTrue(table.find("user" + i + "@example.com").success);
+      }
+      assertEquals(100, table.getMetrics().lookups);
+      assertEquals(0, table.getMetrics().misses);
+    }
+  }
+
+  /**
+   * Test: Brent's method shortens lookups
+   * Kontrol: Brent yönteminin anahtarları taşıyarak ortalama arama sondasını düşürdüğünü doğrula.
+   */
+  @Test
+  public void testProbingHashTableBrentReducesLookupProbes() {
+    // Arrange
+    ProbingHashTable plain = new ProbingHashTable(101, ProbingStrategy.KEY_STEP,
+        UserIndex::hash, email -> 1 + Math.floorMod(UserIndex.hash(email) >>> 8, 100));
+    ProbingHashTable brent = new ProbingHashTable(101, ProbingStrategy.KEY_STEP,
+        UserIndex::hash, email -> 1 + Math.floorMod(UserIndex.hash(email) >>> 8, 100), true);
+
+    // Act
+    for (int i = 0; i < 95; i++) {
+      plain.insert(indexUser("user" + i + "@example.com"));
+      brent.insert(indexUser("user" + i + "@example.com"));
+    }
+    for (int i = 0; i < 95; i++) {
+      assertTrue(plain.find("user" + i + "@example.com").success);
+      assertTrue(brent.find("user" + i + "@example.com").success);
+    }
+
+    // Assert
+    assertEquals(95, brent.size());
+    assertTrue(brent.getMetrics().relocations > 0);
+    assertTrue(brent.getMetrics().averageLookupProbes() < plain.getMetrics().averageLookupProbes());
+  }
+
+
+  /**
+   * Test: hash selection by configuration
+   * Kontrol: Kullanıcı indeksinin karma fonksiyonunun sistem özelliğiyle seçildiğini ve bilinmeyen adların varsayılana döndüğünü doğrula.
+   */
+  @Test
+  public void testEmailHashConfiguration() {
+    // Arrange
+    String previous = System.getProperty(EmailHash.PROPERTY);
+    System.setProperty(EmailHash.PROPERTY, "xxhash32");
+
+    try {
+      // Act
+      UserIndex configured = new UserIndex();
+      UserIndex legacy = new UserIndex(ProbingStrategy.LINEAR, 16, EmailHash.LEGACY_SUM);
+      for (int i = 0; i < 300; i++) {
+        legacy.put(indexUser("user" + i + "@example.com"));
+      }
+
+      // Assert
+      assertEquals(EmailHash.XXHASH32, configured.getEmailHash());
+      assertEquals(EmailHash.MURMUR3, EmailHash.fromName(" Murmur3 "));
+      assertEquals(EmailHash.DEFAULT, EmailHash.fromName("sha1"));
+      assertEquals(EmailHash.DEFAULT, EmailHash.fromName(null));
+      assertEquals(Task.hashFunction("a@b.c"), EmailHash.LEGACY_SUM.hash("a@b.c"));
+      assertEquals(300, legacy.size());
+      assertNotNull(legacy.get("user299@example.com"));
+    } finally {
+      if (previous == null) {
+        System.clearProperty(EmailHash.PROPERTY);
+      } else {
+        System.setProperty(EmailHash.PROPERTY, previous);
+      }
+    }
+  }
+
+  /**
+   * Test: bucket distribution of weak and strong hashes
+   * Kontrol: Eski toplama karmasının ki-kare değerinin yüksek, güçlü karmaların ise düzgün dağıldığını doğrula.
+   */
+  @Test
+  public void testHashFunctionBenchmarkDistribution() {
+    // Arrange
+    List<String> corpus = HashFunctionBenchmark.syntheticCorpus(20000, 7L);
+
+    // Act
+    HashFunctionBenchmark.Report legacy = HashFunctionBenchmark.analyze(EmailHash.LEGACY_SUM, corpus, 1024, 0);
+    HashFunctionBenchmark.Report murmur = HashFunctionBenchmark.analyze(EmailHash.MURMUR3, corpus, 1024, 0);
+
+    // Assert
+    assertEquals(corpus, HashFunctionBenchmark.syntheticCorpus(20000, 7L));
+    assertEquals(20000, new HashSet<>(corpus).size());
+    assertTrue(legacy.normalizedChiSquare() > 10);
+    assertTrue(legacy.collisionRate > murmur.collisionRate);
+    assertTrue(legacy.maxBucket > murmur.maxBucket);
+    assertEquals(0.0, murmur.hashesPerSecond, 0.0);
+    EmailHash[] strong = {EmailHash.MURMUR3, EmailHash.XXHASH32, EmailHash.FNV1A_MIX,
+        EmailHash.STRING_HASHCODE_MIX};
+    for (EmailHash hash : strong) {
+      HashFunctionBenchmark.Report report = HashFunctionBenchmark.analyze(hash, corpus, 1024, 0);
+      assertTrue(hash + " " + report.normalizedChiSquare(),
+          report.normalizedChiSquare() < HashFunctionBenchmark.UNIFORM_LIMIT);
+    }
+  }
+
+  /**
+   * Test: corpus file comparison and winner selection
+   * Kontrol: Dosyadan okunan e-posta kümesinde karşılaştırmanın yapıldığını ve eski karmaların seçilmediğini doğrula.
+   */
+  @Test
+  public void testHashFunctionBenchmarkCorpusFile() throws IOException {
+    // Arrange
+    String path = "test_email_corpus.txt";
+    List<String> lines = new ArrayList<>(HashFunctionBenchmark.syntheticCorpus(5000, 3L));
+    lines.add(0, "# sample corpus");
+    lines.add("");
+    lines.add(lines.get(1));
+    HashFunctionBenchmark.writeCorpus(path, lines);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    try {
+      // Act
+      List<String> corpus = HashFunctionBenchmark.loadCorpus(path);
+      List<HashFunctionBenchmark.Report> reports = HashFunctionBenchmark.compare(corpus, 256, 1);
+      EmailHash best = HashFunctionBenchmark.best(reports);
+      HashFunctionBenchmark.print(new PrintStream(output), reports);
+
+      // Assert
+      assertEquals(5000, corpus.size());
+      assertEquals(EmailHash.values().length, reports.size());
+      assertTrue(reports.get(0).chiSquare <= reports.get(reports.size() - 1).chiSquare);
+      assertTrue(reports.get(0).hashesPerSecond > 0);
+      assertFalse(best.isLegacy());
+      assertTrue(output.toString().contains("Recommended: -D" + EmailHash.PROPERTY + "=" + best.name()));
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+    }
+  }
+
+
+  /**
+   * Runs tasks on their own threads, starting them together, and rethrows the first failure.
+   */
+  private void runConcurrently(List<java.util.concurrent.Callable<Void>> tasks) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (java.util.concurrent.Callable<Void> task : tasks) {
+        futures.add(pool.submit(() -> {
+          start.await();
+          return task.call();
+        }));
+      }
+      start.countDown();
+      for (Future<Void> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Test: linearizable lookups under concurrent registration
+   * Kontrol: Eklenmesi tamamlanmış bir kullanıcının eşzamanlı okuyucular tarafından her zaman bulunduğunu doğrula.
+   */
+  @Test
+  public void testConcurrentUserIndexLinearizableLookups() throws Exception {
+    // Arrange
+    ConcurrentUserIndex index = new ConcurrentUserIndex(8, EmailHash.DEFAULT);
+    int writers = 4;
+    int perWriter = 2000;
+    int total = writers * perWriter;
+    AtomicIntegerArray committed = new AtomicIntegerArray(total);
+    AtomicInteger writersDone = new AtomicInteger();
+    AtomicInteger violations = new AtomicInteger();
+    AtomicInteger hits = new AtomicInteger();
+    List<java.util.concurrent.Callable<Void>> tasks = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      int first = w * perWriter;
+      tasks.add(() -> {
+        for (int i = first; i < first + perWriter; i++) {
+          index.put(indexUser("user" + i + "@example.com"));
+          committed.set(i, 1);
+        }
+        writersDone.incrementAndGet();
+        return null;
+      });
+    }
+    for (int r = 0; r < 4; r++) {
+      int seed = r;
+      tasks.add(() -> {
+        java.util.Random random = new java.util.Random(seed);
+        while (writersDone.get() < writers) {
+          int i = random.nextInt(total);
+          boolean wasCommitted = committed.get(i) == 1;
+          User user = index.get("user" + i + "@example.com");
+          if (user != null) {
+            hits.incrementAndGet();
+          }
+          if ((wasCommitted && user == null)
+              || (user != null && !user.getEmail().equals("user" + i + "@example.com"))) {
+            violations.incrementAndGet();
+          }
+        }
+        return null;
+      });
+    }
+
+    // Act
+    runConcurrently(tasks);
+
+    // Assert
+    assertEquals(0, violations.get());
+    assertEquals(total, index.size());
+    assertEquals(8, index.stripeCount());
+    for (int i = 0; i < total; i++) {
+      assertTrue(index.contains("user" + i + "@example.com"));
+    }
+  }
+
+  /**
+   * Test: concurrent registration of the same emails
+   * Kontrol: Aynı e-postayı eşzamanlı ekleyen iş parçacıklarından yalnızca birinin kazandığını doğrula.
+   */
+  @Test
+  public void testConcurrentUserIndexPutIfAbsentRace() throws Exception {
+    // Arrange
+    ConcurrentUserIndex index = new ConcurrentUserIndex(4, EmailHash.MURMUR3);
+    int emails = 1000;
+    AtomicIntegerArray winners = new AtomicIntegerArray(emails);
+    User[][] attempts = new User[6][emails];
+    List<java.util.concurrent.Callable<Void>> tasks = new ArrayList<>();
+    for (int t = 0; t < attempts.length; t++) {
+      User[] mine = attempts[t];
+      tasks.add(() -> {
+        for (int i = 0; i < emails; i++) {
+          mine[i] = indexUser("race" + i + "@example.com");
+          if (index.putIfAbsent(mine[i]) == null) {
+            winners.incrementAndGet(i);
+          }
+        }
+        return null;
+      });
+    }
+
+    // Act
+    runConcurrently(tasks);
+
+    // Assert
+    assertEquals(emails, index.size());
+    for (int i = 0; i < emails; i++) {
+      assertEquals(1, winners.get(i));
+      User stored = index.get("race" + i + "@example.com");
+      int owners = 0;
+      for (User[] mine : attempts) {
+        if (mine[i] == stored) {
+          owners++;
+        }
+      }
+      assertEquals(1, owners);
+    }
+  }
+
+  /**
+   * Test: parallel logins while users register
+   * Kontrol: Kayıtlar sürerken eşzamanlı girişlerin kayıtlı kullanıcılar için her zaman başarılı olduğunu doğrula.
+   */
+  @Test
+  public void testConcurrentLoginsWhileRegistering() throws Exception {
+    // Arrange
+    String path = "test_concurrent_users.bin";
+    Files.deleteIfExists(Paths.get(path));
+    Files.deleteIfExists(Paths.get(path + UserEmailIndex.SUFFIX));
+    PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+    Task registrar = new Task(new Scanner(""), sink);
+    for (int i = 0; i < 50; i++) {
+      assertEquals(1, registrar.registerUser(fullUser("login" + i + "@example.com"), path));
+    }
+    AtomicInteger failedLogins = new AtomicInteger();
+    AtomicInteger logins = new AtomicInteger();
+    AtomicInteger registered = new AtomicInteger();
+    List<java.util.concurrent.Callable<Void>> tasks = new ArrayList<>();
+    tasks.add(() -> {
+      for (int i = 50; i < 100; i++) {
+        registered.addAndGet(registrar.registerUser(fullUser("login" + i + "@example.com"), path));
+      }
+      return null;
+    });
+    for (int r = 0; r < 4; r++) {
+      tasks.add(() -> {
+        Task task = new Task(new Scanner(""), sink);
+        for (int n = 0; n < 200; n++) {
+          User login = indexUser("login" + (n % 50) + "@example.com");
+          if (task.loginUser(login, path) != 1) {
+            failedLogins.incrementAndGet();
+          }
+          logins.incrementAndGet();
+        }
+        return null;
+      });
+    }
+
+    try {
+      // Act
+      runConcurrently(tasks);
+
+      // Assert
+      assertEquals(0, failedLogins.get());
+      assertEquals(800, logins.get());
+      assertEquals(50, registered.get());
+      assertEquals(100, UserLog.count(path));
+      assertEquals(1, registrar.loginUser(fullUser("login99@example.com"), path));
+    } finally {
+      HuffmanDictionary.forFile(UserLog.huffmanPathFor(path)).awaitRebuild();
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(path + UserEmailIndex.SUFFIX));
+      Files.deleteIfExists(Paths.get(UserLog.huffmanPathFor(path)));
+    }
+  }
+
+
+  /**
+   * Test: salted PBKDF2 password hashes
+   * Kontrol: Aynı şifrenin farklı tuzlarla farklı özetlendiğini ve eski düz metin şifrelerin de doğrulandığını doğrula.
+   */
+  @Test
+  public void testPasswordHasherHashesAndVerifies() {
+    // Arrange
+    PasswordHasher hasher = new PasswordHasher(1000, 0, 0);
+
+    // Act
+    String first = hasher.hash("secret");
+    String second = hasher.hash("secret");
+
+    // Assert
+    assertTrue(first.startsWith(PasswordHasher.PREFIX + "$1000$"));
+    assertNotEquals(first, second);
+    assertTrue(hasher.verify(1, "secret", first));
+    assertTrue(hasher.verify(1, "secret", second));
+    assertFalse(hasher.verify(1, "Secret", first));
+    assertFalse(hasher.verify(1, null, first));
+    assertFalse(hasher.verify(1, "secret", PasswordHasher.PREFIX + "$x$y$z"));
+    assertFalse(PasswordHasher.isHashed("secret"));
+    assertTrue(hasher.verify(1, "secret", "secret"));
+    assertFalse(hasher.verify(1, "other", "secret"));
+    assertTrue(new PasswordHasher(2000, 0, 0).verify(1, "secret", first));
+  }
+
+  /**
+   * Test: bounded, expiring verification cache
+   * Kontrol: Doğrulama önbelleğinin boyut sınırını aştığında en eski girdiyi attığını ve süresi dolan girdileri kullanmadığını doğrula.
+   */
+  @Test
+  public void testPasswordHasherCacheIsBoundedAndExpires() {
+    // Arrange
+    long[] now = {0};
+    PasswordHasher hasher = new PasswordHasher(1000, 2, 1000, () -> now[0]);
+    String a = hasher.hash("a");
+    String b = hasher.hash("b");
+    String c = hasher.hash("c");
+
+    // Act & Assert
+    assertTrue(hasher.verify(1, "a", a));
+    assertTrue(hasher.verify(1, "a", a));
+    assertEquals(1, hasher.cacheHits());
+    assertFalse(hasher.verify(1, "wrong", a));
+    assertEquals(1, hasher.cacheSize());
+
+    assertTrue(hasher.verify(2, "b", b));
+    assertTrue(hasher.verify(3, "c", c));
+    assertEquals(2, hasher.cacheSize());
+    assertTrue(hasher.verify(1, "a", a));
+    assertEquals(1, hasher.cacheHits());
+
+    now[0] += TimeUnit.MILLISECONDS.toNanos(999);
+    assertTrue(hasher.verify(1, "a", a));
+    assertEquals(2, hasher.cacheHits());
+    now[0] += TimeUnit.MILLISECONDS.toNanos(1);
+    assertTrue(hasher.verify(1, "a", a));
+    assertEquals(2, hasher.cacheHits());
+    assertTrue(hasher.verify(2, "a", a));
+    assertEquals(2, hasher.cacheHits());
+    assertEquals(2, hasher.cacheSize());
+  }
+
+  /**
+   * Test: registered passwords are stored hashed
+   * Kontrol: Kayıtta şifrenin kullanıcı ve Huffman dosyalarına özetlenmiş yazıldığını ve girişin çalıştığını doğrula.
+   */
+  @Test
+  public void testRegisteredPasswordIsStoredHashed() throws IOException {
+    // Arrange
+    String path = "test_hashed_users.bin";
+    String huffman = UserLog.huffmanPathFor(path);
+    Files.deleteIfExists(Paths.get(path));
+    Files.deleteIfExists(Paths.get(huffman));
+    Task task = new Task(new Scanner(""), new PrintStream(OutputStream.nullOutputStream()));
+    User user = fullUser("hashed@example.com");
+    user.setPassword("plain-secret");
+
+    try {
+      // Act
+      assertEquals(1, task.registerUser(user, path));
+
+      // Assert
+      assertTrue(PasswordHasher.isHashed(user.getPassword()));
+      String files = new String(Files.readAllBytes(Paths.get(path)), "ISO-8859-1")
+          + new String(Files.readAllBytes(Paths.get(huffman)), "ISO-8859-1");
+      assertFalse(files.contains("plain-secret"));
+      assertTrue(files.contains(PasswordHasher.PREFIX));
+
+      User login = fullUser("hashed@example.com");
+      login.setPassword("plain-secret");
+      assertEquals(1, task.loginUser(login, path));
+      login.setPassword("wrong-secret");
+      assertEquals(0, task.loginUser(login, path));
+      assertNotNull(Task.searchUserInHashTable("hashed@example.com", "plain-secret"));
+      assertNull(Task.searchUserInHashTable("hashed@example.com", "wrong-secret"));
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(path + UserEmailIndex.SUFFIX));
+      Files.deleteIfExists(Paths.get(huffman));
+    }
+  }
+
+
+  /**
+   * Test: canonical Huffman code round trip
+   * Kontrol: Eğitilmiş kod tablosunun metinleri sıkıştırdığını, serileştirildiğini ve doğru çözdüğünü doğrula.
+   */
+  @Test
+  public void testHuffmanCodeTableRoundTrip() throws IOException {
+    // Arrange
+    List<String> corpus = HashFunctionBenchmark.syntheticCorpus(500, 3L);
+    HuffmanCoding.CodeTable table = HuffmanCoding.train(corpus);
+    String[] samples = {"", "a", "ahmet.yilmaz42@gmail.com", "çağrı.öztürk@şirket.com.tr", "€\u0000~", corpus.get(7)};
+
+    // Act
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    table.writeTo(new DataOutputStream(bytes));
+    HuffmanCoding.CodeTable copy = HuffmanCoding.CodeTable.readFrom(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    // Assert
+    assertEquals(table, copy);
+    for (String sample : samples) {
+      byte[] code = table.encode(sample);
+      assertEquals((table.encodedBits(sample) + 7) / 8, code.length);
+      assertEquals(sample, copy.decode(code, sample.length()));
+      assertEquals(sample, HuffmanCoding.huffmanDecode(HuffmanCoding.huffmanEncode(sample)));
+    }
+    long bits = 0;
+    long chars = 0;
+    for (String email : corpus) {
+      bits += table.encodedBits(email);
+      chars += email.length();
+    }
+    assertTrue(bits < chars * 6);
+    assertEquals(0, table.codeLength('ç'));
+    assertTrue(table.codeLength('a') > 0);
+    try {
+      table.decode(table.encode("gmail.com"), 40);
+      fail("Decoding past the code should fail");
+    } catch (IllegalArgumentException expected) {
+      // Beklenen hata
+    }
+  }
+
+  /**
+   * Test: code length limit of skewed frequencies
+   * Kontrol: Çok çarpık frekanslarda kod uzunluğunun sınırlandığını ve uzun kodların doğru çözüldüğünü doğrula.
+   */
+  @Test
+  public void testHuffmanCodeLengthsAreLimited() {
+    // Arrange
+    java.util.Map<Character, Long> frequencies = new java.util.HashMap<>();
+    long a = 1;
+    long b = 1;
+    StringBuilder all = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      frequencies.put((char) ('A' + i), a);
+      long next = a + b;
+      a = b;
+      b = next;
+      all.append((char) ('A' + i));
+    }
+
+    // Act
+    HuffmanCoding.CodeTable table = HuffmanCoding.CodeTable.fromFrequencies(frequencies);
+
+    // Assert
+    assertTrue(table.maxLength() <= HuffmanCoding.MAX_CODE_LENGTH);
+    assertTrue(table.maxLength() > HuffmanCoding.PRIMARY_BITS);
+    assertEquals(40, table.symbolCount());
+    String text = all.toString() + all.reverse();
+    assertEquals(text, table.decode(table.encode(text), text.length()));
+  }
+
+  /**
+   * Test: compressed Huffman user file
+   * Kontrol: Kayıtların Huffman dosyasına sıkıştırılarak yazıldığını ve eski biçimli dosyanın yeniden kurulduğunu doğrula.
+   */
+  @Test
+  public void testUserHuffmanFileCompressesAndRebuildsLegacy() throws Exception {
+    // Arrange
+    String path = "test_huffman_users.bin";
+    String huffPath = UserLog.huffmanPathFor(path);
+    Files.deleteIfExists(Paths.get(path));
+    Files.deleteIfExists(Paths.get(huffPath));
+    Task task = new Task(new Scanner(""), new PrintStream(OutputStream.nullOutputStream()));
+    List<User> registered = new ArrayList<>();
+    for (String email : HashFunctionBenchmark.syntheticCorpus(30, 11L)) {
+      User user = fullUser(email);
+      assertEquals(1, task.registerUser(user, path));
+      registered.add(user);
+    }
+
+    try {
+      // Act
+      List<User> decoded = UserLog.readHuffman(huffPath);
+      long compressed = new File(huffPath).length();
+      try (DataOutputStream legacy = new DataOutputStream(new FileOutputStream(huffPath))) {
+        legacy.writeInt(1);
+        legacy.writeInt(3);
+        legacy.writeBytes("old");
+      }
+      UserLog.Recovery recovery = UserLog.recover(path, huffPath);
+
+      // Assert
+      assertEquals(registered.size(), decoded.size());
+      long raw = 0;
+      for (int i = 0; i < decoded.size(); i++) {
+        assertEquals(i + 1, decoded.get(i).getId());
+        assertEquals(registered.get(i).getEmail(), decoded.get(i).getEmail());
+        assertEquals(registered.get(i).getPassword(), decoded.get(i).getPassword());
+        raw += 12 + registered.get(i).getEmail().length() + registered.get(i).getPassword().length();
+      }
+      assertTrue(compressed < raw);
+      assertTrue(recovery.rebuiltHuffmanFile);
+      assertEquals(registered.size(), recovery.addedHuffmanEntries);
+      assertTrue(UserLog.recover(path, huffPath).isClean());
+      List<User> rebuilt = UserLog.readHuffman(huffPath);
+      assertEquals(registered.get(29).getEmail(), rebuilt.get(29).getEmail());
+    } finally {
+      HuffmanDictionary.forFile(huffPath).awaitRebuild();
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(path + UserEmailIndex.SUFFIX));
+      Files.deleteIfExists(Paths.get(huffPath));
+    }
+  }
+
+
+  /**
+   * Test: block decoding of a Huffman user file
+   * Kontrol: Girdilerin bloklar halinde ortak karakter tamponuna doğru çözüldüğünü ve e-posta aramasının çalıştığını doğrula.
+   */
+  @Test
+  public void testHuffmanBlockDecoderDecodesBlocks() throws IOException {
+    // Arrange
+    List<User> users = HuffmanDecodeBenchmark.syntheticUsers(600, 5L);
+    byte[] file = HuffmanDecodeBenchmark.buildFile(users, UserLog.trainHuffmanTable(users));
+    HuffmanBlockDecoder decoder = new HuffmanBlockDecoder(file);
+
+    // Act
+    List<Integer> blockSizes = new ArrayList<>();
+    List<User> decoded = new ArrayList<>();
+    char[] firstBuffer = null;
+    boolean sameBuffer = true;
+    int count;
+    while ((count = decoder.nextBlock(256)) > 0) {
+      blockSizes.add(count);
+      if (firstBuffer == null) {
+        firstBuffer = decoder.chars();
+      }
+      sameBuffer &= decoder.chars() == firstBuffer;
+      for (int i = 0; i < count; i++) {
+        assertTrue(decoder.emailEquals(i, users.get(decoded.size()).getEmail()));
+        decoded.add(decoder.user(i));
+      }
+    }
+
+    // Assert
+    assertEquals(Arrays.asList(256, 256, 88), blockSizes);
+    assertTrue(sameBuffer);
+    for (int i = 0; i < users.size(); i++) {
+      assertEquals(users.get(i).getId(), decoded.get(i).getId());
+      assertEquals(users.get(i).getEmail(), decoded.get(i).getEmail());
+      assertEquals(users.get(i).getPassword(), decoded.get(i).getPassword());
+    }
+    assertEquals(users.get(455).getPassword(), new HuffmanBlockDecoder(file).find(users.get(455).getEmail()).getPassword());
+    assertNull(new HuffmanBlockDecoder(file).find("nobody@example.com"));
+    try {
+      new HuffmanBlockDecoder(Arrays.copyOf(file, file.length - 3)).find("nobody@example.com");
+      fail("A truncated file should not decode");
+    } catch (IOException expected) {
+      // Beklenen hata
+    }
+  }
+
+  /**
+   * Test: Huffman decoder benchmark
+   * Kontrol: Ağaç gezinmesi, tablo ve blok çözücülerinin aynı sonucu verdiğini ve hız ölçtüğünü doğrula.
+   */
+  @Test
+  public void testHuffmanDecodeBenchmarkDecodersAgree() throws IOException {
+    // Arrange
+    List<User> users = HuffmanDecodeBenchmark.syntheticUsers(2000, 9L);
+    byte[] file = HuffmanDecodeBenchmark.buildFile(users, UserLog.trainHuffmanTable(users));
+    long chars = 0;
+    for (User user : users) {
+      chars += user.getEmail().length() + user.getPassword().length();
+    }
+
+    // Act
+    List<HuffmanDecodeBenchmark.Report> reports = HuffmanDecodeBenchmark.compare(file, 1);
+    ByteArrayOutputStream printed = new ByteArrayOutputStream();
+    HuffmanDecodeBenchmark.print(new PrintStream(printed), reports);
+
+    // Assert
+    assertEquals(HuffmanDecodeBenchmark.Method.values().length, reports.size());
+    for (HuffmanDecodeBenchmark.Report report : reports) {
+      assertEquals(2000, report.entries);
+      assertEquals(chars, report.chars);
+      assertEquals(reports.get(0).checksum, report.checksum);
+      assertTrue(report.charsPerSecond > 0);
+    }
+    assertTrue(printed.toString().contains("BLOCK"));
+  }
+
+
+  /**
+   * Test: shared Huffman dictionary rebuilt on drift
+   * Kontrol: Karakter dağılımı kaydığında sözlüğün arka planda yeniden kurulduğunu ve dosyanın küçüldüğünü doğrula.
+   */
+  @Test
+  public void testHuffmanDictionaryRebuildsOnDrift() throws Exception {
+    // Arrange
+    String path = "test_dictionary_users.bin";
+    String huffPath = UserLog.huffmanPathFor(path);
+    Files.deleteIfExists(Paths.get(path));
+    Files.deleteIfExists(Paths.get(huffPath));
+    HuffmanDictionary dictionary = HuffmanDictionary.forFile(huffPath);
+    Task task = new Task(new Scanner(""), new PrintStream(OutputStream.nullOutputStream()));
+    List<User> registered = new ArrayList<>();
+
+    try {
+      // Act
+      for (int i = 0; i < 40; i++) {
+        User user = fullUser("çağrıöğüş" + i + "@şirket.com.tr");
+        assertEquals(1, task.registerUser(user, path));
+        registered.add(user);
+      }
+      dictionary.awaitRebuild();
+
+      // Assert
+      assertTrue(dictionary.rebuildCount() >= 1);
+      assertTrue(dictionary.drift() <= HuffmanDictionary.DEFAULT_DRIFT_THRESHOLD);
+      assertFalse(dictionary.needsRebuild());
+      assertEquals(40, dictionary.entries());
+      assertNotEquals(HuffmanCoding.defaultTable(), dictionary.getTable());
+      assertTrue(dictionary.getTable().codeLength('ş') > 0);
+      long withDefault = HuffmanDecodeBenchmark.buildFile(registered, HuffmanCoding.defaultTable()).length;
+      assertTrue(new File(huffPath).length() < withDefault);
+      List<User> decoded = UserLog.readHuffman(huffPath);
+      assertEquals(40, decoded.size());
+      for (int i = 0; i < 40; i++) {
+        assertEquals(i + 1, decoded.get(i).getId());
+        assertEquals(registered.get(i).getEmail(), decoded.get(i).getEmail());
+      }
+      assertFalse(new File(huffPath + ".tmp").exists());
+    } finally {
+      dictionary.awaitRebuild();
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(path + UserEmailIndex.SUFFIX));
+      Files.deleteIfExists(Paths.get(huffPath));
+    }
+  }
+
+  /**
+   * Test: drift measurement of the Huffman dictionary
+   * Kontrol: Eğitilmiş tabloda kaymanın sıfır olduğunu ve az sayıda eklemede yeniden kurulumun ertelendiğini doğrula.
+   */
+  @Test
+  public void testHuffmanDictionaryDriftAndMinimumAppends() throws IOException {
+    // Arrange
+    String huffPath = "test_dictionary_drift.huf";
+    List<User> users = HuffmanDecodeBenchmark.syntheticUsers(50, 13L);
+    UserLog.rewriteHuffman(new File(huffPath), users, UserLog.trainHuffmanTable(users));
+    HuffmanDictionary dictionary = HuffmanDictionary.forFile(huffPath);
+    dictionary.invalidate();
+
+    try {
+      // Act & Assert
+      assertEquals(0.0, dictionary.drift(), 1e-9);
+      assertFalse(dictionary.needsRebuild());
+      assertFalse(dictionary.rebuild());
+      assertEquals(50, dictionary.entries());
+
+      User odd = new User();
+      odd.setId(51);
+      odd.setEmail("Ж".repeat(200) + "@пример.рф");
+      odd.setPassword("Ж".repeat(300));
+      UserLog.appendHuffman(huffPath, odd);
+      assertTrue(dictionary.drift() > HuffmanDictionary.DEFAULT_DRIFT_THRESHOLD);
+      assertFalse(dictionary.needsRebuild());
+      assertNull(dictionary.rebuildIfDrifted());
+      assertEquals(51, dictionary.entries());
+
+      assertTrue(dictionary.rebuild());
+      assertEquals(0.0, dictionary.drift(), 1e-9);
+      assertEquals("Ж".repeat(300), UserLog.readHuffman(huffPath).get(50).getPassword());
+    } finally {
+      Files.deleteIfExists(Paths.get(huffPath));
+    }
+  }
+
+  /**
+   * Test: BPlusTree - rastgele ekleme ve silme
+   * Kontrol: Bölme, ödünç alma ve birleştirme sonrasında ağacın yapısının ve aralık sorgularının bir TreeMap ile tutarlı kaldığını doğrula.
+   */
+  @Test
+  public void testBPlusTreeRandomInsertDeleteMatchesTreeMap() {
+    for (int order : new int[]{3, 4, 32}) {
+      // Arrange
+      BPlusTree tree = new BPlusTree(order);
+      TreeMap<Integer, List<ScheduledTask>> model = new TreeMap<>();
+      List<ScheduledTask> all = new ArrayList<>();
+      Random random = new Random(order);
+
+      // Act
+      for (int i = 0; i < 2000; i++) {
+        ScheduledTask task = new ScheduledTask("T" + i, 1 + random.nextInt(28), 1 + random.nextInt(12), 2024 + random.nextInt(2));
+        tree.insertInBPlusTree(task);
+        model.computeIfAbsent(tree.getDateKey(task.getDay(), task.getMonth(), task.getYear()), k -> new ArrayList<>()).add(task);
+        all.add(task);
+      }
+      tree.checkStructure();
+      Collections.shuffle(all, random);
+      for (int i = 0; i < 1500; i++) {
+        ScheduledTask task = all.get(i);
+        assertTrue(tree.deleteFromBPlusTree(task));
+        model.get(tree.getDateKey(task.getDay(), task.getMonth(), task.getYear())).remove(task);
+        if (i % 100 == 0) {
+          tree.checkStructure();
+        }
+      }
+
+      // Assert
+      tree.checkStructure();
+      assertEquals(500, tree.size());
+      assertFalse(tree.deleteFromBPlusTree(all.get(0)));
+      List<ScheduledTask> expected = new ArrayList<>();
+      for (List<ScheduledTask> tasks : model.subMap(20240301, true, 20250630, true).values()) {
+        expected.addAll(tasks);
+      }
+      assertEquals(expected, tree.rangeSearch(20240301, 20250630));
+      for (int i = 1500; i < all.size(); i++) {
+        assertTrue(tree.deleteFromBPlusTree(all.get(i)));
+      }
+      tree.checkStructure();
+      assertEquals(0, tree.size());
+      assertEquals(1, tree.height());
+    }
+  }
+
+  /**
+   * Test: BPlusTree - aynı son tarihli görevler
+   * Kontrol: Aynı güne ait çok sayıda görevin birden fazla yaprağa yayıldığında ekleme sırasıyla bulunduğunu ve silinebildiğini doğrula.
+   */
+  @Test
+  public void testBPlusTreeDuplicateDeadlinesSpanLeaves() {
+    // Arrange
+    BPlusTree tree = new BPlusTree(4);
+    List<ScheduledTask> sameDay = new ArrayList<>();
+    tree.insertInBPlusTree(task1);
+    for (int i = 0; i < 50; i++) {
+      ScheduledTask task = new ScheduledTask("Same " + i, 5, 1, 2024);
+      sameDay.add(task);
+      tree.insertInBPlusTree(task);
+    }
+    tree.insertInBPlusTree(task3);
+
+    // Act
+    List<ScheduledTask> found = tree.search(20240105);
+    boolean removed = tree.deleteKey(20240105);
+
+    // Assert
+    tree.checkStructure();
+    assertTrue(tree.height() > 2);
+    assertEquals(sameDay, found);
+    assertTrue(removed);
+    assertEquals(sameDay.subList(1, 50), tree.search(20240105));
+    assertEquals(Arrays.asList(task1), tree.rangeSearch(20240101, 20240104));
+    assertEquals(Arrays.asList(task3), tree.rangeSearch(20240106, 20240131));
+    assertFalse(tree.deleteKey(20240102));
+  }
+  /**
+   * Test: BPlusTreeNode - int[] düğüm düzeni
+   * Kontrol: Doğrusal ve ikili aramanın aynı konumu bulduğunu ve List görünümlerinin dizilerle tutarlı kaldığını doğrula.
+   */
+  @Test
+  public void testBPlusTreeNodePrimitiveArraysAndSearch() {
+    // Arrange
+    Random random = new Random(7);
+    for (int n : new int[]{0, 1, 5, BPlusTreeNode.LINEAR_SEARCH_THRESHOLD, BPlusTreeNode.LINEAR_SEARCH_THRESHOLD + 1, 100}) {
+      BPlusTreeNode node = new BPlusTreeNode(true);
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        expected.add(random.nextInt(20));
+      }
+      Collections.sort(expected);
+
+      // Act
+      for (int key : expected) {
+        node.keys.add(key);
+        node.tasks.add(task1);
+      }
+
+      // Assert
+      assertEquals(expected, node.keys);
+      assertEquals(n, node.keyCount);
+      for (int key = -1; key <= 21; key++) {
+        int lower = 0;
+        while (lower < n && expected.get(lower) < key) {
+          lower++;
+        }
+        int upper = lower;
+        while (upper < n && expected.get(upper) == key) {
+          upper++;
+        }
+        assertEquals(lower, node.lowerBound(key));
+        assertEquals(upper, node.upperBound(key));
+      }
+    }
+    BPlusTreeNode internal = new BPlusTreeNode(false);
+    BPlusTreeNode child = new BPlusTreeNode(true);
+    internal.children.add(child);
+    internal.children.add(0, internal);
+    assertEquals(2, internal.childCount);
+    assertSame(child, internal.childArray[1]);
+    assertSame(internal, internal.children.remove(0));
+    assertSame(child, internal.childArray[0]);
+  }
+
+  /**
+   * Test: BPlusTreeBenchmark - kutulu ve ilkel düzen
+   * Kontrol: İki düğüm düzeninin aynı görevleri aynı aralıklarda bulduğunu ve raporların doldurulduğunu doğrula.
+   */
+  @Test
+  public void testBPlusTreeBenchmarkLayoutsAgree() {
+    // Arrange
+    List<ScheduledTask> tasks = BPlusTreeBenchmark.syntheticDeadlines(20000, 3L);
+
+    // Act
+    List<BPlusTreeBenchmark.Report> reports = BPlusTreeBenchmark.compare(tasks, 50, 8);
+
+    // Assert
+    assertEquals(2, reports.size());
+    assertEquals(BPlusTreeBenchmark.Layout.BOXED, reports.get(0).layout);
+    assertEquals(BPlusTreeBenchmark.Layout.PRIMITIVE, reports.get(1).layout);
+    assertEquals(reports.get(0).checksum, reports.get(1).checksum);
+    assertTrue(reports.get(1).checksum > 0);
+    assertTrue(reports.get(1).insertsPerSecond > 0);
+    BPlusTree tree = new BPlusTree(8);
+    tasks.forEach(tree::insertInBPlusTree);
+    tree.checkStructure();
+    ByteArrayOutputStream table = new ByteArrayOutputStream();
+    BPlusTreeBenchmark.print(new PrintStream(table), reports);
+    assertTrue(table.toString().contains("PRIMITIVE"));
+  }
+  /**
+   * Test: PagedBPlusTree - sayfalı ağaç ve tampon havuzu
+   * Kontrol: Ağacın tampon havuzundan büyük olduğunda aralık sorgularının doğru kaldığını ve dosya yeniden açıldığında verinin korunduğunu doğrula.
+   */
+  @Test
+  public void testPagedBPlusTreeLargerThanBufferPoolSurvivesReopen() throws IOException {
+    // Arrange
+    String path = "test_paged_tree.idx";
+    Files.deleteIfExists(Paths.get(path));
+    Random random = new Random(23);
+    int[] keys = new int[30000];
+    TreeMap<Integer, List<Long>> model = new TreeMap<>();
+    try {
+      // Act
+      try (PagedBPlusTree tree = PagedBPlusTree.open(path, 4096, BufferPool.MIN_FRAMES)) {
+        for (int i = 0; i < keys.length; i++) {
+          keys[i] = 20240000 + random.nextInt(2000);
+          tree.insert(keys[i], i);
+          model.computeIfAbsent(keys[i], k -> new ArrayList<>()).add((long) i);
+        }
+        tree.setSource(42, 7);
+
+        // Assert
+        assertEquals(keys.length, tree.size());
+        assertTrue(tree.height() >= 2);
+        assertTrue(tree.getBufferPool().evictions() > 0);
+        assertEquals(BufferPool.MIN_FRAMES, tree.getBufferPool().cachedPages());
+      }
+      assertEquals(0, Files.size(Paths.get(path)) % 4096);
+
+      try (PagedBPlusTree reopened = PagedBPlusTree.open(path, 8192, 16)) {
+        assertEquals(4096, reopened.getPageSize());
+        assertEquals(keys.length, reopened.size());
+        assertEquals(42, reopened.getSourceLength());
+        assertEquals(7, reopened.getSourceModified());
+        for (int[] range : new int[][]{{20240000, 20241999}, {20240500, 20240500}, {20241000, 20241100}, {0, 19999999}}) {
+          List<Long> expected = new ArrayList<>();
+          for (List<Long> values : model.subMap(range[0], true, range[1], true).values()) {
+            expected.addAll(values);
+          }
+          List<Long> actual = new ArrayList<>();
+          long count = reopened.forEachInRange(range[0], range[1], (key, value) -> actual.add(value));
+          assertEquals(expected, actual);
+          assertEquals(expected.size(), count);
+        }
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+    }
+  }
+
+  /**
+   * Test: DeadlineIndex - kalıcı son tarih indeksi
+   * Kontrol: İndeksin dışarıdan değişen dosya için yeniden oluşturulduğunu, eklemelerle güncel kaldığını ve aralık sorgusunun kayıtları okuduğunu doğrula.
+   */
+  @Test
+  public void testDeadlineIndexRebuildsStaleIndexAndPersists() throws IOException {
+    // Arrange
+    String path = "test_deadline_index.bin";
+    Files.deleteIfExists(Paths.get(path));
+    Files.deleteIfExists(Paths.get(path + DeadlineIndex.SUFFIX));
+    new Assignment("March", 3, 3, 2025).writeToFile(path);
+    new Assignment("January", 1, 1, 2025).writeToFile(path);
+    try {
+      // Act
+      try (DeadlineIndex index = DeadlineIndex.open(path)) {
+        assertEquals(2, index.size());
+        index.add(new Assignment("February", 2, 2, 2025));
+        index.add(new Assignment("February 2", 2, 2, 2025));
+      }
+      long length = Files.size(Paths.get(path));
+
+      // Assert
+      try (DeadlineIndex index = DeadlineIndex.open(path)) {
+        assertEquals(4, index.size());
+        assertEquals(length, index.getTree().getSourceLength());
+        List<String> names = new ArrayList<>();
+        index.range(DeadlineIndex.dateKey(1, 1, 2025), DeadlineIndex.dateKey(28, 2, 2025), 0, 10, false)
+            .forEach(a -> names.add(a.getName()));
+        assertEquals(Arrays.asList("January", "February", "February 2"), names);
+        List<Assignment> march = index.range(20250301, 20251231, 0, 10, false);
+        assertEquals(1, march.size());
+        assertEquals("March", march.get(0).getName());
+        names.clear();
+        index.range(0, 99999999, 1, 2, true).forEach(a -> names.add(a.getName()));
+        assertEquals(Arrays.asList("February 2", "February"), names);
+      }
+      new Assignment("April", 4, 4, 2025).writeToFile(path);
+      try (DeadlineIndex index = DeadlineIndex.open(path)) {
+        assertEquals(5, index.size());
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(path + DeadlineIndex.SUFFIX));
+    }
+  }
+
+  /**
+   * Test: deadlineSettingsMenu - tarih aralığı
+   * Kontrol: Menüden atanan son tarihin aynı menüdeki aralık sorgusunda görüntülendiğini doğrula.
+   */
+  @Test
+  public void testDeadlineSettingsMenuRangeSeesSavedDeadlines() {
+    // Arrange
+    String input = "1\nRange Task\n3 3 2333\n3\n1 3 2333\n5 3 2333\n4\n";
+    System.setIn(new ByteArrayInputStream(input.getBytes()));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Task task = new Task(new Scanner(System.in), new PrintStream(output));
+
+    // Act
+    task.deadlineSettingsMenu();
+
+    // Assert
+    assertTrue(output.toString().contains("Tasks between 01/03/2333 and 05/03/2333"));
+    assertTrue(output.toString().contains("Task: Range Task, Deadline: 03/03/2333"));
+    System.setIn(originalIn);
+  }
+  /**
+   * Test: BPlusTree - toplu yükleme
+   * Kontrol: Toplu yüklenen ağacın yapı kurallarına uyduğunu, tek tek eklemeyle aynı sırayı verdiğini ve sonrasında ekleme/silmeye devam edebildiğini doğrula.
+   */
+  @Test
+  public void testBPlusTreeBulkLoadMatchesInserts() {
+    Random random = new Random(31);
+    for (int order : new int[]{3, 4, 32}) {
+      for (double fill : new double[]{0.5, 0.75, 1.0}) {
+        for (int n : new int[]{0, 1, order, order + 1, 1000}) {
+          // Arrange
+          List<ScheduledTask> tasks = new ArrayList<>();
+          for (int i = 0; i < n; i++) {
+            tasks.add(new ScheduledTask("T" + i, 1 + random.nextInt(28), 1 + random.nextInt(3), 2024));
+          }
+          BPlusTree inserted = new BPlusTree(order);
+          tasks.forEach(inserted::insertInBPlusTree);
+
+          // Act
+          BPlusTree loaded = new BPlusTree(order, fill, tasks);
+
+          // Assert
+          loaded.checkStructure();
+          assertEquals(n, loaded.size());
+          assertEquals(inserted.rangeSearch(0, 99999999), loaded.rangeSearch(0, 99999999));
+          assertEquals(inserted.rangeSearch(20240210, 20240305), loaded.rangeSearch(20240210, 20240305));
+          if (fill == 1.0) {
+            assertTrue(loaded.height() <= inserted.height());
+          }
+          loaded.insertInBPlusTree(task1);
+          for (int i = 0; i < n / 2; i++) {
+            assertTrue(loaded.deleteFromBPlusTree(tasks.get(i)));
+          }
+          loaded.checkStructure();
+        }
+      }
+    }
+  }
+
+  /**
+   * Test: BPlusTree.fromSorted - sıralı kaynak
+   * Kontrol: Sıralı bir kaynaktan doğrudan yüklendiğini, sırasız kaynağın ve geçersiz doluluk oranının reddedildiğini doğrula.
+   */
+  @Test
+  public void testBPlusTreeFromSortedRejectsUnsortedInput() {
+    // Arrange
+    List<ScheduledTask> sorted = Arrays.asList(task1, task2, task3);
+
+    // Act
+    BPlusTree tree = BPlusTree.fromSorted(3, 1.0, sorted.iterator());
+
+    // Assert
+    tree.checkStructure();
+    assertEquals(sorted, tree.rangeSearch(20240101, 20240131));
+    try {
+      BPlusTree.fromSorted(3, 1.0, Arrays.asList(task2, task1).iterator());
+      fail("Unsorted input must be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("not sorted"));
+    }
+    try {
+      new BPlusTree(32, 0.0, sorted);
+      fail("A fill factor of 0 must be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("Fill factor"));
+    }
+  }
+
+  /**
+   * Test: PagedBPlusTree.bulkLoad - sayfalı toplu yükleme
+   * Kontrol: Toplu yüklenen sayfalı ağacın aralık sorgularında doğru sonuç verdiğini, daha az sayfa kullandığını ve sonradan eklemeleri kabul ettiğini doğrula.
+   */
+  @Test
+  public void testPagedBPlusTreeBulkLoad() throws IOException {
+    // Arrange
+    String path = "test_paged_bulk.idx";
+    String insertedPath = "test_paged_inserted.idx";
+    int n = 40000;
+    int[] keys = new int[n];
+    long[] values = new long[n];
+    Random random = new Random(41);
+    for (int i = 0; i < n; i++) {
+      keys[i] = 20240000 + random.nextInt(1500);
+    }
+    Arrays.sort(keys);
+    for (int i = 0; i < n; i++) {
+      values[i] = i;
+    }
+    try {
+      // Act
+      int bulkPages;
+      try (PagedBPlusTree tree = PagedBPlusTree.open(path, 4096, 16)) {
+        tree.insert(1, 1);
+        tree.bulkLoad(keys, values, n, 1.0);
+        bulkPages = tree.getBufferPool().pageCount();
+        tree.insert(20240700, -1);
+      }
+      int insertedPages;
+      try (PagedBPlusTree tree = PagedBPlusTree.open(insertedPath, 4096, 16)) {
+        for (int i = 0; i < n; i++) {
+          tree.insert(keys[i], values[i]);
+        }
+        insertedPages = tree.getBufferPool().pageCount();
+      }
+
+      // Assert
+      assertTrue(bulkPages < insertedPages);
+      try (PagedBPlusTree tree = PagedBPlusTree.open(path, 4096, 16)) {
+        assertEquals(n + 1, tree.size());
+        assertEquals(0, tree.count(0, 20239999));
+        List<Long> actual = new ArrayList<>();
+        tree.forEachInRange(20240700, 20240700, (key, value) -> actual.add(value));
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+          if (keys[i] == 20240700) {
+            expected.add(values[i]);
+          }
+        }
+        expected.add(-1L);
+        assertEquals(expected, actual);
+        assertEquals(n + 1, tree.count(20240000, 20241499));
+      }
+      try (PagedBPlusTree tree = PagedBPlusTree.open(path, 4096, 16)) {
+        tree.bulkLoad(new int[0], new long[0], 0, 0.5);
+        assertEquals(0, tree.size());
+        assertEquals(1, tree.height());
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(Paths.get(insertedPath));
+    }
+  }
+  /**
+   * Test: BPlusTree.rangeIterator - sayfalama ve yön
+   * Kontrol: Aralık yineleyicisinin artan ve azalan sırada, ofset ve limitle rangeSearch ile aynı görevleri verdiğini ve ağaç değişince hata verdiğini doğrula.
+   */
+  @Test
+  public void testBPlusTreeRangeIteratorPagesInBothDirections() {
+    // Arrange
+    Random random = new Random(53);
+    BPlusTree tree = new BPlusTree(4);
+    for (int i = 0; i < 500; i++) {
+      tree.insertInBPlusTree(new ScheduledTask("T" + i, 1 + random.nextInt(28), 1 + random.nextInt(4), 2024));
+    }
+    int[][] ranges = {{20240101, 20240431}, {20240215, 20240310}, {20240105, 20240105}, {20240500, 20240600}, {20240301, 20240201}};
+
+    for (int[] range : ranges) {
+      List<ScheduledTask> expected = tree.rangeSearch(range[0], range[1]);
+      List<ScheduledTask> reversed = new ArrayList<>(expected);
+      Collections.reverse(reversed);
+      for (int offset : new int[]{0, 1, 7, 100, 1000}) {
+        for (long limit : new long[]{0, 3, 50, Long.MAX_VALUE}) {
+          // Act
+          List<ScheduledTask> ascending = new ArrayList<>();
+          tree.rangeIterator(range[0], range[1], offset, limit, false).forEachRemaining(ascending::add);
+          List<ScheduledTask> descending = new ArrayList<>();
+          tree.rangeIterator(range[0], range[1], offset, limit, true).forEachRemaining(descending::add);
+
+          // Assert
+          int from = Math.min(offset, expected.size());
+          int to = (int) Math.min(expected.size(), from + Math.min(limit, expected.size()));
+          assertEquals(expected.subList(from, to), ascending);
+          assertEquals(reversed.subList(from, to), descending);
+        }
+      }
+    }
+
+    Iterator<ScheduledTask> iterator = tree.rangeIterator(20240101, 20240431);
+    iterator.next();
+    tree.insertInBPlusTree(task1);
+    try {
+      iterator.next();
+      fail("A changed tree must be detected.");
+    } catch (ConcurrentModificationException e) {
+      assertTrue(e.getMessage().contains("changed"));
+    }
+    try {
+      tree.rangeIterator(20240101, 20240431, 0, -1, false);
+      fail("A negative limit must be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("limit"));
+    }
+    assertFalse(new BPlusTree().rangeIterator(0, 99999999, 0, 10, true).hasNext());
+  }
+
+  /**
+   * Test: BPlusTree.rangeStream - paralel akış
+   * Kontrol: Bölünebilen aralık akışının paralel tüketildiğinde de sıralı ve eksiksiz sonuç verdiğini doğrula.
+   */
+  @Test
+  public void testBPlusTreeRangeStreamSplitsForParallelStreams() {
+    // Arrange
+    List<ScheduledTask> tasks = BPlusTreeBenchmark.syntheticDeadlines(20000, 59L);
+    BPlusTree tree = new BPlusTree(8);
+    tasks.forEach(tree::insertInBPlusTree);
+    List<ScheduledTask> expected = tree.rangeSearch(20230101, 20331231);
+
+    // Act
+    List<ScheduledTask> parallel = tree.rangeStream(20230101, 20331231, true).collect(Collectors.toList());
+    Spliterator<ScheduledTask> suffix = tree.rangeSpliterator(20230101, 20331231);
+    Spliterator<ScheduledTask> prefix = suffix.trySplit();
+    List<ScheduledTask> halves = new ArrayList<>();
+    prefix.forEachRemaining(halves::add);
+    int prefixSize = halves.size();
+    suffix.forEachRemaining(halves::add);
+
+    // Assert
+    assertEquals(expected, parallel);
+    assertEquals(expected, halves);
+    assertTrue(prefixSize > 0 && prefixSize < expected.size());
+    assertTrue(suffix.hasCharacteristics(Spliterator.ORDERED));
+    assertEquals(expected.size(), tree.rangeStream(20230101, 20331231, true).filter(task -> task.getDay() > 0).count());
+    assertEquals(0, tree.rangeStream(20500101, 20501231, true).count());
+    assertNull(new BPlusTree().rangeSpliterator(0, 99999999).trySplit());
+  }
+  /**
+   * Test: loadTasks - bozuk kayıt kurtarma
+   * Kontrol: Anlık görüntünün ortasındaki bozuk bir kaydın günlükten kurtarıldığını, günlükte olmayan bozuk kaydın ise atlanıp yüklemenin sürdüğünü doğrula.
+   */
+  @Test
+  public void testLoadTasksRecoversDamagedRecordThroughTaskLog() throws IOException {
+    // Arrange
+    Files.deleteIfExists(Paths.get("tasks.bin"));
+    Task task = new Task(new Scanner(System.in), System.out);
+    ArrayList<TaskInfo> tasks = new ArrayList<>(Arrays.asList(task101, task202, task303));
+    task.saveTasks(tasks);
+    task202.setName("Task 202 edited");
+    task.saveTask(tasks, task202);
+    try (RandomAccessFile raf = new RandomAccessFile("tasks.bin", "rw")) {
+      raf.seek(12);
+      int heapStart = TaskStore.HEADER_SIZE + raf.readInt() * TaskStore.SLOT_SIZE;
+      for (int slot = 1; slot <= 2; slot++) {
+        raf.seek(TaskStore.HEADER_SIZE + slot * TaskStore.SLOT_SIZE);
+        long payload = heapStart + raf.readInt() + TaskStore.RECORD_HEADER_SIZE;
+        raf.seek(payload);
+        int b = raf.read();
+        raf.seek(payload);
+        raf.write(b ^ 0xFF);
+      }
+    }
+
+    // Act
+    ArrayList<TaskInfo> loaded = new ArrayList<>();
+    int result = task.loadTasks(loaded);
+
+    // Assert
+    assertEquals(2, result);
+    assertEquals("Task 101", loaded.get(0).getName());
+    assertEquals(202, loaded.get(1).getId());
+    assertEquals("Task 202 edited", loaded.get(1).getName());
+    assertTrue(outContent.toString().contains("1 damaged task records could not be recovered."));
+  }
+  /**
+   * Test: TaskLog.startCompactor - hata sonrası devam
+   * Kontrol: Sıkıştırıcının çalışma zamanı hatasını saklayıp durmadığını ve dosya düzelince günlüğü katladığını doğrula.
+   */
+  @Test
+  public void testTaskLogCompactorSurvivesRuntimeFailure() throws Exception {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    Files.deleteIfExists(Paths.get(TaskLog.logPath(storeFile)));
+    long generation;
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      generation = store.getGeneration();
+    }
+    int heapEnd;
+    try (RandomAccessFile raf = new RandomAccessFile(storeFile, "rw")) {
+      raf.seek(16);
+      heapEnd = raf.readInt();
+      raf.seek(16);
+      raf.writeInt(-1); // a negative heap end makes the snapshot read throw a RuntimeException
+    }
+
+    try (TaskLog log = TaskLog.open(storeFile)) {
+      log.bind(generation);
+      log.logUpsert(task202);
+
+      // Act
+      log.startCompactor(10, 0);
+      long deadline = System.currentTimeMillis() + 5000;
+      while (log.getCompactionFailure() == null && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      Exception failure = log.getCompactionFailure();
+      try (RandomAccessFile raf = new RandomAccessFile(storeFile, "rw")) {
+        raf.seek(16);
+        raf.writeInt(heapEnd);
+      }
+      while ((log.getRecordCount() > 0 || log.getCompactionFailure() != null)
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+
+      // Assert
+      assertTrue(failure instanceof RuntimeException);
+      assertEquals(0, log.getRecordCount());
+      assertNull(log.getCompactionFailure());
+      assertEquals(2, new TaskFileLoader(storeFile).loadAll().size());
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+      Files.deleteIfExists(Paths.get(TaskLog.logPath(storeFile)));
+    }
+  }
+  /**
+   * Test: saveTask - günlük bağlama
+   * Kontrol: Tek görev kaydının tasks.bin dosyasını açmadan yalnızca günlüğe eklendiğini ve kayıtların bağlı anlık görüntü üzerine yüklendiğini doğrula.
+   */
+  @Test
+  public void testSaveTaskAppendsWithoutOpeningTaskStore() throws IOException {
+    // Arrange
+    Files.deleteIfExists(Paths.get("tasks.bin"));
+    Task task = new Task(new Scanner(System.in), System.out);
+    ArrayList<TaskInfo> tasks = new ArrayList<>(Arrays.asList(task101));
+    task.saveTasks(tasks);
+    Path aside = Paths.get("tasks.bin.aside");
+    Files.move(Paths.get("tasks.bin"), aside, StandardCopyOption.REPLACE_EXISTING);
+
+    // Act
+    try {
+      tasks.add(task202);
+      task.saveTask(tasks, task202);
+      task101.setName("Task 101 edited");
+      task.saveTask(tasks, task101);
+      assertFalse(new File("tasks.bin").exists());
+    } finally {
+      Files.move(aside, Paths.get("tasks.bin"), StandardCopyOption.REPLACE_EXISTING);
+    }
+    ArrayList<TaskInfo> loaded = new ArrayList<>();
+    int result = task.loadTasks(loaded);
+
+    // Assert
+    assertEquals(2, result);
+    assertEquals("Task 101 edited", loaded.get(0).getName());
+    assertEquals("Task 202", loaded.get(1).getName());
+  }
+  /**
+   * Test: TaskFileLoader - salt okunur yükleme
+   * Kontrol: Yükleyicinin güncel ve eski sürüm depoları dosyaya hiç yazmadan okuduğunu ve salt okunur deponun yazmayı reddettiğini doğrula.
+   */
+  @Test
+  public void testTaskFileLoaderNeverWritesTheStore() throws IOException {
+    // Arrange: a version 1 store and a current store
+    String oldFile = "test_task_store_v1.bin";
+    String storeFile = "test_task_store.bin";
+    byte[] heap = "Old taskOld descriptionCat2025-02-01".getBytes("UTF-8");
+    java.nio.ByteBuffer v1 = java.nio.ByteBuffer.allocate(64 + 96 + heap.length);
+    v1.putInt(0, TaskStore.MAGIC).putInt(4, 1).putInt(8, 1).putInt(12, 1).putInt(16, heap.length);
+    v1.putLong(24, 1234L);
+    v1.putInt(64, 7).putInt(68, 2);
+    int[][] strings = {{0, 8}, {8, 15}, {23, 3}, {26, 10}};
+    for (int field = 0; field < 4; field++) {
+      v1.putInt(76 + field * 8, strings[field][0]).putInt(80 + field * 8, strings[field][1]);
+    }
+    v1.position(160);
+    v1.put(heap);
+    Files.write(Paths.get(oldFile), v1.array());
+    Files.deleteIfExists(Paths.get(storeFile));
+    try (TaskStore store = TaskStore.open(storeFile)) {
+      store.append(task101);
+      store.append(task202);
+    }
+    byte[] oldBytes = Files.readAllBytes(Paths.get(oldFile));
+    byte[] storeBytes = Files.readAllBytes(Paths.get(storeFile));
+
+    try {
+      // Act
+      List<TaskInfo> oldTasks = new TaskFileLoader(oldFile).loadAll();
+      List<TaskInfo> tasks = new TaskFileLoader(storeFile).loadAll();
+      List<TaskInfo> streamed = new ArrayList<>();
+      try (TaskFileLoader.TaskIterator iterator = new TaskFileLoader(oldFile).iterator(64)) {
+        iterator.forEachRemaining(streamed::add);
+      }
+
+      // Assert
+      assertEquals("Old task", oldTasks.get(0).getName());
+      assertEquals(2, oldTasks.get(0).getImportanceId());
+      assertEquals(7, streamed.get(0).getId());
+      assertEquals(2, tasks.size());
+      assertArrayEquals(oldBytes, Files.readAllBytes(Paths.get(oldFile)));
+      assertArrayEquals(storeBytes, Files.readAllBytes(Paths.get(storeFile)));
+      try (TaskStore store = TaskStore.openReadOnly(storeFile)) {
+        assertEquals("Task 202", store.read(1).getName());
+        store.append(task303);
+        fail("A read-only store must reject writes.");
+      } catch (java.nio.ReadOnlyBufferException e) {
+        assertArrayEquals(storeBytes, Files.readAllBytes(Paths.get(storeFile)));
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(oldFile));
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+  /**
+   * Test: TaskList keeps a running resident-bytes total
+   * Kontrol: Görev kabulünün listeyi yeniden taramadığını ve toplamın değişikliklerden sonra doğru kaldığını doğrula.
+   */
+  @Test
+  public void testTaskListKeepsRunningResidentBytes() {
+    // Arrange
+    final int[] estimates = new int[1];
+    TaskList tasks = new TaskList(new TaskCapacityPolicy(4, 2.0, Long.MAX_VALUE, TaskCapacityPolicy.Action.REJECT));
+    List<TaskInfo> created = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      TaskInfo info = new TaskInfo() {
+        @Override
+        long estimateHeapBytes() {
+          estimates[0]++;
+          return super.estimateHeapBytes();
+        }
+      };
+      info.setId(i + 1);
+      info.setName("Task " + (i + 1));
+      created.add(info);
+    }
+
+    // Act
+    estimates[0] = 0;
+    for (TaskInfo info : created) {
+      assertEquals(TaskCapacityPolicy.Action.ACCEPT, tasks.admit(info));
+      tasks.add(info);
+    }
+    int admitEstimates = estimates[0];
+    tasks.set(0, task101);
+    tasks.remove(1);
+    tasks.remove(created.get(2));
+    tasks.add(5, task202);
+    tasks.removeIf(info -> info.getId() % 7 == 0);
+    tasks.subList(10, 20).clear();
+    tasks.addAll(3, Arrays.asList(task303));
+    long running = tasks.residentBytes();
+
+    // Assert
+    assertTrue("admission must not rescan the list: " + admitEstimates, admitEstimates <= 3 * created.size());
+    assertEquals(tasks.recountResidentBytes(), running);
+    tasks.clear();
+    assertEquals(0, tasks.residentBytes());
+  }
+  /**
+   * Test: TaskStore.flush marks tasks clean only after writing them
+   * Kontrol: Yazılamayan görevin kirli kaldığını ve sonraki başarılı flush ile yazılıp temizlendiğini doğrula.
+   */
+  @Test
+  public void testTaskStoreFlushKeepsFailedTasksDirty() throws IOException {
+    // Arrange
+    String storeFile = "test_task_store.bin";
+    Files.deleteIfExists(Paths.get(storeFile));
+    try {
+      List<TaskInfo> tasks;
+      try (TaskStore store = TaskStore.open(storeFile)) {
+        store.append(task101);
+        store.append(task202);
+        tasks = store.readAll();
+      }
+      tasks.get(1).setName("Task 202 edited");
+
+      // Act
+      try (TaskStore readOnly = TaskStore.openReadOnly(storeFile)) {
+        readOnly.flush(tasks);
+        fail("Writing through a read-only store must fail.");
+      } catch (java.nio.ReadOnlyBufferException e) {
+        // expected: the write did not happen
+      }
+      boolean dirtyAfterFailure = tasks.get(1).isDirty();
+      int written;
+      try (TaskStore store = TaskStore.open(storeFile)) {
+        written = store.flush(tasks);
+      }
+
+      // Assert
+      assertTrue(dirtyAfterFailure);
+      assertEquals(1, written);
+      assertFalse(tasks.get(1).isDirty());
+      assertEquals("Task 202 edited", new TaskFileLoader(storeFile).loadAll().get(1).getName());
+    } finally {
+      Files.deleteIfExists(Paths.get(storeFile));
+    }
+  }
+  /**
+   * Test: saveTasks writes only modified tasks in place
+   * Kontrol: Değişen görevlerin anlık görüntü yeniden yazılmadan yerinde kaydedildiğini, değişiklik yoksa dosyanın aynı kaldığını doğrula.
+   */
+  @Test
+  public void testSaveTasksWritesModifiedTasksInPlace() throws IOException {
+    // Arrange
+    Files.deleteIfExists(Paths.get("tasks.bin"));
+    Task task = new Task(new Scanner(System.in), System.out);
+    ArrayList<TaskInfo> tasks = new ArrayList<>(Arrays.asList(task101, task202, task303));
+    task.saveTasks(tasks);
+    long generation;
+    try (TaskStore store = TaskStore.openReadOnly("tasks.bin")) {
+      generation = store.getGeneration();
+    }
+    byte[] before = Files.readAllBytes(Paths.get("tasks.bin"));
+
+    // Act
+    task.saveTasks(tasks);
+    byte[] unchanged = Files.readAllBytes(Paths.get("tasks.bin"));
+    task202.setName("Task 2O2");
+    task303.setImportanceId(2);
+    TaskInfo added = new TaskInfo();
+    added.setId(404);
+    added.setName("Task 404");
+    added.setDescription("Description 404");
+    added.setCategory("Category 404");
+    added.setDueDate("2024-06-01");
+    tasks.add(added);
+    task.saveTasks(tasks);
+
+    // Assert
+    assertArrayEquals(before, unchanged);
+    assertFalse(task202.isDirty());
+    assertFalse(added.isDirty());
+    try (TaskStore store = TaskStore.openReadOnly("tasks.bin")) {
+      assertEquals(generation, store.getGeneration());
+      assertEquals(4, store.size());
+      assertEquals("Task 2O2", store.read(1).getName());
+      assertEquals(2, store.getImportanceId(2));
+      assertEquals(404, store.read(3).getId());
+    }
+    ArrayList<TaskInfo> loaded = new ArrayList<>();
+    assertEquals(4, task.loadTasks(loaded));
+    assertEquals("Task 2O2", loaded.get(1).getName());
+    assertEquals(2, loaded.get(2).getImportanceId());
+  }
+
+  /**
+   * Test: saveTasks falls back to a new snapshot when tasks are removed
+   * Kontrol: Tam listeden çıkarılan görevin yeni anlık görüntüyle silindiğini, kısmi listede ise diskteki görevlerin korunduğunu doğrula.
+   */
+  @Test
+  public void testSaveTasksReplacesSnapshotOnlyWhenNeeded() throws IOException {
+    // Arrange
+    Files.deleteIfExists(Paths.get("tasks.bin"));
+    Task task = new Task(new Scanner(System.in), System.out);
+    task.saveTasks(new ArrayList<>(Arrays.asList(task101, task202, task303)));
+    long generation;
+    try (TaskStore store = TaskStore.openReadOnly("tasks.bin")) {
+      generation = store.getGeneration();
+    }
+    TaskList partial = new TaskList();
+    partial.add(task101);
+    partial.recordSpill(202);
+    partial.recordSpill(303);
+
+    // Act
+    task101.setName("Task 101 edited");
+    task.saveTasks(partial);
+    long partialGeneration;
+    try (TaskStore store = TaskStore.openReadOnly("tasks.bin")) {
+      partialGeneration = store.getGeneration();
+    }
+    task.saveTasks(new ArrayList<>(Arrays.asList(task101, task303)));
+
+    // Assert
+    assertEquals(generation, partialGeneration);
+    ArrayList<TaskInfo> loaded = new ArrayList<>();
+    assertEquals(2, task.loadTasks(loaded));
+    assertEquals("Task 101 edited", loaded.get(0).getName());
+    assertEquals(303, loaded.get(1).getId());
+    try (TaskStore store = TaskStore.openReadOnly("tasks.bin")) {
+      assertNotEquals(generation, store.getGeneration());
+    }
+  }
+  /**
+   * Test: PagedBPlusTree.cursor - sayfalama ve yön
+   * Kontrol: Sayfalı ağaç imlecinin artan ve azalan sırada, ofset ve limitle forEachInRange ile aynı kayıtları verdiğini ve ağaç değişince hata verdiğini doğrula.
+   */
+  @Test
+  public void testPagedBPlusTreeCursorPagesInBothDirections() throws IOException {
+    // Arrange
+    String path = "test_paged_cursor.idx";
+    Files.deleteIfExists(Paths.get(path));
+    Random random = new Random(59);
+    try (PagedBPlusTree tree = PagedBPlusTree.open(path, 4096, 16)) {
+      for (int i = 0; i < 3000; i++) {
+        tree.insert(20240000 + random.nextInt(60), i);
+      }
+      assertTrue(tree.height() > 1);
+      int[][] ranges = {{0, 99999999}, {20240010, 20240012}, {20240030, 20240030}, {20240100, 20240200}};
+      for (int[] range : ranges) {
+        List<Long> ascending = new ArrayList<>();
+        tree.forEachInRange(range[0], range[1], (key, value) -> ascending.add(value));
+        List<Long> descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+        for (long offset : new long[]{0, 1, 250, ascending.size()}) {
+          for (long limit : new long[]{0, 7, 300, Long.MAX_VALUE}) {
+            // Act
+            List<Long> up = new ArrayList<>();
+            PagedBPlusTree.RangeCursor cursor = tree.cursor(range[0], range[1], offset, limit, false);
+            while (cursor.next()) {
+              up.add(cursor.value());
+            }
+            List<Long> down = new ArrayList<>();
+            cursor = tree.cursor(range[0], range[1], offset, limit, true);
+            while (cursor.next()) {
+              down.add(cursor.value());
+            }
+
+            // Assert
+            int from = (int) Math.min(offset, ascending.size());
+            int to = (int) Math.min(ascending.size(), from + Math.min(limit, ascending.size()));
+            assertEquals(ascending.subList(from, to), up);
+            assertEquals(descending.subList(from, to), down);
+          }
+        }
+      }
+      PagedBPlusTree.RangeCursor cursor = tree.cursor(0, 99999999, 0, 10, true);
+      assertTrue(cursor.next());
+      tree.insert(20240001, -1);
+      try {
+        cursor.next();
+        fail("Expected ConcurrentModificationException");
+      } catch (ConcurrentModificationException e) {
+        // Expected
+      }
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+    }
+  }
+
+  /**
+   * Test: viewDeadlinesInRange - sayfalı görüntüleme
+   * Kontrol: Uzun bir aralığın sayfa sayfa gösterildiğini, "y" ile sonraki sayfaya geçildiğini ve bitiş tarihi önce olunca son tarihlerin tersten listelendiğini doğrula.
+   */
+  @Test
+  public void testViewDeadlinesInRangePagesAndReverses() throws IOException {
+    // Arrange
+    Path deadlines = Paths.get("deadlines.bin");
+    byte[] saved = Files.exists(deadlines) ? Files.readAllBytes(deadlines) : null;
+    Files.deleteIfExists(deadlines);
+    Files.deleteIfExists(Paths.get("deadlines.bin" + DeadlineIndex.SUFFIX));
+    try (DeadlineIndex index = DeadlineIndex.open("deadlines.bin")) {
+      for (int day = 1; day <= 25; day++) {
+        index.add(new Assignment("Paged " + day, day, 6, 2444));
+      }
+    }
+    try {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      Task task = new Task(new Scanner("1 6 2444 30 6 2444\ny\n"), new PrintStream(output));
+      ByteArrayOutputStream reversedOutput = new ByteArrayOutputStream();
+      Task reversedTask = new Task(new Scanner("30 6 2444 1 6 2444\nn\n"), new PrintStream(reversedOutput));
+
+      // Act
+      long shown = task.viewDeadlinesInRange();
+      long reversedShown = reversedTask.viewDeadlinesInRange();
+
+      // Assert
+      assertEquals(25, shown);
+      assertTrue(output.toString().contains("Show more? (y/n)"));
+      assertTrue(output.toString().contains("Task: Paged 25, Deadline: 25/06/2444"));
+      assertEquals(20, reversedShown);
+      String reversed = reversedOutput.toString();
+      assertTrue(reversed.indexOf("Task: Paged 25,") < reversed.indexOf("Task: Paged 24,"));
+      assertFalse(reversed.contains("Task: Paged 5,"));
+    } finally {
+      Files.deleteIfExists(Paths.get("deadlines.bin" + DeadlineIndex.SUFFIX));
+      if (saved != null) {
+        Files.write(deadlines, saved);
+      } else {
+        Files.deleteIfExists(deadlines);
+      }
+    }
+  }
+  /**
+   * Test: TaskStore.moveAside - okunamayan dosyanın kenara alınması
+   * Kontrol: Okunamayan dosyanın .corrupt adıyla taşındığını, önceden kenara alınmış dosyaların üzerine yazılmadığını doğrula.
+   */
+  @Test
+  public void testTaskStoreMoveAsideKeepsEarlierCopies() throws IOException {
+    // Arrange
+    String path = "test_move_aside.bin";
+    Path first = Paths.get(path + TaskStore.CORRUPT_SUFFIX);
+    Path second = Paths.get(path + TaskStore.CORRUPT_SUFFIX + ".1");
+    Files.deleteIfExists(first);
+    Files.deleteIfExists(second);
+    try {
+      Files.write(Paths.get(path), new byte[]{1, 2, 3});
+
+      // Act
+      String firstAside = TaskStore.moveAside(path);
+      Files.write(Paths.get(path), new byte[]{4, 5});
+      String secondAside = TaskStore.moveAside(path);
+
+      // Assert
+      assertEquals(first.toString(), firstAside);
+      assertEquals(second.toString(), secondAside);
+      assertFalse(Files.exists(Paths.get(path)));
+      assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(first));
+      assertArrayEquals(new byte[]{4, 5}, Files.readAllBytes(second));
+    } finally {
+      Files.deleteIfExists(Paths.get(path));
+      Files.deleteIfExists(first);
+      Files.deleteIfExists(second);
+    }
+  }
+  /**
+   * Test: tasks.backend=table - tablo arka ucunun seçilmesi
+   * Kontrol: Tablo arka ucu seçildiğinde listeleme ve önem sıralamasının aynı çıktıyı verdiğini ve listenin yeniden sıralanmadığını doğrula.
+   */
+  @Test
+  public void testTableBackendSelectedForListings() {
+    // Arrange
+    task101.setImportanceId(1);
+    task202.setImportanceId(3);
+    task303.setImportanceId(2);
+    ArrayList<TaskInfo> tasks = new ArrayList<>(Arrays.asList(task101, task202, task303));
+    ByteArrayOutputStream listOut = new ByteArrayOutputStream();
+    ByteArrayOutputStream tableOut = new ByteArrayOutputStream();
+
+    // Act
+    Task.setTableBackend(false);
+    TaskSource listSource = Task.taskSource(tasks);
+    Task listTask = new Task(new Scanner("\n\n"), new PrintStream(listOut));
+    listTask.viewTask(tasks);
+    listTask.importanceOrdering(tasks);
+    Task.setTableBackend(true);
+    TaskSource tableSource;
+    try {
+      tableSource = Task.taskSource(tasks);
+      Task tableTask = new Task(new Scanner("\n\n"), new PrintStream(tableOut));
+      tableTask.viewTask(tasks);
+      tableTask.importanceOrdering(tasks);
+    } finally {
+      Task.setTableBackend(false);
+    }
+
+    // Assert
+    assertFalse(listSource instanceof TaskTable);
+    assertTrue(tableSource instanceof TaskTable);
+    assertTrue(listOut.toString().contains("Description 202"));
+    assertEquals(listOut.toString(), tableOut.toString());
+    assertEquals(Arrays.asList(task101, task202, task303), tasks);
+  }
+  /**
+   * Test: loadTasks - yüklemede bellek bütçesi
+   * Kontrol: Yükleme sırasında bütçeye sığmayan görevlerin diske bırakıldığını ve kaydetmenin onları silmediğini doğrula.
+   */
+  @Test
+  public void testLoadTasksAppliesMemoryBudget() throws IOException {
+    // Arrange
+    Files.deleteIfExists(Paths.get("tasks.bin"));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Task task = new Task(new Scanner(System.in), new PrintStream(output));
+    task.saveTasks(new ArrayList<>(Arrays.asList(task101, task202, task303)));
+    TaskList budgeted = new TaskList(new TaskCapacityPolicy(4, 2.0, task101.estimateHeapBytes(),
+        TaskCapacityPolicy.Action.REJECT));
+
+    // Act
+    int resident = task.loadTasks(budgeted);
+    budgeted.get(0).setName("Task 101 edited");
+    task.saveTasks(budgeted);
+
+    // Assert
+    assertEquals(1, resident);
+    assertEquals(1, budgeted.size());
+    assertArrayEquals(new int[]{202, 303}, budgeted.getSpilledIds());
+    assertTrue(output.toString().contains("2 tasks kept on disk only (memory budget reached)."));
+    ArrayList<TaskInfo> loaded = new ArrayList<>();
+    assertEquals(3, task.loadTasks(loaded));
+    assertEquals("Task 101 edited", loaded.get(0).getName());
+    assertEquals(202, loaded.get(1).getId());
+    assertEquals(303, loaded.get(2).getId());
+  }
 }